@@ -0,0 +1,25 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.DetectionStrategySelector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fija los umbrales del selector de motores (perfil guardado o calibración) antes del
+ * warm-up, para que el JIT se caliente con los motores que realmente se van a usar.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class DetectionCalibrationRunner implements ApplicationRunner {
+
+    private final DetectionStrategySelector strategySelector;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        strategySelector.initialize();
+    }
+}
@@ -0,0 +1,31 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.DetectionRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Reglas de detección del perfil (adn.rules.*). Con los valores por defecto son las reglas
+ * originales; cada perfil puede cambiarlas en su application-{perfil}.properties.
+ */
+@Configuration
+@Slf4j
+public class DetectionRulesConfig {
+
+    @Bean
+    public DetectionRules detectionRules(
+            @Value("${adn.rules.sequence-length:4}") int sequenceLength,
+            @Value("${adn.rules.min-sequences:2}") int minSequences,
+            @Value("${adn.rules.directions:horizontal,vertical,diagonal,anti-diagonal}") List<String> directions,
+            @Value("${adn.rules.rectangular:false}") boolean rectangular) {
+        DetectionRules rules = DetectionRules.of(sequenceLength, minSequences, directions, rectangular);
+        if (!rules.isDefault()) {
+            log.info("Reglas de detección del perfil: {} (re-analizar dna_records si cambiaron)", rules);
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,71 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.DnaHasher;
+import com.utn.adn.service.MutantDetector;
+import com.utn.adn.workload.CorpusGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calienta el JIT antes de que la aplicación se declare lista (readiness).
+ * Spring Boot publica ReadinessState.ACCEPTING_TRAFFIC recién después de ejecutar
+ * los ApplicationRunner, así que el probe no pasa a verde hasta terminar este ciclo.
+ * Solo ejercita MutantDetector y el hash; no toca la base de datos.
+ */
+@Component
+@Order(2)
+@Slf4j
+@RequiredArgsConstructor
+public class DetectionWarmupRunner implements ApplicationRunner {
+
+    private final MutantDetector mutantDetector;
+
+    @Value("${adn.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${adn.warmup.iterations:20000}")
+    private int iterations;
+
+    @Value("${adn.warmup.sizes:6,16,64}")
+    private int[] sizes;
+
+    @Value("${adn.warmup.max-ms:5000}")
+    private long maxMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || iterations <= 0 || sizes == null || sizes.length == 0) {
+            return;
+        }
+
+        // Corpus sintético fijo: algunas matrices aleatorias por tamaño (mayormente humanas, sin salida temprana)
+        SplittableRandom random = new SplittableRandom(42);
+        String[][] corpus = new String[sizes.length * 4][];
+        for (int i = 0; i < corpus.length; i++) {
+            corpus[i] = CorpusGenerator.randomDna(sizes[i % sizes.length], random);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        int mutants = 0;
+        int done = 0;
+        while (done < iterations && System.nanoTime() < deadline) {
+            String[] dna = corpus[done % corpus.length];
+            if (mutantDetector.isMutant(dna)) mutants++;
+            DnaHasher.sha256Hex(dna);
+            done++;
+        }
+
+        log.info("Warm-up completado: {} análisis en {} ms (tamaños={}, mutantes={})",
+                done, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Arrays.toString(sizes), mutants);
+    }
+}
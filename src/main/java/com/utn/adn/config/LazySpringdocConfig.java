@@ -0,0 +1,40 @@
+package com.utn.adn.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * En producción, los beans de springdoc/Swagger se crean recién en el primer acceso
+ * a /api-docs o /swagger-ui.html, en lugar de durante el arranque.
+ */
+@Configuration
+@Profile("prod")
+public class LazySpringdocConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isDocumentationBean(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isDocumentationBean(BeanDefinition definition) {
+        String source = definition.getBeanClassName();
+        if (source == null && definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            source = factoryMethod != null ? factoryMethod.getDeclaringClassName() : null;
+        }
+        return source != null
+                && (source.startsWith("org.springdoc.") || source.equals(SwaggerConfig.class.getName()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.utn.adn.config;
+
+import com.utn.adn.filter.RawFingerprintFilter;
+import com.utn.adn.service.HotKeyTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra el {@link RawFingerprintFilter} solo sobre POST /api/mutant.
+ */
+@Configuration
+@ConditionalOnProperty(name = "adn.raw-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class RawFingerprintFilterConfig {
+
+    @Bean
+    public RawFingerprintFilter rawFingerprintFilter(
+            HotKeyTracker hotKeyTracker,
+            @Value("${adn.raw-cache.capacity:65536}") int capacity,
+            @Value("${adn.raw-cache.max-body-bytes:65536}") int maxBodyBytes) {
+        return new RawFingerprintFilter(hotKeyTracker, capacity, maxBodyBytes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RawFingerprintFilter> rawFingerprintFilterRegistration(RawFingerprintFilter filter) {
+        FilterRegistrationBean<RawFingerprintFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/mutant");
+        return registration;
+    }
+}
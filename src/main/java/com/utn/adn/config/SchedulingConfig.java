@@ -0,0 +1,16 @@
+package com.utn.adn.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) de la aplicación.
+ *
+ * El pool del scheduler se dimensiona con spring.task.scheduling.pool.size (uno por job) para
+ * que la purga de retención o el volcado de un snapshot no demoren las escrituras diferidas ni
+ * los heartbeats del stream de estadísticas.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
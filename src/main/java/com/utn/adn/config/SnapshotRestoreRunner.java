@@ -0,0 +1,25 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga el último snapshot de dna_records antes de que la aplicación se declare lista,
+ * para que el primer tráfico después de un deploy encuentre la cache caliente.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class SnapshotRestoreRunner implements ApplicationRunner {
+
+    private final SnapshotService snapshotService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        snapshotService.restore();
+    }
+}
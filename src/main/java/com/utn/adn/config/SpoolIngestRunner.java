@@ -0,0 +1,25 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.SpoolIngestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Arranca el spool de ingesta (adn.spool.directory) una vez cargados el snapshot y el índice
+ * de veredictos, así los archivos retomados ya encuentran la cache completa.
+ */
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class SpoolIngestRunner implements ApplicationRunner {
+
+    private final SpoolIngestService spoolIngestService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        spoolIngestService.start();
+    }
+}
@@ -0,0 +1,25 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.VerdictIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga el índice de veredictos desde dna_records antes de que la aplicación se declare lista.
+ * Corre después de {@link SnapshotRestoreRunner}, así incluye los registros del snapshot.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class VerdictIndexLoadRunner implements ApplicationRunner {
+
+    private final VerdictIndex verdictIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        verdictIndex.load();
+    }
+}
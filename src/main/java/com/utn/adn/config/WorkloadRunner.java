@@ -0,0 +1,153 @@
+package com.utn.adn.config;
+
+import com.utn.adn.service.DetectionStrategy;
+import com.utn.adn.service.MutantDetector;
+import com.utn.adn.service.MutantService;
+import com.utn.adn.workload.Corpus;
+import com.utn.adn.workload.CorpusFile;
+import com.utn.adn.workload.CorpusGenerator;
+import com.utn.adn.workload.CorpusSpec;
+import com.utn.adn.workload.DifferentialChecker;
+import com.utn.adn.workload.ReplayHarness;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Herramienta de carga por línea de comandos (adn.workload.command):
+ *  - generate: genera un corpus sintético y lo guarda en adn.workload.file
+ *  - replay:   reproduce el corpus contra MutantService (target=service) o la API (target=http)
+ *  - diff:     compara todos los motores de detección contra el MutantDetector escalar de referencia
+ *
+ * Al terminar cierra la aplicación con código 0, o 1 si hubo discrepancias o errores.
+ * Sin comando no hace nada, así que en una corrida normal no tiene efecto.
+ */
+@Component
+@Order(10)
+@Slf4j
+@RequiredArgsConstructor
+public class WorkloadRunner implements ApplicationRunner {
+
+    private final MutantService mutantService;
+    private final List<DetectionStrategy> strategies;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${adn.workload.command:}")
+    private String command;
+
+    @Value("${adn.workload.file:corpus.adnc}")
+    private String file;
+
+    @Value("${adn.workload.distinct:1000}")
+    private int distinct;
+
+    @Value("${adn.workload.requests:10000}")
+    private int requests;
+
+    @Value("${adn.workload.min-size:6}")
+    private int minSize;
+
+    @Value("${adn.workload.max-size:64}")
+    private int maxSize;
+
+    @Value("${adn.workload.mutant-ratio:0.5}")
+    private double mutantRatio;
+
+    @Value("${adn.workload.single-run-ratio:0.2}")
+    private double singleRunRatio;
+
+    @Value("${adn.workload.first-run-position:-1}")
+    private double firstRunPosition;
+
+    @Value("${adn.workload.zipf-exponent:1.0}")
+    private double zipfExponent;
+
+    @Value("${adn.workload.family-size:4}")
+    private int familySize;
+
+    @Value("${adn.workload.family-mutations:2}")
+    private int familyMutations;
+
+    @Value("${adn.workload.seed:42}")
+    private long seed;
+
+    @Value("${adn.workload.target:service}")
+    private String target;
+
+    @Value("${adn.workload.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${adn.workload.threads:4}")
+    private int threads;
+
+    @Value("${adn.workload.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (command == null || command.isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(file);
+        boolean ok = switch (command) {
+            case "generate" -> generate(path);
+            case "replay" -> replay(CorpusFile.read(path));
+            case "diff" -> diff(CorpusFile.read(path));
+            default -> throw new IllegalStateException("Comando de carga desconocido: " + command);
+        };
+
+        int exitCode = SpringApplication.exit(context, () -> ok ? 0 : 1);
+        System.exit(exitCode);
+    }
+
+    private boolean generate(Path path) throws Exception {
+        CorpusSpec spec = new CorpusSpec(distinct, requests, minSize, maxSize, mutantRatio, singleRunRatio,
+                firstRunPosition, zipfExponent, familySize, familyMutations, seed);
+        Corpus corpus = new CorpusGenerator().generate(spec);
+        CorpusFile.write(path, corpus);
+        log.info("Corpus generado en {}: {} matrices ({} mutantes), {} solicitudes",
+                path.toAbsolutePath(), corpus.entries().size(), corpus.mutants(), corpus.requests().length);
+        return true;
+    }
+
+    private boolean replay(Corpus corpus) throws InterruptedException {
+        ReplayHarness.Target destination = switch (target) {
+            case "service" -> ReplayHarness.inProcess(mutantService);
+            case "http" -> ReplayHarness.http(baseUrl, Duration.ofMillis(timeoutMillis));
+            default -> throw new IllegalStateException("Destino de replay desconocido: " + target);
+        };
+
+        ReplayHarness.Report report = new ReplayHarness().replay(corpus, destination, threads);
+        log.info("Replay ({}, {} hilos): {} solicitudes en {} ms ({} req/s), p50={}us p99={}us max={}us",
+                target, threads, report.requests(), report.elapsedMillis(), Math.round(report.requestsPerSecond()),
+                report.p50Micros(), report.p99Micros(), report.maxMicros());
+        log.info("Replay: mutantes={} humanos={} rechazadas={} errores={} discrepancias={} {}",
+                report.mutants(), report.humans(), report.rejected(), report.errors(), report.mismatches(),
+                report.samples());
+        return report.mismatches() == 0 && report.errors() == 0;
+    }
+
+    private boolean diff(Corpus corpus) throws Exception {
+        List<DifferentialChecker.Result> results = new DifferentialChecker(new MutantDetector(), strategies).check(corpus);
+        for (DifferentialChecker.Result result : results) {
+            if (result.passed()) {
+                log.info("Motor {}: {} matrices sin discrepancias", result.engine(), result.checked());
+            } else {
+                log.warn("Motor {}: {} discrepancias y {} errores en {} matrices, por ejemplo {}",
+                        result.engine(), result.mismatches(), result.errors(), result.checked(), result.samples());
+            }
+        }
+        return results.stream().allMatch(DifferentialChecker.Result::passed);
+    }
+}
@@ -0,0 +1,211 @@
+package com.utn.adn.controller;
+
+import com.utn.adn.dto.ErrorResponse;
+import com.utn.adn.dto.ImportRequest;
+import com.utn.adn.dto.ImportResponse;
+import com.utn.adn.dto.ReanalysisResponse;
+import com.utn.adn.service.AdminTokenService;
+import com.utn.adn.service.ReanalysisService;
+import com.utn.adn.service.RecordImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(
+        name = "Administración",
+        description = """
+            Operaciones de mantenimiento sobre dna_records. Requieren el header X-Admin-Token con
+            el valor de adn.admin.token; sin token configurado quedan cerradas.
+            """
+)
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ReanalysisService reanalysisService;
+    private final RecordImportService recordImportService;
+    private final AdminTokenService adminTokenService;
+
+    @Operation(
+            summary = "Re-analiza los ADN guardados",
+            description = """
+                Vuelve a correr la detección sobre todos los registros que guardaron su ADN
+                (adn.storage.packed-dna.enabled) y corrige los veredictos que cambiaron.
+                Corre en segundo plano; el progreso se consulta con GET.
+                Devuelve:
+                - 202 Accepted → Corrida iniciada (header Location con la URL del progreso)
+                - 403 Forbidden → Token de administración inválido o no configurado
+                - 409 Conflict → Ya hay un re-análisis en curso
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Corrida iniciada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ReanalysisResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado"),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Ya hay un re-análisis en curso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/reanalysis")
+    public ResponseEntity<ReanalysisResponse> startReanalysis(
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token) {
+        if (!adminTokenService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/reanalysis"))
+                .body(reanalysisService.start());
+    }
+
+    @Operation(
+            summary = "Consulta el progreso del re-análisis",
+            description = "Retorna el estado de la corrida en curso o de la última terminada."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Progreso del re-análisis",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ReanalysisResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado")
+    })
+    @GetMapping("/reanalysis")
+    public ResponseEntity<ReanalysisResponse> getReanalysis(
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token) {
+        if (!adminTokenService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(reanalysisService.status());
+    }
+
+    @Operation(
+            summary = "Cancela el re-análisis en curso",
+            description = """
+                Deja de leer registros; los lotes ya tomados terminan y sus correcciones se guardan.
+                Cancelar cuando no hay una corrida en curso no tiene efecto.
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Progreso tras pedir la cancelación",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ReanalysisResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado")
+    })
+    @DeleteMapping("/reanalysis")
+    public ResponseEntity<ReanalysisResponse> cancelReanalysis(
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token) {
+        if (!adminTokenService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(reanalysisService.cancel());
+    }
+
+    @Operation(
+            summary = "Importa registros precalculados desde un archivo",
+            description = """
+                Carga (hash, veredicto, created_at) desde un archivo CSV o NDJSON del directorio
+                adn.import.directory, en el formato de GET /api/records/export. El archivo se
+                parsea en paralelo y se inserta por lotes; los hashes que ya existen se saltean.
+                Corre en segundo plano; el progreso se consulta con GET.
+                Devuelve:
+                - 202 Accepted → Importación iniciada (header Location con la URL del progreso)
+                - 400 Bad Request → Archivo inexistente o importación deshabilitada
+                - 403 Forbidden → Token de administración inválido o no configurado
+                - 409 Conflict → Ya hay una importación en curso
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Importación iniciada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Archivo inexistente o importación deshabilitada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado"),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Ya hay una importación en curso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/import")
+    public ResponseEntity<ImportResponse> startImport(
+            @Valid @RequestBody ImportRequest request,
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token) {
+        if (!adminTokenService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/import"))
+                .body(recordImportService.start(request.file()));
+    }
+
+    @Operation(
+            summary = "Consulta el progreso de la importación",
+            description = "Retorna el estado de la importación en curso o de la última terminada."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Progreso de la importación",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado")
+    })
+    @GetMapping("/import")
+    public ResponseEntity<ImportResponse> getImport(
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token) {
+        if (!adminTokenService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(recordImportService.status());
+    }
+}
@@ -0,0 +1,72 @@
+package com.utn.adn.controller;
+
+import com.utn.adn.dto.ClusterVerdict;
+import com.utn.adn.dto.StatsResponse;
+import com.utn.adn.service.ClusterService;
+import com.utn.adn.service.DnaHasher;
+import com.utn.adn.service.MutantService;
+import com.utn.adn.service.StatsService;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Protocolo interno entre nodos del cluster. Siempre opera sobre los datos locales
+ * (nunca reenvía), así una solicitud interna no puede rebotar entre nodos.
+ *
+ * Solo se registra en modo cluster (adn.cluster.enabled=true), y entonces exige el token
+ * compartido. Los hashes que no tienen la forma de un SHA-256 se rechazan con 400.
+ */
+@Hidden
+@RestController
+@ConditionalOnProperty(name = "adn.cluster.enabled", havingValue = "true")
+@RequestMapping(ClusterService.INTERNAL_PATH)
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final MutantService mutantService;
+    private final StatsService statsService;
+
+    @GetMapping("/records/{hash}")
+    public ResponseEntity<ClusterVerdict> getRecord(
+            @PathVariable String hash,
+            @RequestHeader(value = ClusterService.TOKEN_HEADER, required = false) String token) {
+        if (!clusterService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!DnaHasher.isSha256Hex(hash)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return mutantService.findLocal(hash)
+                .map(mutant -> ResponseEntity.ok(new ClusterVerdict(mutant)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/records/{hash}")
+    public ResponseEntity<Void> putRecord(
+            @PathVariable String hash,
+            @RequestBody ClusterVerdict verdict,
+            @RequestHeader(value = ClusterService.TOKEN_HEADER, required = false) String token) {
+        if (!clusterService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!DnaHasher.isSha256Hex(hash) || verdict == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        mutantService.saveLocal(hash, verdict.mutant());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<StatsResponse> getLocalStats(
+            @RequestHeader(value = ClusterService.TOKEN_HEADER, required = false) String token) {
+        if (!clusterService.isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(statsService.getLocalStats());
+    }
+}
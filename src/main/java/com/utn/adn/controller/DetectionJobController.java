@@ -0,0 +1,177 @@
+package com.utn.adn.controller;
+
+import com.utn.adn.dto.DetectionJobResponse;
+import com.utn.adn.dto.DnaFileRequest;
+import com.utn.adn.dto.DnaRequest;
+import com.utn.adn.dto.ErrorResponse;
+import com.utn.adn.service.DetectionJobService;
+import jakarta.validation.Valid;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/mutant/jobs")
+@Validated
+@Tag(
+        name = "Trabajos de detección",
+        description = """
+            Análisis asíncrono para matrices muy grandes: el ADN se encola y el resultado
+            se consulta después por id, sin mantener abierta la solicitud HTTP.
+            """
+)
+@RequiredArgsConstructor
+public class DetectionJobController {
+
+    private final DetectionJobService jobService;
+
+    @Operation(
+            summary = "Encola el análisis de un ADN",
+            description = """
+                Recibe la misma matriz que /api/mutant y responde de inmediato con el id del trabajo.
+                El veredicto se guarda en la base igual que en el análisis sincrónico.
+                Devuelve:
+                - 202 Accepted → Trabajo encolado (header Location con la URL para consultarlo)
+                - 429 Too Many Requests → Cola de trabajos llena (ver header Retry-After)
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Trabajo encolado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DetectionJobResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "ADN inválido: estructura incorrecta o caracteres no permitidos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Cola de trabajos llena: reintentar luego de Retry-After segundos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping
+    public ResponseEntity<DetectionJobResponse> submit(@Valid @RequestBody DnaRequest request) {
+        DetectionJobResponse job = jobService.submit(request.dna(), request.rules());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/mutant/jobs/" + job.job_id()))
+                .body(job);
+    }
+
+    @Operation(
+            summary = "Encola el análisis de un archivo de ADN empaquetado",
+            description = """
+                Analiza fuera del heap una matriz guardada en el servidor (formato de 2 bits por base),
+                mapeando el archivo en memoria por tramos de filas. El veredicto se consulta igual que
+                el de cualquier trabajo, pero no se guarda en la base.
+                Devuelve:
+                - 202 Accepted → Trabajo encolado (header Location con la URL para consultarlo)
+                - 400 Bad Request → Archivo inexistente, fuera del directorio habilitado o con formato inválido
+                - 429 Too Many Requests → Cola de trabajos llena (ver header Retry-After)
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Trabajo encolado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DetectionJobResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Archivo inválido o modo deshabilitado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/files")
+    public ResponseEntity<DetectionJobResponse> submitFile(@Valid @RequestBody DnaFileRequest request) {
+        DetectionJobResponse job = jobService.submitFile(request.file());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/mutant/jobs/" + job.job_id()))
+                .body(job);
+    }
+
+    @Operation(
+            summary = "Consulta el estado de un trabajo",
+            description = "Retorna el estado, las filas recorridas y, al terminar, el veredicto."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estado del trabajo",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DetectionJobResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "El trabajo no existe o ya expiró",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<DetectionJobResponse> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(jobService.get(id));
+    }
+
+    @Operation(
+            summary = "Cancela un trabajo",
+            description = """
+                Un trabajo en cola no llega a ejecutarse; uno en curso se detiene en la próxima fila
+                y no guarda resultado. Cancelar un trabajo terminado no tiene efecto.
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estado del trabajo tras pedir la cancelación",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DetectionJobResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "El trabajo no existe o ya expiró",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<DetectionJobResponse> cancel(@PathVariable String id) {
+        return ResponseEntity.ok(jobService.cancel(id));
+    }
+}
@@ -0,0 +1,46 @@
+package com.utn.adn.controller;
+
+import com.utn.adn.dto.DetectorProfileResponse;
+import com.utn.adn.service.DetectionStrategySelector;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/detector")
+@Tag(
+        name = "Motor de detección",
+        description = "Consulta del motor de detección elegido y de los umbrales calibrados."
+)
+@RequiredArgsConstructor
+public class DetectorController {
+
+    private final DetectionStrategySelector strategySelector;
+
+    @Operation(
+            summary = "Obtiene el perfil del selector de motores",
+            description = """
+                Retorna el motor fijado por configuración (o 'auto') y los tamaños de matriz
+                a partir de los cuales se usan los motores bitboard y paralelo.
+                """
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Perfil obtenido correctamente",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = DetectorProfileResponse.class)
+            )
+    )
+    @GetMapping("/profile")
+    public ResponseEntity<DetectorProfileResponse> getProfile() {
+        return ResponseEntity.ok(strategySelector.describe());
+    }
+}
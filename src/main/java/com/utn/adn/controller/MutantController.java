@@ -1,9 +1,13 @@
 package com.utn.adn.controller;
 
+import com.utn.adn.dto.CensusStatsResponse;
 import com.utn.adn.dto.DnaRequest;
 import com.utn.adn.dto.ErrorResponse;
+import com.utn.adn.dto.HotKeysResponse;
 import com.utn.adn.dto.StatsResponse;
+import com.utn.adn.service.HotKeyTracker;
 import com.utn.adn.service.MutantService;
+import com.utn.adn.service.StatsBroadcaster;
 import com.utn.adn.service.StatsService;
 import jakarta.validation.Valid;
 
@@ -15,10 +19,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
@@ -34,8 +41,12 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class MutantController {
 
+    private static final String STREAM_RETRY_AFTER_SECONDS = "5";
+
     private final MutantService mutantService;
     private final StatsService statsService;
+    private final HotKeyTracker hotKeyTracker;
+    private final StatsBroadcaster statsBroadcaster;
 
     // =======================================================
     //                     ENDPOINT /mutant
@@ -47,9 +58,12 @@ public class MutantController {
                 Recibe una matriz NxN de ADN compuesta por los caracteres A, T, C y G.
                 El servicio analiza la secuencia en direcciones horizontales, verticales y diagonales
                 para identificar si contiene más de una secuencia mutante.
+                Con 'rules' se pueden cambiar el largo de secuencia, el mínimo, las direcciones
+                y aceptar matrices MxN (ver README, sección 13).
                 Devuelve:
                 - 200 OK → Si el ADN corresponde a un mutante
                 - 403 Forbidden → Si pertenece a un humano
+                - 429 Too Many Requests → Si el servidor está sobrecargado (ver header Retry-After)
                 """
     )
     @ApiResponses({
@@ -63,7 +77,15 @@ public class MutantController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "ADN inválido: estructura incorrecta o caracteres no permitidos",
+                    description = "ADN inválido (estructura o caracteres) o reglas de detección inválidas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Servidor sobrecargado: reintentar luego de Retry-After segundos",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)
@@ -72,7 +94,9 @@ public class MutantController {
     })
     @PostMapping("/mutant")
     public ResponseEntity<Void> isMutant(@Valid @RequestBody DnaRequest request) {
-        boolean isMutant = mutantService.analyzeDna(request.dna());
+        boolean isMutant = request.rules() == null
+                ? mutantService.analyzeDna(request.dna())
+                : mutantService.analyzeDna(request.dna(), mutantService.resolveRules(request.rules()), null);
         return isMutant
                 ? ResponseEntity.ok().build()
                 : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -109,4 +133,93 @@ public class MutantController {
         StatsResponse stats = statsService.getStats();
         return ResponseEntity.ok(stats);
     }
+
+    // =======================================================
+    //                  ENDPOINT /stats/census
+    // =======================================================
+
+    @Operation(
+            summary = "Obtiene el desglose de secuencias por dirección y base",
+            description = """
+                Suma los censos guardados de los ADN analizados en modo censo (adn.census.enabled):
+                secuencias por dirección y por base, separadas entre mutantes y humanos, y la proporción
+                de mutantes con al menos una secuencia en cada dirección o de cada base.
+                En modo cluster incluye solo los registros de este nodo.
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Desglose obtenido correctamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CensusStatsResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/stats/census")
+    public ResponseEntity<CensusStatsResponse> getCensusStats() {
+        return ResponseEntity.ok(statsService.getCensusStats());
+    }
+
+    // =======================================================
+    //                  ENDPOINT /stats/stream
+    // =======================================================
+
+    @Operation(
+            summary = "Suscribe a las estadísticas en vivo (Server-Sent Events)",
+            description = """
+                Mantiene abierta la conexión y envía un evento "stats" con el mismo formato que
+                GET /stats al conectarse y cada vez que cambian los conteos, a lo sumo uno por intervalo.
+                Sin cambios, se envían comentarios de heartbeat periódicos.
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream de eventos abierto",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = StatsResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Se alcanzó el máximo de suscriptores: reintentar luego de Retry-After segundos"
+            )
+    })
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStats() {
+        return statsBroadcaster.subscribe()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, STREAM_RETRY_AFTER_SECONDS)
+                        .build());
+    }
+
+    // =======================================================
+    //                   ENDPOINT /stats/hot
+    // =======================================================
+
+    @Operation(
+            summary = "Obtiene los ADN más consultados",
+            description = """
+                Retorna un ranking aproximado de los hashes de ADN más enviados a /mutant
+                en la ventana reciente, con la cantidad estimada de consultas de cada uno.
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranking obtenido correctamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotKeysResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/stats/hot")
+    public ResponseEntity<HotKeysResponse> getHotKeys() {
+        return ResponseEntity.ok(hotKeyTracker.getHotKeys());
+    }
 }
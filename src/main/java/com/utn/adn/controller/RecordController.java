@@ -0,0 +1,97 @@
+package com.utn.adn.controller;
+
+import com.utn.adn.dto.ErrorResponse;
+import com.utn.adn.service.AdminTokenService;
+import com.utn.adn.service.RecordExportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/records")
+@Tag(
+        name = "Registros",
+        description = """
+            Exportación de dna_records para análisis offline. Requiere el header X-Admin-Token con
+            el valor de adn.admin.token; sin token configurado queda cerrada.
+            """
+)
+@RequiredArgsConstructor
+public class RecordController {
+
+    private final RecordExportService recordExportService;
+    private final AdminTokenService adminTokenService;
+
+    @Operation(
+            summary = "Exporta los registros en CSV o NDJSON",
+            description = """
+                Escribe todos los registros (hash, veredicto y fecha de creación) directo en la
+                respuesta, a medida que se leen de la base, sin cargarlos en memoria.
+                Opcionalmente filtra por created_at en [from, to).
+                Devuelve:
+                - 200 OK → Stream con los registros (text/csv o application/x-ndjson)
+                - 400 Bad Request → Formato desconocido o rango vacío
+                - 403 Forbidden → Token de administración inválido o no configurado
+                - 429 Too Many Requests → Demasiadas exportaciones en curso
+                """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Registros exportados"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato desconocido o rango vacío",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Token de administración inválido o no configurado"),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Demasiadas exportaciones en curso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "csv o ndjson", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "created_at mínimo (inclusivo, ISO-8601)", example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "created_at máximo (exclusivo, ISO-8601)", example = "2025-02-01T00:00:00Z")
+            @RequestParam(required = false) Instant to,
+            @RequestHeader(value = AdminTokenService.TOKEN_HEADER, required = false) String token,
+            HttpServletResponse response) throws IOException {
+        if (!adminTokenService.isAuthorized(token)) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        // Se valida y se reserva el lugar antes de escribir: los errores todavía salen como JSON
+        try (RecordExportService.Export export = recordExportService.begin(RecordExportService.Format.of(format), from, to)) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(export.format().contentType());
+            response.setCharacterEncoding("US-ASCII");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"dna_records." + export.format().extension() + "\"");
+            export.writeTo(response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de salida con el desglose de secuencias de los ADN analizados en modo censo.
+ */
+@Schema(
+        name = "CensusStatsResponse",
+        description = """
+            Desglose por dirección y por base de las secuencias de 4 bases iguales, sumado desde los
+            censos guardados en dna_records (solo registros analizados con adn.census.enabled).
+            """
+)
+public record CensusStatsResponse(
+
+        @Schema(description = "Mutantes con censo guardado.", example = "40")
+        long mutants_with_census,
+
+        @Schema(description = "Humanos con censo guardado.", example = "100")
+        long humans_with_census,
+
+        @Schema(description = "Desglose por dirección: HORIZONTAL, VERTICAL, DIAGONAL y ANTI_DIAGONAL.")
+        List<Breakdown> by_direction,
+
+        @Schema(description = "Desglose por base: A, T, C y G.")
+        List<Breakdown> by_base
+
+) {
+
+    @Schema(name = "CensusBreakdown", description = "Secuencias de una dirección o de una base.")
+    public record Breakdown(
+
+            @Schema(description = "Dirección o base.", example = "VERTICAL")
+            String key,
+
+            @Schema(description = "Secuencias contadas en mutantes.", example = "52")
+            long mutant_runs,
+
+            @Schema(description = "Secuencias contadas en humanos (a lo sumo una por ADN).", example = "31")
+            long human_runs,
+
+            @Schema(description = "Mutantes con al menos una secuencia de esta dirección o base.", example = "22")
+            long mutants_with_runs,
+
+            @Schema(description = "Proporción de mutantes con al menos una secuencia (mutants_with_runs / mutants_with_census).",
+                    example = "0.55")
+            double mutant_share
+
+    ) { }
+}
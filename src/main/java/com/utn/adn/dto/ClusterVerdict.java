@@ -0,0 +1,17 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Veredicto intercambiado entre nodos del cluster para un hash de ADN.
+ */
+@Schema(
+        name = "ClusterVerdict",
+        description = "Resultado guardado para un hash de ADN, usado por el protocolo interno del cluster."
+)
+public record ClusterVerdict(
+
+        @Schema(description = "Indica si el ADN corresponde a un mutante.", example = "true")
+        boolean mutant
+
+) { }
@@ -0,0 +1,35 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de salida con el estado de un trabajo asíncrono de detección.
+ */
+@Schema(
+        name = "DetectionJobResponse",
+        description = """
+            Estado de un análisis asíncrono. El veredicto está disponible cuando status es DONE;
+            mientras tanto, rows_scanned indica cuántas filas de la matriz ya se recorrieron.
+            """
+)
+public record DetectionJobResponse(
+
+        @Schema(description = "Identificador del trabajo.", example = "3f2b8c1e-6d0a-4b7e-9a51-0c2d4e6f8a10")
+        String job_id,
+
+        @Schema(description = "Estado: QUEUED, RUNNING, DONE, CANCELLED o FAILED.", example = "RUNNING")
+        String status,
+
+        @Schema(description = "Filas recorridas hasta el momento.", example = "4200")
+        int rows_scanned,
+
+        @Schema(description = "Cantidad total de filas de la matriz.", example = "10000")
+        int total_rows,
+
+        @Schema(description = "Veredicto (true si es mutante); null mientras no termine.", example = "true", nullable = true)
+        Boolean mutant,
+
+        @Schema(description = "Motivo del fallo si status es FAILED.", nullable = true)
+        String error
+
+) { }
@@ -0,0 +1,33 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(
+        name = "DetectionRulesRequest",
+        description = """
+            Reglas de detección propias de la solicitud. Los campos omitidos toman el valor
+            del perfil (adn.rules.*). Con reglas distintas de la original, el veredicto se guarda
+            aparte: el mismo ADN con otras reglas es otro registro.
+            """
+)
+public record DetectionRulesRequest(
+
+        @Schema(description = "Largo de cada secuencia de bases iguales (2 a 16).", example = "5", nullable = true)
+        Integer sequence_length,
+
+        @Schema(description = "Cantidad mínima de secuencias para ser mutante.", example = "2", nullable = true)
+        Integer min_sequences,
+
+        @Schema(
+                description = "Direcciones que cuentan: horizontal, vertical, diagonal, anti-diagonal.",
+                example = "[\"horizontal\", \"vertical\"]",
+                nullable = true
+        )
+        List<String> directions,
+
+        @Schema(description = "Si acepta matrices MxN (filas de igual largo) además de NxN.", example = "true", nullable = true)
+        Boolean rectangular
+
+) {}
@@ -0,0 +1,34 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de salida con el perfil del selector de motores de detección.
+ */
+@Schema(
+        name = "DetectorProfileResponse",
+        description = """
+            Motor de detección configurado y umbrales de tamaño (N) a partir de los cuales
+            se usa cada motor, junto con su origen (default, calibration, profile u override).
+            """
+)
+public record DetectorProfileResponse(
+
+        @Schema(description = "Motor fijado por configuración, o 'auto' si se elige por tamaño.", example = "auto")
+        String strategy,
+
+        @Schema(description = "Tamaño mínimo para usar el motor bitboard (null si nunca).", example = "64")
+        Integer bitboard_min_size,
+
+        @Schema(description = "Tamaño mínimo para usar el motor paralelo (null si nunca).", example = "1024")
+        Integer parallel_min_size,
+
+        @Schema(description = "Origen de los umbrales.", example = "calibration")
+        String source,
+
+        @Schema(description = "Motores disponibles.", example = "[\"scalar\", \"bitboard\", \"parallel\"]")
+        List<String> available_strategies
+
+) { }
@@ -0,0 +1,19 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(
+        name = "DnaFileRequest",
+        description = """
+            Solicitud de análisis de una matriz guardada en un archivo empaquetado (2 bits por base)
+            dentro del directorio habilitado en el servidor (adn.detector.mapped.directory).
+            """
+)
+public record DnaFileRequest(
+
+        @Schema(description = "Nombre del archivo, relativo al directorio habilitado.", example = "muestra-100k.adn2", required = true)
+        @NotBlank(message = "El campo 'file' no puede estar vacío.")
+        String file
+
+) {}
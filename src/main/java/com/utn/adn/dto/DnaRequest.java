@@ -10,17 +10,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
             Representa la solicitud enviada al endpoint /mutant.
             Contiene una secuencia de ADN expresada como un arreglo de cadenas NxN,
             donde cada cadena debe estar compuesta únicamente por los caracteres A, T, C o G.
+            Opcionalmente incluye reglas de detección propias.
             """
 )
+@ValidDnaSequence
 public record DnaRequest(
 
         @Schema(
-                description = "Matriz de ADN (NxN) donde cada valor debe contener solo A, T, C o G.",
+                description = "Matriz de ADN (NxN, o MxN si las reglas lo permiten) donde cada valor debe contener solo A, T, C o G.",
                 example = "[\"ATGCGA\", \"CAGTGC\", \"TTATGT\", \"AGAAGG\", \"CCCCTA\", \"TCACTG\"]",
                 required = true
         )
         @NotNull(message = "El campo 'dna' no puede ser nulo.")
-        @ValidDnaSequence
-        String[] dna
+        String[] dna,
 
-) {}
+        @Schema(description = "Reglas de detección propias; si se omite, se usan las del perfil.", nullable = true)
+        DetectionRulesRequest rules
+
+) {
+
+    public DnaRequest(String[] dna) {
+        this(dna, null);
+    }
+}
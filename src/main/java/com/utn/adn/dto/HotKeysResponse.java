@@ -0,0 +1,37 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de salida con los ADN más consultados recientemente.
+ */
+@Schema(
+        name = "HotKeysResponse",
+        description = """
+            Ranking aproximado de los ADN más consultados en /mutant. Los conteos son estimaciones
+            (count-min sketch) que decaen a la mitad al cerrar cada ventana.
+            """
+)
+public record HotKeysResponse(
+
+        @Schema(description = "Duración de la ventana de decaimiento en segundos.", example = "60")
+        long window_seconds,
+
+        @Schema(description = "Claves más consultadas, de mayor a menor.")
+        List<HotKey> hot_keys
+
+) {
+
+    @Schema(name = "HotKey", description = "Hash de ADN con su cantidad estimada de consultas.")
+    public record HotKey(
+
+            @Schema(description = "Hash SHA-256 del ADN.", example = "bc1d2c0c9c2e1044a510c7f5aa4aecf859a98e9b434539a410dc740eb76178a8")
+            String dna_hash,
+
+            @Schema(description = "Cantidad estimada de consultas.", example = "1250")
+            long estimated_count
+
+    ) { }
+}
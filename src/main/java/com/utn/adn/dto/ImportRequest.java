@@ -0,0 +1,20 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(
+        name = "ImportRequest",
+        description = """
+            Solicitud de importación masiva de dna_records desde un archivo CSV o NDJSON
+            (el mismo formato que GET /api/records/export) dentro del directorio habilitado
+            en el servidor (adn.import.directory).
+            """
+)
+public record ImportRequest(
+
+        @Schema(description = "Nombre del archivo, relativo al directorio habilitado.", example = "backup-2025-03.csv", required = true)
+        @NotBlank(message = "El campo 'file' no puede estar vacío.")
+        String file
+
+) {}
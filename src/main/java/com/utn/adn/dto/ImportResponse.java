@@ -0,0 +1,52 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO de salida con el progreso de una importación masiva de dna_records.
+ */
+@Schema(
+        name = "ImportResponse",
+        description = """
+            Progreso de la importación. rows_skipped cuenta los hashes que ya estaban en la base;
+            rows_rejected, las líneas que no se pudieron interpretar.
+            """
+)
+public record ImportResponse(
+
+        @Schema(description = "Estado: IDLE, RUNNING, DONE o FAILED.", example = "RUNNING")
+        String status,
+
+        @Schema(description = "Archivo importado; null si nunca se ejecutó.", example = "backup-2025-03.csv", nullable = true)
+        String file,
+
+        @Schema(description = "Tamaño del archivo en bytes.", example = "1048576000")
+        long total_bytes,
+
+        @Schema(description = "Bytes leídos hasta el momento.", example = "524288000")
+        long bytes_read,
+
+        @Schema(description = "Registros leídos del archivo.", example = "5000000")
+        long rows_read,
+
+        @Schema(description = "Registros insertados.", example = "4999000")
+        long rows_inserted,
+
+        @Schema(description = "Registros salteados porque el hash ya existía.", example = "1000")
+        long rows_skipped,
+
+        @Schema(description = "Líneas inválidas (hash, veredicto o fecha ilegibles).", example = "0")
+        long rows_rejected,
+
+        @Schema(description = "Inicio de la importación; null si nunca se ejecutó.", nullable = true)
+        Instant started_at,
+
+        @Schema(description = "Fin de la importación; null mientras siga en curso.", nullable = true)
+        Instant finished_at,
+
+        @Schema(description = "Motivo del fallo si status es FAILED.", nullable = true)
+        String error
+
+) { }
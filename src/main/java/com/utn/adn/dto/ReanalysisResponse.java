@@ -0,0 +1,43 @@
+package com.utn.adn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO de salida con el progreso de un re-análisis de dna_records.
+ */
+@Schema(
+        name = "ReanalysisResponse",
+        description = """
+            Progreso del re-análisis de los registros que guardan su ADN. rows_scanned avanza a medida
+            que terminan los lotes; verdicts_changed cuenta los veredictos corregidos en la base.
+            """
+)
+public record ReanalysisResponse(
+
+        @Schema(description = "Estado: IDLE, RUNNING, DONE, CANCELLED o FAILED.", example = "RUNNING")
+        String status,
+
+        @Schema(description = "Registros con ADN guardado al comenzar la corrida.", example = "250000")
+        long total_rows,
+
+        @Schema(description = "Registros re-analizados hasta el momento.", example = "120000")
+        long rows_scanned,
+
+        @Schema(description = "Veredictos que cambiaron y se actualizaron.", example = "37")
+        long verdicts_changed,
+
+        @Schema(description = "Registros que no se pudieron re-analizar (ADN ilegible).", example = "0")
+        long rows_failed,
+
+        @Schema(description = "Inicio de la corrida; null si nunca se ejecutó.", nullable = true)
+        Instant started_at,
+
+        @Schema(description = "Fin de la corrida; null mientras siga en curso.", nullable = true)
+        Instant finished_at,
+
+        @Schema(description = "Motivo del fallo si status es FAILED.", nullable = true)
+        String error
+
+) { }
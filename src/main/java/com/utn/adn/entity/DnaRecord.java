@@ -2,18 +2,24 @@ package com.utn.adn.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
 /**
  * Entidad JPA que representa un registro de ADN analizado.
- * Guarda el hash único del ADN y si es mutante o no
+ * Guarda el hash único del ADN y si es mutante o no; opcionalmente, también el ADN empaquetado
+ * y el censo de secuencias.
  */
 @Entity
 @Table(
         name = "dna_records",
         uniqueConstraints = { @UniqueConstraint(columnNames = "dna_hash") },
-        indexes = { @Index(name = "idx_dna_hash", columnList = "dna_hash") }
+        indexes = {
+                @Index(name = "idx_dna_hash", columnList = "dna_hash"),
+                @Index(name = "idx_created_at", columnList = "created_at")
+        }
 )
 @Getter
 @Setter
@@ -44,6 +50,22 @@ public class DnaRecord {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * ADN a 2 bits por base (ver {@link com.utn.adn.service.PackedDnaFile#pack(String[])}),
+     * para poder recalcular el veredicto. Null si no se guardó.
+     */
+    @Lob
+    @Column(name = "dna_packed")
+    private byte[] dnaPacked;
+
+    /**
+     * Censo de secuencias por base y dirección (16 conteos, ver
+     * {@link com.utn.adn.service.SequenceCensus}). Null si se analizó sin modo censo.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "census")
+    private int[] census;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,10 @@
+package com.utn.adn.event;
+
+/**
+ * Evento publicado una vez, al terminar una importación masiva de dna_records.
+ * Las caches que deben conocer todos los registros (el índice de veredictos) se recargan
+ * al recibirlo, en lugar de actualizarse fila por fila durante la importación.
+ *
+ * @param inserted cantidad de registros insertados
+ */
+public record DnaRecordsImportedEvent(long inserted) { }
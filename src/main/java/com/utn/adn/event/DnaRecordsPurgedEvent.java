@@ -0,0 +1,11 @@
+package com.utn.adn.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado después de borrar un lote de registros de dna_records.
+ * Las caches en memoria lo escuchan para invalidar los hashes eliminados.
+ *
+ * @param dnaHashes hashes de ADN borrados en el lote
+ */
+public record DnaRecordsPurgedEvent(List<String> dnaHashes) { }
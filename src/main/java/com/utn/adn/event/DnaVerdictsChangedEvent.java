@@ -0,0 +1,11 @@
+package com.utn.adn.event;
+
+import java.util.Map;
+
+/**
+ * Evento publicado después de cambiar en dna_records el veredicto de un lote de registros
+ * (re-análisis). Las caches en memoria lo escuchan para no seguir respondiendo el anterior.
+ *
+ * @param verdicts veredicto nuevo por hash de ADN
+ */
+public record DnaVerdictsChangedEvent(Map<String, Boolean> verdicts) { }
@@ -0,0 +1,15 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando el nodo dueño de una clave no responde en modo cluster.
+ */
+public class ClusterUnavailableException extends RuntimeException {
+
+    public ClusterUnavailableException(String message) {
+        super(message);
+    }
+
+    public ClusterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
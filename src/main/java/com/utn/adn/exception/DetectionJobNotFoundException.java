@@ -0,0 +1,11 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando se consulta un trabajo de detección inexistente o ya expirado.
+ */
+public class DetectionJobNotFoundException extends RuntimeException {
+
+    public DetectionJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando el control de admisión rechaza un análisis por sobrecarga.
+ * Incluye los segundos sugeridos para el header Retry-After.
+ */
+public class DetectionOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public DetectionOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando se pide una exportación de dna_records y ya hay adn.export.max-concurrent en curso.
+ */
+public class ExportLimitExceededException extends RuntimeException {
+
+    public ExportLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.utn.adn.exception;
 
 import com.utn.adn.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -31,6 +32,56 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getMessage()));
     }
 
+    // Sobrecarga: el control de admisión rechazó el análisis
+    @ExceptionHandler(DetectionOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloadedException(DetectionOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage()));
+    }
+
+    // Trabajo asíncrono inexistente o expirado
+    @ExceptionHandler(DetectionJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleJobNotFoundException(DetectionJobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()));
+    }
+
+    // Ya hay un re-análisis de dna_records en curso
+    @ExceptionHandler(ReanalysisInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleReanalysisInProgressException(ReanalysisInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage()));
+    }
+
+    // Ya hay una importación masiva de dna_records en curso
+    @ExceptionHandler(ImportInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleImportInProgressException(ImportInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage()));
+    }
+
+    // Demasiadas exportaciones de dna_records en curso
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceededException(ExportLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage()));
+    }
+
+    // Archivo de ADN empaquetado inexistente o inválido
+    @ExceptionHandler(InvalidDnaFileException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidDnaFileException(InvalidDnaFileException ex) {
+        return ResponseEntity.badRequest()
+                .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage()));
+    }
+
+    // Reglas de detección inválidas en la solicitud
+    @ExceptionHandler(InvalidDetectionRulesException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidDetectionRulesException(InvalidDetectionRulesException ex) {
+        return ResponseEntity.badRequest()
+                .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage()));
+    }
+
     // Default: cualquier excepción inesperada
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
@@ -0,0 +1,11 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando se pide una importación de dna_records mientras otra sigue en curso.
+ */
+public class ImportInProgressException extends RuntimeException {
+
+    public ImportInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando las reglas de detección de una solicitud no son válidas
+ * (largo fuera de rango, mínimo no positivo, dirección desconocida o ninguna dirección).
+ */
+public class InvalidDetectionRulesException extends RuntimeException {
+
+    public InvalidDetectionRulesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando un archivo de ADN empaquetado no existe, está fuera del directorio
+ * habilitado o no tiene el formato esperado.
+ */
+public class InvalidDnaFileException extends RuntimeException {
+
+    public InvalidDnaFileException(String message) {
+        super(message);
+    }
+}
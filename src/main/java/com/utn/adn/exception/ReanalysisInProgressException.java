@@ -0,0 +1,11 @@
+package com.utn.adn.exception;
+
+/**
+ * Se lanza cuando se pide un re-análisis de dna_records mientras otro sigue en curso.
+ */
+public class ReanalysisInProgressException extends RuntimeException {
+
+    public ReanalysisInProgressException(String message) {
+        super(message);
+    }
+}
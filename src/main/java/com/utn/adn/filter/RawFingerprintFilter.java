@@ -0,0 +1,285 @@
+package com.utn.adn.filter;
+
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.event.DnaVerdictsChangedEvent;
+import com.utn.adn.service.HotKeyTracker;
+import com.utn.adn.service.MutantService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Responde los POST /api/mutant repetidos antes del binding JSON.
+ *
+ * El cuerpo crudo se recorre una vez, ignorando los espacios fuera de strings, y se resume
+ * en una huella de 128 bits con un hash rápido (sembrado al azar en cada arranque para que
+ * no se puedan fabricar colisiones a propósito). Si la huella está en la cache se responde
+ * 200/403 directamente, sin Jackson, Bean Validation ni SHA-256. Si no, la solicitud sigue
+ * el camino normal y, cuando el controlador responde 200 o 403, el veredicto se guarda junto
+ * con el hash del ADN que dejó MutantService. Con ese hash los aciertos se siguen contando en
+ * el ranking de {@link HotKeyTracker}.
+ *
+ * La cache es de tamaño fijo y mapeo directo: una huella nueva pisa a la que ocupaba su
+ * posición. Se vacía cuando la retención borra registros, para que un ADN purgado vuelva
+ * a pasar por el camino normal (y a contarse en /stats), y cuando un re-análisis cambia
+ * veredictos guardados.
+ */
+@Slf4j
+public class RawFingerprintFilter extends OncePerRequestFilter {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final HotKeyTracker hotKeyTracker;
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final int maxBodyBytes;
+    private final long seed1;
+    private final long seed2;
+
+    public RawFingerprintFilter(HotKeyTracker hotKeyTracker, int capacity, int maxBodyBytes) {
+        this.hotKeyTracker = hotKeyTracker;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+
+        SecureRandom random = new SecureRandom();
+        this.seed1 = random.nextLong();
+        this.seed2 = random.nextLong();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getContentLength() > maxBodyBytes
+                || !isJson(request.getContentType());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        InputStream original = request.getInputStream();
+        byte[] body = original.readNBytes(maxBodyBytes + 1);
+
+        if (body.length > maxBodyBytes) {
+            // Cuerpo demasiado grande (sin Content-Length): seguimos sin cache
+            chain.doFilter(new CachedBodyRequest(request, new SequenceInputStream(
+                    new ByteArrayInputStream(body), original)), response);
+            return;
+        }
+
+        Fingerprint fingerprint = fingerprint(body, body.length);
+        Entry cached = lookup(fingerprint);
+        if (cached != null) {
+            log.debug("Huella cruda en cache: isMutant={}", cached.mutant());
+            hotKeyTracker.record(cached.dnaHash());
+            response.setStatus(cached.mutant() ? HttpStatus.OK.value() : HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        chain.doFilter(new CachedBodyRequest(request, new ByteArrayInputStream(body)), response);
+
+        int status = response.getStatus();
+        if ((status == HttpStatus.OK.value() || status == HttpStatus.FORBIDDEN.value())
+                && request.getAttribute(MutantService.DNA_HASH_ATTRIBUTE) instanceof String dnaHash) {
+            store(fingerprint, status == HttpStatus.OK.value(), dnaHash);
+        }
+    }
+
+    /**
+     * Vacía la cache cuando la retención borra registros.
+     */
+    @EventListener
+    public void onRecordsPurged(DnaRecordsPurgedEvent event) {
+        clear();
+    }
+
+    /**
+     * También se vacía cuando un re-análisis cambia veredictos ya guardados.
+     */
+    @EventListener
+    public void onVerdictsChanged(DnaVerdictsChangedEvent event) {
+        clear();
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    Entry lookup(Fingerprint fingerprint) {
+        Entry entry = entries.get((int) fingerprint.low() & mask);
+        return entry != null && entry.fingerprint().equals(fingerprint) ? entry : null;
+    }
+
+    void store(Fingerprint fingerprint, boolean mutant, String dnaHash) {
+        entries.set((int) fingerprint.low() & mask, new Entry(fingerprint, mutant, dnaHash));
+    }
+
+    /**
+     * Huella de 128 bits del cuerpo, ignorando espacios, tabs y saltos de línea fuera de strings
+     * JSON. Los bytes se agrupan de a 8 y se mezclan en dos carriles independientes.
+     */
+    Fingerprint fingerprint(byte[] body, int length) {
+        long h1 = seed1;
+        long h2 = seed2;
+        long word = 0;
+        int inWord = 0;
+        int total = 0;
+        boolean inString = false;
+        boolean escaped = false;
+
+        for (int i = 0; i < length; i++) {
+            byte b = body[i];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                continue;
+            } else if (b == '"') {
+                inString = true;
+            }
+
+            word |= (b & 0xFFL) << (inWord << 3);
+            total++;
+            if (++inWord == 8) {
+                h1 = mixLane(h1, word * C1, 27, C2);
+                h2 = mixLane(h2, word * C2, 31, C1);
+                word = 0;
+                inWord = 0;
+            }
+        }
+
+        if (inWord > 0) {
+            h1 ^= Long.rotateLeft(word * C1, 31) * C2;
+            h2 ^= Long.rotateLeft(word * C2, 33) * C1;
+        }
+        h1 ^= total;
+        h2 ^= total;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Fingerprint(h1, h2);
+    }
+
+    private static long mixLane(long h, long k, int rotation, long multiplier) {
+        h ^= Long.rotateLeft(k, rotation) * multiplier;
+        return Long.rotateLeft(h, rotation) * 5 + 0x52dce729;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    record Fingerprint(long high, long low) { }
+
+    record Entry(Fingerprint fingerprint, boolean mutant, String dnaHash) { }
+
+    /**
+     * Solicitud que vuelve a entregar el cuerpo ya leído por el filtro.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final InputStream body;
+
+        CachedBodyRequest(HttpServletRequest request, InputStream body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return body.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return body.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya se leyó: está todo disponible desde el principio.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
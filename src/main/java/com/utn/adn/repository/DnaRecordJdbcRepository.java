@@ -0,0 +1,653 @@
+package com.utn.adn.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Acceso JDBC directo a dna_records, sin pasar por el contexto de persistencia de JPA
+ * (ni entidades por fila). Cubre el camino caliente de /mutant (buscar el veredicto e
+ * insertar uno nuevo), los conteos de estadísticas, la retención y las operaciones masivas.
+ *
+ * La tabla está repartida en {@link DnaRecordPartitions}: las operaciones por hash van a la
+ * partición dueña y las que recorren la tabla se ejecutan en todas y se combinan acá.
+ *
+ * Las sentencias usan SQL constante, así H2 reutiliza el plan ya preparado de la sesión.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DnaRecordJdbcRepository {
+
+    private static final String SELECT_VERDICT_SQL =
+            "select is_mutant from dna_records where dna_hash = ?";
+    private static final String SELECT_ALL_SQL =
+            "select dna_hash, is_mutant, created_at from dna_records";
+    private static final String SELECT_CREATED_BETWEEN_SQL =
+            "select dna_hash, is_mutant, created_at from dna_records where created_at >= ? and created_at < ?";
+    private static final String LAZY_ON_SQL = "set lazy_query_execution true";
+    private static final String LAZY_OFF_SQL = "set lazy_query_execution false";
+    private static final String SELECT_STORED_SQL =
+            "select dna_hash, is_mutant, created_at, dna_packed, census from dna_records";
+    private static final String SELECT_PACKED_SQL =
+            "select dna_hash, is_mutant, dna_packed from dna_records where dna_packed is not null";
+    private static final String INSERT_SQL =
+            "insert into dna_records (dna_hash, is_mutant, created_at, dna_packed, census) values (?, ?, ?, ?, ?)";
+    private static final String MERGE_SQL =
+            "merge into dna_records t using (values (cast(? as varchar(64)), cast(? as boolean), "
+                    + "cast(? as timestamp(6) with time zone), cast(? as blob), cast(? as integer array))) "
+                    + "s (dna_hash, is_mutant, created_at, dna_packed, census) "
+                    + "on t.dna_hash = s.dna_hash when not matched then "
+                    + "insert (dna_hash, is_mutant, created_at, dna_packed, census) "
+                    + "values (s.dna_hash, s.is_mutant, s.created_at, s.dna_packed, s.census)";
+    private static final String UPDATE_VERDICT_SQL =
+            "update dna_records set is_mutant = ? where dna_hash = ?";
+    private static final String COUNT_BY_VERDICT_SQL =
+            "select is_mutant, count(*) from dna_records group by is_mutant";
+    private static final String COUNT_SQL =
+            "select count(*) from dna_records";
+    private static final String COUNT_PACKED_SQL =
+            "select count(*) from dna_records where dna_packed is not null";
+    private static final String CENSUS_SQL = censusSql();
+    private static final String SELECT_CREATED_BEFORE_SQL =
+            "select dna_hash, created_at from dna_records where created_at < ? order by created_at, id limit ?";
+    private static final String SELECT_OLDEST_SQL =
+            "select dna_hash, created_at from dna_records order by created_at, id limit ?";
+    private static final String DELETE_SQL =
+            "delete from dna_records where dna_hash = ?";
+    private static final String SELECT_RULE_VERDICT_SQL =
+            "select is_mutant from dna_rule_records where dna_hash = ?";
+    private static final String INSERT_RULE_SQL =
+            "insert into dna_rule_records (dna_hash, is_mutant, created_at) values (?, ?, ?)";
+    private static final String DELETE_RULE_CREATED_BEFORE_SQL =
+            "delete from dna_rule_records where created_at < ?";
+
+    /**
+     * Forma de la columna census: 4 bases x 4 direcciones, índice = base * 4 + dirección
+     * (ver com.utn.adn.service.SequenceCensus).
+     */
+    private static final int CENSUS_BASES = 4;
+    private static final int CENSUS_DIRECTIONS = 4;
+    private static final int CENSUS_SIZE = CENSUS_BASES * CENSUS_DIRECTIONS;
+
+    /**
+     * Límites de fecha cuando no se filtra por created_at (el SQL es siempre el mismo).
+     */
+    private static final Instant MIN_CREATED_AT = Instant.parse("0001-01-01T00:00:00Z");
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final DnaRecordPartitions partitions;
+
+    /**
+     * Fila de dna_records tal como se guarda.
+     */
+    public record Row(String dnaHash, boolean mutant, Instant createdAt) { }
+
+    /**
+     * Fila de dna_records con el ADN empaquetado y el censo (null si no se guardaron), para los
+     * snapshots.
+     */
+    public record StoredRow(String dnaHash, boolean mutant, Instant createdAt, byte[] dnaPacked, int[] census) {
+
+        static StoredRow of(Row row) {
+            return new StoredRow(row.dnaHash(), row.mutant(), row.createdAt(), null, null);
+        }
+    }
+
+    /**
+     * Conteo de registros por veredicto.
+     */
+    public record VerdictCounts(long mutant, long human) { }
+
+    /**
+     * Registro con su ADN empaquetado, para volver a analizarlo.
+     */
+    public record PackedRow(String dnaHash, boolean mutant, byte[] dnaPacked) { }
+
+    /**
+     * Suma de los censos de un veredicto: registros con censo, secuencias por posición del censo
+     * y cuántos registros tienen al menos una secuencia en cada dirección y de cada base.
+     */
+    public record CensusCounts(long records, long[] runs, long[] recordsByDirection, long[] recordsByBase) {
+
+        static CensusCounts empty() {
+            return new CensusCounts(0, new long[CENSUS_SIZE], new long[CENSUS_DIRECTIONS], new long[CENSUS_BASES]);
+        }
+
+        CensusCounts plus(CensusCounts other) {
+            return new CensusCounts(records + other.records,
+                    add(runs, other.runs), add(recordsByDirection, other.recordsByDirection),
+                    add(recordsByBase, other.recordsByBase));
+        }
+
+        private static long[] add(long[] a, long[] b) {
+            long[] sum = a.clone();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += b[i];
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Censos sumados por veredicto.
+     */
+    public record CensusTotals(CensusCounts mutant, CensusCounts human) { }
+
+    /**
+     * Veredicto guardado para un hash, leyendo solo la columna is_mutant.
+     *
+     * @param dnaHash hash SHA-256 del ADN
+     * @return Optional con el veredicto, si existe
+     */
+    public Optional<Boolean> findMutantByHash(String dnaHash) {
+        return partitions.forHash(dnaHash).query(SELECT_VERDICT_SQL,
+                (ResultSetExtractor<Optional<Boolean>>) rs -> rs.next() ? Optional.of(rs.getBoolean(1)) : Optional.empty(),
+                dnaHash);
+    }
+
+    /**
+     * Inserta un veredicto nuevo con un único INSERT.
+     *
+     * @param dnaHash   hash SHA-256 del ADN
+     * @param isMutant  veredicto
+     * @param dnaPacked ADN empaquetado a 2 bits por base, o null si no se guarda
+     * @param census    censo de secuencias (16 conteos), o null si se analizó sin modo censo
+     * @return false si el hash ya existía (otra solicitud lo guardó primero)
+     */
+    public boolean insert(String dnaHash, boolean isMutant, byte[] dnaPacked, int[] census) {
+        try {
+            partitions.forHash(dnaHash).update(INSERT_SQL, dnaHash, isMutant, Timestamp.from(Instant.now()),
+                    dnaPacked, toSqlArray(census));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Veredicto guardado en dna_rule_records (reglas pedidas en la solicitud) para un hash.
+     *
+     * @param dnaHash hash SHA-256 del ADN, con el prefijo de sus reglas
+     * @return Optional con el veredicto, si existe
+     */
+    public Optional<Boolean> findRuleVerdict(String dnaHash) {
+        return partitions.forHash(dnaHash).query(SELECT_RULE_VERDICT_SQL,
+                (ResultSetExtractor<Optional<Boolean>>) rs -> rs.next() ? Optional.of(rs.getBoolean(1)) : Optional.empty(),
+                dnaHash);
+    }
+
+    /**
+     * Inserta en dna_rule_records un veredicto calculado con reglas pedidas en la solicitud.
+     * Esa tabla no cuenta en las estadísticas ni entra en snapshots, exportaciones o re-análisis.
+     *
+     * @return false si el hash ya existía
+     */
+    public boolean insertRuleVerdict(String dnaHash, boolean isMutant) {
+        try {
+            partitions.forHash(dnaHash).update(INSERT_RULE_SQL, dnaHash, isMutant, Timestamp.from(Instant.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Borra de dna_rule_records los veredictos creados antes de una fecha, en todas las particiones.
+     *
+     * @return cantidad de veredictos borrados
+     */
+    public int deleteRuleVerdictsCreatedBefore(Instant cutoff) {
+        Timestamp timestamp = Timestamp.from(cutoff);
+        int deleted = 0;
+        for (Integer rows : partitions.mapAll(template -> template.update(DELETE_RULE_CREATED_BEFORE_SQL, timestamp))) {
+            deleted += rows;
+        }
+        return deleted;
+    }
+
+    /**
+     * Cuenta mutantes y humanos, con una consulta agrupada por partición ejecutadas en paralelo.
+     */
+    public VerdictCounts countVerdicts() {
+        long mutant = 0;
+        long human = 0;
+        for (long[] counts : partitions.mapAll(DnaRecordJdbcRepository::countVerdicts)) {
+            human += counts[0];
+            mutant += counts[1];
+        }
+        return new VerdictCounts(mutant, human);
+    }
+
+    /**
+     * Cantidad total de registros en todas las particiones.
+     */
+    public long count() {
+        long total = 0;
+        for (Long count : partitions.mapAll(template -> template.queryForObject(COUNT_SQL, Long.class))) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Suma los censos guardados por veredicto, con una consulta agrupada por partición
+     * ejecutadas en paralelo. Los registros sin censo no cuentan.
+     */
+    public CensusTotals sumCensus() {
+        CensusCounts mutant = CensusCounts.empty();
+        CensusCounts human = CensusCounts.empty();
+        for (CensusCounts[] counts : partitions.mapAll(DnaRecordJdbcRepository::sumCensus)) {
+            human = human.plus(counts[0]);
+            mutant = mutant.plus(counts[1]);
+        }
+        return new CensusTotals(mutant, human);
+    }
+
+    /**
+     * Cantidad de registros que guardan su ADN empaquetado.
+     */
+    public long countPacked() {
+        long total = 0;
+        for (Long count : partitions.mapAll(template -> template.queryForObject(COUNT_PACKED_SQL, Long.class))) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Hashes de los registros creados antes de una fecha, del más antiguo al más nuevo.
+     * Cada partición aporta sus más antiguos y se toman los primeros de la mezcla.
+     *
+     * @param cutoff fecha límite (exclusiva)
+     * @param limit  tamaño del lote a devolver
+     * @return hashes del lote
+     */
+    public List<String> findHashesCreatedBefore(Instant cutoff, int limit) {
+        Timestamp timestamp = Timestamp.from(cutoff);
+        return oldestOf(partitions.mapAll(template ->
+                template.query(SELECT_CREATED_BEFORE_SQL, DnaRecordJdbcRepository::ageRow, timestamp, limit)), limit);
+    }
+
+    /**
+     * Hashes de los registros más antiguos de todas las particiones.
+     *
+     * @param limit tamaño del lote a devolver
+     * @return hashes del lote
+     */
+    public List<String> findOldestHashes(int limit) {
+        return oldestOf(partitions.mapAll(template ->
+                template.query(SELECT_OLDEST_SQL, DnaRecordJdbcRepository::ageRow, limit)), limit);
+    }
+
+    /**
+     * Borra un lote de registros por hash, con un batch por partición.
+     *
+     * @param hashes hashes a borrar
+     * @return cantidad de registros borrados
+     */
+    public int deleteByDnaHashIn(Collection<String> hashes) {
+        int deleted = 0;
+        List<List<String>> byPartition = groupByPartition(hashes, hash -> hash);
+        for (int i = 0; i < byPartition.size(); i++) {
+            List<String> batch = byPartition.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            int[][] results = partitions.get(i).batchUpdate(DELETE_SQL, batch, batch.size(),
+                    (statement, hash) -> statement.setString(1, hash));
+            for (int[] chunk : results) {
+                for (int rows : chunk) {
+                    deleted += Math.max(0, rows);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Recorre todos los registros con un cursor perezoso de solo lectura (ver
+     * {@link #forEachCreatedBetween}), sin cargarlos juntos en memoria. Las particiones se
+     * recorren una tras otra, así el consumidor no necesita ser thread-safe.
+     *
+     * @param fetchSize filas que el driver trae por viaje
+     * @param consumer  recibe cada fila
+     */
+    public void forEach(int fetchSize, Consumer<Row> consumer) {
+        for (int i = 0; i < partitions.count(); i++) {
+            stream(partitions.get(i), SELECT_ALL_SQL, fetchSize, rs -> consumer.accept(new Row(
+                    rs.getString(1),
+                    rs.getBoolean(2),
+                    rs.getTimestamp(3).toInstant())));
+        }
+    }
+
+    /**
+     * Igual que {@link #forEach(int, Consumer)}, con el ADN empaquetado y el censo de cada registro.
+     *
+     * @param fetchSize filas que el driver trae por viaje
+     * @param consumer  recibe cada fila
+     */
+    public void forEachStored(int fetchSize, Consumer<StoredRow> consumer) {
+        for (int i = 0; i < partitions.count(); i++) {
+            stream(partitions.get(i), SELECT_STORED_SQL, fetchSize, rs -> consumer.accept(new StoredRow(
+                    rs.getString(1),
+                    rs.getBoolean(2),
+                    rs.getTimestamp(3).toInstant(),
+                    rs.getBytes(4),
+                    fromSqlArray(rs.getArray(5)))));
+        }
+    }
+
+    /**
+     * Recorre los registros creados en un rango, partición por partición, con ejecución perezosa
+     * de H2: las filas se leen a medida que el consumidor las pide, sin armar el resultado
+     * completo en la sesión, así la memoria no depende del tamaño de la tabla. La lectura usa
+     * el snapshot MVCC de la consulta y no bloquea los inserts de /mutant.
+     *
+     * @param from      fecha mínima (inclusiva), o null para no filtrar
+     * @param to        fecha máxima (exclusiva), o null para no filtrar
+     * @param fetchSize filas que el driver trae por viaje
+     * @param consumer  recibe cada fila
+     */
+    public void forEachCreatedBetween(Instant from, Instant to, int fetchSize, Consumer<Row> consumer) {
+        Timestamp lower = Timestamp.from(from != null ? from : MIN_CREATED_AT);
+        Timestamp upper = Timestamp.from(to != null ? to : MAX_CREATED_AT);
+        for (int i = 0; i < partitions.count(); i++) {
+            stream(partitions.get(i), SELECT_CREATED_BETWEEN_SQL, fetchSize, rs -> consumer.accept(new Row(
+                    rs.getString(1),
+                    rs.getBoolean(2),
+                    rs.getTimestamp(3).toInstant())), lower, upper);
+        }
+    }
+
+    /**
+     * Recorre con un cursor perezoso los registros que guardan su ADN empaquetado, partición por
+     * partición.
+     *
+     * @param fetchSize filas que el driver trae por viaje
+     * @param consumer  recibe cada fila
+     */
+    public void forEachPacked(int fetchSize, Consumer<PackedRow> consumer) {
+        for (int i = 0; i < partitions.count(); i++) {
+            stream(partitions.get(i), SELECT_PACKED_SQL, fetchSize, rs -> consumer.accept(new PackedRow(
+                    rs.getString(1),
+                    rs.getBoolean(2),
+                    rs.getBytes(3))));
+        }
+    }
+
+    /**
+     * Cambia el veredicto de un lote de registros, con un batch por partición.
+     *
+     * @param verdicts veredicto nuevo por hash
+     * @return cantidad de registros actualizados
+     */
+    public int updateVerdicts(Map<String, Boolean> verdicts) {
+        int updated = 0;
+        List<List<Map.Entry<String, Boolean>>> byPartition = groupByPartition(verdicts.entrySet(), Map.Entry::getKey);
+        for (int i = 0; i < byPartition.size(); i++) {
+            List<Map.Entry<String, Boolean>> batch = byPartition.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            int[][] results = partitions.get(i).batchUpdate(UPDATE_VERDICT_SQL, batch, batch.size(), (statement, entry) -> {
+                statement.setBoolean(1, entry.getValue());
+                statement.setString(2, entry.getKey());
+            });
+            for (int[] chunk : results) {
+                for (int rows : chunk) {
+                    updated += Math.max(0, rows);
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Inserta un lote de registros con un batch JDBC por partición.
+     *
+     * @param rows registros a insertar (el hash no debe existir)
+     */
+    public void insertBatch(List<StoredRow> rows) {
+        List<List<StoredRow>> byPartition = groupByPartition(rows, StoredRow::dnaHash);
+        for (int i = 0; i < byPartition.size(); i++) {
+            List<StoredRow> batch = byPartition.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            partitions.get(i).batchUpdate(INSERT_SQL, batch, batch.size(), (statement, row) -> {
+                statement.setString(1, row.dnaHash());
+                statement.setBoolean(2, row.mutant());
+                statement.setTimestamp(3, Timestamp.from(row.createdAt()));
+                statement.setBytes(4, row.dnaPacked());
+                statement.setObject(5, toSqlArray(row.census()));
+            });
+        }
+    }
+
+    /**
+     * Importa un lote de registros, salteando los hashes que ya existen. Cada partición recibe
+     * un batch dentro de una sola transacción, así el costo del commit se paga una vez por lote
+     * y no por fila. El chequeo de duplicados lo hace el MERGE, sin excepciones por fila.
+     *
+     * @param rows registros a importar
+     * @return cantidad de registros insertados (los existentes no cuentan)
+     * @throws DuplicateKeyException si otra transacción insertó uno de los hashes a la vez;
+     *                               el lote se revierte entero y se puede reintentar
+     */
+    public int importBatch(List<Row> rows) {
+        return mergeBatch(rows.stream().map(StoredRow::of).toList());
+    }
+
+    /**
+     * Igual que {@link #importBatch(List)}, conservando el ADN empaquetado y el censo de cada registro.
+     *
+     * @param rows registros a insertar si su hash no existe
+     * @return cantidad de registros insertados (los existentes no cuentan)
+     */
+    public int mergeBatch(List<StoredRow> rows) {
+        int inserted = 0;
+        List<List<StoredRow>> byPartition = groupByPartition(rows, StoredRow::dnaHash);
+        for (int i = 0; i < byPartition.size(); i++) {
+            List<StoredRow> batch = byPartition.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            Integer count = partitions.get(i).execute(
+                    (ConnectionCallback<Integer>) connection -> importInTransaction(connection, batch));
+            inserted += count == null ? 0 : count;
+        }
+        return inserted;
+    }
+
+    private static int importInTransaction(Connection connection, List<StoredRow> rows) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+            for (StoredRow row : rows) {
+                statement.setString(1, row.dnaHash());
+                statement.setBoolean(2, row.mutant());
+                statement.setTimestamp(3, Timestamp.from(row.createdAt()));
+                statement.setBytes(4, row.dnaPacked());
+                statement.setObject(5, toSqlArray(row.census()));
+                statement.addBatch();
+            }
+            int inserted = 0;
+            for (int count : statement.executeBatch()) {
+                inserted += Math.max(0, count);
+            }
+            connection.commit();
+            return inserted;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Ejecuta una consulta con un cursor de solo lectura que trae fetchSize filas por viaje, con
+     * la ejecución perezosa de H2 activa solo durante la consulta.
+     */
+    private static void stream(JdbcTemplate template, String sql, int fetchSize, RowCallbackHandler handler,
+                               Object... params) {
+        template.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement session = connection.createStatement()) {
+                session.execute(LAZY_ON_SQL);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        handler.processRow(rs);
+                    }
+                }
+            } finally {
+                // La conexión vuelve al pool: no dejarle la sesión perezosa a la próxima consulta
+                try (Statement session = connection.createStatement()) {
+                    session.execute(LAZY_OFF_SQL);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static long[] countVerdicts(JdbcTemplate template) {
+        long[] counts = new long[2];  // [humanos, mutantes]
+        template.query(COUNT_BY_VERDICT_SQL, (RowCallbackHandler) rs ->
+                counts[rs.getBoolean(1) ? 1 : 0] = rs.getLong(2));
+        return counts;
+    }
+
+    private static CensusCounts[] sumCensus(JdbcTemplate template) {
+        CensusCounts[] counts = { CensusCounts.empty(), CensusCounts.empty() };  // [humanos, mutantes]
+        template.query(CENSUS_SQL, (RowCallbackHandler) rs -> {
+            int column = 2;
+            long records = rs.getLong(column++);
+            long[] runs = new long[CENSUS_SIZE];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = rs.getLong(column++);
+            }
+            long[] byDirection = new long[CENSUS_DIRECTIONS];
+            for (int d = 0; d < byDirection.length; d++) {
+                byDirection[d] = rs.getLong(column++);
+            }
+            long[] byBase = new long[CENSUS_BASES];
+            for (int b = 0; b < byBase.length; b++) {
+                byBase[b] = rs.getLong(column++);
+            }
+            counts[rs.getBoolean(1) ? 1 : 0] = new CensusCounts(records, runs, byDirection, byBase);
+        });
+        return counts;
+    }
+
+    /**
+     * Arma la consulta de {@link #sumCensus()}: la suma de cada posición del censo y, por
+     * dirección y por base, cuántos registros tienen al menos una secuencia (los arreglos
+     * de H2 se indexan desde 1).
+     */
+    private static String censusSql() {
+        StringBuilder sql = new StringBuilder("select is_mutant, count(*)");
+        for (int i = 1; i <= CENSUS_SIZE; i++) {
+            sql.append(", sum(census[").append(i).append("])");
+        }
+        for (int d = 0; d < CENSUS_DIRECTIONS; d++) {
+            sql.append(", sum(case when ");
+            for (int b = 0; b < CENSUS_BASES; b++) {
+                sql.append(b == 0 ? "" : " + ").append("census[").append(b * CENSUS_DIRECTIONS + d + 1).append("]");
+            }
+            sql.append(" > 0 then 1 else 0 end)");
+        }
+        for (int b = 0; b < CENSUS_BASES; b++) {
+            sql.append(", sum(case when ");
+            for (int d = 0; d < CENSUS_DIRECTIONS; d++) {
+                sql.append(d == 0 ? "" : " + ").append("census[").append(b * CENSUS_DIRECTIONS + d + 1).append("]");
+            }
+            sql.append(" > 0 then 1 else 0 end)");
+        }
+        return sql.append(" from dna_records where census is not null group by is_mutant").toString();
+    }
+
+    private static Integer[] toSqlArray(int[] values) {
+        if (values == null) {
+            return null;
+        }
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+    private static int[] fromSqlArray(Array array) throws SQLException {
+        if (array == null) {
+            return null;
+        }
+        Object[] values = (Object[]) array.getArray();
+        int[] unboxed = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            unboxed[i] = values[i] == null ? 0 : ((Number) values[i]).intValue();
+        }
+        return unboxed;
+    }
+
+    private static AgeRow ageRow(ResultSet rs, int rowNum) throws SQLException {
+        return new AgeRow(rs.getString(1), rs.getTimestamp(2).toInstant());
+    }
+
+    /**
+     * Mezcla los más antiguos de cada partición y devuelve los primeros hashes.
+     */
+    private static List<String> oldestOf(List<List<AgeRow>> perPartition, int limit) {
+        List<AgeRow> merged = new ArrayList<>();
+        perPartition.forEach(merged::addAll);
+        if (perPartition.size() > 1) {
+            merged.sort(Comparator.comparing(AgeRow::createdAt));
+        }
+
+        List<String> hashes = new ArrayList<>(Math.min(limit, merged.size()));
+        for (int i = 0; i < merged.size() && i < limit; i++) {
+            hashes.add(merged.get(i).dnaHash());
+        }
+        return hashes;
+    }
+
+    private <T> List<List<T>> groupByPartition(Collection<T> items, Function<T, String> hashOf) {
+        List<List<T>> groups = new ArrayList<>(partitions.count());
+        for (int i = 0; i < partitions.count(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            groups.get(partitions.indexOf(hashOf.apply(item))).add(item);
+        }
+        return groups;
+    }
+
+    private record AgeRow(String dnaHash, Instant createdAt) { }
+}
@@ -0,0 +1,210 @@
+package com.utn.adn.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Particiones de dna_records: cada hash de ADN vive en una de K bases H2 embebidas, cada una
+ * con su propio pool de conexiones, su índice único y sus locks. Así los inserts concurrentes
+ * no compiten por un único índice.
+ *
+ * La partición 0 es el datasource principal de Spring (el que crea JPA); las demás son bases
+ * en memoria creadas acá con la misma tabla. Con adn.storage.partitions=1 (default) no se crea
+ * nada extra y el comportamiento es el de una sola tabla.
+ *
+ * Cada partición tiene también la tabla dna_rule_records, con los veredictos calculados con
+ * reglas pedidas en la solicitud (ver MutantService): quedan fuera de dna_records para que no
+ * cuenten en las estadísticas.
+ *
+ * La partición se elige con los últimos 8 dígitos hex del hash: los primeros ya los usa el
+ * anillo del cluster para elegir nodo, y reutilizarlos dejaría particiones vacías en cada nodo.
+ */
+@Component
+@Slf4j
+public class DnaRecordPartitions {
+
+    private static final String[] PARTITION_DDL = {
+            "create table if not exists dna_records ("
+                    + "id bigint generated by default as identity primary key, "
+                    + "dna_hash varchar(64) not null unique, "
+                    + "is_mutant boolean not null, "
+                    + "created_at timestamp(6) with time zone not null, "
+                    + "dna_packed blob, "
+                    + "census integer array)",
+            "create index if not exists idx_created_at on dna_records (created_at)"
+    };
+
+    private static final String[] RULE_RECORDS_DDL = {
+            "create table if not exists dna_rule_records ("
+                    + "dna_hash varchar(64) not null primary key, "
+                    + "is_mutant boolean not null, "
+                    + "created_at timestamp(6) with time zone not null)",
+            "create index if not exists idx_rule_created_at on dna_rule_records (created_at)"
+    };
+
+    private static final int ROUTING_DIGITS = 8;
+
+    private final List<JdbcTemplate> templates;
+    private final List<HikariDataSource> ownedDataSources;
+    private final ExecutorService fanOut;
+
+    @Autowired
+    public DnaRecordPartitions(
+            JdbcTemplate primary,
+            @Value("${adn.storage.partitions:1}") int partitions,
+            @Value("${adn.storage.partition-url:jdbc:h2:mem:adn-part-%d;DB_CLOSE_DELAY=-1}") String urlPattern,
+            @Value("${adn.storage.partition-pool-size:4}") int poolSize,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password) {
+        final int count = Math.max(1, partitions);
+        this.templates = new ArrayList<>(count);
+        this.ownedDataSources = new ArrayList<>(count - 1);
+        this.templates.add(primary);
+        for (String ddl : RULE_RECORDS_DDL) {
+            primary.execute(ddl);
+        }
+
+        for (int i = 1; i < count; i++) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(String.format(urlPattern, i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(Math.max(1, poolSize));
+            config.setPoolName("adn-partition-" + i);
+
+            HikariDataSource dataSource = new HikariDataSource(config);
+            ownedDataSources.add(dataSource);
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            createTables(template);
+            templates.add(template);
+        }
+
+        this.fanOut = count > 1 ? newFanOutPool(count) : null;
+        if (count > 1) {
+            log.info("dna_records particionada en {} bases (pool de {} conexiones cada una)", count, poolSize);
+        }
+    }
+
+    /**
+     * Particiones ya armadas (para tests).
+     */
+    DnaRecordPartitions(List<JdbcTemplate> templates) {
+        this.templates = List.copyOf(templates);
+        this.ownedDataSources = List.of();
+        this.fanOut = templates.size() > 1 ? newFanOutPool(templates.size()) : null;
+    }
+
+    /**
+     * Cantidad de particiones.
+     */
+    public int count() {
+        return templates.size();
+    }
+
+    /**
+     * Índice de la partición dueña de un hash (hex SHA-256).
+     */
+    public int indexOf(String dnaHash) {
+        return partitionOf(dnaHash, templates.size());
+    }
+
+    /**
+     * Acceso JDBC a la partición dueña de un hash.
+     */
+    public JdbcTemplate forHash(String dnaHash) {
+        return templates.get(indexOf(dnaHash));
+    }
+
+    /**
+     * Acceso JDBC a una partición por índice.
+     */
+    public JdbcTemplate get(int index) {
+        return templates.get(index);
+    }
+
+    /**
+     * Ejecuta la misma operación en todas las particiones en paralelo y devuelve los
+     * resultados en orden de partición. Con una sola partición corre en el hilo actual.
+     */
+    public <T> List<T> mapAll(Function<JdbcTemplate, T> operation) {
+        if (fanOut == null) {
+            return List.of(operation.apply(templates.get(0)));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(templates.size());
+        for (JdbcTemplate template : templates) {
+            futures.add(CompletableFuture.supplyAsync(() -> operation.apply(template), fanOut));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+        for (HikariDataSource dataSource : ownedDataSources) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Crea dna_records y dna_rule_records en una partición que no maneja JPA.
+     */
+    static void createTables(JdbcTemplate template) {
+        for (String ddl : PARTITION_DDL) {
+            template.execute(ddl);
+        }
+        for (String ddl : RULE_RECORDS_DDL) {
+            template.execute(ddl);
+        }
+    }
+
+    /**
+     * Partición de un hash según sus últimos dígitos hex. Un hash que no sea hex
+     * (no debería ocurrir) se reparte por hashCode.
+     */
+    static int partitionOf(String dnaHash, int partitions) {
+        if (partitions == 1) {
+            return 0;
+        }
+        final int length = dnaHash.length();
+        if (length >= ROUTING_DIGITS) {
+            try {
+                int suffix = Integer.parseUnsignedInt(dnaHash, length - ROUTING_DIGITS, length, 16);
+                return Integer.remainderUnsigned(suffix, partitions);
+            } catch (NumberFormatException e) {
+                // Cae al reparto por hashCode
+            }
+        }
+        return Math.floorMod(dnaHash.hashCode(), partitions);
+    }
+
+    private static ExecutorService newFanOutPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "adn-partition-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.utn.adn.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Token de las operaciones de administración (/api/admin/** y /api/records/export).
+ *
+ * Sin adn.admin.token configurado no se acepta ningún pedido: esas operaciones quedan cerradas.
+ */
+@Service
+public class AdminTokenService {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    public AdminTokenService(@Value("${adn.admin.token:}") String token) {
+        this.token = (token == null ? "" : token).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Indica si el token recibido habilita las operaciones de administración
+     * (nunca, si adn.admin.token está vacío). Compara en tiempo constante, como
+     * {@link ClusterService#isAuthorized(String)}.
+     */
+    public boolean isAuthorized(String requestToken) {
+        return token.length > 0 && requestToken != null
+                && MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
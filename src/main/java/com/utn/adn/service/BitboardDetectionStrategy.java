@@ -0,0 +1,123 @@
+package com.utn.adn.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Motor bitboard: cada fila se representa con 4 máscaras de bits (una por base) y las
+ * secuencias se buscan con AND y desplazamientos de 64 celdas por operación.
+ *
+ * Solo se mantienen 4 filas a la vez (las que puede abarcar una secuencia), en un buffer
+ * circular reutilizado por hilo, así que la memoria es O(N) sin importar el tamaño de la matriz.
+ */
+@Component
+public class BitboardDetectionStrategy implements DetectionStrategy {
+
+    public static final String NAME = "bitboard";
+
+    private static final int SEQUENCE_LENGTH = 4;
+    private static final int MIN_MUTANT_SEQUENCES = 2;
+    private static final int BASES = 4;
+
+    /**
+     * Buffer circular por hilo: [fila % 4][base][palabra de 64 celdas].
+     */
+    private static final ThreadLocal<long[][][]> SCRATCH = new ThreadLocal<>();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isMutant(String[] dna) {
+        final int n = dna.length;
+        final int words = (n + 63) >>> 6;
+        final long[][][] ring = scratch(words);
+
+        int sequencesFound = 0;
+
+        for (int r = 0; r < n; r++) {
+            long[][] current = ring[r & 3];
+            fillMasks(dna[r], n, words, current);
+
+            // Horizontal: secuencias completas dentro de la fila recién cargada
+            for (int b = 0; b < BASES; b++) {
+                long[] m = current[b];
+                for (int w = 0; w < words; w++) {
+                    long hits = m[w] & right(m, w, 1, words) & right(m, w, 2, words) & right(m, w, 3, words);
+                    sequencesFound += Long.bitCount(hits);
+                }
+            }
+            if (sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+
+            if (r < SEQUENCE_LENGTH - 1) continue;
+
+            // Vertical y diagonales que arrancan en la fila r - 3
+            long[][] a0 = ring[(r - 3) & 3];
+            long[][] a1 = ring[(r - 2) & 3];
+            long[][] a2 = ring[(r - 1) & 3];
+            long[][] a3 = current;
+            for (int b = 0; b < BASES; b++) {
+                long[] m0 = a0[b], m1 = a1[b], m2 = a2[b], m3 = a3[b];
+                for (int w = 0; w < words; w++) {
+                    long vertical = m0[w] & m1[w] & m2[w] & m3[w];
+                    long diagonal = m0[w] & right(m1, w, 1, words) & right(m2, w, 2, words) & right(m3, w, 3, words);
+                    long inverse = m0[w] & left(m1, w, 1) & left(m2, w, 2) & left(m3, w, 3);
+                    sequencesFound += Long.bitCount(vertical) + Long.bitCount(diagonal) + Long.bitCount(inverse);
+                }
+            }
+            if (sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Bit j del resultado = celda j + s de la fila.
+     */
+    private static long right(long[] m, int w, int s, int words) {
+        long next = w + 1 < words ? m[w + 1] << (64 - s) : 0L;
+        return (m[w] >>> s) | next;
+    }
+
+    /**
+     * Bit j del resultado = celda j - s de la fila.
+     */
+    private static long left(long[] m, int w, int s) {
+        long previous = w > 0 ? m[w - 1] >>> (64 - s) : 0L;
+        return (m[w] << s) | previous;
+    }
+
+    /**
+     * Carga las 4 máscaras de una fila, de a 64 celdas y sin saltos por base.
+     */
+    private static void fillMasks(String row, int n, int words, long[][] masks) {
+        long[] maskA = masks[0], maskC = masks[1], maskG = masks[2], maskT = masks[3];
+        for (int w = 0; w < words; w++) {
+            int from = w << 6;
+            int to = Math.min(n, from + 64);
+            long a = 0, c = 0, g = 0, t = 0;
+            for (int j = from; j < to; j++) {
+                char base = (char) (row.charAt(j) & ~0x20);  // el ADN ya fue validado
+                long bit = 1L << j;
+                a |= base == 'A' ? bit : 0L;
+                c |= base == 'C' ? bit : 0L;
+                g |= base == 'G' ? bit : 0L;
+                t |= base == 'T' ? bit : 0L;
+            }
+            maskA[w] = a;
+            maskC[w] = c;
+            maskG[w] = g;
+            maskT[w] = t;
+        }
+    }
+
+    private static long[][][] scratch(int words) {
+        long[][][] ring = SCRATCH.get();
+        if (ring == null || ring[0][0].length < words) {
+            ring = new long[SEQUENCE_LENGTH][BASES][Math.max(words, 4)];
+            SCRATCH.set(ring);
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,185 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.ClusterVerdict;
+import com.utn.adn.dto.StatsResponse;
+import com.utn.adn.exception.ClusterUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Modo cluster opcional: reparte la cache de resultados entre varias instancias.
+ *
+ * Con una lista estática de nodos (adn.cluster.self + adn.cluster.peers) se arma un anillo
+ * de hashing consistente que asigna cada hash de ADN a un nodo dueño. Los demás nodos le
+ * reenvían la búsqueda y el guardado por HTTP (endpoints /internal/cluster), así cada ADN
+ * se analiza y almacena una sola vez en todo el cluster.
+ *
+ * Los endpoints internos escriben directo en la base, así que el modo cluster exige
+ * adn.cluster.token: sin él la aplicación no arranca.
+ */
+@Service
+@Slf4j
+public class ClusterService {
+
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+    public static final String INTERNAL_PATH = "/internal/cluster";
+
+    private final boolean enabled;
+    private final String self;
+    private final String token;
+    private final byte[] tokenBytes;
+    private final ConsistentHashRing ring;
+    private final RestClient restClient;
+
+    public ClusterService(
+            @Value("${adn.cluster.enabled:false}") boolean enabled,
+            @Value("${adn.cluster.self:http://localhost:8080}") String self,
+            @Value("${adn.cluster.peers:}") String[] peers,
+            @Value("${adn.cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${adn.cluster.timeout-ms:500}") int timeoutMillis,
+            @Value("${adn.cluster.token:}") String token) {
+        if (enabled && (token == null || token.isBlank())) {
+            throw new IllegalStateException("El modo cluster requiere adn.cluster.token");
+        }
+        this.enabled = enabled;
+        this.self = normalize(self);
+        this.token = token == null ? "" : token;
+        this.tokenBytes = this.token.getBytes(StandardCharsets.UTF_8);
+
+        Set<String> nodes = new LinkedHashSet<>();
+        nodes.add(this.self);
+        Arrays.stream(peers)
+                .filter(peer -> peer != null && !peer.isBlank())
+                .map(ClusterService::normalize)
+                .forEach(nodes::add);
+        this.ring = new ConsistentHashRing(nodes, Math.max(1, virtualNodes));
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMillis);
+        requestFactory.setReadTimeout(timeoutMillis);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        if (enabled) {
+            log.info("Modo cluster activo: self={}, nodos={}", this.self, ring.nodes());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica si el hash pertenece a otro nodo (siempre false con el cluster deshabilitado).
+     */
+    public boolean isRemote(String dnaHash) {
+        return enabled && !self.equals(ring.ownerOf(dnaHash));
+    }
+
+    public String ownerOf(String dnaHash) {
+        return ring.ownerOf(dnaHash);
+    }
+
+    /**
+     * Busca el veredicto en el nodo dueño.
+     *
+     * @throws ClusterUnavailableException si el dueño no responde
+     */
+    public Optional<Boolean> lookup(String dnaHash) {
+        String owner = ownerOf(dnaHash);
+        try {
+            return restClient.get()
+                    .uri(owner + INTERNAL_PATH + "/records/{hash}", dnaHash)
+                    .header(TOKEN_HEADER, token)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                            return Optional.<Boolean>empty();
+                        }
+                        if (!response.getStatusCode().is2xxSuccessful()) {
+                            throw new ClusterUnavailableException("Respuesta " + response.getStatusCode() + " de " + owner);
+                        }
+                        ClusterVerdict verdict = response.bodyTo(ClusterVerdict.class);
+                        return Optional.of(Objects.requireNonNull(verdict).mutant());
+                    });
+        } catch (RestClientException e) {
+            throw new ClusterUnavailableException("Nodo " + owner + " no disponible", e);
+        }
+    }
+
+    /**
+     * Guarda el veredicto en el nodo dueño.
+     *
+     * @throws ClusterUnavailableException si el dueño no responde
+     */
+    public void save(String dnaHash, boolean mutant) {
+        String owner = ownerOf(dnaHash);
+        try {
+            restClient.put()
+                    .uri(owner + INTERNAL_PATH + "/records/{hash}", dnaHash)
+                    .header(TOKEN_HEADER, token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ClusterVerdict(mutant))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            throw new ClusterUnavailableException("Nodo " + owner + " no disponible", e);
+        }
+    }
+
+    /**
+     * Estadísticas locales de cada uno de los demás nodos. Los nodos que no responden se omiten.
+     */
+    public List<StatsResponse> peerStats() {
+        if (!enabled) {
+            return List.of();
+        }
+
+        return ring.nodes().parallelStream()
+                .filter(node -> !node.equals(self))
+                .map(this::fetchStats)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /**
+     * Valida el token compartido de los endpoints internos. Sin token configurado no se acepta
+     * nada (el modo cluster no arranca sin uno). La comparación es de tiempo constante, para no
+     * revelar el token por la latencia de la respuesta.
+     */
+    public boolean isAuthorized(String requestToken) {
+        return tokenBytes.length > 0 && requestToken != null
+                && MessageDigest.isEqual(tokenBytes, requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Optional<StatsResponse> fetchStats(String peer) {
+        try {
+            return Optional.ofNullable(restClient.get()
+                    .uri(peer + INTERNAL_PATH + "/stats")
+                    .header(TOKEN_HEADER, token)
+                    .retrieve()
+                    .body(StatsResponse.class));
+        } catch (RestClientException e) {
+            log.warn("No se pudieron obtener estadísticas de {}: {}", peer, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
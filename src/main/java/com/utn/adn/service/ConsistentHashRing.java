@@ -0,0 +1,64 @@
+package com.utn.adn.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hashing consistente con nodos virtuales.
+ * Cada nodo ocupa varias posiciones en el anillo y una clave pertenece al primer nodo
+ * que aparece a partir de su posición (en sentido horario). Todos los nodos construyen
+ * el mismo anillo a partir de la misma lista, así que coinciden en el dueño de cada clave.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>(Long::compareUnsigned);
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("El anillo necesita al menos un nodo");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(position(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Nodo dueño de un hash de ADN (hex SHA-256). Los primeros 16 dígitos hex ya están
+     * distribuidos uniformemente, así que se usan directamente como posición.
+     */
+    public String ownerOf(String dnaHash) {
+        long position = dnaHash.length() >= 16
+                ? Long.parseUnsignedLong(dnaHash.substring(0, 16), 16)
+                : position(dnaHash);
+
+        Map.Entry<Long, String> entry = ring.ceilingEntry(position);
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    private static long position(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (digest[i] & 0xFF);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 no soportado", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.utn.adn.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fábricas de hilos daemon para los pools de los servicios, así un pool que no se cerró
+ * no impide que la JVM termine.
+ */
+public final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    /**
+     * Hilos con un nombre fijo (pools de un solo hilo).
+     */
+    public static ThreadFactory named(String name) {
+        return task -> newThread(task, name);
+    }
+
+    /**
+     * Hilos numerados: prefix-1, prefix-2, ...
+     */
+    public static ThreadFactory numbered(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> newThread(task, prefix + "-" + count.incrementAndGet());
+    }
+
+    private static Thread newThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,165 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.DetectionOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Control de admisión para el trabajo de detección.
+ * Cada análisis consume un costo estimado de MxN celdas sobre un presupuesto global.
+ * Si el presupuesto está agotado, la solicitud espera en una cola acotada; si la cola
+ * está llena o se vence la espera, se rechaza con {@link DetectionOverloadedException}.
+ * La cola es FIFO: mientras haya alguien esperando nadie se adelanta, así una matriz grande
+ * no queda postergada por un flujo de matrices chicas que siempre entran en lo que sobra.
+ */
+@Service
+@Slf4j
+public class DetectionAdmissionService {
+
+    private final boolean enabled;
+    private final long maxInFlightCost;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    private long inFlightCost;
+    private final Deque<Object> waiters = new ArrayDeque<>();  // Turnos en orden de llegada
+
+    public DetectionAdmissionService(
+            @Value("${adn.admission.enabled:true}") boolean enabled,
+            @Value("${adn.admission.max-in-flight-cells:8000000}") long maxInFlightCost,
+            @Value("${adn.admission.max-queued:64}") int maxQueued,
+            @Value("${adn.admission.max-wait-ms:2000}") long maxWaitMillis,
+            @Value("${adn.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.maxInFlightCost = Math.max(1, maxInFlightCost);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Costo estimado de analizar una matriz NxN.
+     */
+    public static long estimateCost(int n) {
+        return estimateCost(n, n);
+    }
+
+    /**
+     * Costo estimado de analizar una matriz MxN (reglas rectangulares).
+     */
+    public static long estimateCost(int rows, int cols) {
+        return (long) Math.max(0, rows) * Math.max(0, cols);
+    }
+
+    /**
+     * Igual que {@link #acquire(int, int)} para una matriz NxN.
+     *
+     * @param n tamaño de la matriz
+     */
+    public long acquire(int n) {
+        return acquire(n, n);
+    }
+
+    /**
+     * Reserva presupuesto para analizar una matriz MxN, esperando en cola si hace falta.
+     * Una matriz cuyo costo supera el presupuesto total se admite sola (el costo se recorta).
+     *
+     * @param rows filas de la matriz
+     * @param cols columnas de la matriz
+     * @return costo reservado, que debe devolverse con {@link #release(long)}
+     * @throws DetectionOverloadedException si la cola está llena o se agota la espera
+     */
+    public long acquire(int rows, int cols) {
+        if (!enabled) {
+            return 0;
+        }
+
+        final long cost = Math.min(estimateCost(rows, cols), maxInFlightCost);
+
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlightCost + cost <= maxInFlightCost) {
+                inFlightCost += cost;
+                return cost;
+            }
+
+            if (waiters.size() >= maxQueued) {
+                log.warn("Detección rechazada: cola llena (queued={}, inFlight={}, cost={})", waiters.size(), inFlightCost, cost);
+                throw overloaded("Servidor sobrecargado: cola de análisis llena");
+            }
+
+            Object turn = new Object();
+            waiters.addLast(turn);
+            try {
+                long remaining = maxWaitNanos;
+                while (waiters.peekFirst() != turn || inFlightCost + cost > maxInFlightCost) {
+                    if (remaining <= 0) {
+                        log.warn("Detección rechazada: espera agotada (inFlight={}, cost={})", inFlightCost, cost);
+                        throw overloaded("Servidor sobrecargado: tiempo de espera agotado");
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlightCost += cost;
+                return cost;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw overloaded("Análisis interrumpido mientras esperaba en cola");
+            } finally {
+                waiters.remove(turn);
+                released.signalAll();  // Puede haber cambiado el primero de la cola
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve al presupuesto el costo reservado por {@link #acquire(int, int)}.
+     */
+    public void release(long cost) {
+        if (cost <= 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            inFlightCost = Math.max(0, inFlightCost - cost);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getInFlightCost() {
+        lock.lock();
+        try {
+            return inFlightCost;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DetectionOverloadedException overloaded(String message) {
+        return new DetectionOverloadedException(message, retryAfterSeconds);
+    }
+}
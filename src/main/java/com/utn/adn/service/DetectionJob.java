@@ -0,0 +1,146 @@
+package com.utn.adn.service;
+
+import java.time.Instant;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trabajo asíncrono de detección: estado, avance por filas y veredicto.
+ * El análisis se suelta al terminar para no retener la matriz mientras se consulta el resultado.
+ */
+class DetectionJob implements DetectionProgress {
+
+    enum Status { QUEUED, RUNNING, DONE, CANCELLED, FAILED }
+
+    /**
+     * Análisis a ejecutar: una matriz en memoria o un archivo empaquetado.
+     */
+    @FunctionalInterface
+    interface Work {
+        boolean analyze(DetectionProgress progress) throws Exception;
+    }
+
+    private final String id;
+    private final int totalRows;
+    private final Instant createdAt;
+    private final AtomicInteger rowsScanned = new AtomicInteger();
+
+    private volatile Work work;
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Boolean mutant;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile Future<?> future;
+
+    DetectionJob(String id, int totalRows, Work work, Instant createdAt) {
+        this.id = id;
+        this.work = work;
+        this.totalRows = totalRows;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public void rowsScanned(int rows) {
+        rowsScanned.set(rows);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    int getRowsScanned() {
+        return rowsScanned.get();
+    }
+
+    int getTotalRows() {
+        return totalRows;
+    }
+
+    Boolean getMutant() {
+        return mutant;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFinished() {
+        return status == Status.DONE || status == Status.CANCELLED || status == Status.FAILED;
+    }
+
+    Work getWork() {
+        return work;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void complete(boolean isMutant, Instant now) {
+        mutant = isMutant;
+        rowsScanned.set(totalRows);
+        finish(Status.DONE, now);
+    }
+
+    synchronized void fail(String message, Instant now) {
+        error = message;
+        finish(Status.FAILED, now);
+    }
+
+    synchronized void cancelled(Instant now) {
+        finish(Status.CANCELLED, now);
+    }
+
+    /**
+     * Pide la cancelación. Un trabajo en cola no llega a ejecutarse; uno en curso se
+     * detiene en la próxima fila.
+     *
+     * @return false si el trabajo ya había terminado
+     */
+    synchronized boolean cancel(Instant now) {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            Future<?> queued = future;
+            if (queued != null) {
+                queued.cancel(false);
+            }
+            finish(Status.CANCELLED, now);
+        }
+        return true;
+    }
+
+    private void finish(Status finalStatus, Instant now) {
+        status = finalStatus;
+        finishedAt = now;
+        work = null;
+    }
+}
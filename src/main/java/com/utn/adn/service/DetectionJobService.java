@@ -0,0 +1,200 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.DetectionJobResponse;
+import com.utn.adn.dto.DetectionRulesRequest;
+import com.utn.adn.exception.DetectionJobNotFoundException;
+import com.utn.adn.exception.DetectionOverloadedException;
+import com.utn.adn.exception.InvalidDetectionRulesException;
+import com.utn.adn.exception.InvalidDnaFileException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análisis asíncrono de matrices muy grandes.
+ *
+ * Los trabajos se ejecutan en un pool fijo de workers con una cola acotada; si la cola está
+ * llena se rechaza con {@link DetectionOverloadedException}. Cada trabajo pasa por
+ * {@link MutantService} (cache y guardado en dna_records como siempre), informando las filas
+ * recorridas. También se pueden analizar archivos empaquetados con
+ * {@link MappedMutantDetector}; ese veredicto no se guarda en dna_records porque el hash
+ * exigiría leer el archivo completo aun cuando la detección corta antes. Los trabajos terminados se conservan durante
+ * adn.jobs.result-ttl-seconds para poder consultar el veredicto.
+ *
+ * Ningún trabajo, de matriz o de archivo, usa el presupuesto del control de admisión de
+ * /mutant: una matriz enorme lo ocuparía entero durante minutos y las solicitudes síncronas
+ * recibirían 429. Los trabajos los acota solo el pool (adn.jobs.workers).
+ */
+@Service
+@Slf4j
+public class DetectionJobService {
+
+    private final MutantService mutantService;
+    private final MappedMutantDetector mappedDetector;
+    private final Clock clock;
+    private final Duration resultTtl;
+    private final long retryAfterSeconds;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, DetectionJob> jobs = new ConcurrentHashMap<>();
+
+    public DetectionJobService(
+            MutantService mutantService,
+            MappedMutantDetector mappedDetector,
+            @Value("${adn.jobs.workers:2}") int workers,
+            @Value("${adn.jobs.max-queued:16}") int maxQueued,
+            @Value("${adn.jobs.result-ttl-seconds:3600}") long resultTtlSeconds,
+            @Value("${adn.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.mutantService = mutantService;
+        this.mappedDetector = mappedDetector;
+        this.clock = Clock.systemUTC();
+        this.resultTtl = Duration.ofSeconds(Math.max(0, resultTtlSeconds));
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+
+        int poolSize = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueued)), DaemonThreads.numbered("adn-job"));
+    }
+
+    /**
+     * Encola el análisis de un ADN y devuelve el trabajo sin esperar el resultado.
+     *
+     * @throws DetectionOverloadedException si la cola de trabajos está llena
+     */
+    public DetectionJobResponse submit(String[] dna) {
+        return submit(dna, null);
+    }
+
+    /**
+     * Igual que {@link #submit(String[])}, con reglas de detección propias (null = las del perfil).
+     * Las reglas se validan antes de encolar.
+     *
+     * @throws InvalidDetectionRulesException si las reglas no son válidas
+     * @throws DetectionOverloadedException si la cola de trabajos está llena
+     */
+    public DetectionJobResponse submit(String[] dna, DetectionRulesRequest rules) {
+        DetectionRules resolved = mutantService.resolveRules(rules);
+        return enqueue(dna.length,
+                progress -> mutantService.analyzeDna(dna, resolved, progress, MutantService.Admission.NONE));
+    }
+
+    /**
+     * Encola el análisis de un archivo empaquetado del directorio habilitado.
+     *
+     * @param name nombre del archivo dentro de adn.detector.mapped.directory
+     * @throws InvalidDnaFileException si el archivo no existe o no tiene el formato esperado
+     * @throws DetectionOverloadedException si la cola de trabajos está llena
+     */
+    public DetectionJobResponse submitFile(String name) {
+        Path file = mappedDetector.resolve(name);
+        int size;
+        try {
+            size = mappedDetector.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return enqueue(size, progress -> mappedDetector.isMutant(file, progress));
+    }
+
+    private DetectionJobResponse enqueue(int totalRows, DetectionJob.Work work) {
+        evictExpired();
+
+        DetectionJob job = new DetectionJob(UUID.randomUUID().toString(), totalRows, work, clock.instant());
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            log.warn("Trabajo rechazado: cola llena (queued={})", executor.getQueue().size());
+            throw new DetectionOverloadedException("Servidor sobrecargado: cola de trabajos llena", retryAfterSeconds);
+        }
+
+        log.debug("Trabajo {} encolado ({} filas)", job.getId(), job.getTotalRows());
+        return toResponse(job);
+    }
+
+    /**
+     * Estado actual de un trabajo.
+     *
+     * @throws DetectionJobNotFoundException si el trabajo no existe o ya expiró
+     */
+    public DetectionJobResponse get(String id) {
+        return toResponse(find(id));
+    }
+
+    /**
+     * Cancela un trabajo en cola o en curso. Cancelar un trabajo terminado no tiene efecto.
+     *
+     * @throws DetectionJobNotFoundException si el trabajo no existe o ya expiró
+     */
+    public DetectionJobResponse cancel(String id) {
+        DetectionJob job = find(id);
+        if (job.cancel(clock.instant())) {
+            executor.purge();  // Libera el lugar en la cola si todavía no había arrancado
+            log.info("Cancelación pedida para el trabajo {}", id);
+        }
+        return toResponse(job);
+    }
+
+    private DetectionJob find(String id) {
+        DetectionJob job = jobs.get(id);
+        if (job == null) {
+            throw new DetectionJobNotFoundException("No existe el trabajo " + id);
+        }
+        return job;
+    }
+
+    private static DetectionJobResponse toResponse(DetectionJob job) {
+        return new DetectionJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getRowsScanned(),
+                job.getTotalRows(),
+                job.getMutant(),
+                job.getError());
+    }
+
+    private void run(DetectionJob job) {
+        if (!job.start()) {
+            return;  // Cancelado mientras esperaba en cola
+        }
+
+        try {
+            boolean isMutant = job.getWork().analyze(job);
+            job.complete(isMutant, clock.instant());
+            log.debug("Trabajo {} terminado: isMutant={}", job.getId(), isMutant);
+        } catch (CancellationException e) {
+            job.cancelled(clock.instant());
+            log.info("Trabajo {} cancelado tras {} filas", job.getId(), job.getRowsScanned());
+        } catch (Exception e) {
+            job.fail(e.getMessage(), clock.instant());
+            log.error("Trabajo {} falló", job.getId(), e);
+        }
+    }
+
+    private void evictExpired() {
+        Instant limit = clock.instant().minus(resultTtl);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
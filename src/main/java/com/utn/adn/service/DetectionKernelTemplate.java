@@ -0,0 +1,45 @@
+package com.utn.adn.service;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Plantilla de los kernels de {@link DetectionKernels}. Nunca se usa como clase normal: sus
+ * bytes se definen como clase oculta una vez por regla, con la comprobación de celda como
+ * class data. CELL es static final en una clase oculta, así que el JIT lo toma como constante.
+ */
+final class DetectionKernelTemplate implements DetectionKernels.Kernel {
+
+    private static final MethodHandle CELL = cell();
+
+    private static MethodHandle cell() {
+        try {
+            return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("La plantilla de kernels solo se usa como clase oculta", e);
+        }
+    }
+
+    @Override
+    public int count(String[] dna, int cols, int fromRow, int toRow, int limit) {
+        final int rows = dna.length;
+        int found = 0;
+        try {
+            for (int r = fromRow; r < toRow; r++) {
+                final String row = dna[r];
+                for (int c = 0; c < cols; c++) {
+                    found += (int) CELL.invokeExact(dna, r, c, (int) RowScanner.upper(row.charAt(c)), rows, cols);
+                    if (found >= limit) {
+                        return found;
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,177 @@
+package com.utn.adn.service;
+
+import com.utn.adn.service.SequenceCensus.Direction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kernels de detección especializados por regla ({@link DetectionRules}).
+ *
+ * Un recorrido genérico (largo y direcciones en variables) es bastante más lento que el motor
+ * escalar escrito a mano para 4. En su lugar, cada combinación de largo y direcciones se
+ * compila una sola vez:
+ *  1. Se arma con combinadores de MethodHandle la comprobación de una celda: por dirección,
+ *     el chequeo de límites y una cadena desenrollada de largo-1 comparaciones con los
+ *     desplazamientos como constantes, y la suma de las direcciones habilitadas.
+ *  2. Los bytes de {@link DetectionKernelTemplate} se definen como una clase oculta nueva con
+ *     ese MethodHandle como class data. En la clase oculta es un static final, así que el JIT
+ *     lo trata como constante y lo inlinea entero: el resultado equivale al código desenrollado.
+ *
+ * El mínimo de secuencias y las dimensiones de la matriz son parámetros del kernel, así que hay
+ * a lo sumo 15 x 15 kernels (combinaciones de largo y direcciones) y la cache no necesita límite.
+ */
+public final class DetectionKernels {
+
+    /**
+     * Kernel compilado: cuenta las secuencias que arrancan en las filas [fromRow, toRow), hasta
+     * llegar a limit. El ADN debe estar validado (filas de igual largo, A/T/C/G en cualquier caso).
+     */
+    interface Kernel {
+        int count(String[] dna, int cols, int fromRow, int toRow, int limit);
+    }
+
+    private record Shape(int sequenceLength, Set<Direction> directions) { }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // Parámetros de la comprobación de una celda: (dna, fila, columna, base, filas, columnas)
+    private static final List<Class<?>> CELL_PARAMETERS =
+            List.of(String[].class, int.class, int.class, int.class, int.class, int.class);
+
+    private static final MethodHandle SAME;
+    private static final MethodHandle FITS;
+    private static final MethodHandle ADD;
+
+    static {
+        try {
+            SAME = LOOKUP.findStatic(DetectionKernels.class, "same", MethodType.methodType(
+                    boolean.class, String[].class, int.class, int.class, int.class, int.class, int.class));
+            FITS = LOOKUP.findStatic(DetectionKernels.class, "fits", MethodType.methodType(
+                    boolean.class, int.class, int.class, int.class, int.class, int.class, int.class));
+            ADD = LOOKUP.findStatic(Integer.class, "sum", MethodType.methodType(int.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final Map<Shape, Kernel> KERNELS = new ConcurrentHashMap<>();
+
+    private static volatile byte[] templateBytes;
+
+    private DetectionKernels() {
+    }
+
+    /**
+     * Determina si el ADN es mutante según las reglas. El ADN debe estar validado.
+     */
+    public static boolean isMutant(String[] dna, DetectionRules rules) {
+        int min = rules.minSequences();
+        return kernel(rules).count(dna, dna[0].length(), 0, dna.length, min) >= min;
+    }
+
+    /**
+     * Cuenta las secuencias que arrancan en la fila r, hasta limit (recorridos con progreso).
+     */
+    public static int countAnchoredAt(String[] dna, DetectionRules rules, int r, int limit) {
+        return kernel(rules).count(dna, dna[0].length(), r, r + 1, limit);
+    }
+
+    /**
+     * Cantidad de kernels compilados hasta el momento.
+     */
+    public static int compiled() {
+        return KERNELS.size();
+    }
+
+    /**
+     * Kernel de las reglas, compilándolo la primera vez.
+     */
+    static Kernel kernel(DetectionRules rules) {
+        return KERNELS.computeIfAbsent(new Shape(rules.sequenceLength(), rules.directions()), DetectionKernels::compile);
+    }
+
+    private static Kernel compile(Shape shape) {
+        MethodHandle cell = cellHandle(shape);
+        try {
+            Class<?> type = LOOKUP.defineHiddenClassWithClassData(template(), cell, true).lookupClass();
+            return (Kernel) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo compilar el kernel de " + shape, e);
+        }
+    }
+
+    /**
+     * (dna, r, c, base, filas, columnas) -> secuencias que arrancan en (r, c), sumando las
+     * direcciones habilitadas.
+     */
+    private static MethodHandle cellHandle(Shape shape) {
+        MethodHandle sum = null;
+        for (Direction direction : shape.directions()) {
+            MethodHandle run = runHandle(shape.sequenceLength(), direction);
+            // sum(args) + run(args): la suma parcial entra como primer argumento de ADD
+            sum = sum == null ? run : MethodHandles.foldArguments(MethodHandles.collectArguments(ADD, 1, run), sum);
+        }
+        return sum;
+    }
+
+    /**
+     * 1 si hay una secuencia de length bases iguales desde (r, c) en la dirección, 0 si no.
+     * Primero se chequean los límites y después cada base, cortando en la primera distinta.
+     */
+    private static MethodHandle runHandle(int length, Direction direction) {
+        int dr = direction == Direction.HORIZONTAL ? 0 : 1;
+        int dc = switch (direction) {
+            case HORIZONTAL, DIAGONAL -> 1;
+            case VERTICAL -> 0;
+            case ANTI_DIAGONAL -> -1;
+        };
+
+        MethodHandle hit = MethodHandles.dropArguments(MethodHandles.constant(int.class, 1), 0, CELL_PARAMETERS);
+        MethodHandle miss = MethodHandles.dropArguments(MethodHandles.constant(int.class, 0), 0, CELL_PARAMETERS);
+
+        MethodHandle run = hit;
+        for (int k = length - 1; k >= 1; k--) {
+            MethodHandle same = MethodHandles.dropArguments(
+                    MethodHandles.insertArguments(SAME, 4, dr * k, dc * k), 4, int.class, int.class);
+            run = MethodHandles.guardWithTest(same, run, miss);
+        }
+
+        MethodHandle fits = MethodHandles.insertArguments(FITS, 4, dr * (length - 1), dc * (length - 1));
+        fits = MethodHandles.dropArguments(MethodHandles.dropArguments(fits, 0, String[].class), 3, int.class);
+        return MethodHandles.guardWithTest(fits, run, miss);
+    }
+
+    private static boolean same(String[] dna, int r, int c, int base, int dr, int dc) {
+        return RowScanner.upper(dna[r + dr].charAt(c + dc)) == base;
+    }
+
+    private static boolean fits(int r, int c, int rows, int cols, int rowReach, int colReach) {
+        return r + rowReach < rows && c + colReach >= 0 && c + colReach < cols;
+    }
+
+    private static byte[] template() {
+        byte[] bytes = templateBytes;
+        if (bytes == null) {
+            String resource = DetectionKernelTemplate.class.getSimpleName() + ".class";
+            try (InputStream in = DetectionKernels.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("No se encontró la plantilla de kernels " + resource);
+                }
+                bytes = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            templateBytes = bytes;
+        }
+        return bytes;
+    }
+}
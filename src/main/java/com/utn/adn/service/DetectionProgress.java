@@ -0,0 +1,55 @@
+package com.utn.adn.service;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Seguimiento de un análisis largo: recibe el avance por filas y permite cancelarlo.
+ */
+public interface DetectionProgress {
+
+    /**
+     * Sin seguimiento: ignora el avance y nunca cancela.
+     */
+    DetectionProgress NONE = reporting(rows -> { });
+
+    /**
+     * Ya cancelado: el análisis se abandona en la primera fila.
+     */
+    DetectionProgress CANCELLED = new DetectionProgress() {
+        @Override
+        public void rowsScanned(int rows) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return true;
+        }
+    };
+
+    /**
+     * Informa cuántas filas de la matriz ya se recorrieron.
+     */
+    void rowsScanned(int rows);
+
+    /**
+     * Indica si el análisis debe abandonarse.
+     */
+    boolean isCancelled();
+
+    /**
+     * Seguimiento que solo informa el avance, sin cancelar nunca.
+     */
+    static DetectionProgress reporting(IntConsumer rowsScanned) {
+        return new DetectionProgress() {
+            @Override
+            public void rowsScanned(int rows) {
+                rowsScanned.accept(rows);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+    }
+}
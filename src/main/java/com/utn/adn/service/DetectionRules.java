@@ -0,0 +1,127 @@
+package com.utn.adn.service;
+
+import com.utn.adn.service.SequenceCensus.Direction;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reglas de detección: largo de la secuencia, cantidad mínima de secuencias para ser mutante,
+ * direcciones que cuentan y si se aceptan matrices rectangulares (MxN).
+ *
+ * {@link #DEFAULT} es la regla original (2 secuencias de 4, las 4 direcciones, NxN) y la
+ * resuelven los motores escritos a mano. Cualquier otra se resuelve con un kernel
+ * especializado de {@link DetectionKernels}.
+ *
+ * Como el veredicto depende de las reglas, las reglas de una solicitud distintas de las del
+ * perfil forman parte de la clave de cache ({@link #cacheKey()}): sus veredictos no se mezclan
+ * con los de dna_records.
+ */
+public record DetectionRules(int sequenceLength, int minSequences, Set<Direction> directions, boolean rectangular) {
+
+    public static final int MIN_SEQUENCE_LENGTH = 2;
+    public static final int MAX_SEQUENCE_LENGTH = 16;
+
+    public static final DetectionRules DEFAULT =
+            new DetectionRules(4, 2, EnumSet.allOf(Direction.class), false);
+
+    /**
+     * @throws IllegalArgumentException si el largo está fuera de rango, el mínimo no es positivo
+     *                                  o no hay direcciones
+     */
+    public DetectionRules {
+        if (sequenceLength < MIN_SEQUENCE_LENGTH || sequenceLength > MAX_SEQUENCE_LENGTH) {
+            throw new IllegalArgumentException("El largo de secuencia debe estar entre "
+                    + MIN_SEQUENCE_LENGTH + " y " + MAX_SEQUENCE_LENGTH + ": " + sequenceLength);
+        }
+        if (minSequences < 1) {
+            throw new IllegalArgumentException("La cantidad mínima de secuencias debe ser positiva: " + minSequences);
+        }
+        if (directions == null || directions.isEmpty()) {
+            throw new IllegalArgumentException("Las reglas deben habilitar al menos una dirección");
+        }
+        directions = Collections.unmodifiableSet(EnumSet.copyOf(directions));
+    }
+
+    /**
+     * Reglas a partir de nombres de dirección (horizontal, vertical, diagonal, anti-diagonal).
+     *
+     * @throws IllegalArgumentException si algún nombre no es una dirección
+     */
+    public static DetectionRules of(int sequenceLength, int minSequences, Collection<String> directions, boolean rectangular) {
+        return new DetectionRules(sequenceLength, minSequences, parseDirections(directions), rectangular);
+    }
+
+    /**
+     * Igual que estas reglas, con los valores no nulos reemplazados (reglas por request).
+     */
+    public DetectionRules with(Integer sequenceLength, Integer minSequences, List<String> directions, Boolean rectangular) {
+        return new DetectionRules(
+                sequenceLength != null ? sequenceLength : this.sequenceLength,
+                minSequences != null ? minSequences : this.minSequences,
+                directions != null ? parseDirections(directions) : this.directions,
+                rectangular != null ? rectangular : this.rectangular);
+    }
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+
+    /**
+     * Indica si cuenta igual que la regla original; solo puede diferir en aceptar matrices MxN.
+     * Sobre una matriz NxN, estas reglas dan el mismo veredicto que los motores de siempre.
+     */
+    public boolean countsLikeDefault() {
+        return sequenceLength == DEFAULT.sequenceLength
+                && minSequences == DEFAULT.minSequences
+                && directions.equals(DEFAULT.directions);
+    }
+
+    /**
+     * Indica si el veredicto es invariante ante rotaciones y reflexiones (ver {@link DnaSymmetry}):
+     * las horizontales y verticales se intercambian entre sí, y también las dos diagonales.
+     * Solo en ese caso se pueden usar claves canónicas.
+     */
+    public boolean isSymmetric() {
+        return directions.contains(Direction.HORIZONTAL) == directions.contains(Direction.VERTICAL)
+                && directions.contains(Direction.DIAGONAL) == directions.contains(Direction.ANTI_DIAGONAL);
+    }
+
+    /**
+     * Prefijo de la clave de cache, por ejemplo "rules:L5;T2;HV;R". Nunca coincide con una
+     * fila de ADN, así que no colisiona con los hashes sin prefijo de las reglas del perfil.
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder("rules:L").append(sequenceLength).append(";T").append(minSequences).append(';');
+        for (Direction direction : directions) {
+            key.append(switch (direction) {
+                case HORIZONTAL -> 'H';
+                case VERTICAL -> 'V';
+                case DIAGONAL -> 'D';
+                case ANTI_DIAGONAL -> 'A';
+            });
+        }
+        return rectangular ? key.append(";R").toString() : key.toString();
+    }
+
+    private static Set<Direction> parseDirections(Collection<String> names) {
+        if (names == null) {
+            return EnumSet.noneOf(Direction.class);
+        }
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+        for (String name : names) {
+            String normalized = name == null ? "" : name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+            try {
+                directions.add(Direction.valueOf(normalized));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dirección desconocida: " + name
+                        + " (horizontal, vertical, diagonal o anti-diagonal)");
+            }
+        }
+        return directions;
+    }
+}
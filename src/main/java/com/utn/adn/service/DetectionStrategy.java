@@ -0,0 +1,21 @@
+package com.utn.adn.service;
+
+/**
+ * Motor de detección intercambiable. Todos los motores comparten la regla de MutantDetector:
+ * mutante si hay al menos 2 secuencias de 4 bases iguales (horizontal, vertical o diagonal).
+ *
+ * Reciben un ADN ya validado por MutantDetector: NxN, sin filas nulas y solo A/T/C/G
+ * (mayúsculas o minúsculas).
+ */
+public interface DetectionStrategy {
+
+    /**
+     * Nombre del motor, usado en configuración y en el perfil expuesto.
+     */
+    String name();
+
+    /**
+     * Determina si el ADN validado pertenece a un mutante.
+     */
+    boolean isMutant(String[] dna);
+}
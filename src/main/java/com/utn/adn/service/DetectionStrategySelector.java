@@ -0,0 +1,268 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.DetectorProfileResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elige el motor de detección según el tamaño N de la matriz.
+ *
+ * Regla: N >= parallel-min-size → paralelo; N >= bitboard-min-size → bitboard; si no, escalar.
+ * Los umbrales salen de (en orden de prioridad): overrides manuales en configuración,
+ * un perfil guardado en disco, o una calibración corta al arranque que mide cada motor
+ * en varios tamaños. El motor también puede fijarse con adn.detector.strategy.
+ */
+@Service
+@Slf4j
+public class DetectionStrategySelector {
+
+    public static final String AUTO = "auto";
+
+    private static final int DISABLED = Integer.MAX_VALUE;
+    private static final int[] CALIBRATION_SIZES = {6, 16, 32, 64, 128, 256, 512, 1024};
+    private static final String BITBOARD_KEY = "bitboard-min-size";
+    private static final String PARALLEL_KEY = "parallel-min-size";
+
+    private final Map<String, DetectionStrategy> strategies = new LinkedHashMap<>();
+    private final String forcedStrategy;
+    private final int bitboardOverride;
+    private final int parallelOverride;
+    private final boolean calibrationEnabled;
+    private final long calibrationMaxMillis;
+    private final String profileFile;
+
+    private volatile Thresholds thresholds;
+
+    @Autowired
+    public DetectionStrategySelector(
+            List<DetectionStrategy> strategies,
+            @Value("${adn.detector.strategy:auto}") String forcedStrategy,
+            @Value("${adn.detector.bitboard-min-size:-1}") int bitboardOverride,
+            @Value("${adn.detector.parallel-min-size:-1}") int parallelOverride,
+            @Value("${adn.detector.calibration.enabled:true}") boolean calibrationEnabled,
+            @Value("${adn.detector.calibration.max-ms:2000}") long calibrationMaxMillis,
+            @Value("${adn.detector.calibration.profile-file:}") String profileFile) {
+        for (DetectionStrategy strategy : strategies) {
+            this.strategies.put(strategy.name(), strategy);
+        }
+        if (AUTO.equals(forcedStrategy) && !this.strategies.containsKey(ScalarDetectionStrategy.NAME)) {
+            throw new IllegalStateException("El motor escalar de referencia es obligatorio");
+        }
+        if (!AUTO.equals(forcedStrategy) && !this.strategies.containsKey(forcedStrategy)) {
+            throw new IllegalStateException("Motor de detección desconocido: " + forcedStrategy);
+        }
+
+        this.forcedStrategy = forcedStrategy;
+        this.bitboardOverride = bitboardOverride;
+        this.parallelOverride = parallelOverride;
+        this.calibrationEnabled = calibrationEnabled;
+        this.calibrationMaxMillis = calibrationMaxMillis;
+        this.profileFile = profileFile;
+        this.thresholds = withOverrides(new Thresholds(64, 4096, "default"));
+    }
+
+    /**
+     * Selector con un único motor y sin calibración (uso fuera de Spring).
+     */
+    public static DetectionStrategySelector fixed(DetectionStrategy strategy) {
+        return new DetectionStrategySelector(List.of(strategy), strategy.name(), -1, -1, false, 0, "");
+    }
+
+    /**
+     * Motor a usar para una matriz NxN.
+     */
+    public DetectionStrategy select(int n) {
+        if (!AUTO.equals(forcedStrategy)) {
+            return strategies.get(forcedStrategy);
+        }
+
+        Thresholds current = thresholds;
+        if (n >= current.parallelMinSize() && strategies.containsKey(ParallelDetectionStrategy.NAME)) {
+            return strategies.get(ParallelDetectionStrategy.NAME);
+        }
+        if (n >= current.bitboardMinSize() && strategies.containsKey(BitboardDetectionStrategy.NAME)) {
+            return strategies.get(BitboardDetectionStrategy.NAME);
+        }
+        return strategies.get(ScalarDetectionStrategy.NAME);
+    }
+
+    /**
+     * Fija los umbrales: carga el perfil guardado si existe; si no, calibra (si está habilitado)
+     * y guarda el resultado. Los overrides manuales siempre tienen prioridad.
+     */
+    public void initialize() {
+        if (!AUTO.equals(forcedStrategy)) {
+            log.info("Motor de detección fijado por configuración: {}", forcedStrategy);
+            return;
+        }
+
+        Thresholds loaded = loadProfile();
+        if (loaded != null) {
+            thresholds = withOverrides(loaded);
+        } else if (calibrationEnabled) {
+            Thresholds calibrated = calibrate();
+            saveProfile(calibrated);
+            thresholds = withOverrides(calibrated);
+        }
+
+        log.info("Umbrales de detección: bitboard >= {}, paralelo >= {} (origen={})",
+                describeSize(thresholds.bitboardMinSize()), describeSize(thresholds.parallelMinSize()), thresholds.source());
+    }
+
+    public DetectorProfileResponse describe() {
+        Thresholds current = thresholds;
+        return new DetectorProfileResponse(
+                forcedStrategy,
+                current.bitboardMinSize() == DISABLED ? null : current.bitboardMinSize(),
+                current.parallelMinSize() == DISABLED ? null : current.parallelMinSize(),
+                current.source(),
+                new ArrayList<>(strategies.keySet()));
+    }
+
+    // =======================================================
+    //                      Calibración
+    // =======================================================
+
+    /**
+     * Mide cada motor en tamaños crecientes sobre una matriz humana (sin secuencias, el peor
+     * caso porque no hay corte temprano) y toma como umbral el primer tamaño a partir del cual
+     * el motor gana en todos los tamaños mayores medidos.
+     */
+    Thresholds calibrate() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(calibrationMaxMillis);
+        List<Integer> sizes = new ArrayList<>();
+        List<String> winners = new ArrayList<>();
+
+        for (int n : CALIBRATION_SIZES) {
+            if (System.nanoTime() > deadline) break;
+
+            String[] dna = humanDna(n);
+            String best = null;
+            long bestNanos = Long.MAX_VALUE;
+            for (DetectionStrategy strategy : strategies.values()) {
+                long nanos = measure(strategy, dna, deadline);
+                if (nanos < bestNanos) {
+                    bestNanos = nanos;
+                    best = strategy.name();
+                }
+            }
+            sizes.add(n);
+            winners.add(best);
+            log.debug("Calibración N={}: gana {} ({} ns)", n, best, bestNanos);
+        }
+
+        int parallelMin = crossover(sizes, winners, List.of(ParallelDetectionStrategy.NAME));
+        int bitboardMin = crossover(sizes, winners, List.of(BitboardDetectionStrategy.NAME, ParallelDetectionStrategy.NAME));
+        return new Thresholds(bitboardMin, parallelMin, "calibration");
+    }
+
+    /**
+     * Menor tamaño medido a partir del cual siempre gana alguno de los motores indicados.
+     */
+    private static int crossover(List<Integer> sizes, List<String> winners, List<String> engines) {
+        int threshold = DISABLED;
+        for (int i = sizes.size() - 1; i >= 0; i--) {
+            if (!engines.contains(winners.get(i))) break;
+            threshold = sizes.get(i);
+        }
+        return threshold;
+    }
+
+    private static long measure(DetectionStrategy strategy, String[] dna, long deadline) {
+        // Algunas pasadas de calentamiento y luego el mejor de varias mediciones
+        for (int i = 0; i < 5 && System.nanoTime() < deadline; i++) {
+            strategy.isMutant(dna);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 7 && System.nanoTime() < deadline; i++) {
+            long start = System.nanoTime();
+            strategy.isMutant(dna);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Matriz sin ninguna secuencia: cada fila recorre ATCG desplazada 2 posiciones respecto de la anterior.
+     */
+    static String[] humanDna(int n) {
+        final String cycle = "ATCG";
+        String[] dna = new String[n];
+        StringBuilder row = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            row.setLength(0);
+            for (int j = 0; j < n; j++) {
+                row.append(cycle.charAt((j + 2 * i) & 3));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    // =======================================================
+    //                  Perfil y overrides
+    // =======================================================
+
+    private Thresholds withOverrides(Thresholds base) {
+        if (bitboardOverride < 0 && parallelOverride < 0) {
+            return base;
+        }
+        return new Thresholds(
+                bitboardOverride >= 0 ? bitboardOverride : base.bitboardMinSize(),
+                parallelOverride >= 0 ? parallelOverride : base.parallelMinSize(),
+                "override");
+    }
+
+    private Thresholds loadProfile() {
+        if (profileFile == null || profileFile.isBlank() || !Files.exists(Path.of(profileFile))) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(profileFile))) {
+            properties.load(in);
+            return new Thresholds(
+                    Integer.parseInt(properties.getProperty(BITBOARD_KEY, String.valueOf(DISABLED))),
+                    Integer.parseInt(properties.getProperty(PARALLEL_KEY, String.valueOf(DISABLED))),
+                    "profile");
+        } catch (IOException | NumberFormatException e) {
+            log.warn("No se pudo leer el perfil de detección {}: {}", profileFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveProfile(Thresholds calibrated) {
+        if (profileFile == null || profileFile.isBlank()) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(BITBOARD_KEY, String.valueOf(calibrated.bitboardMinSize()));
+        properties.setProperty(PARALLEL_KEY, String.valueOf(calibrated.parallelMinSize()));
+        try (OutputStream out = Files.newOutputStream(Path.of(profileFile))) {
+            properties.store(out, "Umbrales calibrados de MutantDetector");
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el perfil de detección {}: {}", profileFile, e.getMessage());
+        }
+    }
+
+    private static String describeSize(int size) {
+        return size == DISABLED ? "nunca" : String.valueOf(size);
+    }
+
+    record Thresholds(int bitboardMinSize, int parallelMinSize, String source) { }
+}
@@ -0,0 +1,198 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.DnaHashCalculationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calcula el hash SHA-256 de un ADN sin asignaciones proporcionales a N.
+ * Las filas se vuelcan directamente sobre un MessageDigest reutilizado por hilo,
+ * a través de un buffer de bytes fijo, y el hex se codifica con una tabla.
+ *
+ * El resultado es idéntico al de concatenar las filas con '|' y aplicar SHA-256
+ * sobre sus bytes UTF-8, por lo que los hashes ya guardados siguen siendo válidos.
+ */
+public final class DnaHasher {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte SEPARATOR = '|';
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final int DIGEST_LENGTH = 32;
+
+    /**
+     * Un juego de buffers por hilo de plataforma (Tomcat usa un pool fijo de hilos).
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private DnaHasher() {
+    }
+
+    /**
+     * Indica si el texto tiene la forma de un hash de esta clase: 64 dígitos hex en minúsculas.
+     */
+    public static boolean isSha256Hex(String hash) {
+        if (hash == null || hash.length() != 2 * DIGEST_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash SHA-256 en hex (64 chars) de las filas unidas con '|'.
+     * Un arreglo nulo se hashea como el texto "null".
+     */
+    public static String sha256Hex(String[] dna) {
+        return sha256Hex(null, dna);
+    }
+
+    /**
+     * Igual que {@link #sha256Hex(String[])}, con un prefijo hasheado como una fila más antes
+     * del ADN (por ejemplo, la clave de las reglas de detección). Sin prefijo da el hash de siempre.
+     */
+    public static String sha256Hex(String prefix, String[] dna) {
+        Scratch scratch = SCRATCH.get();
+        MessageDigest md = scratch.digest;
+        md.reset();
+        updatePrefix(md, prefix, scratch.chunk);
+
+        if (dna == null) {
+            md.update(NULL_BYTES);
+        } else {
+            for (int i = 0; i < dna.length; i++) {
+                if (i > 0) md.update(SEPARATOR);
+                update(md, dna[i], scratch.chunk);
+            }
+        }
+
+        return finish(scratch);
+    }
+
+    /**
+     * Hash SHA-256 de la orientación canónica del ADN (ver {@link DnaSymmetry}), en mayúsculas.
+     * Las 8 rotaciones/reflexiones de una misma matriz producen el mismo hash. Si la matriz
+     * no es cuadrada o contiene caracteres no ASCII, se usa el hash normal.
+     */
+    public static String sha256HexCanonical(String[] dna) {
+        return sha256HexCanonical(null, dna);
+    }
+
+    /**
+     * Igual que {@link #sha256HexCanonical(String[])}, con un prefijo (ver {@link #sha256Hex(String, String[])}).
+     */
+    public static String sha256HexCanonical(String prefix, String[] dna) {
+        if (!DnaSymmetry.isSquare(dna)) {
+            return sha256Hex(prefix, dna);
+        }
+
+        final int n = dna.length;
+        final int orientation = DnaSymmetry.canonicalOrientation(dna);
+
+        Scratch scratch = SCRATCH.get();
+        MessageDigest md = scratch.digest;
+        byte[] chunk = scratch.chunk;
+        md.reset();
+        updatePrefix(md, prefix, chunk);
+
+        for (int i = 0; i < n; i++) {
+            if (i > 0) md.update(SEPARATOR);
+            int pos = 0;
+            for (int j = 0; j < n; j++) {
+                char c = DnaSymmetry.cell(dna, n, orientation, i, j);
+                if (c >= 0x80) {
+                    return sha256Hex(prefix, dna);
+                }
+                chunk[pos++] = (byte) c;
+                if (pos == chunk.length) {
+                    md.update(chunk, 0, pos);
+                    pos = 0;
+                }
+            }
+            md.update(chunk, 0, pos);
+        }
+
+        return finish(scratch);
+    }
+
+    private static void updatePrefix(MessageDigest md, String prefix, byte[] chunk) {
+        if (prefix != null) {
+            update(md, prefix, chunk);
+            md.update(SEPARATOR);
+        }
+    }
+
+    /**
+     * Vuelca una fila sobre el digest. Las filas ASCII (el caso normal) se copian por bloques
+     * al buffer fijo; cualquier otro contenido cae al encoding UTF-8 estándar.
+     */
+    static void update(MessageDigest md, String row, byte[] chunk) {
+        if (row == null) {
+            md.update(NULL_BYTES);
+            return;
+        }
+
+        final int len = row.length();
+        int pos = 0;
+        while (pos < len) {
+            int end = Math.min(len, pos + chunk.length);
+            for (int i = pos; i < end; i++) {
+                char c = row.charAt(i);
+                if (c >= 0x80) {
+                    // Contenido no ASCII: descartamos el bloque actual y codificamos el resto en UTF-8
+                    if (i > pos) md.update(chunk, 0, i - pos);
+                    md.update(row.substring(i).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                chunk[i - pos] = (byte) c;
+            }
+            md.update(chunk, 0, end - pos);
+            pos = end;
+        }
+    }
+
+    /**
+     * Cierra el digest actual del hilo y lo codifica en hex.
+     */
+    static String finish(Scratch scratch) {
+        try {
+            scratch.digest.digest(scratch.out, 0, DIGEST_LENGTH);
+        } catch (DigestException e) {
+            throw new DnaHashCalculationException("Error al calcular hash del ADN", e);
+        }
+
+        char[] hex = scratch.hex;
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            int b = scratch.out[i] & 0xFF;
+            hex[2 * i] = HEX[b >>> 4];
+            hex[2 * i + 1] = HEX[b & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Buffers reutilizados por hilo: digest, bloque de bytes y salida hex.
+     */
+    static final class Scratch {
+        final MessageDigest digest;
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        final byte[] out = new byte[DIGEST_LENGTH];
+        final char[] hex = new char[2 * DIGEST_LENGTH];
+
+        private Scratch() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new DnaHashCalculationException("Algoritmo SHA-256 no soportado", e);
+            }
+        }
+    }
+}
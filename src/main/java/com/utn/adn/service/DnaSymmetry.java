@@ -0,0 +1,83 @@
+package com.utn.adn.service;
+
+/**
+ * Simetrías del cuadrado (grupo diedral de 8 elementos) aplicadas a una matriz de ADN.
+ * El veredicto de MutantDetector no cambia bajo rotaciones ni reflexiones: las
+ * secuencias horizontales y verticales se intercambian y las diagonales se mapean entre sí.
+ *
+ * Las orientaciones se evalúan leyendo la matriz original con índices transformados,
+ * sin materializar ninguna de las 8 copias.
+ */
+public final class DnaSymmetry {
+
+    public static final int IDENTITY = 0;
+    public static final int ORIENTATIONS = 8;
+
+    private DnaSymmetry() {
+    }
+
+    /**
+     * Indica si el ADN es una matriz NxN sin filas nulas (requisito para canonicalizar).
+     */
+    public static boolean isSquare(String[] dna) {
+        if (dna == null || dna.length == 0) return false;
+        for (String row : dna) {
+            if (row == null || row.length() != dna.length) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Busca la orientación lexicográficamente menor (recorriendo por filas, en mayúsculas).
+     * Las candidatas se descartan celda a celda y la búsqueda termina cuando queda una;
+     * en matrices aleatorias eso ocurre tras unas pocas celdas. Si varias orientaciones
+     * producen la misma matriz (ADN simétrico), se devuelve la de menor índice.
+     *
+     * @param dna matriz NxN (ver {@link #isSquare(String[])})
+     * @return orientación entre 0 y 7
+     */
+    public static int canonicalOrientation(String[] dna) {
+        final int n = dna.length;
+        int candidates = (1 << ORIENTATIONS) - 1;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                char min = Character.MAX_VALUE;
+                for (int o = 0; o < ORIENTATIONS; o++) {
+                    if ((candidates & (1 << o)) != 0) {
+                        min = (char) Math.min(min, cell(dna, n, o, i, j));
+                    }
+                }
+                for (int o = 0; o < ORIENTATIONS; o++) {
+                    if ((candidates & (1 << o)) != 0 && cell(dna, n, o, i, j) != min) {
+                        candidates &= ~(1 << o);
+                    }
+                }
+                if (Integer.bitCount(candidates) == 1) {
+                    return Integer.numberOfTrailingZeros(candidates);
+                }
+            }
+        }
+
+        return Integer.numberOfTrailingZeros(candidates);
+    }
+
+    /**
+     * Celda (i, j) de la matriz vista en la orientación indicada, en mayúsculas.
+     */
+    static char cell(String[] dna, int n, int orientation, int i, int j) {
+        final int last = n - 1;
+        char c = switch (orientation) {
+            case 0 -> dna[i].charAt(j);                // identidad
+            case 1 -> dna[last - j].charAt(i);         // rotación 90°
+            case 2 -> dna[last - i].charAt(last - j);  // rotación 180°
+            case 3 -> dna[j].charAt(last - i);         // rotación 270°
+            case 4 -> dna[j].charAt(i);                // transpuesta
+            case 5 -> dna[i].charAt(last - j);         // espejo horizontal
+            case 6 -> dna[last - i].charAt(j);         // espejo vertical
+            case 7 -> dna[last - j].charAt(last - i);  // anti-transpuesta
+            default -> throw new IllegalArgumentException("Orientación inválida: " + orientation);
+        };
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
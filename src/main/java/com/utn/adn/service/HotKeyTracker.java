@@ -0,0 +1,156 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.HotKeysResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Seguimiento aproximado de los ADN más consultados (heavy hitters).
+ *
+ * Un count-min sketch de tamaño fijo estima cuántas veces se pidió cada hash, y un
+ * conjunto acotado de K candidatas guarda las claves con mayor estimación. El registro
+ * no toma locks: el sketch usa contadores atómicos y las candidatas un ConcurrentHashMap;
+ * solo el recorte del top-K usa tryLock y se omite si otro hilo ya lo está haciendo.
+ *
+ * Al cerrar cada ventana todos los contadores se dividen por 2, así el ranking refleja
+ * el tráfico reciente (decaimiento exponencial por ventana).
+ */
+@Service
+public class HotKeyTracker {
+
+    private final boolean enabled;
+    private final int depth;
+    private final int widthMask;
+    private final int topK;
+    private final long windowNanos;
+
+    private final AtomicLongArray sketch;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    private final AtomicBoolean decaying = new AtomicBoolean();
+    private final AtomicLong nextDecay;
+    private volatile long minCandidate;
+
+    public HotKeyTracker(
+            @Value("${adn.hotkeys.enabled:true}") boolean enabled,
+            @Value("${adn.hotkeys.width:4096}") int width,
+            @Value("${adn.hotkeys.depth:4}") int depth,
+            @Value("${adn.hotkeys.top-k:20}") int topK,
+            @Value("${adn.hotkeys.window-seconds:60}") long windowSeconds) {
+        this.enabled = enabled;
+        int normalizedWidth = Integer.highestOneBit(Math.max(16, width));
+        this.depth = Math.max(1, depth);
+        this.widthMask = normalizedWidth - 1;
+        this.topK = Math.max(1, topK);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, windowSeconds));
+        this.sketch = new AtomicLongArray(this.depth * normalizedWidth);
+        this.nextDecay = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Registra una consulta del ADN con el hash indicado (hex SHA-256).
+     */
+    public void record(String dnaHash) {
+        if (!enabled || dnaHash == null || dnaHash.length() < 32) {
+            return;
+        }
+
+        maybeDecay();
+
+        long h1 = hexPrefix(dnaHash, 0);
+        long h2 = hexPrefix(dnaHash, 16) | 1L;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (widthMask + 1) + (int) ((h1 + row * h2) >>> 32 & widthMask);
+            estimate = Math.min(estimate, sketch.incrementAndGet(index));
+        }
+
+        if (candidates.containsKey(dnaHash) || candidates.size() < topK || estimate > minCandidate) {
+            candidates.put(dnaHash, estimate);
+            if (candidates.size() > topK) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Las K claves con mayor cantidad estimada de consultas en la ventana reciente.
+     */
+    public HotKeysResponse getHotKeys() {
+        List<HotKeysResponse.HotKey> keys = candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(topK)
+                .map(entry -> new HotKeysResponse.HotKey(entry.getKey(), entry.getValue()))
+                .toList();
+        return new HotKeysResponse(TimeUnit.NANOSECONDS.toSeconds(windowNanos), keys);
+    }
+
+    /**
+     * Deja solo las K mejores candidatas y actualiza el mínimo para filtrar nuevas entradas.
+     */
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            while (candidates.size() > topK) {
+                Map.Entry<String, Long> weakest = null;
+                for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                    if (weakest == null || entry.getValue() < weakest.getValue()) {
+                        weakest = entry;
+                    }
+                }
+                if (weakest == null) break;
+                candidates.remove(weakest.getKey(), weakest.getValue());
+            }
+            minCandidate = candidates.values().stream().mapToLong(Long::longValue).min().orElse(0);
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    /**
+     * Al vencer la ventana, un único hilo divide por 2 el sketch y las candidatas.
+     */
+    private void maybeDecay() {
+        long now = System.nanoTime();
+        long deadline = nextDecay.get();
+        if (now - deadline < 0 || !decaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!nextDecay.compareAndSet(deadline, now + windowNanos)) {
+                return;
+            }
+            for (int i = 0; i < sketch.length(); i++) {
+                sketch.getAndUpdate(i, value -> value >>> 1);
+            }
+            candidates.replaceAll((key, value) -> value >>> 1);
+            candidates.values().removeIf(value -> value == 0);
+            minCandidate = minCandidate >>> 1;
+        } finally {
+            decaying.set(false);
+        }
+    }
+
+    /**
+     * 16 dígitos hex a partir de offset, sin crear substrings.
+     */
+    private static long hexPrefix(String hex, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = (value << 4) | (Character.digit(hex.charAt(i), 16) & 0xF);
+        }
+        return value;
+    }
+}
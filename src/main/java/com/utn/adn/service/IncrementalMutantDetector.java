@@ -0,0 +1,180 @@
+package com.utn.adn.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Detección incremental para ADN casi duplicado (re-secuenciaciones que cambian pocas filas).
+ *
+ * Para cada matriz analizada se guarda, por fila, la cantidad de secuencias de 4 que
+ * "arrancan" en esa fila (horizontal, vertical y ambas diagonales). Una secuencia que
+ * arranca en la fila r solo depende de las filas r..r+3, así que si cambia la fila i
+ * basta recalcular las filas i-3..i. El total resultante es exactamente el que
+ * contaría MutantDetector sin corte temprano, y el veredicto es total >= 2.
+ *
+ * Las matrices anteriores se encuentran por filas de muestra (0, N/4, N/2, 3N/4, N-1);
+ * la memoria está acotada por la cantidad total de celdas retenidas.
+ */
+@Service
+@Slf4j
+public class IncrementalMutantDetector {
+
+    private static final int SEQUENCE_LENGTH = RowScanner.SEQUENCE_LENGTH;
+    private static final int MIN_MUTANT_SEQUENCES = 2;
+
+    private final MutantDetector mutantDetector;
+    private final boolean enabled;
+    private final int minSize;
+    private final long maxCells;
+    private final double maxChangedFraction;
+
+    // Índice fila de muestra -> matriz previa, y orden de inserción para desalojar (FIFO)
+    private final Map<RowKey, Entry> index = new HashMap<>();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private long retainedCells;
+
+    public IncrementalMutantDetector(
+            MutantDetector mutantDetector,
+            @Value("${adn.detector.incremental.enabled:false}") boolean enabled,
+            @Value("${adn.detector.incremental.min-size:64}") int minSize,
+            @Value("${adn.detector.incremental.max-cells:16000000}") long maxCells,
+            @Value("${adn.detector.incremental.max-changed-fraction:0.25}") double maxChangedFraction) {
+        this.mutantDetector = mutantDetector;
+        this.enabled = enabled;
+        this.minSize = Math.max(SEQUENCE_LENGTH, minSize);
+        this.maxCells = maxCells;
+        this.maxChangedFraction = maxChangedFraction;
+    }
+
+    /**
+     * Indica si conviene usar la detección incremental para este ADN.
+     */
+    public boolean supports(String[] dna) {
+        return enabled && dna != null && dna.length >= minSize;
+    }
+
+    /**
+     * Mismo veredicto que {@link MutantDetector#isMutant(String[])}, reutilizando el conteo
+     * de una matriz previa que comparta filas con esta.
+     */
+    public boolean isMutant(String[] dna) {
+        if (!supports(dna) || !DnaSymmetry.isSquare(dna)) {
+            return mutantDetector.isMutant(dna);
+        }
+
+        Entry base = findBase(dna);
+
+        Entry result = base != null ? rescanChangedRows(dna, base) : null;
+        if (result == null) {
+            result = fullScan(dna);
+        }
+        if (result == null) {
+            return false;  // Caracteres inválidos: mismo resultado que MutantDetector
+        }
+
+        register(result);
+        return result.total >= MIN_MUTANT_SEQUENCES;
+    }
+
+    /**
+     * Recalcula solo las filas cuyo vecindario (r..r+3) cambió respecto de la matriz base.
+     * Devuelve null si cambiaron demasiadas filas o alguna fila nueva es inválida.
+     */
+    private Entry rescanChangedRows(String[] dna, Entry base) {
+        final int n = dna.length;
+        final int maxChanged = (int) (n * maxChangedFraction);
+
+        boolean[] dirty = new boolean[n];
+        int changed = 0;
+        for (int i = 0; i < n; i++) {
+            if (!dna[i].equals(base.rows[i])) {
+                if (++changed > maxChanged || !RowScanner.isValidRow(dna[i])) {
+                    return null;
+                }
+                for (int r = Math.max(0, i - (SEQUENCE_LENGTH - 1)); r <= i; r++) {
+                    dirty[r] = true;
+                }
+            }
+        }
+
+        int[] anchors = base.anchors.clone();
+        long total = base.total;
+        for (int r = 0; r < n; r++) {
+            if (dirty[r]) {
+                int count = RowScanner.countAnchoredAt(dna, r);
+                total += count - anchors[r];
+                anchors[r] = count;
+            }
+        }
+
+        log.debug("Detección incremental: {} filas cambiadas de {}", changed, n);
+        return new Entry(dna.clone(), anchors, total);
+    }
+
+    private Entry fullScan(String[] dna) {
+        for (String row : dna) {
+            if (!RowScanner.isValidRow(row)) return null;
+        }
+
+        int[] anchors = new int[dna.length];
+        long total = 0;
+        for (int r = 0; r < dna.length; r++) {
+            anchors[r] = RowScanner.countAnchoredAt(dna, r);
+            total += anchors[r];
+        }
+        return new Entry(dna.clone(), anchors, total);
+    }
+
+    // =======================================================
+    //             Índice acotado de matrices previas
+    // =======================================================
+
+    private synchronized Entry findBase(String[] dna) {
+        for (int sample : sampleRows(dna.length)) {
+            Entry entry = index.get(new RowKey(dna.length, sample, dna[sample]));
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void register(Entry entry) {
+        final int n = entry.rows.length;
+        final long cells = (long) n * n;
+        if (cells > maxCells) {
+            return;
+        }
+
+        for (int sample : sampleRows(n)) {
+            index.put(new RowKey(n, sample, entry.rows[sample]), entry);
+        }
+        entries.addLast(entry);
+        retainedCells += cells;
+
+        while (retainedCells > maxCells && !entries.isEmpty()) {
+            Entry evicted = entries.removeFirst();
+            int size = evicted.rows.length;
+            retainedCells -= (long) size * size;
+            for (int sample : sampleRows(size)) {
+                index.remove(new RowKey(size, sample, evicted.rows[sample]), evicted);
+            }
+        }
+    }
+
+    private static int[] sampleRows(int n) {
+        return new int[]{0, n / 4, n / 2, (3 * n) / 4, n - 1};
+    }
+
+    private record RowKey(int size, int row, String content) { }
+
+    /**
+     * Matriz analizada con su conteo de secuencias por fila de arranque.
+     */
+    private record Entry(String[] rows, int[] anchors, long total) { }
+}
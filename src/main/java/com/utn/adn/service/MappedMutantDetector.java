@@ -0,0 +1,164 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.InvalidDnaFileException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Detección fuera del heap sobre archivos {@link PackedDnaFile} mapeados en memoria.
+ *
+ * El archivo se recorre de arriba hacia abajo en tramos de adn.detector.mapped.tile-rows
+ * filas: cada tramo se mapea una sola vez y se lee secuencialmente, así el page cache
+ * trabaja a favor. En memoria solo queda una ventana de tile-rows + 3 filas decodificadas:
+ * las 3 filas finales de un tramo se solapan con el siguiente para que las secuencias que
+ * cruzan el borde se cuenten igual. El conteo es el de {@link RowScanner} (secuencias que
+ * arrancan en cada fila), con el mismo veredicto que {@link MutantDetector#isMutant(String[])}.
+ */
+@Service
+@Slf4j
+public class MappedMutantDetector {
+
+    private static final int SEQUENCE_LENGTH = RowScanner.SEQUENCE_LENGTH;
+    private static final int OVERLAP = SEQUENCE_LENGTH - 1;
+
+    private final int tileRows;
+    private final Path directory;
+
+    public MappedMutantDetector(
+            @Value("${adn.detector.mapped.tile-rows:64}") int tileRows,
+            @Value("${adn.detector.mapped.directory:}") String directory) {
+        this.tileRows = Math.max(1, tileRows);
+        this.directory = directory == null || directory.isBlank()
+                ? null
+                : Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resuelve un archivo dentro del directorio habilitado (adn.detector.mapped.directory).
+     *
+     * @throws InvalidDnaFileException si el modo está deshabilitado, el nombre sale del
+     *                                 directorio o el archivo no existe
+     */
+    public Path resolve(String name) {
+        if (directory == null) {
+            throw new InvalidDnaFileException("La detección sobre archivos está deshabilitada");
+        }
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new InvalidDnaFileException("Archivo de ADN no encontrado: " + name);
+        }
+        return file;
+    }
+
+    /**
+     * Tamaño N de la matriz guardada en el archivo.
+     */
+    public int size(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return PackedDnaFile.readSize(channel);
+        }
+    }
+
+    /**
+     * Determina si la matriz del archivo pertenece a un mutante.
+     *
+     * @param file     archivo en formato {@link PackedDnaFile}
+     * @param progress recibe las filas recorridas y se consulta para cancelar
+     * @throws CancellationException si el análisis se cancela antes de terminar
+     */
+    public boolean isMutant(Path file, DetectionProgress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final int n = PackedDnaFile.readSize(channel);
+            if (n == 0) {
+                return false;
+            }
+
+            final int rowBytes = PackedDnaFile.rowBytes(n);
+            final int tile = (int) Math.max(1, Math.min(tileRows, Integer.MAX_VALUE / rowBytes));
+            final int window = tile + OVERLAP;
+            final byte[][] rows = new byte[Math.min(window, n)][n];
+
+            int found = 0;
+            int nextAnchor = 0;
+            for (int tileStart = 0; tileStart < n; tileStart += tile) {
+                final int tileEnd = Math.min(n, tileStart + tile);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        PackedDnaFile.HEADER_BYTES + (long) tileStart * rowBytes,
+                        (long) (tileEnd - tileStart) * rowBytes);
+                for (int r = tileStart; r < tileEnd; r++) {
+                    PackedDnaFile.decodeRow(buffer, (r - tileStart) * rowBytes, rows[r % rows.length]);
+                }
+
+                // Filas de arranque cuyas 4 filas ya están en la ventana
+                final int lastAnchor = tileEnd == n ? n : tileEnd - OVERLAP;
+                for (; nextAnchor < lastAnchor; nextAnchor++) {
+                    if (progress.isCancelled()) {
+                        throw new CancellationException("Análisis cancelado en la fila " + nextAnchor);
+                    }
+                    found += countAnchoredAt(rows, n, nextAnchor);
+                    progress.rowsScanned(nextAnchor + 1);
+                    if (found > 1) {
+                        log.debug("Mutante encontrado en {} tras {} filas", file.getFileName(), nextAnchor + 1);
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Igual que {@link RowScanner#countAnchoredAt(String[], int)}, sobre la ventana circular
+     * de filas decodificadas (códigos 0-3).
+     */
+    private static int countAnchoredAt(byte[][] rows, int n, int r) {
+        final int w = rows.length;
+        final byte[] row = rows[r % w];
+        final boolean down = r <= n - SEQUENCE_LENGTH;
+        final byte[] r1 = down ? rows[(r + 1) % w] : null;
+        final byte[] r2 = down ? rows[(r + 2) % w] : null;
+        final byte[] r3 = down ? rows[(r + 3) % w] : null;
+        int count = 0;
+
+        for (int col = 0; col < n; col++) {
+            byte base = row[col];
+
+            // Horizontal
+            if (col <= n - SEQUENCE_LENGTH &&
+                    row[col + 1] == base && row[col + 2] == base && row[col + 3] == base) {
+                count++;
+            }
+
+            if (!down) continue;
+
+            // Vertical
+            if (r1[col] == base && r2[col] == base && r3[col] == base) {
+                count++;
+            }
+
+            // Diagonal principal
+            if (col <= n - SEQUENCE_LENGTH &&
+                    r1[col + 1] == base && r2[col + 2] == base && r3[col + 3] == base) {
+                count++;
+            }
+
+            // Diagonal inversa
+            if (col >= SEQUENCE_LENGTH - 1 &&
+                    r1[col - 1] == base && r2[col - 2] == base && r3[col - 3] == base) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
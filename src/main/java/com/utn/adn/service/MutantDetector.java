@@ -1,20 +1,36 @@
 package com.utn.adn.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 /**
  * Clase responsable de analizar el ADN y determinar si pertenece a un mutante.
  * Se considera mutante si existen más de una secuencia de 4 letras iguales consecutivas
  * (en horizontal, vertical o diagonal).
+ *
+ * Valida el ADN y delega el recorrido en el motor ({@link DetectionStrategy}) que el
+ * {@link DetectionStrategySelector} elige según el tamaño de la matriz. Otras reglas (largo,
+ * mínimo, direcciones, matrices MxN) se resuelven con {@link #isMutant(String[], DetectionRules)}.
  */
 @Service
 public class MutantDetector {
 
-    private static final int SEQUENCE_LENGTH = 4;
-    private static final int MIN_MUTANT_SEQUENCES = 2;
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+    private final DetectionStrategySelector strategySelector;
+
+    /**
+     * Detector con el motor escalar de referencia, sin selección por tamaño.
+     */
+    public MutantDetector() {
+        this(DetectionStrategySelector.fixed(new ScalarDetectionStrategy()));
+    }
+
+    @Autowired
+    public MutantDetector(DetectionStrategySelector strategySelector) {
+        this.strategySelector = strategySelector;
+    }
 
     /**
      * Determina si el ADN pertenece a un mutante.
@@ -29,52 +45,76 @@ public class MutantDetector {
             return false;
         }
 
-        final int n = dna.length;
-        final char[][] matrix = convertToMatrix(dna, n);
-
-        int sequencesFound = 0;
-
-        // Recorremos la matriz en un solo loop
-        for (int row = 0; row < n; row++) {
-            for (int col = 0; col < n; col++) {
-
-                char base = matrix[row][col];
-
-                // Horizontal
-                if (col <= n - SEQUENCE_LENGTH &&
-                        matrix[row][col + 1] == base &&
-                        matrix[row][col + 2] == base &&
-                        matrix[row][col + 3] == base) {
+        return strategySelector.select(dna.length).isMutant(dna);
+    }
 
-                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
-                }
+    /**
+     * Igual que {@link #isMutant(String[])}, pero recorriendo fila por fila para informar el
+     * avance y poder cancelar. Se usa en los trabajos asíncronos sobre matrices muy grandes,
+     * donde importa más poder seguir el análisis que el motor más rápido.
+     *
+     * @param dna      matriz NxN
+     * @param progress recibe las filas recorridas y se consulta para cancelar
+     * @throws CancellationException si el análisis se cancela antes de terminar
+     */
+    public boolean isMutant(String[] dna, DetectionProgress progress) {
+        if (!validateDna(dna)) {
+            return false;
+        }
 
-                // Vertical
-                if (row <= n - SEQUENCE_LENGTH &&
-                        matrix[row + 1][col] == base &&
-                        matrix[row + 2][col] == base &&
-                        matrix[row + 3][col] == base) {
+        int found = 0;
+        for (int r = 0; r < dna.length; r++) {
+            if (progress.isCancelled()) {
+                throw new CancellationException("Análisis cancelado en la fila " + r);
+            }
+            found += RowScanner.countAnchoredAt(dna, r);
+            progress.rowsScanned(r + 1);
+            if (found > 1) {
+                return true;
+            }
+        }
 
-                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
-                }
+        return false;
+    }
 
-                // Diagonal principal
-                if (row <= n - SEQUENCE_LENGTH && col <= n - SEQUENCE_LENGTH &&
-                        matrix[row + 1][col + 1] == base &&
-                        matrix[row + 2][col + 2] == base &&
-                        matrix[row + 3][col + 3] == base) {
+    /**
+     * Determina si el ADN es mutante con reglas configurables (ver {@link DetectionRules}).
+     * Con la regla original sobre una matriz NxN usa los motores de siempre; con cualquier otra,
+     * el kernel compilado para esas reglas ({@link DetectionKernels}).
+     */
+    public boolean isMutant(String[] dna, DetectionRules rules) {
+        if (rules.countsLikeDefault() && DnaSymmetry.isSquare(dna)) {
+            return isMutant(dna);
+        }
+        if (!validateDna(dna, rules.rectangular())) {
+            return false;
+        }
 
-                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
-                }
+        return DetectionKernels.isMutant(dna, rules);
+    }
 
-                // Diagonal inversa
-                if (row <= n - SEQUENCE_LENGTH && col >= SEQUENCE_LENGTH - 1 &&
-                        matrix[row + 1][col - 1] == base &&
-                        matrix[row + 2][col - 2] == base &&
-                        matrix[row + 3][col - 3] == base) {
+    /**
+     * Igual que {@link #isMutant(String[], DetectionProgress)}, con reglas configurables.
+     *
+     * @throws CancellationException si el análisis se cancela antes de terminar
+     */
+    public boolean isMutant(String[] dna, DetectionRules rules, DetectionProgress progress) {
+        if (rules.countsLikeDefault() && DnaSymmetry.isSquare(dna)) {
+            return isMutant(dna, progress);
+        }
+        if (!validateDna(dna, rules.rectangular())) {
+            return false;
+        }
 
-                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
-                }
+        int found = 0;
+        for (int r = 0; r < dna.length; r++) {
+            if (progress.isCancelled()) {
+                throw new CancellationException("Análisis cancelado en la fila " + r);
+            }
+            found += DetectionKernels.countAnchoredAt(dna, rules, r, rules.minSequences() - found);
+            progress.rowsScanned(r + 1);
+            if (found >= rules.minSequences()) {
+                return true;
             }
         }
 
@@ -82,34 +122,50 @@ public class MutantDetector {
     }
 
     /**
-     * Valida que el ADN sea no nulo, NxN y contenga solo A/T/C/G.
+     * Modo censo: recorre la matriz completa una vez y cuenta todas las secuencias por base y
+     * dirección, sin cortar en la segunda. El veredicto es {@link SequenceCensus#isMutant()}.
+     *
+     * @return el censo, o vacío si el ADN no es válido (en ese caso el veredicto es humano)
+     */
+    public Optional<SequenceCensus> census(String[] dna) {
+        if (!validateDna(dna)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(SequenceCensus.scan(dna));
+    }
+
+    /**
+     * Valida que el ADN sea no nulo, NxN y contenga solo A/T/C/G (mayúsculas o minúsculas).
      */
     private boolean validateDna(String[] dna) {
-        if (dna == null || dna.length == 0) return false;
+        return validateDna(dna, false);
+    }
+
+    /**
+     * Igual que {@link #validateDna(String[])}; con rectangular acepta MxN (filas no vacías de igual largo).
+     */
+    private boolean validateDna(String[] dna, boolean rectangular) {
+        if (dna == null || dna.length == 0 || dna[0] == null) return false;
 
-        int n = dna.length;
+        int n = rectangular ? dna[0].length() : dna.length;
+        if (n == 0) return false;
 
         for (String row : dna) {
             if (row == null || row.length() != n) return false;
 
-            for (char c : row.toUpperCase().toCharArray()) {
-                if (!VALID_BASES.contains(c)) return false;
+            for (int i = 0; i < n; i++) {
+                if (!isValidBase(row.charAt(i))) return false;
             }
         }
 
         return true;
     }
 
-    /**
-     * Convierte el array de Strings en una matriz char[][] optimizada.
-     */
-    private char[][] convertToMatrix(String[] dna, int n) {
-        char[][] matrix = new char[n][n];
-
-        for (int i = 0; i < n; i++) {
-            matrix[i] = dna[i].toUpperCase().toCharArray();
-        }
-
-        return matrix;
+    private static boolean isValidBase(char c) {
+        return switch (c) {
+            case 'A', 'T', 'C', 'G', 'a', 't', 'c', 'g' -> true;
+            default -> false;
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,113 +1,385 @@
 package com.utn.adn.service;
 
-import com.utn.adn.entity.DnaRecord;
+import com.utn.adn.dto.DetectionRulesRequest;
+import com.utn.adn.exception.ClusterUnavailableException;
+import com.utn.adn.exception.DetectionOverloadedException;
 import com.utn.adn.exception.DnaHashCalculationException;
-import com.utn.adn.repository.DnaRecordRepository;
-import jakarta.transaction.Transactional;
+import com.utn.adn.exception.InvalidDetectionRulesException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MutantService {
 
+    /**
+     * Atributo de la solicitud HTTP en curso con el hash del ADN analizado, para que
+     * RawFingerprintFilter lo guarde junto a la huella cruda. Si el veredicto no quedó guardado
+     * (nodo dueño caído), se quita: el filtro no cachea lo que la base no conoce.
+     */
+    public static final String DNA_HASH_ATTRIBUTE = MutantService.class.getName() + ".dnaHash";
+
+    /**
+     * Cómo pasa un análisis por el control de admisión ({@link DetectionAdmissionService}).
+     */
+    public enum Admission {
+        /** Reserva o rechaza con DetectionOverloadedException (solicitudes síncronas). */
+        REJECT,
+        /** Reintenta solo la reserva hasta entrar, sin volver a calcular el hash (spool). */
+        WAIT,
+        /** Fuera del presupuesto síncrono: lo acota el pool de trabajos (análisis asíncrono). */
+        NONE
+    }
+
     private final MutantDetector mutantDetector;
-    private final DnaRecordRepository dnaRecordRepository;
+    private final IncrementalMutantDetector incrementalDetector;
+    private final ResilientRecordStore recordStore;
+    private final VerdictIndex verdictIndex;
+    private final DetectionAdmissionService admissionService;
+    private final ClusterService clusterService;
+    private final HotKeyTracker hotKeyTracker;
+
+    /**
+     * Reglas del perfil (adn.rules.*), usadas cuando la solicitud no trae las suyas.
+     */
+    private final DetectionRules detectionRules;
+
+    /**
+     * Si está activo, las 8 rotaciones/reflexiones de una matriz comparten la misma clave.
+     */
+    @Value("${adn.cache.canonical-orientation:false}")
+    private boolean canonicalOrientation;
+
+    /**
+     * Si está activo, el ADN se guarda empaquetado junto al veredicto (hasta max-size filas),
+     * para poder volver a analizarlo con {@link ReanalysisService}.
+     */
+    @Value("${adn.storage.packed-dna.enabled:false}")
+    private boolean storePackedDna;
+
+    @Value("${adn.storage.packed-dna.max-size:1000}")
+    private int packedDnaMaxSize;
+
+    /**
+     * Modo censo: las matrices de hasta max-size filas se recorren completas con
+     * {@link MutantDetector#census(String[])} y el censo se guarda junto al veredicto.
+     */
+    @Value("${adn.census.enabled:false}")
+    private boolean censusEnabled;
+
+    @Value("${adn.census.max-size:1000}")
+    private int censusMaxSize;
 
     /**
      * Analiza el DNA y retorna true si es mutante.
      * - Calcula hash SHA-256 del array dna (orden y contenido).
      * - Si ya existe en BD, retorna el resultado guardado (cache).
      * - Si no existe, invoca MutantDetector.isMutant(dna), guarda el resultado y lo retorna.
+     * - La detección pasa por el control de admisión; los aciertos de cache no hacen cola.
+     * - En modo cluster, la búsqueda y el guardado se hacen en el nodo dueño del hash; si el
+     *   dueño no responde, se analiza igual pero no se guarda (para no duplicar registros).
+     *
+     * No es transaccional a propósito: la búsqueda y el guardado usan cada uno su propia
+     * transacción, así una solicitud encolada no retiene una conexión del pool.
      *
      * @param dna arreglo de Strings representando la matriz NxN
      * @return true si es mutante (>1 secuencia), false en caso contrario
      */
-    @Transactional
     public boolean analyzeDna(String[] dna) {
-        String hash = calculateDnaHash(dna);
+        return analyzeDna(dna, detectionRules, null);
+    }
+
+    /**
+     * Igual que {@link #analyzeDna(String[])}; si se indica progress, la detección se hace
+     * con {@link MutantDetector#isMutant(String[], DetectionProgress)} para informar el avance
+     * y permitir cancelar. Un análisis cancelado no se guarda.
+     *
+     * @param dna      arreglo de Strings representando la matriz NxN
+     * @param progress seguimiento del análisis, o null para el camino normal
+     * @return true si es mutante (>1 secuencia), false en caso contrario
+     * @throws CancellationException si el análisis se cancela antes de terminar
+     */
+    public boolean analyzeDna(String[] dna, DetectionProgress progress) {
+        return analyzeDna(dna, detectionRules, progress);
+    }
+
+    /**
+     * Igual que {@link #analyzeDna(String[], DetectionProgress)}, con reglas de detección propias.
+     * Los motores incremental y de censo solo aplican a la regla original.
+     *
+     * Si no son las del perfil, forman parte de la clave (el mismo ADN con otras reglas es otro
+     * registro) y el veredicto se guarda en dna_rule_records y no en dna_records, para que no
+     * cuente en /stats, en el SSE ni en el censo. Esos veredictos se buscan y guardan siempre en
+     * este nodo, sin pasar por el cluster ni por el índice de veredictos.
+     *
+     * Los veredictos de las reglas del perfil van a dna_records con la clave sin prefijo, sean
+     * o no las originales: si el perfil cambia, los registros siguen siendo los mismos y
+     * {@link ReanalysisService} los corrige a partir del ADN guardado.
+     *
+     * @param rules    reglas a aplicar (ver {@link #resolveRules(DetectionRulesRequest)})
+     * @param progress seguimiento del análisis, o null para el camino normal
+     */
+    public boolean analyzeDna(String[] dna, DetectionRules rules, DetectionProgress progress) {
+        return analyzeDna(dna, rules, progress, Admission.REJECT);
+    }
+
+    /**
+     * Igual que {@link #analyzeDna(String[], DetectionRules, DetectionProgress)}, eligiendo cómo
+     * se pasa por el control de admisión. El hash se calcula y se registra una sola vez, aunque
+     * la reserva se reintente.
+     *
+     * @param admission {@link Admission#REJECT} para /mutant, {@link Admission#WAIT} para quien
+     *                  puede esperar y {@link Admission#NONE} para los trabajos asíncronos
+     * @throws CancellationException si se interrumpe mientras espera admisión
+     */
+    public boolean analyzeDna(String[] dna, DetectionRules rules, DetectionProgress progress, Admission admission) {
+        boolean defaultRules = rules.isDefault();
+        boolean profileRules = rules.equals(detectionRules);
+        String hash = calculateDnaHash(dna, profileRules ? null : rules.cacheKey(), rules);
         log.debug("Analizando DNA con hash={}", hash);
+        hotKeyTracker.record(hash);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DNA_HASH_ATTRIBUTE, hash, RequestAttributes.SCOPE_REQUEST);
+        }
 
-        // Buscar en DB (cache)
-        Optional<DnaRecord> maybe = dnaRecordRepository.findByDnaHash(hash);
-        if (maybe.isPresent()) {
-            boolean cached = maybe.get().isMutant();
-            log.debug("Resultado cacheado encontrado: isMutant={} for hash={}", cached, hash);
-            return cached;
+        // Buscar en cache (BD local o nodo dueño)
+        boolean remote = profileRules && clusterService.isRemote(hash);
+        boolean ownerAvailable = true;
+        Optional<Boolean> cached;
+        if (remote) {
+            try {
+                cached = clusterService.lookup(hash);
+            } catch (ClusterUnavailableException e) {
+                log.warn("Nodo dueño no disponible para hash={}: {}", hash, e.getMessage());
+                cached = Optional.empty();
+                ownerAvailable = false;
+            }
+        } else {
+            cached = profileRules ? findLocal(hash) : recordStore.findRuleVerdict(hash);
+        }
+
+        if (cached.isPresent()) {
+            log.debug("Resultado cacheado encontrado: isMutant={} for hash={}", cached.get(), hash);
+            return cached.get();
         }
 
-        // No está en BD => analizar
+        // No está en BD => analizar (puede lanzar DetectionOverloadedException)
+        long cost = admit(dna, admission);
         boolean isMutant;
+        SequenceCensus census = null;
         try {
-            isMutant = mutantDetector.isMutant(dna);
+            if (!defaultRules) {
+                isMutant = progress != null
+                        ? mutantDetector.isMutant(dna, rules, progress)
+                        : mutantDetector.isMutant(dna, rules);
+            } else if (progress != null) {
+                isMutant = mutantDetector.isMutant(dna, progress);
+            } else if (censusEnabled && dna != null && dna.length <= censusMaxSize) {
+                // Un solo recorrido completo da el censo y el veredicto
+                census = mutantDetector.census(dna).orElse(null);
+                isMutant = census != null && census.isMutant();
+            } else {
+                isMutant = incrementalDetector.supports(dna)
+                        ? incrementalDetector.isMutant(dna)
+                        : mutantDetector.isMutant(dna);
+            }
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error al ejecutar MutantDetector", e);
             // Decide si rethrow o retornar false; aquí retornamos false y guardamos el resultado como humano
             isMutant = false;
+        } finally {
+            admissionService.release(cost);
         }
 
-        // Guardar resultado (evitar duplicados por unique constraint en dna_hash)
-        DnaRecord record = new DnaRecord();
-        record.setDnaHash(hash);
-        record.setMutant(isMutant);
-
-        try {
-            dnaRecordRepository.save(record);
-            log.debug("Registro guardado para hash={}, isMutant={}", hash, isMutant);
-        } catch (Exception e) {
-            // Si falla el save por concurrencia/unique constraint, loguear y continuar.
-            log.warn("No se pudo guardar DnaRecord (probable duplicado) para hash={}: {}", hash, e.getMessage());
+        if (!profileRules) {
+            saveRuleVerdict(hash, isMutant);
+        } else if (!remote) {
+            saveLocal(hash, isMutant, packIfEnabled(dna), census == null ? null : census.toArray());
+        } else if (ownerAvailable) {
+            try {
+                clusterService.save(hash, isMutant);
+            } catch (ClusterUnavailableException e) {
+                log.warn("No se pudo guardar en el nodo dueño para hash={}: {}", hash, e.getMessage());
+                forgetHash(attributes);
+            }
+        } else {
+            forgetHash(attributes);
         }
 
         return isMutant;
     }
 
     /**
-     * Calcula SHA-256 del DNA. Concatenamos las filas con un separador consistente para
-     * garantizar que la misma matriz produzca siempre el mismo hash.
+     * Quita el hash de la solicitud en curso cuando el veredicto no se guardó en ningún nodo.
+     */
+    private static void forgetHash(RequestAttributes attributes) {
+        if (attributes != null) {
+            attributes.removeAttribute(DNA_HASH_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Reglas de una solicitud: las del perfil con los campos indicados reemplazados.
      *
-     * @param dna arreglo de Strings
-     * @return string hex de 64 chars (SHA-256)
+     * @param request reglas de la solicitud, o null para usar las del perfil
+     * @throws InvalidDetectionRulesException si la combinación resultante no es válida
      */
-    private String calculateDnaHash(String[] dna) {
+    public DetectionRules resolveRules(DetectionRulesRequest request) {
+        if (request == null) {
+            return detectionRules;
+        }
         try {
-            if (dna == null) {
-                return sha256Hex("null");
-            }
+            return detectionRules.with(request.sequence_length(), request.min_sequences(),
+                    request.directions(), request.rectangular());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDetectionRulesException(e.getMessage());
+        }
+    }
 
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < dna.length; i++) {
-                if (i > 0) sb.append('|');
-                sb.append(dna[i]);
-            }
-            return sha256Hex(sb.toString());
+    /**
+     * Busca el veredicto guardado en la base local.
+     * Si el índice fuera del heap está cargado, responde él solo (ver {@link VerdictIndex}).
+     * Si no, lee solo is_mutant por JDBC, sin hidratar una entidad DnaRecord, con plazo acotado
+     * (ver {@link ResilientRecordStore}): si la base no responde, se trata como no encontrado.
+     *
+     * @param hash hash SHA-256 del ADN
+     * @return Optional con el veredicto, si existe
+     */
+    public Optional<Boolean> findLocal(String hash) {
+        if (verdictIndex.covers(hash)) {
+            return verdictIndex.find(hash).map(VerdictIndex.Verdict::mutant);
+        }
+        return recordStore.findMutantByHash(hash);
+    }
 
+    /**
+     * Guarda el veredicto en la base local con un INSERT directo
+     * (evita duplicados por unique constraint en dna_hash). Si la base no responde a
+     * tiempo, el guardado queda pendiente y se reintenta después. El índice de veredictos
+     * se actualiza antes, así las próximas consultas no dependen de la base.
+     */
+    public void saveLocal(String hash, boolean isMutant) {
+        saveLocal(hash, isMutant, null, null);
+    }
+
+    /**
+     * Igual que {@link #saveLocal(String, boolean)}, guardando además el ADN empaquetado y el censo.
+     *
+     * @param dnaPacked ADN a 2 bits por base, o null para no guardarlo
+     * @param census    censo de secuencias (ver {@link SequenceCensus#toArray()}), o null
+     */
+    public void saveLocal(String hash, boolean isMutant, byte[] dnaPacked, int[] census) {
+        verdictIndex.put(hash, isMutant, System.currentTimeMillis());
+        try {
+            recordStore.insert(hash, isMutant, dnaPacked, census);
+            log.debug("Registro enviado a guardar para hash={}, isMutant={}", hash, isMutant);
         } catch (Exception e) {
-            throw new DnaHashCalculationException("Error al calcular hash del ADN", e);
+            // Si falla el insert (base no disponible, etc.), loguear y continuar.
+            log.warn("No se pudo guardar el registro para hash={}: {}", hash, e.getMessage());
         }
     }
 
-    private String sha256Hex(String input) {
+    /**
+     * Guarda en dna_rule_records un veredicto calculado con reglas pedidas en la solicitud.
+     */
+    private void saveRuleVerdict(String hash, boolean isMutant) {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
+            recordStore.insertRuleVerdict(hash, isMutant);
+        } catch (Exception e) {
+            log.warn("No se pudo guardar el veredicto con reglas propias para hash={}: {}", hash, e.getMessage());
+        }
+    }
 
-            StringBuilder hex = new StringBuilder(2 * digest.length);
-            for (byte b : digest) {
-                hex.append(String.format("%02x", b));
+    /**
+     * Largo de la fila más larga, para cobrar la admisión por celdas aunque la matriz sea MxN
+     * o tenga filas de distinto largo (se rechaza recién en el detector).
+     */
+    /**
+     * Reserva el costo del análisis según el modo de admisión.
+     *
+     * @return costo reservado (0 si el análisis no usa el presupuesto síncrono)
+     */
+    private long admit(String[] dna, Admission admission) {
+        if (admission == Admission.NONE) {
+            return 0;
+        }
+        int rows = dna == null ? 0 : dna.length;
+        int cols = widestRow(dna);
+        while (true) {
+            try {
+                return admissionService.acquire(rows, cols);
+            } catch (DetectionOverloadedException e) {
+                if (admission != Admission.WAIT) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.SECONDS.sleep(e.getRetryAfterSeconds());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Análisis interrumpido mientras esperaba admisión");
+                }
             }
-            return hex.toString();
+        }
+    }
+
+    private static int widestRow(String[] dna) {
+        int widest = 0;
+        if (dna != null) {
+            for (String row : dna) {
+                if (row != null && row.length() > widest) {
+                    widest = row.length();
+                }
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * ADN empaquetado para guardar, si está habilitado y ninguna dimensión de la matriz supera
+     * el tamaño máximo.
+     */
+    private byte[] packIfEnabled(String[] dna) {
+        if (!storePackedDna || dna == null || dna.length == 0 || dna[0] == null
+                || dna.length > packedDnaMaxSize || dna[0].length() > packedDnaMaxSize) {
+            return null;
+        }
+        return PackedDnaFile.pack(dna);
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm no disponible", e);
-            throw new DnaHashCalculationException("Algoritmo SHA-256 no soportado", e);
+    /**
+     * Calcula SHA-256 del DNA. Concatenamos las filas con un separador consistente para
+     * garantizar que la misma matriz produzca siempre el mismo hash.
+     * El cálculo se delega en {@link DnaHasher}, que reutiliza digest y buffers por hilo.
+     * Con adn.cache.canonical-orientation se hashea la orientación canónica de la matriz, si las
+     * reglas no dependen de la orientación. Las reglas distintas de las del perfil se hashean
+     * como prefijo ({@link DetectionRules#cacheKey()}).
+     *
+     * @param dna    arreglo de Strings
+     * @param prefix prefijo de la clave, o null para las reglas del perfil
+     * @return string hex de 64 chars (SHA-256)
+     */
+    private String calculateDnaHash(String[] dna, String prefix, DetectionRules rules) {
+        try {
+            return canonicalOrientation && rules.isSymmetric()
+                    ? DnaHasher.sha256HexCanonical(prefix, dna)
+                    : DnaHasher.sha256Hex(prefix, dna);
+        } catch (DnaHashCalculationException e) {
+            log.error("No se pudo calcular el hash del ADN", e);
+            throw e;
+        } catch (Exception e) {
+            throw new DnaHashCalculationException("Error al calcular hash del ADN", e);
         }
     }
-}
\ No newline at end of file
+}
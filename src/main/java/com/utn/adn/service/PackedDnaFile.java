@@ -0,0 +1,213 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.InvalidDnaFileException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Formato de archivo para matrices de ADN que no entran en el heap: 2 bits por base.
+ *
+ * Cabecera de 16 bytes (little-endian): magic "ADN2", versión (int) y N (long). Después
+ * siguen las N filas, cada una en (N + 3) / 4 bytes; la base j de una fila va en el byte
+ * j / 4, bits 2*(j % 4) y siguientes, con A=0, C=1, G=2, T=3.
+ *
+ * {@link #pack(String[])} usa la misma codificación en memoria, para guardar el ADN junto a
+ * su registro en dna_records: N (int little-endian) seguido de las filas. Una matriz MxN
+ * (reglas rectangulares) lleva -M y N como cabecera, seguidos de las M filas de N bases.
+ */
+public final class PackedDnaFile {
+
+    public static final int HEADER_BYTES = 16;
+
+    private static final int MAGIC = 0x32_4E_44_41;  // "ADN2" en little-endian
+    private static final int VERSION = 1;
+    private static final char[] BASES = { 'A', 'C', 'G', 'T' };
+
+    private PackedDnaFile() {
+    }
+
+    /**
+     * Bytes que ocupa una fila de N bases.
+     */
+    public static int rowBytes(int n) {
+        return (n + 3) / 4;
+    }
+
+    /**
+     * Lee la cabecera y valida que el archivo tenga el largo esperado.
+     *
+     * @return tamaño N de la matriz
+     * @throws InvalidDnaFileException si el archivo no tiene el formato esperado
+     */
+    public static int readSize(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new InvalidDnaFileException("Archivo de ADN sin cabecera completa");
+            }
+        }
+        header.flip();
+
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new InvalidDnaFileException("Archivo de ADN con formato o versión no soportados");
+        }
+        long n = header.getLong();
+        if (n < 0 || n > Integer.MAX_VALUE) {
+            throw new InvalidDnaFileException("Tamaño de matriz inválido: " + n);
+        }
+        if (channel.size() < HEADER_BYTES + n * rowBytes((int) n)) {
+            throw new InvalidDnaFileException("Archivo de ADN truncado");
+        }
+        return (int) n;
+    }
+
+    /**
+     * Escribe una matriz NxN en formato empaquetado.
+     *
+     * @throws InvalidDnaFileException si la matriz no es NxN o tiene bases fuera de A/T/C/G
+     */
+    public static void write(Path file, String[] dna) throws IOException {
+        final int n = dna.length;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(n);
+            out.write(header.array());
+
+            byte[] packed = new byte[rowBytes(n)];
+            for (String row : dna) {
+                if (row == null || row.length() != n) {
+                    throw new InvalidDnaFileException("La matriz debe ser NxN");
+                }
+                encodeRow(row, packed);
+                out.write(packed);
+            }
+        }
+    }
+
+    /**
+     * Empaqueta una matriz en memoria: 4 bytes con N y después las N filas. Una matriz MxN
+     * lleva 8 bytes de cabecera (-M y N).
+     *
+     * @return los bytes empaquetados, o null si las filas no tienen todas el mismo largo o hay
+     *         bases fuera de A/T/C/G en mayúsculas (desempaquetada no daría el mismo ADN ni el
+     *         mismo veredicto)
+     */
+    public static byte[] pack(String[] dna) {
+        if (dna == null || dna.length == 0 || dna[0] == null || dna[0].isEmpty()) {
+            return null;
+        }
+        final int rows = dna.length;
+        final int cols = dna[0].length();
+        final int headerBytes = rows == cols ? Integer.BYTES : 2 * Integer.BYTES;
+        final int rowBytes = rowBytes(cols);
+        long size = headerBytes + (long) rows * rowBytes;
+        if (size > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+
+        byte[] packed = new byte[(int) size];
+        ByteBuffer header = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN);
+        if (rows == cols) {
+            header.putInt(rows);
+        } else {
+            header.putInt(-rows).putInt(cols);
+        }
+        int offset = headerBytes;
+        for (String row : dna) {
+            if (row == null || row.length() != cols) {
+                return null;
+            }
+            for (int j = 0; j < cols; j++) {
+                int code = switch (row.charAt(j)) {
+                    case 'A' -> 0;
+                    case 'C' -> 1;
+                    case 'G' -> 2;
+                    case 'T' -> 3;
+                    default -> -1;
+                };
+                if (code < 0) {
+                    return null;
+                }
+                packed[offset + (j >> 2)] |= (byte) (code << ((j & 3) << 1));
+            }
+            offset += rowBytes;
+        }
+        return packed;
+    }
+
+    /**
+     * Reconstruye la matriz guardada con {@link #pack(String[])}.
+     *
+     * @throws InvalidDnaFileException si el largo no corresponde a las dimensiones de la cabecera
+     */
+    public static String[] unpack(byte[] packed) {
+        if (packed == null || packed.length < Integer.BYTES) {
+            throw new InvalidDnaFileException("ADN empaquetado sin cabecera");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN);
+        final int first = buffer.getInt(0);
+        final boolean square = first >= 0;
+        if (!square && (first == Integer.MIN_VALUE || packed.length < 2 * Integer.BYTES)) {
+            throw new InvalidDnaFileException("ADN empaquetado sin cabecera");
+        }
+        final int rows = square ? first : -first;
+        final int cols = square ? first : buffer.getInt(Integer.BYTES);
+        final int headerBytes = square ? Integer.BYTES : 2 * Integer.BYTES;
+        if (cols < 0 || packed.length != headerBytes + (long) rows * rowBytes(cols)) {
+            throw new InvalidDnaFileException("ADN empaquetado con largo inválido");
+        }
+
+        String[] dna = new String[rows];
+        byte[] codes = new byte[cols];
+        char[] bases = new char[cols];
+        for (int i = 0; i < rows; i++) {
+            decodeRow(buffer, headerBytes + i * rowBytes(cols), codes);
+            for (int j = 0; j < cols; j++) {
+                bases[j] = BASES[codes[j]];
+            }
+            dna[i] = new String(bases);
+        }
+        return dna;
+    }
+
+    /**
+     * Empaqueta una fila de bases (mayúsculas o minúsculas) en 2 bits por base.
+     */
+    static void encodeRow(String row, byte[] packed) {
+        Arrays.fill(packed, (byte) 0);
+        for (int j = 0; j < row.length(); j++) {
+            packed[j >> 2] |= (byte) (code(row.charAt(j)) << ((j & 3) << 1));
+        }
+    }
+
+    /**
+     * Desempaqueta una fila de N bases desde el buffer, dejando un código 0-3 por celda.
+     */
+    static void decodeRow(ByteBuffer buffer, int offset, byte[] row) {
+        final int n = row.length;
+        int j = 0;
+        for (int i = 0; j < n; i++) {
+            int b = buffer.get(offset + i);
+            for (int k = 0; k < 4 && j < n; k++, j++) {
+                row[j] = (byte) ((b >>> (k << 1)) & 0b11);
+            }
+        }
+    }
+
+    private static int code(char c) {
+        return switch (c) {
+            case 'A', 'a' -> 0;
+            case 'C', 'c' -> 1;
+            case 'G', 'g' -> 2;
+            case 'T', 't' -> 3;
+            default -> throw new InvalidDnaFileException("Base inválida: " + c);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.utn.adn.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Motor paralelo: reparte la matriz en bandas de filas sobre el ForkJoinPool común.
+ * Cada banda cuenta las secuencias que arrancan en sus filas (ver {@link RowScanner}),
+ * así que ninguna secuencia se cuenta dos veces, y todas se detienen en cuanto el
+ * total compartido llega a 2. Conviene solo en matrices grandes.
+ */
+@Component
+public class ParallelDetectionStrategy implements DetectionStrategy {
+
+    public static final String NAME = "parallel";
+
+    private static final int MIN_MUTANT_SEQUENCES = 2;
+    private static final int MIN_ROWS_PER_BAND = 16;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isMutant(String[] dna) {
+        final int n = dna.length;
+        final int bands = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / MIN_ROWS_PER_BAND));
+        final int rowsPerBand = (n + bands - 1) / bands;
+        final AtomicInteger sequencesFound = new AtomicInteger();
+
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int from = band * rowsPerBand;
+            int to = Math.min(n, from + rowsPerBand);
+            for (int r = from; r < to && sequencesFound.get() < MIN_MUTANT_SEQUENCES; r++) {
+                int count = RowScanner.countAnchoredAt(dna, r);
+                if (count > 0) {
+                    sequencesFound.addAndGet(count);
+                }
+            }
+        });
+
+        return sequencesFound.get() >= MIN_MUTANT_SEQUENCES;
+    }
+}
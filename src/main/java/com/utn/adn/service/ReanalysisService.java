@@ -0,0 +1,277 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.ReanalysisResponse;
+import com.utn.adn.event.DnaVerdictsChangedEvent;
+import com.utn.adn.exception.ReanalysisInProgressException;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Re-análisis masivo de dna_records, para corregir veredictos guardados cuando cambian las
+ * reglas de detección o aparece un bug en el detector.
+ *
+ * Solo abarca los registros que guardaron su ADN (adn.storage.packed-dna.enabled). Un hilo
+ * recorre la tabla con un cursor y arma lotes de adn.reanalysis.batch-size filas; los lotes se
+ * analizan en paralelo con {@link MutantDetector} y las reglas del perfil (adn.rules.*) en
+ * adn.reanalysis.threads workers, con a lo sumo dos lotes por worker en vuelo (el cursor
+ * espera si los workers no dan abasto). Cada lote
+ * actualiza con un batch los veredictos que cambiaron y publica un {@link DnaVerdictsChangedEvent}
+ * para las caches. adn.reanalysis.max-rows-per-second limita el ritmo, así una corrida no
+ * le quita la base ni la CPU a /mutant.
+ *
+ * Hay una sola corrida a la vez; su progreso queda disponible hasta que empieza la siguiente.
+ */
+@Service
+@Slf4j
+public class ReanalysisService {
+
+    public enum Status { IDLE, RUNNING, DONE, CANCELLED, FAILED }
+
+    private final DnaRecordJdbcRepository repository;
+    private final MutantDetector mutantDetector;
+    private final DetectionRules detectionRules;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int threads;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final int fetchSize;
+    private final long maxRowsPerSecond;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final AtomicReference<Run> current = new AtomicReference<>(Run.idle());
+
+    public ReanalysisService(
+            DnaRecordJdbcRepository repository,
+            MutantDetector mutantDetector,
+            DetectionRules detectionRules,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${adn.reanalysis.threads:2}") int threads,
+            @Value("${adn.reanalysis.batch-size:500}") int batchSize,
+            @Value("${adn.reanalysis.fetch-size:1000}") int fetchSize,
+            @Value("${adn.reanalysis.max-rows-per-second:0}") long maxRowsPerSecond) {
+        this.repository = repository;
+        this.mutantDetector = mutantDetector;
+        this.detectionRules = detectionRules;
+        this.eventPublisher = eventPublisher;
+        this.threads = Math.max(1, threads);
+        this.maxInFlight = this.threads * 2;
+        this.batchSize = Math.max(1, batchSize);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.maxRowsPerSecond = Math.max(0, maxRowsPerSecond);
+
+        this.coordinator = Executors.newSingleThreadExecutor(DaemonThreads.named("adn-reanalysis"));
+        this.workers = Executors.newFixedThreadPool(this.threads, DaemonThreads.numbered("adn-reanalysis"));
+    }
+
+    /**
+     * Lanza una corrida en segundo plano.
+     *
+     * @return el estado inicial de la corrida
+     * @throws ReanalysisInProgressException si ya hay una en curso
+     */
+    public ReanalysisResponse start() {
+        Run previous = current.get();
+        Run run = new Run();
+        if (previous.status == Status.RUNNING || !current.compareAndSet(previous, run)) {
+            throw new ReanalysisInProgressException("Ya hay un re-análisis en curso");
+        }
+
+        coordinator.execute(() -> execute(run));
+        log.info("Re-análisis de dna_records iniciado");
+        return run.toResponse();
+    }
+
+    /**
+     * Progreso de la corrida en curso o de la última terminada.
+     */
+    public ReanalysisResponse status() {
+        return current.get().toResponse();
+    }
+
+    /**
+     * Pide detener la corrida en curso: deja de leer filas y termina los lotes ya tomados.
+     */
+    public ReanalysisResponse cancel() {
+        Run run = current.get();
+        run.cancelled = true;
+        return run.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        current.get().cancelled = true;
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void execute(Run run) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            run.total.set(repository.countPacked());
+            List<DnaRecordJdbcRepository.PackedRow> batch = new ArrayList<>(batchSize);
+            repository.forEachPacked(fetchSize, row -> {
+                if (run.cancelled) {
+                    throw new CancellationException();
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    dispatch(run, List.copyOf(batch), inFlight);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                dispatch(run, List.copyOf(batch), inFlight);
+            }
+            inFlight.acquire(maxInFlight);  // Esperar a que terminen los lotes en vuelo
+            run.finish(Status.DONE, null);
+        } catch (CancellationException e) {
+            awaitBatches(inFlight);
+            run.finish(Status.CANCELLED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(Status.CANCELLED, null);
+        } catch (RuntimeException e) {
+            log.error("Falló el re-análisis de dna_records", e);
+            awaitBatches(inFlight);
+            run.finish(Status.FAILED, e.getMessage());
+        }
+        log.info("Re-análisis {}: {} filas leídas, {} veredictos cambiados, {} fallidas",
+                run.status, run.scanned.get(), run.changed.get(), run.failed.get());
+    }
+
+    /**
+     * Entrega un lote a los workers, esperando si ya hay demasiados en vuelo o si se va más
+     * rápido que adn.reanalysis.max-rows-per-second.
+     */
+    private void dispatch(Run run, List<DnaRecordJdbcRepository.PackedRow> rows, Semaphore inFlight) {
+        try {
+            throttle(run, rows.size());
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+
+        run.dispatched += rows.size();
+        try {
+            workers.execute(() -> {
+                try {
+                    reanalyze(run, rows);
+                } catch (RuntimeException e) {
+                    run.failed.addAndGet(rows.size());
+                    log.warn("Falló un lote del re-análisis: {}", e.getMessage());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();  // Aplicación cerrándose
+            throw new CancellationException();
+        }
+    }
+
+    private void throttle(Run run, int rows) throws InterruptedException {
+        if (maxRowsPerSecond == 0) {
+            return;
+        }
+        long dueNanos = (run.dispatched + rows) * 1_000_000_000L / maxRowsPerSecond;
+        long aheadNanos = dueNanos - (System.nanoTime() - run.startNanos);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+
+    private void reanalyze(Run run, List<DnaRecordJdbcRepository.PackedRow> rows) {
+        Map<String, Boolean> changed = new HashMap<>();
+        for (DnaRecordJdbcRepository.PackedRow row : rows) {
+            try {
+                boolean mutant = mutantDetector.isMutant(PackedDnaFile.unpack(row.dnaPacked()), detectionRules);
+                if (mutant != row.mutant()) {
+                    changed.put(row.dnaHash(), mutant);
+                }
+            } catch (RuntimeException e) {
+                run.failed.incrementAndGet();
+                log.warn("No se pudo re-analizar hash={}: {}", row.dnaHash(), e.getMessage());
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            run.changed.addAndGet(repository.updateVerdicts(changed));
+            eventPublisher.publishEvent(new DnaVerdictsChangedEvent(Map.copyOf(changed)));
+        }
+        run.scanned.addAndGet(rows.size());
+    }
+
+    /**
+     * Los lotes ya entregados terminan igual; se esperan para informar los conteos finales.
+     */
+    private void awaitBatches(Semaphore inFlight) {
+        try {
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Estado de una corrida. Los conteos los actualizan los workers; el resto, el coordinador.
+     */
+    private static final class Run {
+
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final long startNanos = System.nanoTime();
+        private final Instant startedAt;
+
+        private volatile Status status;
+        private volatile boolean cancelled;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private long dispatched;
+
+        private Run() {
+            this(Status.RUNNING, Instant.now());
+        }
+
+        private Run(Status status, Instant startedAt) {
+            this.status = status;
+            this.startedAt = startedAt;
+        }
+
+        private static Run idle() {
+            return new Run(Status.IDLE, null);
+        }
+
+        private void finish(Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private ReanalysisResponse toResponse() {
+            return new ReanalysisResponse(status.name(), total.get(), scanned.get(), changed.get(), failed.get(),
+                    startedAt, finishedAt, error);
+        }
+    }
+}
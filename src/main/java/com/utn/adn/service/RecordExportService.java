@@ -0,0 +1,182 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.ExportLimitExceededException;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exportación de dna_records para análisis offline, en CSV o NDJSON.
+ *
+ * Las filas se leen con un cursor ({@link DnaRecordJdbcRepository#forEachCreatedBetween}) y se
+ * escriben directo en la respuesta a través de un buffer de adn.export.buffer-bytes: cada vez
+ * que se llena se manda un chunk. Nunca hay más de un buffer en memoria, sea cual sea el
+ * tamaño de la tabla.
+ *
+ * Las particiones se recorren una tras otra, así que cada exportación retiene una sola conexión
+ * a la vez, pero durante toda la descarga (lo que tarde el cliente en leerla). Se limitan a
+ * adn.export.max-concurrent a la vez para que los clientes lentos no le quiten el pool a /mutant.
+ */
+@Service
+@Slf4j
+public class RecordExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException si el formato no es csv ni ndjson
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (name != null && format.name().equalsIgnoreCase(name.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportación desconocido: " + name + " (csv o ndjson)");
+        }
+    }
+
+    private static final String CSV_HEADER = "dna_hash,is_mutant,created_at\n";
+
+    private final DnaRecordJdbcRepository repository;
+    private final int fetchSize;
+    private final int bufferBytes;
+    private final Semaphore permits;
+
+    public RecordExportService(
+            DnaRecordJdbcRepository repository,
+            @Value("${adn.export.fetch-size:1000}") int fetchSize,
+            @Value("${adn.export.buffer-bytes:65536}") int bufferBytes,
+            @Value("${adn.export.max-concurrent:2}") int maxConcurrent) {
+        this.repository = repository;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.bufferBytes = Math.max(1024, bufferBytes);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Valida el pedido y reserva un lugar, antes de empezar a escribir la respuesta.
+     *
+     * @param from fecha mínima de created_at (inclusiva), o null
+     * @param to   fecha máxima de created_at (exclusiva), o null
+     * @throws IllegalArgumentException      si el rango está vacío
+     * @throws ExportLimitExceededException si ya hay adn.export.max-concurrent exportaciones en curso
+     */
+    public Export begin(Format format, Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("El rango de created_at está vacío: from debe ser anterior a to");
+        }
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException("Hay demasiadas exportaciones en curso");
+        }
+        return new Export(format, from, to);
+    }
+
+    /**
+     * Exportación reservada. Se escribe una sola vez y hay que cerrarla para liberar el lugar.
+     */
+    public final class Export implements AutoCloseable {
+
+        private final Format format;
+        private final Instant from;
+        private final Instant to;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Export(Format format, Instant from, Instant to) {
+            this.format = format;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Format format() {
+            return format;
+        }
+
+        /**
+         * Escribe los registros en el stream. No lo cierra: de eso se encarga el contenedor.
+         *
+         * @return cantidad de registros escritos
+         */
+        public long writeTo(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            long[] rows = {0};
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), bufferBytes);
+
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            try {
+                repository.forEachCreatedBetween(from, to, fetchSize, row -> {
+                    try {
+                        write(writer, row);
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);  // Cliente desconectado: corta el cursor
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                log.warn("Exportación interrumpida después de {} registros: {}", rows[0], e.getCause().getMessage());
+                throw e.getCause();
+            }
+            writer.flush();
+
+            log.info("Exportación {} completada: {} registros en {} ms", format, rows[0],
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return rows[0];
+        }
+
+        private void write(Writer writer, DnaRecordJdbcRepository.Row row) throws IOException {
+            // Los hashes son hexadecimales y las fechas ISO-8601: no hace falta escapar nada
+            if (format == Format.CSV) {
+                writer.write(row.dnaHash());
+                writer.write(row.mutant() ? ",true," : ",false,");
+                writer.write(row.createdAt().toString());
+                writer.write('\n');
+            } else {
+                writer.write("{\"dna_hash\":\"");
+                writer.write(row.dnaHash());
+                writer.write(row.mutant() ? "\",\"is_mutant\":true,\"created_at\":\"" : "\",\"is_mutant\":false,\"created_at\":\"");
+                writer.write(row.createdAt().toString());
+                writer.write("\"}\n");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
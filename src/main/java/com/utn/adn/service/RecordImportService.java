@@ -0,0 +1,420 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.ImportResponse;
+import com.utn.adn.event.DnaRecordsImportedEvent;
+import com.utn.adn.exception.ImportInProgressException;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importación masiva de dna_records desde un archivo (hash, veredicto, created_at) en CSV o
+ * NDJSON, el mismo formato que produce {@link RecordExportService}. Sirve para migrar entre
+ * entornos o restaurar un backup sin repetir cada ADN por /api/mutant.
+ *
+ * El archivo se parte en adn.import.threads tramos de bytes que se leen y parsean en paralelo:
+ * cada worker procesa las líneas que empiezan dentro de su tramo. Los registros se insertan
+ * en lotes de adn.import.batch-size con {@link DnaRecordJdbcRepository#importBatch}, que
+ * saltea los hashes existentes y confirma cada lote en una sola transacción por partición.
+ *
+ * Las caches que deben conocer todos los registros se reconstruyen una sola vez al final
+ * ({@link DnaRecordsImportedEvent}). Las estadísticas se cuentan en la base, así que reflejan
+ * los registros importados sin pasos extra.
+ *
+ * Hay una sola importación a la vez; su progreso queda disponible hasta que empieza la siguiente.
+ */
+@Service
+@Slf4j
+public class RecordImportService {
+
+    public enum Status { IDLE, RUNNING, DONE, FAILED }
+
+    private static final int HASH_LENGTH = 64;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final long MIN_SPLIT_BYTES = 1 << 20;  // Archivos chicos: un solo tramo
+
+    private final DnaRecordJdbcRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final int threads;
+    private final int batchSize;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final AtomicReference<Run> current = new AtomicReference<>(Run.idle());
+
+    public RecordImportService(
+            DnaRecordJdbcRepository repository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${adn.import.directory:}") String directory,
+            @Value("${adn.import.threads:4}") int threads,
+            @Value("${adn.import.batch-size:5000}") int batchSize) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.directory = directory == null || directory.isBlank()
+                ? null
+                : Path.of(directory).toAbsolutePath().normalize();
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+
+        this.coordinator = Executors.newSingleThreadExecutor(DaemonThreads.named("adn-import"));
+        this.workers = Executors.newFixedThreadPool(this.threads, DaemonThreads.numbered("adn-import"));
+    }
+
+    /**
+     * Lanza la importación de un archivo del directorio habilitado, en segundo plano.
+     *
+     * @param name nombre del archivo, relativo a adn.import.directory
+     * @return el estado inicial de la importación
+     * @throws IllegalArgumentException   si la importación está deshabilitada o el archivo no existe
+     * @throws ImportInProgressException si ya hay una importación en curso
+     */
+    public ImportResponse start(String name) {
+        Path file = resolve(name);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Run previous = current.get();
+        Run run = new Run(name, size);
+        if (previous.status == Status.RUNNING || !current.compareAndSet(previous, run)) {
+            throw new ImportInProgressException("Ya hay una importación en curso");
+        }
+
+        coordinator.execute(() -> execute(run, file));
+        log.info("Importación de dna_records iniciada desde {} ({} bytes)", file, size);
+        return run.toResponse();
+    }
+
+    /**
+     * Progreso de la importación en curso o de la última terminada.
+     */
+    public ImportResponse status() {
+        return current.get().toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private Path resolve(String name) {
+        if (directory == null) {
+            throw new IllegalArgumentException("La importación está deshabilitada (adn.import.directory)");
+        }
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Archivo de importación no encontrado: " + name);
+        }
+        return file;
+    }
+
+    private void execute(Run run, Path file) {
+        int chunks = run.totalBytes < MIN_SPLIT_BYTES ? 1 : threads;
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long start = run.totalBytes * i / chunks;
+            long end = run.totalBytes * (i + 1) / chunks;
+            futures.add(workers.submit(() -> {
+                importChunk(run, file, start, end);
+                return null;
+            }));
+        }
+
+        String error = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Importación interrumpida";
+            } catch (ExecutionException e) {
+                log.error("Falló un tramo de la importación", e.getCause());
+                error = e.getCause().getMessage();
+            }
+        }
+
+        // Las caches se reconstruyen una sola vez, con todo lo que se llegó a insertar
+        if (run.inserted.get() > 0) {
+            eventPublisher.publishEvent(new DnaRecordsImportedEvent(run.inserted.get()));
+        }
+        run.finish(error == null ? Status.DONE : Status.FAILED, error);
+        log.info("Importación {}: {} leídos, {} insertados, {} existentes, {} rechazados en {} ms",
+                run.status, run.read.get(), run.inserted.get(), run.skipped.get(), run.rejected.get(),
+                (System.nanoTime() - run.startNanos) / 1_000_000);
+    }
+
+    /**
+     * Procesa las líneas que empiezan en [start, end). La línea que cruza start la termina el
+     * tramo anterior, que lee más allá de su fin hasta el salto de línea. Los conteos se
+     * acumulan en locales y se publican por lote, para no competir por ellos en cada línea.
+     */
+    void importChunk(Run run, Path file, long start, long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean partial = start > 0 && !startsLine(channel, start);
+            channel.position(start);
+            LineReader reader = new LineReader(Channels.newInputStream(channel));
+            long position = start;
+            if (partial) {
+                position += reader.next();  // Esos bytes los cuenta el tramo anterior
+            }
+
+            List<DnaRecordJdbcRepository.Row> batch = new ArrayList<>(batchSize);
+            long bytes = 0;
+            long rejected = 0;
+            while (position < end) {
+                int consumed = reader.next();
+                if (consumed == 0) break;  // Fin del archivo
+                position += consumed;
+                bytes += consumed;
+
+                String text = reader.line();
+                if (text.isEmpty() || text.startsWith("dna_hash")) continue;  // Vacía o encabezado CSV
+                DnaRecordJdbcRepository.Row row = parse(text);
+                if (row == null) {
+                    if (run.rejected.get() + rejected++ < 10) {
+                        log.warn("Línea de importación inválida en el byte {}: {}", position - consumed, text);
+                    }
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    insert(run, batch, bytes, rejected);
+                    batch.clear();
+                    bytes = 0;
+                    rejected = 0;
+                }
+            }
+            insert(run, batch, bytes, rejected);
+        }
+    }
+
+    /**
+     * Inserta un lote. Si /mutant guardó uno de los hashes a la vez, el lote se revierte y se
+     * reintenta: en el reintento ese hash ya existe y se saltea.
+     */
+    private void insert(Run run, List<DnaRecordJdbcRepository.Row> batch, long bytes, long rejected) {
+        run.bytesRead.addAndGet(bytes);
+        run.rejected.addAndGet(rejected);
+        run.read.addAndGet(batch.size());
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int inserted = repository.importBatch(batch);
+                run.inserted.addAndGet(inserted);
+                run.skipped.addAndGet(batch.size() - inserted);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Interpreta una línea CSV (hash,veredicto,created_at) u NDJSON
+     * ({"dna_hash":"...","is_mutant":true,"created_at":"..."}).
+     *
+     * @return el registro, o null si la línea es inválida
+     */
+    static DnaRecordJdbcRepository.Row parse(String line) {
+        String hash;
+        String verdict;
+        String createdAt;
+        if (line.charAt(0) == '{') {
+            hash = jsonValue(line, "dna_hash");
+            verdict = jsonValue(line, "is_mutant");
+            createdAt = jsonValue(line, "created_at");
+        } else {
+            String[] fields = line.split(",", -1);
+            if (fields.length != 3) {
+                return null;
+            }
+            hash = fields[0].trim();
+            verdict = fields[1].trim();
+            createdAt = fields[2].trim();
+        }
+
+        if (hash == null || verdict == null || createdAt == null || !isHash(hash)) {
+            return null;
+        }
+        if (!verdict.equals("true") && !verdict.equals("false")) {
+            return null;
+        }
+        try {
+            return new DnaRecordJdbcRepository.Row(hash.toLowerCase(), verdict.equals("true"), Instant.parse(createdAt));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Valor de una clave de un objeto JSON plano, sin comillas. Suficiente para las líneas
+     * de la exportación: los valores no tienen comillas ni comas escapadas.
+     */
+    private static String jsonValue(String line, String key) {
+        int index = line.indexOf('"' + key + '"');
+        if (index < 0) {
+            return null;
+        }
+        int i = index + key.length() + 2;
+        while (i < line.length() && (line.charAt(i) == ' ' || line.charAt(i) == ':')) i++;
+        if (i >= line.length()) {
+            return null;
+        }
+        if (line.charAt(i) == '"') {
+            int close = line.indexOf('"', i + 1);
+            return close < 0 ? null : line.substring(i + 1, close);
+        }
+        int endIndex = i;
+        while (endIndex < line.length() && line.charAt(endIndex) != ',' && line.charAt(endIndex) != '}') endIndex++;
+        return line.substring(i, endIndex).trim();
+    }
+
+    private static boolean isHash(String hash) {
+        if (hash.length() != HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsLine(FileChannel channel, long start) throws IOException {
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        return channel.read(previous, start - 1) == 1 && previous.get(0) == '\n';
+    }
+
+    /**
+     * Lector de líneas ASCII con buffer propio: evita el read() sincronizado byte a byte de
+     * BufferedInputStream, que domina el costo en archivos de millones de líneas.
+     */
+    private static final class LineReader {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+        private int length;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Lee la próxima línea, sin el salto ni el \r final.
+         *
+         * @return bytes consumidos, incluido el salto; 0 al final del archivo
+         */
+        int next() throws IOException {
+            length = 0;
+            int consumed = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        break;
+                    }
+                }
+                byte b = buffer[position++];
+                consumed++;
+                if (b == '\n') break;
+                if (length == line.length) line = Arrays.copyOf(line, length * 2);
+                line[length++] = b;
+            }
+            if (length > 0 && line[length - 1] == '\r') length--;
+            return consumed;
+        }
+
+        String line() {
+            return new String(line, 0, length, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Estado de una importación. Los conteos los actualizan los workers; el resto, el coordinador.
+     */
+    static final class Run {
+
+        private final String file;
+        private final long totalBytes;
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final long startNanos = System.nanoTime();
+        private final Instant startedAt;
+
+        private volatile Status status;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        Run(String file, long totalBytes) {
+            this(file, totalBytes, Status.RUNNING, Instant.now());
+        }
+
+        private Run(String file, long totalBytes, Status status, Instant startedAt) {
+            this.file = file;
+            this.totalBytes = totalBytes;
+            this.status = status;
+            this.startedAt = startedAt;
+        }
+
+        private static Run idle() {
+            return new Run(null, 0, Status.IDLE, null);
+        }
+
+        private void finish(Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        ImportResponse toResponse() {
+            return new ImportResponse(status.name(), file, totalBytes, bytesRead.get(), read.get(), inserted.get(),
+                    skipped.get(), rejected.get(), startedAt, finishedAt, error);
+        }
+    }
+}
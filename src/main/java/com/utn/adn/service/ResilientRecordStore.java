@@ -0,0 +1,398 @@
+package com.utn.adn.service;
+
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Acceso a dna_records desde /mutant con plazos acotados, para que la base nunca fije la
+ * latencia de la API.
+ *
+ * La búsqueda y el guardado corren en un pool propio y se esperan como mucho
+ * adn.db.guard.lookup-timeout-ms / save-timeout-ms. Una búsqueda vencida cuenta como
+ * "no está" (el veredicto se calcula igual) y un guardado vencido sigue en curso en segundo
+ * plano; si termina fallando, se encola para reintentarlo. Tras varios fallos seguidos un
+ * circuit breaker abre y saltea la base (los guardados van directo a la cola) hasta que
+ * una prueba en estado medio abierto sale bien. Si el pool está saturado la tarea no llega a
+ * la base: es contrapresión, no un fallo, así que no mueve el breaker (la búsqueda cuenta
+ * como "no está" y el guardado se encola).
+ *
+ * La cola guarda a lo sumo adn.db.guard.deferred-max guardados y, entre todos, hasta
+ * adn.db.guard.deferred-max-packed-bytes de ADN empaquetado. Pasado ese límite, el guardado se
+ * encola sin el ADN: se conserva el veredicto, pero el registro queda fuera del re-análisis.
+ */
+@Service
+@Slf4j
+public class ResilientRecordStore {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final DnaRecordJdbcRepository repository;
+    private final boolean enabled;
+    private final long lookupTimeoutMillis;
+    private final long saveTimeoutMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final LinkedBlockingDeque<PendingWrite> deferred;
+    private final long deferredMaxPackedBytes;
+    private final AtomicLong deferredPackedBytes = new AtomicLong();
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter lookupTimeouts;
+    private final Counter saveTimeouts;
+    private final Counter lookupRejected;
+    private final Counter saveRejected;
+    private final Counter deferredDropped;
+    private final Counter deferredPackedDropped;
+
+    public ResilientRecordStore(
+            DnaRecordJdbcRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${adn.db.guard.enabled:true}") boolean enabled,
+            @Value("${adn.db.guard.lookup-timeout-ms:50}") long lookupTimeoutMillis,
+            @Value("${adn.db.guard.save-timeout-ms:100}") long saveTimeoutMillis,
+            @Value("${adn.db.guard.failure-threshold:5}") int failureThreshold,
+            @Value("${adn.db.guard.open-ms:5000}") long openMillis,
+            @Value("${adn.db.guard.threads:8}") int threads,
+            @Value("${adn.db.guard.deferred-max:100000}") int deferredMax,
+            @Value("${adn.db.guard.deferred-max-packed-bytes:67108864}") long deferredMaxPackedBytes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.lookupTimeoutMillis = Math.max(1, lookupTimeoutMillis);
+        this.saveTimeoutMillis = Math.max(1, saveTimeoutMillis);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(0, openMillis);
+        this.deferred = new LinkedBlockingDeque<>(Math.max(1, deferredMax));
+        this.deferredMaxPackedBytes = Math.max(0, deferredMaxPackedBytes);
+
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 16), DaemonThreads.numbered("adn-db"));
+
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("adn.db.breaker.transitions")
+                    .description("Cambios de estado del circuit breaker de la base")
+                    .tag("to", target.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("adn.db.breaker.state", state, s -> s.get().ordinal())
+                .description("Estado del circuit breaker (0=cerrado, 1=abierto, 2=medio abierto)")
+                .register(meterRegistry);
+        Gauge.builder("adn.db.deferred.writes", deferred, LinkedBlockingDeque::size)
+                .description("Guardados pendientes de reintento")
+                .register(meterRegistry);
+        Gauge.builder("adn.db.deferred.packed.bytes", deferredPackedBytes, AtomicLong::get)
+                .description("Bytes de ADN empaquetado en los guardados pendientes")
+                .register(meterRegistry);
+        this.lookupTimeouts = Counter.builder("adn.db.timeouts").tag("stage", "lookup").register(meterRegistry);
+        this.saveTimeouts = Counter.builder("adn.db.timeouts").tag("stage", "save").register(meterRegistry);
+        this.lookupRejected = Counter.builder("adn.db.rejected")
+                .description("Operaciones que no entraron al pool de la base")
+                .tag("stage", "lookup").register(meterRegistry);
+        this.saveRejected = Counter.builder("adn.db.rejected")
+                .description("Operaciones que no entraron al pool de la base")
+                .tag("stage", "save").register(meterRegistry);
+        this.deferredDropped = Counter.builder("adn.db.deferred.dropped")
+                .description("Guardados descartados porque la cola de reintentos estaba llena")
+                .register(meterRegistry);
+        this.deferredPackedDropped = Counter.builder("adn.db.deferred.packed.dropped")
+                .description("Guardados encolados sin su ADN empaquetado por el límite de bytes de la cola")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Veredicto guardado para un hash. Si la base no responde a tiempo o el breaker está
+     * abierto, devuelve vacío y el llamador calcula el veredicto.
+     */
+    public Optional<Boolean> findMutantByHash(String dnaHash) {
+        return find(dnaHash, () -> repository.findMutantByHash(dnaHash));
+    }
+
+    /**
+     * Igual que {@link #findMutantByHash(String)}, sobre dna_rule_records (reglas pedidas en
+     * la solicitud).
+     */
+    public Optional<Boolean> findRuleVerdict(String dnaHash) {
+        return find(dnaHash, () -> repository.findRuleVerdict(dnaHash));
+    }
+
+    private Optional<Boolean> find(String dnaHash, Supplier<Optional<Boolean>> lookup) {
+        if (!enabled) {
+            return lookup.get();
+        }
+        if (!allowRequest()) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<Boolean> result = call(lookup::get, lookupTimeoutMillis);
+            onSuccess();
+            return result;
+        } catch (RejectedExecutionException e) {
+            lookupRejected.increment();
+            onRejected();
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            lookupTimeouts.increment();
+            log.warn("Búsqueda en la base vencida para hash={}", dnaHash);
+        } catch (ExecutionException e) {
+            log.warn("Falló la búsqueda en la base para hash={}: {}", dnaHash, e.getCause().getMessage());
+        }
+        onFailure();
+        return Optional.empty();
+    }
+
+    /**
+     * Guarda un veredicto sin esperar más que el plazo de guardado.
+     *
+     * @param dnaPacked ADN empaquetado a guardar junto al veredicto, o null
+     * @param census    censo de secuencias a guardar junto al veredicto, o null
+     */
+    public void insert(String dnaHash, boolean isMutant, byte[] dnaPacked, int[] census) {
+        insert(new PendingWrite(dnaHash, isMutant, dnaPacked, census, false));
+    }
+
+    /**
+     * Igual que {@link #insert(String, boolean, byte[], int[])}, en dna_rule_records (reglas
+     * pedidas en la solicitud).
+     */
+    public void insertRuleVerdict(String dnaHash, boolean isMutant) {
+        insert(new PendingWrite(dnaHash, isMutant, null, null, true));
+    }
+
+    private void insert(PendingWrite write) {
+        String dnaHash = write.dnaHash();
+        if (!enabled) {
+            write.applyTo(repository);
+            return;
+        }
+        if (!allowRequest()) {
+            defer(write);
+            return;
+        }
+
+        try {
+            call(() -> attempt(write), saveTimeoutMillis);
+            onSuccess();
+        } catch (TimeoutException e) {
+            // Sigue en curso; si termina fallando, attempt() lo encola
+            saveTimeouts.increment();
+            log.warn("Guardado en la base vencido para hash={}", dnaHash);
+            onFailure();
+        } catch (RejectedExecutionException e) {
+            saveRejected.increment();
+            defer(write);
+            onRejected();
+        } catch (ExecutionException e) {
+            onFailure();
+        }
+    }
+
+    /**
+     * Reintenta los guardados pendientes mientras la base esté sana.
+     */
+    @Scheduled(fixedDelayString = "${adn.db.guard.flush-interval-ms:1000}")
+    public void flushDeferred() {
+        int flushed = 0;
+        while (!deferred.isEmpty() && allowRequest()) {
+            PendingWrite write = deferred.pollFirst();
+            if (write == null) {
+                break;
+            }
+            try {
+                write.applyTo(repository);
+                release(write);
+                onSuccess();
+                flushed++;
+            } catch (RuntimeException e) {
+                if (!deferred.offerFirst(write)) {
+                    release(write);
+                    deferredDropped.increment();
+                }
+                onFailure();
+                log.warn("La base sigue sin aceptar guardados: {}", e.getMessage());
+                break;
+            }
+        }
+        if (flushed > 0) {
+            log.info("Guardados pendientes aplicados: {}", flushed);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getDeferredCount() {
+        return deferred.size();
+    }
+
+    public long getDeferredPackedBytes() {
+        return deferredPackedBytes.get();
+    }
+
+    private boolean attempt(PendingWrite write) {
+        try {
+            return write.applyTo(repository);
+        } catch (RuntimeException e) {
+            log.warn("Falló el guardado para hash={}, se reintentará: {}", write.dnaHash(), e.getMessage());
+            defer(write);
+            throw e;
+        }
+    }
+
+    private <T> T call(Callable<T> task, long timeoutMillis) throws TimeoutException, ExecutionException {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Espera interrumpida");
+        }
+    }
+
+    private void defer(PendingWrite write) {
+        PendingWrite queued = reservePacked(write);
+        while (!deferred.offerLast(queued)) {
+            PendingWrite dropped = deferred.pollFirst();
+            if (dropped != null) {
+                release(dropped);
+                deferredDropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Reserva lugar para el ADN empaquetado del guardado; si no entra en el límite de bytes,
+     * devuelve el mismo guardado sin el ADN.
+     */
+    private PendingWrite reservePacked(PendingWrite write) {
+        if (write.dnaPacked() == null) {
+            return write;
+        }
+        long size = write.dnaPacked().length;
+        if (deferredPackedBytes.addAndGet(size) <= deferredMaxPackedBytes) {
+            return write;
+        }
+        deferredPackedBytes.addAndGet(-size);
+        deferredPackedDropped.increment();
+        return write.withoutPacked();
+    }
+
+    /**
+     * Libera los bytes de un guardado que salió de la cola.
+     */
+    private void release(PendingWrite write) {
+        if (write.dnaPacked() != null) {
+            deferredPackedBytes.addAndGet(-write.dnaPacked().length);
+        }
+    }
+
+    // =======================================================
+    //                     Circuit breaker
+    // =======================================================
+
+    private boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            // Solo la solicitud que hace la transición prueba la base
+            return transition(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    private void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * La tarea no entró al pool: no dice nada de la base. Si era la prueba del estado medio
+     * abierto, el breaker vuelve a abierto con el plazo ya vencido para que la próxima
+     * solicitud pruebe de nuevo.
+     */
+    private void onRejected() {
+        transition(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void open(State from) {
+        openedAt = System.currentTimeMillis();
+        if (transition(from, State.OPEN)) {
+            log.warn("Circuit breaker de la base abierto por {} ms", openMillis);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            transitions.get(to).increment();
+            if (to == State.CLOSED) {
+                log.info("Circuit breaker de la base cerrado");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDeferred();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Guardado pendiente: en dna_records, o en dna_rule_records si las reglas vinieron en la
+     * solicitud.
+     */
+    private record PendingWrite(String dnaHash, boolean mutant, byte[] dnaPacked, int[] census, boolean ruleRecord) {
+
+        PendingWrite withoutPacked() {
+            return new PendingWrite(dnaHash, mutant, null, census, ruleRecord);
+        }
+
+        boolean applyTo(DnaRecordJdbcRepository repository) {
+            return ruleRecord
+                    ? repository.insertRuleVerdict(dnaHash, mutant)
+                    : repository.insert(dnaHash, mutant, dnaPacked, census);
+        }
+    }
+}
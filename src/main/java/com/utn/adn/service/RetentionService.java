@@ -0,0 +1,159 @@
+package com.utn.adn.service;
+
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retención de dna_records: como la base es H2 en memoria, la tabla no puede crecer sin límite.
+ *
+ * Un job periódico borra los registros más viejos que adn.retention.max-age-hours y, si la
+ * tabla supera adn.retention.max-rows, los más antiguos hasta volver al límite. Se borra en
+ * lotes acotados, cada uno en su propia transacción corta y con una pausa entre lotes, para
+ * no bloquear los inserts de /mutant. Por cada lote se publica un {@link DnaRecordsPurgedEvent}
+ * para que las caches en memoria invaliden esos hashes. Las estadísticas se calculan con COUNT
+ * sobre la tabla, así que quedan consistentes sin pasos extra. Con la tabla particionada, los
+ * lotes toman los más antiguos de todas las particiones y el máximo de filas es global.
+ * La antigüedad máxima también se aplica a dna_rule_records (veredictos con reglas pedidas en
+ * la solicitud), con un DELETE por partición.
+ */
+@Service
+@Slf4j
+public class RetentionService {
+
+    private final DnaRecordJdbcRepository dnaRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    private final boolean enabled;
+    private final long maxAgeHours;
+    private final long maxRows;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    private final Counter purgedRecords;
+    private final Timer batchTimer;
+
+    public RetentionService(
+            DnaRecordJdbcRepository dnaRecordRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${adn.retention.enabled:false}") boolean enabled,
+            @Value("${adn.retention.max-age-hours:0}") long maxAgeHours,
+            @Value("${adn.retention.max-rows:0}") long maxRows,
+            @Value("${adn.retention.batch-size:1000}") int batchSize,
+            @Value("${adn.retention.batch-pause-ms:50}") long batchPauseMillis) {
+        this.dnaRecordRepository = dnaRecordRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = Clock.systemUTC();
+        this.enabled = enabled;
+        this.maxAgeHours = maxAgeHours;
+        this.maxRows = maxRows;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+
+        this.purgedRecords = Counter.builder("adn.retention.purged")
+                .description("Registros de ADN borrados por la política de retención")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("adn.retention.batch")
+                .description("Duración de cada lote de borrado")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${adn.retention.interval-ms:60000}",
+            fixedDelayString = "${adn.retention.interval-ms:60000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * Aplica la política de retención completa (edad y cantidad máxima).
+     *
+     * @return cantidad total de registros borrados
+     */
+    public long purge() {
+        long start = System.nanoTime();
+        long deleted = 0;
+
+        if (maxAgeHours > 0) {
+            Instant cutoff = clock.instant().minus(Duration.ofHours(maxAgeHours));
+            deleted += purgeBatches(() -> dnaRecordRepository.findHashesCreatedBefore(cutoff, batchSize),
+                    Long.MAX_VALUE);
+            // Los veredictos con reglas propias no cuentan en /stats: las caches no necesitan enterarse
+            deleted += dnaRecordRepository.deleteRuleVerdictsCreatedBefore(cutoff);
+        }
+
+        if (maxRows > 0) {
+            long excess = dnaRecordRepository.count() - maxRows;
+            if (excess > 0) {
+                deleted += purgeBatches(() -> dnaRecordRepository.findOldestHashes(batchSize), excess);
+            }
+        }
+
+        if (deleted > 0) {
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Retención: {} registros borrados en {} ms ({} registros/s)", deleted, millis, deleted * 1000 / millis);
+        }
+        return deleted;
+    }
+
+    /**
+     * Borra lotes hasta que la consulta no devuelva más hashes o se alcance el límite.
+     */
+    private long purgeBatches(BatchQuery query, long limit) {
+        long deleted = 0;
+        while (deleted < limit) {
+            List<String> hashes = query.next();
+            if (hashes.isEmpty()) {
+                break;
+            }
+            if (hashes.size() > limit - deleted) {
+                hashes = hashes.subList(0, (int) (limit - deleted));
+            }
+
+            List<String> batch = hashes;
+            int removed = batchTimer.record(() -> dnaRecordRepository.deleteByDnaHashIn(batch));
+            purgedRecords.increment(removed);
+            eventPublisher.publishEvent(new DnaRecordsPurgedEvent(List.copyOf(batch)));
+            deleted += removed;
+
+            if (removed == 0 || hashes.size() < batchSize) {
+                break;
+            }
+            pause();
+        }
+        return deleted;
+    }
+
+    private void pause() {
+        if (batchPauseMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchQuery {
+        List<String> next();
+    }
+}
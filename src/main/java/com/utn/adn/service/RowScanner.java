@@ -0,0 +1,77 @@
+package com.utn.adn.service;
+
+/**
+ * Conteo de secuencias por fila de arranque, compartido por los motores que trabajan por filas.
+ * Una secuencia "arranca" en la fila r si su primera celda está en r; solo depende de r..r+3.
+ */
+final class RowScanner {
+
+    static final int SEQUENCE_LENGTH = 4;
+
+    private RowScanner() {
+    }
+
+    /**
+     * Cuenta las secuencias de 4 que arrancan en la fila r, con los mismos límites que MutantDetector.
+     * Las filas deben estar validadas (A/T/C/G en cualquier caso).
+     */
+    static int countAnchoredAt(String[] dna, int r) {
+        final int n = dna.length;
+        final boolean down = r <= n - SEQUENCE_LENGTH;
+        final String row = dna[r];
+        int count = 0;
+
+        for (int col = 0; col < n; col++) {
+            char base = upper(row.charAt(col));
+
+            // Horizontal
+            if (col <= n - SEQUENCE_LENGTH &&
+                    upper(row.charAt(col + 1)) == base &&
+                    upper(row.charAt(col + 2)) == base &&
+                    upper(row.charAt(col + 3)) == base) {
+                count++;
+            }
+
+            if (!down) continue;
+
+            // Vertical
+            if (upper(dna[r + 1].charAt(col)) == base &&
+                    upper(dna[r + 2].charAt(col)) == base &&
+                    upper(dna[r + 3].charAt(col)) == base) {
+                count++;
+            }
+
+            // Diagonal principal
+            if (col <= n - SEQUENCE_LENGTH &&
+                    upper(dna[r + 1].charAt(col + 1)) == base &&
+                    upper(dna[r + 2].charAt(col + 2)) == base &&
+                    upper(dna[r + 3].charAt(col + 3)) == base) {
+                count++;
+            }
+
+            // Diagonal inversa
+            if (col >= SEQUENCE_LENGTH - 1 &&
+                    upper(dna[r + 1].charAt(col - 1)) == base &&
+                    upper(dna[r + 2].charAt(col - 2)) == base &&
+                    upper(dna[r + 3].charAt(col - 3)) == base) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    static char upper(char c) {
+        return (char) (c & ~0x20);  // a/t/c/g -> A/T/C/G, las mayúsculas no cambian
+    }
+
+    static boolean isValidRow(String row) {
+        for (int i = 0; i < row.length(); i++) {
+            switch (row.charAt(i)) {
+                case 'A', 'T', 'C', 'G', 'a', 't', 'c', 'g' -> { }
+                default -> { return false; }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.utn.adn.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Motor escalar: recorre la matriz una sola vez comparando las 4 direcciones por celda.
+ * Es el algoritmo de referencia y el más rápido en matrices chicas (6x6).
+ */
+@Component
+public class ScalarDetectionStrategy implements DetectionStrategy {
+
+    public static final String NAME = "scalar";
+
+    private static final int SEQUENCE_LENGTH = 4;
+    private static final int MIN_MUTANT_SEQUENCES = 2;
+
+    /**
+     * Tamaño máximo de matriz cuyo buffer se conserva por hilo (256x256 = 128 KB de chars).
+     * Matrices más grandes usan un buffer propio que se libera al terminar.
+     */
+    private static final int MAX_SCRATCH_SIZE = 256;
+
+    /**
+     * Matriz de trabajo reutilizada por hilo de plataforma, para no asignar char[][] por request.
+     */
+    private static final ThreadLocal<char[][]> SCRATCH = new ThreadLocal<>();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isMutant(String[] dna) {
+        final int n = dna.length;
+        final char[][] matrix = convertToMatrix(dna, n);
+
+        int sequencesFound = 0;
+
+        // Recorremos la matriz en un solo loop
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+
+                char base = matrix[row][col];
+
+                // Horizontal
+                if (col <= n - SEQUENCE_LENGTH &&
+                        matrix[row][col + 1] == base &&
+                        matrix[row][col + 2] == base &&
+                        matrix[row][col + 3] == base) {
+
+                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+                }
+
+                // Vertical
+                if (row <= n - SEQUENCE_LENGTH &&
+                        matrix[row + 1][col] == base &&
+                        matrix[row + 2][col] == base &&
+                        matrix[row + 3][col] == base) {
+
+                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+                }
+
+                // Diagonal principal
+                if (row <= n - SEQUENCE_LENGTH && col <= n - SEQUENCE_LENGTH &&
+                        matrix[row + 1][col + 1] == base &&
+                        matrix[row + 2][col + 2] == base &&
+                        matrix[row + 3][col + 3] == base) {
+
+                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+                }
+
+                // Diagonal inversa
+                if (row <= n - SEQUENCE_LENGTH && col >= SEQUENCE_LENGTH - 1 &&
+                        matrix[row + 1][col - 1] == base &&
+                        matrix[row + 2][col - 2] == base &&
+                        matrix[row + 3][col - 3] == base) {
+
+                    if (++sequencesFound >= MIN_MUTANT_SEQUENCES) return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Copia el ADN (ya validado) en la matriz de trabajo del hilo, pasando a mayúsculas.
+     * Las filas del buffer pueden ser más largas que n; el recorrido solo lee hasta n.
+     */
+    private char[][] convertToMatrix(String[] dna, int n) {
+        char[][] matrix = scratchMatrix(n);
+
+        for (int i = 0; i < n; i++) {
+            char[] row = matrix[i];
+            dna[i].getChars(0, n, row, 0);
+            for (int j = 0; j < n; j++) {
+                row[j] &= (char) ~0x20;  // a/t/c/g -> A/T/C/G, las mayúsculas no cambian
+            }
+        }
+
+        return matrix;
+    }
+
+    private static char[][] scratchMatrix(int n) {
+        if (n > MAX_SCRATCH_SIZE) {
+            return new char[n][n];
+        }
+
+        char[][] matrix = SCRATCH.get();
+        if (matrix == null || matrix.length < n) {
+            int size = Math.max(n, 16);
+            matrix = new char[size][size];
+            SCRATCH.set(matrix);
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,164 @@
+package com.utn.adn.service;
+
+import java.util.Arrays;
+
+/**
+ * Censo de secuencias de 4 bases iguales de un ADN, por base y por dirección.
+ *
+ * A diferencia de {@link MutantDetector#isMutant(String[])}, que corta en la segunda secuencia,
+ * el censo recorre la matriz completa una sola vez y cuenta todas, con los mismos límites y
+ * solapamientos (AAAAA en una fila son dos secuencias horizontales). Por eso el veredicto sale
+ * del mismo recorrido: es mutante si hay más de una.
+ *
+ * Los conteos se guardan como un arreglo de 16 enteros: índice = base * 4 + dirección, en el
+ * orden de {@link Base} y {@link Direction}.
+ */
+public final class SequenceCensus {
+
+    public enum Base { A, T, C, G }
+
+    public enum Direction { HORIZONTAL, VERTICAL, DIAGONAL, ANTI_DIAGONAL }
+
+    public static final int SIZE = Base.values().length * Direction.values().length;
+
+    private static final int SEQUENCE_LENGTH = RowScanner.SEQUENCE_LENGTH;
+    private static final int MIN_MUTANT_SEQUENCES = 2;
+
+    private final int[] runs;
+
+    private SequenceCensus(int[] runs) {
+        this.runs = runs;
+    }
+
+    /**
+     * Censo guardado con {@link #toArray()}.
+     *
+     * @throws IllegalArgumentException si no tiene los 16 conteos
+     */
+    public static SequenceCensus of(int[] runs) {
+        if (runs == null || runs.length != SIZE) {
+            throw new IllegalArgumentException("El censo debe tener " + SIZE + " conteos");
+        }
+        return new SequenceCensus(runs.clone());
+    }
+
+    /**
+     * Recorre la matriz completa y cuenta cada secuencia de 4 por base y dirección.
+     * Las filas deben estar validadas (NxN, A/T/C/G en cualquier caso).
+     */
+    static SequenceCensus scan(String[] dna) {
+        final int n = dna.length;
+        final int[] runs = new int[SIZE];
+
+        for (int r = 0; r < n; r++) {
+            final String row = dna[r];
+            final boolean down = r <= n - SEQUENCE_LENGTH;
+
+            for (int col = 0; col < n; col++) {
+                final char base = RowScanner.upper(row.charAt(col));
+                final int offset = baseIndex(base) * Direction.values().length;
+
+                if (col <= n - SEQUENCE_LENGTH &&
+                        RowScanner.upper(row.charAt(col + 1)) == base &&
+                        RowScanner.upper(row.charAt(col + 2)) == base &&
+                        RowScanner.upper(row.charAt(col + 3)) == base) {
+                    runs[offset + Direction.HORIZONTAL.ordinal()]++;
+                }
+
+                if (!down) continue;
+
+                if (RowScanner.upper(dna[r + 1].charAt(col)) == base &&
+                        RowScanner.upper(dna[r + 2].charAt(col)) == base &&
+                        RowScanner.upper(dna[r + 3].charAt(col)) == base) {
+                    runs[offset + Direction.VERTICAL.ordinal()]++;
+                }
+
+                if (col <= n - SEQUENCE_LENGTH &&
+                        RowScanner.upper(dna[r + 1].charAt(col + 1)) == base &&
+                        RowScanner.upper(dna[r + 2].charAt(col + 2)) == base &&
+                        RowScanner.upper(dna[r + 3].charAt(col + 3)) == base) {
+                    runs[offset + Direction.DIAGONAL.ordinal()]++;
+                }
+
+                if (col >= SEQUENCE_LENGTH - 1 &&
+                        RowScanner.upper(dna[r + 1].charAt(col - 1)) == base &&
+                        RowScanner.upper(dna[r + 2].charAt(col - 2)) == base &&
+                        RowScanner.upper(dna[r + 3].charAt(col - 3)) == base) {
+                    runs[offset + Direction.ANTI_DIAGONAL.ordinal()]++;
+                }
+            }
+        }
+
+        return new SequenceCensus(runs);
+    }
+
+    /**
+     * Posición de un conteo en el arreglo guardado.
+     */
+    public static int index(Base base, Direction direction) {
+        return base.ordinal() * Direction.values().length + direction.ordinal();
+    }
+
+    public int runs(Base base, Direction direction) {
+        return runs[index(base, direction)];
+    }
+
+    public int runs(Direction direction) {
+        int total = 0;
+        for (Base base : Base.values()) {
+            total += runs(base, direction);
+        }
+        return total;
+    }
+
+    public int runs(Base base) {
+        int total = 0;
+        for (Direction direction : Direction.values()) {
+            total += runs(base, direction);
+        }
+        return total;
+    }
+
+    public long total() {
+        long total = 0;
+        for (int count : runs) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Mismo veredicto que {@link MutantDetector#isMutant(String[])}: más de una secuencia.
+     */
+    public boolean isMutant() {
+        return total() >= MIN_MUTANT_SEQUENCES;
+    }
+
+    public int[] toArray() {
+        return runs.clone();
+    }
+
+    private static int baseIndex(char base) {
+        return switch (base) {
+            case 'A' -> 0;
+            case 'T' -> 1;
+            case 'C' -> 2;
+            default -> 3;  // G (las filas ya están validadas)
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SequenceCensus other && Arrays.equals(runs, other.runs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(runs);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceCensus" + Arrays.toString(runs);
+    }
+}
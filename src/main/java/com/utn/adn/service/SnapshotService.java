@@ -0,0 +1,400 @@
+package com.utn.adn.service;
+
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshots de dna_records para que un deploy no arranque con la cache vacía (H2 en memoria).
+ *
+ * El snapshot se escribe periódicamente y al cerrar la aplicación, en un archivo temporal que
+ * después reemplaza al anterior. Formato (big-endian): magic "ADNS", versión, y por registro
+ * 32 bytes de hash + 1 byte de veredicto + created_at en milisegundos + 1 byte con los campos
+ * opcionales presentes (1 = dna_packed, 2 = census) y, si están, dna_packed precedido de su
+ * largo y el censo precedido de su cantidad de enteros; al final, la cantidad de registros y un
+ * CRC32C de todo lo anterior. Los archivos de la versión 1 (sin el byte de campos opcionales,
+ * el ADN ni el censo) se siguen leyendo.
+ *
+ * Con H2 en memoria el snapshot es la única copia durable, así que lleva también el ADN
+ * guardado y el censo: sin ellos, el re-análisis no tendría nada que recorrer y
+ * /api/stats/census volvería a cero después de un reinicio.
+ *
+ * Al arrancar, antes de readiness, se valida el checksum; un hilo lee el archivo y los
+ * registros se insertan por lotes JDBC desde varios hilos, con a lo sumo dos lotes por hilo
+ * leídos y sin insertar. Si el archivo falta o está dañado se arranca en frío. Un lote que falla se reintenta una vez con MERGE
+ * (parte pudo haber quedado insertada); si vuelve a fallar, la carga queda incompleta: se
+ * informa cuántos registros faltaron y el archivo ya no se sobrescribe en esta ejecución,
+ * para no reemplazar el snapshot completo por uno parcial.
+ */
+@Service
+@Slf4j
+public class SnapshotService {
+
+    private static final int MAGIC = 0x41444E53;  // "ADNS"
+    private static final int VERSION = 2;
+    private static final int VERSION_1 = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int TRAILER_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int V1_RECORD_BYTES = HASH_BYTES + 1 + Long.BYTES;
+    private static final int MIN_RECORD_BYTES = V1_RECORD_BYTES + 1;
+
+    /**
+     * Campos opcionales de un registro (versión 2).
+     */
+    private static final int HAS_DNA_PACKED = 1;
+    private static final int HAS_CENSUS = 2;
+    private static final int KNOWN_FIELDS = HAS_DNA_PACKED | HAS_CENSUS;
+    private static final int MAX_CENSUS_LENGTH = 1024;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final DnaRecordJdbcRepository jdbcRepository;
+
+    private final boolean enabled;
+    private final Path file;
+    private final int loadThreads;
+    private final int batchSize;
+
+    private volatile boolean restoreIncomplete;
+
+    public SnapshotService(
+            DnaRecordJdbcRepository jdbcRepository,
+            @Value("${adn.snapshot.enabled:false}") boolean enabled,
+            @Value("${adn.snapshot.file:data/dna-records.snapshot}") String file,
+            @Value("${adn.snapshot.load-threads:4}") int loadThreads,
+            @Value("${adn.snapshot.batch-size:1000}") int batchSize) {
+        this.jdbcRepository = jdbcRepository;
+        this.enabled = enabled;
+        this.file = Path.of(file).toAbsolutePath();
+        this.loadThreads = Math.max(1, loadThreads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(
+            initialDelayString = "${adn.snapshot.interval-ms:300000}",
+            fixedDelayString = "${adn.snapshot.interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (enabled) {
+            save();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (enabled) {
+            save();
+        }
+    }
+
+    /**
+     * Escribe el snapshot completo de dna_records.
+     *
+     * @return cantidad de registros escritos, o -1 si falló (el snapshot anterior se conserva)
+     */
+    public synchronized long save() {
+        if (restoreIncomplete) {
+            log.warn("Snapshot no guardado: la carga de {} quedó incompleta y se conserva para el próximo arranque", file);
+            return -1;
+        }
+        long start = System.nanoTime();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+
+            CRC32C crc = new CRC32C();
+            long count;
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024), crc))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                long[] written = {0};
+                jdbcRepository.forEachStored(batchSize, row -> {
+                    try {
+                        out.write(HEX.parseHex(row.dnaHash()));
+                        out.writeBoolean(row.mutant());
+                        out.writeLong(row.createdAt().toEpochMilli());
+                        out.writeByte((row.dnaPacked() != null ? HAS_DNA_PACKED : 0)
+                                | (row.census() != null ? HAS_CENSUS : 0));
+                        if (row.dnaPacked() != null) {
+                            out.writeInt(row.dnaPacked().length);
+                            out.write(row.dnaPacked());
+                        }
+                        if (row.census() != null) {
+                            out.writeInt(row.census().length);
+                            for (int value : row.census()) {
+                                out.writeInt(value);
+                            }
+                        }
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                count = written[0];
+
+                out.writeLong(count);
+                out.writeLong(crc.getValue());
+            }
+
+            move(tmp, file);
+            log.info("Snapshot guardado: {} registros en {} ms ({})",
+                    count, (System.nanoTime() - start) / 1_000_000, file);
+            return count;
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo guardar el snapshot en {}", file, e);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // Se sobrescribe en el próximo intento
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Carga el snapshot en dna_records si la tabla está vacía.
+     *
+     * @return cantidad de registros cargados (0 si no había snapshot válido); si es menor que
+     *         la del archivo, la carga quedó incompleta (ver {@link #isRestoreIncomplete()})
+     */
+    public long restore() {
+        if (!enabled || !Files.isRegularFile(file)) {
+            return 0;
+        }
+        if (jdbcRepository.count() > 0) {
+            log.info("Snapshot no cargado: dna_records ya tiene registros");
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long count = validate(channel);
+            if (count < 0) {
+                log.warn("Snapshot {} inválido o dañado; se arranca en frío", file);
+                return 0;
+            }
+
+            long loaded = load(channel, readVersion(channel), count);
+            if (loaded < count) {
+                restoreIncomplete = true;
+                log.error("Snapshot cargado a medias: {} de {} registros no se pudieron insertar; {} no se "
+                        + "sobrescribe hasta el próximo arranque", count - loaded, count, file);
+            } else {
+                log.info("Snapshot cargado: {} registros en {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+            }
+            return loaded;
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot {}; se arranca en frío", file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Indica si la última carga dejó registros del snapshot sin insertar.
+     */
+    public boolean isRestoreIncomplete() {
+        return restoreIncomplete;
+    }
+
+    /**
+     * Verifica magic, versión, largo y CRC32C.
+     *
+     * @return cantidad de registros, o -1 si el archivo no es válido
+     */
+    private long validate(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long body = size - HEADER_BYTES - TRAILER_BYTES;
+        if (body < 0) {
+            return -1;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        int version = header.getInt(4);
+        if (header.getInt(0) != MAGIC || (version != VERSION && version != VERSION_1)) {
+            return -1;
+        }
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES);
+        readFully(channel, trailer, size - TRAILER_BYTES);
+        long count = trailer.getLong(0);
+        long expectedCrc = trailer.getLong(Long.BYTES);
+        boolean sizeMatches = version == VERSION_1
+                ? body == count * V1_RECORD_BYTES
+                : count >= 0 && body >= count * MIN_RECORD_BYTES;
+        if (!sizeMatches) {
+            return -1;
+        }
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(64 * 1024);
+        long position = 0;
+        long end = size - Long.BYTES;  // El CRC cubre todo salvo a sí mismo
+        while (position < end) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), end - position));
+            readFully(channel, chunk, position);
+            chunk.flip();
+            position += chunk.remaining();
+            crc.update(chunk);
+        }
+        return crc.getValue() == expectedCrc ? count : -1;
+    }
+
+    private static int readVersion(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        return header.getInt(4);
+    }
+
+    /**
+     * Lee los registros en orden y los inserta en paralelo, en lotes de batchSize. Si un
+     * registro no se puede leer, se cargan los anteriores y la carga queda incompleta.
+     */
+    private long load(FileChannel channel, int version, long count) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(loadThreads);
+        Semaphore pending = new Semaphore(loadThreads * 2);  // Lotes leídos sin insertar
+        try {
+            List<Future<Integer>> tasks = new ArrayList<>();
+            // Sin try-with-resources: cerrar el stream cerraría el canal, que cierra restore()
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(HEADER_BYTES)), 64 * 1024));
+            long read = 0;
+            try {
+                while (read < count) {
+                    int size = (int) Math.min(batchSize, count - read);
+                    List<DnaRecordJdbcRepository.StoredRow> rows = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        rows.add(readRecord(in, version));
+                    }
+                    read += size;
+
+                    pending.acquire();
+                    tasks.add(pool.submit(() -> {
+                        try {
+                            return loadBatch(rows);
+                        } finally {
+                            pending.release();
+                        }
+                    }));
+                }
+            } catch (IOException e) {
+                log.error("Registro ilegible en el snapshot después de {} registros: {}", read, e.getMessage());
+            }
+
+            long loaded = 0;
+            for (Future<Integer> task : tasks) {
+                try {
+                    loaded += task.get();
+                } catch (ExecutionException e) {
+                    log.error("Falló la carga de un lote del snapshot: {}", e.getCause().getMessage());
+                }
+            }
+            return loaded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga del snapshot interrumpida", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static DnaRecordJdbcRepository.StoredRow readRecord(DataInputStream in, int version) throws IOException {
+        byte[] hash = new byte[HASH_BYTES];
+        in.readFully(hash);
+        boolean mutant = in.readBoolean();
+        Instant createdAt = Instant.ofEpochMilli(in.readLong());
+        if (version == VERSION_1) {
+            return new DnaRecordJdbcRepository.StoredRow(HEX.formatHex(hash), mutant, createdAt, null, null);
+        }
+
+        int fields = in.readUnsignedByte();
+        if ((fields & ~KNOWN_FIELDS) != 0) {
+            throw new IOException("Campos desconocidos en un registro: " + fields);
+        }
+        byte[] dnaPacked = (fields & HAS_DNA_PACKED) != 0 ? readBytes(in) : null;
+        int[] census = (fields & HAS_CENSUS) != 0 ? readInts(in) : null;
+        return new DnaRecordJdbcRepository.StoredRow(HEX.formatHex(hash), mutant, createdAt, dnaPacked, census);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Largo inválido en un registro: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_CENSUS_LENGTH) {
+            throw new IOException("Censo con largo inválido en un registro: " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private int loadBatch(List<DnaRecordJdbcRepository.StoredRow> rows) {
+        try {
+            jdbcRepository.insertBatch(rows);
+        } catch (RuntimeException e) {
+            // Parte del lote pudo quedar insertada: el MERGE solo agrega los que falten
+            log.warn("Falló la carga de un lote del snapshot, se reintenta: {}", e.getMessage());
+            jdbcRepository.mergeBatch(rows);
+        }
+        return rows.size();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Fin de archivo inesperado en el snapshot");
+            }
+            position += read;
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package com.utn.adn.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.utn.adn.dto.DetectionRulesRequest;
+import com.utn.adn.exception.InvalidDetectionRulesException;
+import com.utn.adn.validation.ValidDnaSequenceValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ingesta por directorio de spool, para procesos que no pueden llamar a la API: dejan archivos
+ * con una matriz por línea en adn.spool.directory y reciben un archivo de resultados.
+ *
+ * Cada línea es un objeto JSON como el body de /api/mutant ({"dna": [...], "rules": {...}},
+ * con un "id" opcional que se copia al resultado) o las filas separadas por comas. El análisis
+ * pasa por {@link MutantService}, así que usa la misma cache, el mismo control de admisión y el
+ * mismo guardado en dna_records que una solicitud HTTP.
+ *
+ * Ciclo de un archivo:
+ *  1. Un WatchService avisa que llegó algo y se recorre el directorio (también cada
+ *     adn.spool.poll-interval-ms, por si se perdió un evento). Los archivos ocultos y los
+ *     terminados en .tmp o .part se ignoran: el productor escribe con ese nombre y renombra.
+ *  2. El archivo se reclama moviéndolo a processing/&lt;instancia&gt;/ con un move atómico. Si
+ *     otra instancia lo reclamó antes, el move falla y se saltea.
+ *  3. Las líneas se leen en streaming y se analizan en adn.spool.threads workers, con a lo sumo
+ *     adn.spool.max-in-flight matrices en vuelo. Los resultados se escriben en orden en
+ *     processing/&lt;instancia&gt;/&lt;archivo&gt;.results.ndjson.part.
+ *  4. Al terminar, los resultados se mueven a done/ y después el archivo original, uno al lado
+ *     del otro.
+ *
+ * Cada instancia (adn.spool.instance-id, por defecto el nombre del host) tiene su propio
+ * subdirectorio en processing/ y mientras vive retiene un lock (FileChannel.tryLock) sobre
+ * su archivo .lock. Al arrancar retoma los archivos de su subdirectorio, y en cada recorrido
+ * adopta los de las instancias cuyo lock quedó libre (se cayeron); los de una instancia viva
+ * no se tocan. Al retomar, cada línea completa de resultados corresponde a una matriz, así
+ * que se saltean esas matrices y se sigue desde ahí.
+ * Si los resultados ya estaban en done/, solo falta mover el original. Ningún archivo se
+ * procesa dos veces; a lo sumo se repiten las matrices cuyo resultado no llegó a escribirse,
+ * y esas salen de la cache sin crear registros nuevos.
+ */
+@Service
+@Slf4j
+public class SpoolIngestService {
+
+    static final String PROCESSING = "processing";
+    static final String DONE = "done";
+    static final String FAILED = "failed";
+    static final String RESULTS_SUFFIX = ".results.ndjson";
+    static final String PARTIAL_SUFFIX = ".part";
+    static final String LOCK_FILE = ".lock";
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final MutantService mutantService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final String instanceId;
+    private final int maxInFlight;
+    private final long pollIntervalMillis;
+
+    private final ExecutorService watcher;
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+    private FileChannel lockChannel;
+
+    private final Counter filesProcessed;
+    private final Counter recordsAnalyzed;
+    private final Counter recordsRejected;
+
+    public SpoolIngestService(
+            MutantService mutantService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${adn.spool.directory:}") String directory,
+            @Value("${adn.spool.instance-id:}") String instanceId,
+            @Value("${adn.spool.threads:4}") int threads,
+            @Value("${adn.spool.max-in-flight:64}") int maxInFlight,
+            @Value("${adn.spool.poll-interval-ms:5000}") long pollIntervalMillis) {
+        this.mutantService = mutantService;
+        this.objectMapper = objectMapper;
+        this.directory = directory == null || directory.isBlank()
+                ? null
+                : Path.of(directory).toAbsolutePath().normalize();
+        this.instanceId = (instanceId == null || instanceId.isBlank() ? hostName() : instanceId)
+                .replaceAll("[^A-Za-z0-9._-]", "_");
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.pollIntervalMillis = Math.max(100, pollIntervalMillis);
+
+        this.watcher = Executors.newSingleThreadExecutor(DaemonThreads.named("adn-spool"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), DaemonThreads.numbered("adn-spool"));
+
+        this.filesProcessed = Counter.builder("adn.spool.files")
+                .description("Archivos del spool procesados")
+                .register(meterRegistry);
+        this.recordsAnalyzed = Counter.builder("adn.spool.records")
+                .description("Matrices del spool analizadas")
+                .register(meterRegistry);
+        this.recordsRejected = Counter.builder("adn.spool.rejected")
+                .description("Líneas del spool inválidas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retoma los archivos interrumpidos y empieza a vigilar el directorio en segundo plano.
+     * Sin adn.spool.directory no hace nada.
+     */
+    public void start() {
+        if (directory == null) {
+            return;
+        }
+        open();
+
+        watcher.execute(() -> {
+            recover();
+            watch();
+        });
+        log.info("Spool de ingesta activo en {} (instancia {})", directory, instanceId);
+    }
+
+    /**
+     * Crea los directorios y toma el lock de la instancia.
+     *
+     * @throws IllegalStateException si otra instancia viva usa el mismo adn.spool.instance-id
+     */
+    synchronized void open() {
+        if (lockChannel != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(processing());
+            Files.createDirectories(directory.resolve(DONE));
+            Files.createDirectories(directory.resolve(FAILED));
+            FileChannel channel = FileChannel.open(processing().resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (tryLock(channel) == null) {
+                channel.close();
+                throw new IllegalStateException("Otra instancia del spool usa adn.spool.instance-id=" + instanceId);
+            }
+            lockChannel = channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        watcher.shutdownNow();
+        workers.shutdownNow();
+        synchronized (this) {
+            closeQuietly(lockChannel);  // Libera el lock: otra instancia puede adoptar lo pendiente
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * Retoma los archivos que quedaron en el subdirectorio propio de processing/ por una caída,
+     * y adopta los de instancias caídas.
+     */
+    void recover() {
+        for (Path claimed : list(processing())) {
+            if (!running) {
+                break;
+            }
+            log.info("Retomando archivo del spool interrumpido: {}", claimed.getFileName());
+            process(claimed);
+        }
+        adoptOrphans();
+    }
+
+    /**
+     * Pasa al subdirectorio propio los archivos de las instancias cuyo lock está libre y los
+     * procesa. Mientras se mueven se retiene el lock ajeno, así que dos instancias no adoptan
+     * lo mismo.
+     */
+    void adoptOrphans() {
+        for (Path other : instanceDirectories()) {
+            if (!running) {
+                break;
+            }
+            if (list(other).isEmpty()) {
+                continue;
+            }
+            List<Path> adopted = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(other.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                if (tryLock(channel) == null) {
+                    continue;  // La instancia sigue viva
+                }
+                for (Path file : list(other)) {
+                    Path claimed = adopt(file);
+                    if (claimed != null) {
+                        adopted.add(claimed);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("No se pudo revisar el spool de la instancia {}: {}", other.getFileName(), e.getMessage());
+            }
+            for (Path claimed : adopted) {
+                log.info("Retomando archivo del spool de la instancia caída {}: {}", other.getFileName(),
+                        claimed.getFileName());
+                process(claimed);
+            }
+        }
+    }
+
+    /**
+     * Reclama y procesa los archivos presentes en el directorio, de a uno y por nombre.
+     *
+     * @return cantidad de archivos procesados
+     */
+    int scan() {
+        int processed = 0;
+        for (Path file : list(directory)) {
+            if (!running) {
+                break;
+            }
+            Path claimed = claim(file);
+            if (claimed != null) {
+                process(claimed);
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    private void watch() {
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            while (running) {
+                adoptOrphans();
+                scan();
+                // Los eventos solo despiertan el recorrido; el timeout cubre los perdidos (OVERFLOW)
+                WatchKey key = watchService.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("El spool de ingesta dejó de vigilar {}", directory, e);
+        }
+    }
+
+    /**
+     * Mueve el archivo a processing/&lt;instancia&gt;/ con un move atómico.
+     *
+     * @return el archivo reclamado, o null si otro proceso lo reclamó antes
+     */
+    Path claim(Path file) {
+        Path target = freeName(file.getFileName().toString());
+        try {
+            return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("No se pudo reclamar {} del spool: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Mueve a processing/&lt;instancia&gt;/ un archivo de una instancia caída, junto con sus
+     * resultados parciales.
+     *
+     * @return el archivo adoptado, o null si no se pudo mover
+     */
+    private Path adopt(Path file) {
+        Path partial = file.resolveSibling(file.getFileName() + RESULTS_SUFFIX + PARTIAL_SUFFIX);
+        Path target = Files.exists(processing().resolve(file.getFileName()))
+                ? freeName(file.getFileName().toString())
+                : processing().resolve(file.getFileName());
+        try {
+            if (Files.exists(partial)) {
+                Files.move(partial, target.resolveSibling(target.getFileName() + RESULTS_SUFFIX + PARTIAL_SUFFIX),
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo adoptar {} del spool: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Nombre libre en el subdirectorio propio: un nombre ya usado (en curso en cualquier
+     * instancia o publicado en done/) lleva un prefijo, para no pisar resultados anteriores.
+     */
+    private Path freeName(String original) {
+        List<Path> instances = instanceDirectories();
+        String name = original;
+        for (int i = 1; isTaken(name, instances); i++) {
+            name = i + "-" + original;
+        }
+        return processing().resolve(name);
+    }
+
+    private boolean isTaken(String name, List<Path> instances) {
+        if (Files.exists(processing().resolve(name)) || Files.exists(directory.resolve(DONE).resolve(name))) {
+            return true;
+        }
+        return instances.stream().anyMatch(other -> Files.exists(other.resolve(name)));
+    }
+
+    /**
+     * Procesa un archivo reclamado, retomando desde los resultados ya escritos. Si falla, el
+     * archivo y sus resultados parciales pasan a failed/; si se interrumpe por un apagado,
+     * quedan en processing/ para el próximo arranque. El lector y el escritor son canales
+     * interrumpibles: una interrupción en medio de una lectura o de un flush llega como
+     * ClosedByInterruptException, y cualquier error después del apagado se trata igual.
+     */
+    void process(Path claimed) {
+        String name = claimed.getFileName().toString();
+        Path partial = claimed.resolveSibling(name + RESULTS_SUFFIX + PARTIAL_SUFFIX);
+        Path results = directory.resolve(DONE).resolve(name + RESULTS_SUFFIX);
+        long start = System.nanoTime();
+        try {
+            if (!Files.exists(results)) {
+                int lines = analyzeFile(claimed, partial);
+                Files.move(partial, results, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Spool: {} procesado ({} resultados en {} ms)", name, lines,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            Files.move(claimed, directory.resolve(DONE).resolve(name), StandardCopyOption.ATOMIC_MOVE);
+            filesProcessed.increment();
+        } catch (InterruptedException | ClosedByInterruptException e) {
+            keepForRestart(name);
+        } catch (IOException | RuntimeException e) {
+            if (!running) {
+                keepForRestart(name);
+                return;
+            }
+            log.error("Spool: falló el procesamiento de {}", name, e);
+            moveQuietly(partial, directory.resolve(FAILED).resolve(partial.getFileName()));
+            moveQuietly(claimed, directory.resolve(FAILED).resolve(name));
+        }
+    }
+
+    private void keepForRestart(String name) {
+        Thread.currentThread().interrupt();
+        log.info("Spool: {} interrumpido, se retoma en el próximo arranque", name);
+    }
+
+    /**
+     * Analiza las matrices del archivo que todavía no tienen resultado y los agrega, en orden,
+     * a los resultados parciales. Los resultados salen de una cola de a lo sumo maxInFlight
+     * análisis: el lector espera al más viejo antes de encolar otro.
+     *
+     * @return cantidad de resultados escritos en esta corrida
+     */
+    private int analyzeFile(Path input, Path partial) throws IOException, InterruptedException {
+        long done = completedResults(partial);
+        Deque<Future<String>> pending = new ArrayDeque<>(maxInFlight);
+        int written = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.APPEND);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            String text;
+            int lineNumber = 0;
+            long record = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank() || ++record <= done) {
+                    continue;  // Vacía, o ya tiene resultado de una corrida anterior
+                }
+                if (!running) {
+                    throw new InterruptedException("Spool detenido");
+                }
+                while (pending.size() >= maxInFlight) {
+                    writeNext(pending, writer, ++written);
+                }
+                int line = lineNumber;
+                String content = text;
+                pending.add(workers.submit(() -> analyze(line, content)));
+            }
+            while (!pending.isEmpty()) {
+                writeNext(pending, writer, ++written);
+            }
+            writer.flush();
+            channel.force(true);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        return written;
+    }
+
+    /**
+     * Espera el análisis más viejo y escribe su resultado. Cada FLUSH_EVERY resultados se
+     * vacía el buffer, para que una caída pierda pocos. Después del apagado no se escribe
+     * nada: el análisis pudo terminar en error por la interrupción, y al retomar se repite.
+     */
+    private void writeNext(Deque<Future<String>> pending, Writer writer, int written)
+            throws IOException, InterruptedException {
+        String result;
+        try {
+            result = pending.peekFirst().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (!running) {
+            throw new InterruptedException("Spool detenido");
+        }
+        pending.removeFirst();
+        writer.write(result);
+        writer.write('\n');
+        if (written % FLUSH_EVERY == 0) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Analiza una línea y arma su resultado: {"line", "id", "is_mutant"} o {"line", "id", "error"}.
+     * Si el control de admisión rechaza el análisis, {@link MutantService} espera y reintenta
+     * solo la reserva (ver {@link MutantService.Admission#WAIT}).
+     */
+    String analyze(int line, String text) throws InterruptedException, JsonProcessingException {
+        ObjectNode result = objectMapper.createObjectNode().put("line", line);
+        try {
+            JsonNode node = text.stripLeading().startsWith("{") ? objectMapper.readTree(text) : null;
+            if (node != null && node.hasNonNull("id")) {
+                result.put("id", node.get("id").asText());
+            }
+            String[] dna = node == null ? text.strip().split("\\s*,\\s*") : dna(node);
+            DetectionRules rules = mutantService.resolveRules(node == null || !node.hasNonNull("rules")
+                    ? null
+                    : objectMapper.treeToValue(node.get("rules"), DetectionRulesRequest.class));
+            if (!ValidDnaSequenceValidator.isValid(dna, rules.rectangular())) {
+                recordsRejected.increment();
+                return objectMapper.writeValueAsString(result.put("error", "ADN inválido"));
+            }
+
+            boolean isMutant = mutantService.analyzeDna(dna, rules, null, MutantService.Admission.WAIT);
+            recordsAnalyzed.increment();
+            return objectMapper.writeValueAsString(result.put("is_mutant", isMutant));
+        } catch (CancellationException e) {
+            // Interrumpido mientras esperaba admisión (shutdown): el archivo se retoma al reiniciar
+            throw new InterruptedException(e.getMessage());
+        } catch (JsonProcessingException e) {
+            recordsRejected.increment();
+            return objectMapper.writeValueAsString(result.put("error", "JSON inválido"));
+        } catch (InvalidDetectionRulesException e) {
+            recordsRejected.increment();
+            return objectMapper.writeValueAsString(result.put("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            log.warn("Spool: error al analizar la línea {}: {}", line, e.getMessage());
+            return objectMapper.writeValueAsString(result.put("error", "Error al analizar"));
+        }
+    }
+
+    private static String[] dna(JsonNode node) {
+        JsonNode rows = node.get("dna");
+        if (rows == null || !rows.isArray()) {
+            return null;
+        }
+        String[] dna = new String[rows.size()];
+        for (int i = 0; i < dna.length; i++) {
+            dna[i] = rows.get(i).isTextual() ? rows.get(i).asText() : null;
+        }
+        return dna;
+    }
+
+    /**
+     * Cuenta las líneas completas de los resultados parciales y descarta una última a medio
+     * escribir (la caída pudo cortarla).
+     */
+    static long completedResults(Path partial) throws IOException {
+        if (!Files.exists(partial)) {
+            return 0;
+        }
+        long lines = 0;
+        long complete = 0;
+        long position = 0;
+        // En UTF-8 el byte del salto de línea nunca aparece dentro de otro carácter
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(partial))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                        complete = position + i + 1;
+                    }
+                }
+                position += read;
+            }
+        }
+        if (complete < position) {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Archivos del directorio listos para procesar, ordenados por nombre.
+     */
+    private static List<Path> list(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return !name.startsWith(".") && !name.endsWith(".tmp") && !name.endsWith(PARTIAL_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("No se pudo listar el spool {}: {}", directory, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private Path processing() {
+        return directory.resolve(PROCESSING).resolve(instanceId);
+    }
+
+    /**
+     * Subdirectorios de processing/ de las otras instancias.
+     */
+    private List<Path> instanceDirectories() {
+        try (Stream<Path> entries = Files.list(directory.resolve(PROCESSING))) {
+            return entries.filter(Files::isDirectory)
+                    .filter(entry -> !entry.getFileName().toString().equals(instanceId))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("No se pudo listar {}: {}", directory.resolve(PROCESSING), e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Intenta tomar el lock sin esperar.
+     *
+     * @return el lock, o null si lo tiene otro proceso (u otro canal de esta misma JVM)
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "local";
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("No se pudo liberar el lock del spool: {}", e.getMessage());
+        }
+    }
+
+    private static void moveQuietly(Path source, Path target) {
+        try {
+            if (Files.exists(source)) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo mover {} a {}: {}", source, target, e.getMessage());
+        }
+    }
+}
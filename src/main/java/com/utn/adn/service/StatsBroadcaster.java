@@ -0,0 +1,341 @@
+package com.utn.adn.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.adn.dto.StatsResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Difusión de estadísticas por Server-Sent Events (GET /api/stats/stream).
+ *
+ * Un único job revisa los conteos cada adn.stats.stream.interval-ms, y solo si hay
+ * suscriptores. Si cambiaron, el evento se arma y se serializa una sola vez y se envía igual
+ * a todos: la carga sobre la base es una consulta por intervalo, haya uno o mil dashboards.
+ * Las conexiones quedan en modo asíncrono del servlet, así los suscriptores ociosos no ocupan
+ * hilos. Si no hubo cambios durante adn.stats.stream.heartbeat-ms se manda un comentario, que
+ * mantiene viva la conexión en los proxies y detecta clientes que ya se fueron.
+ *
+ * Los envíos no se hacen en el hilo del scheduler sino en un pool propio
+ * (adn.stats.stream.sender-threads). Cada suscriptor guarda solo el último evento pendiente, así
+ * un cliente lento recibe directamente el más nuevo en lugar de acumular una cola. Si un envío
+ * tarda más de adn.stats.stream.send-timeout-ms, el suscriptor se descarta y su conexión se
+ * cierra en cuanto ese envío termine.
+ */
+@Service
+@Slf4j
+public class StatsBroadcaster {
+
+    private static final String EVENT_NAME = "stats";
+
+    /**
+     * Los heartbeats no llevan secuencia: nunca reemplazan a un evento de estadísticas pendiente.
+     */
+    private static final long HEARTBEAT = 0;
+
+    private final StatsService statsService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+    private final long intervalMillis;
+    private final long sendTimeoutMillis;
+    private final ExecutorService sender;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Void>> refreshing = new AtomicReference<>();
+
+    private volatile Snapshot last;
+    private volatile long lastCheckedAt;
+    private volatile long lastSentAt;
+
+    public StatsBroadcaster(
+            StatsService statsService,
+            ObjectMapper objectMapper,
+            @Value("${adn.stats.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${adn.stats.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${adn.stats.stream.heartbeat-ms:15000}") long heartbeatMillis,
+            @Value("${adn.stats.stream.interval-ms:1000}") long intervalMillis,
+            @Value("${adn.stats.stream.send-timeout-ms:5000}") long sendTimeoutMillis,
+            @Value("${adn.stats.stream.sender-threads:4}") int senderThreads) {
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+        this.heartbeatMillis = Math.max(1, heartbeatMillis);
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.sendTimeoutMillis = Math.max(1, sendTimeoutMillis);
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads),
+                DaemonThreads.numbered("adn-stats-sse"));
+    }
+
+    /**
+     * Registra un suscriptor y le envía enseguida las estadísticas vigentes.
+     *
+     * @return el emitter de la conexión, o vacío si se alcanzó adn.stats.stream.max-subscribers
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            log.warn("Suscripción a /stats/stream rechazada: {} suscriptores activos", subscribers.size());
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Se registra antes de leer el snapshot: una difusión que ocurra en el medio ya lo
+        // incluye, y la secuencia de los eventos evita que el snapshot viejo pise al nuevo
+        subscribers.add(subscriber);
+        try {
+            // Si no hay un snapshot reciente se refresca una sola vez para todos los que se
+            // suscriben a la vez (reconexión masiva); los demás esperan esa misma consulta
+            if (isStale()) {
+                refresh(false);
+            }
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            throw e;
+        }
+        offer(subscriber, last.event());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Revisa los conteos y difunde el cambio, a lo sumo una vez por intervalo.
+     */
+    @Scheduled(
+            initialDelayString = "${adn.stats.stream.interval-ms:1000}",
+            fixedDelayString = "${adn.stats.stream.interval-ms:1000}")
+    public void tick() {
+        dropStalled();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        if (!refresh(true) && System.currentTimeMillis() - lastSentAt >= heartbeatMillis) {
+            broadcast(new Event(HEARTBEAT, SseEmitter.event().comment("heartbeat").build()));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private boolean isStale() {
+        return last == null || System.currentTimeMillis() - lastCheckedAt > 2 * intervalMillis;
+    }
+
+    /**
+     * Consulta los conteos y, si cambiaron, guarda el snapshot nuevo y lo difunde a los
+     * suscriptores actuales. Si ya hay una consulta en curso, espera esa en lugar de hacer otra.
+     *
+     * @param force false para no consultar si otro hilo refrescó el snapshot mientras tanto
+     * @return true si hubo cambios
+     */
+    private boolean refresh(boolean force) {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = refreshing.compareAndExchange(null, mine);
+        if (running != null) {
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return false;
+        }
+
+        Snapshot snapshot;
+        try {
+            if (!force && !isStale()) {
+                mine.complete(null);
+                return false;
+            }
+            StatsResponse stats = statsService.getStats();
+            lastCheckedAt = System.currentTimeMillis();
+            Snapshot current = last;
+            snapshot = current != null && current.stats().equals(stats) ? null : snapshotOf(stats);
+            if (snapshot != null) {
+                last = snapshot;
+            }
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            refreshing.set(null);
+        }
+
+        if (snapshot == null) {
+            return false;
+        }
+        broadcast(snapshot.event());
+        return true;
+    }
+
+    /**
+     * Arma el evento SSE de unas estadísticas, serializado una sola vez.
+     */
+    private Snapshot snapshotOf(StatsResponse stats) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(stats);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar las estadísticas", e);
+        }
+
+        long id = sequence.incrementAndGet();
+        Set<ResponseBodyEmitter.DataWithMediaType> data = SseEmitter.event()
+                .id(Long.toString(id))
+                .name(EVENT_NAME)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        return new Snapshot(stats, new Event(id, data));
+    }
+
+    private void broadcast(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, event);
+        }
+        lastSentAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Deja el evento como pendiente del suscriptor, salvo que ya tenga uno más nuevo, y
+     * programa el envío si no hay uno en curso.
+     */
+    private void offer(Subscriber subscriber, Event event) {
+        subscriber.pending.accumulateAndGet(event, (current, next) ->
+                current == null || next.sequence() >= current.sequence() ? next : current);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);  // Se está cerrando
+            }
+        }
+    }
+
+    /**
+     * Envía los eventos pendientes de un suscriptor, de a uno y siempre el más nuevo.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while ((event = subscriber.pending.getAndSet(null)) != null) {
+                if (event.sequence() != HEARTBEAT && event.sequence() <= subscriber.sent) {
+                    continue;
+                }
+                subscriber.sendingSince = System.currentTimeMillis();
+                boolean sent = send(subscriber.emitter, event.data());
+                subscriber.sendingSince = 0;
+                if (!sent || !subscribers.contains(subscriber)) {
+                    // Desconectado, o descartado por lento mientras se enviaba
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.complete();
+                    return;
+                }
+                subscriber.sent = Math.max(subscriber.sent, event.sequence());
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Un evento que llegó justo al terminar no debe quedar esperando al siguiente cambio
+        if (subscriber.pending.get() != null && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Descarta los suscriptores con un envío trabado más de adn.stats.stream.send-timeout-ms.
+     * Su conexión la cierra el hilo del envío cuando este termina.
+     */
+    private void dropStalled() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutMillis && subscribers.remove(subscriber)) {
+                log.warn("Suscriptor de /stats/stream descartado: un envío lleva {} ms", now - since);
+            }
+        }
+    }
+
+    /**
+     * @return false si la conexión ya no sirve (cliente desconectado o emitter cerrado)
+     */
+    private static boolean send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor de /stats/stream desconectado: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Un evento SSE listo para enviar. La secuencia crece con cada snapshot nuevo.
+     */
+    private record Event(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> data) { }
+
+    /**
+     * Últimas estadísticas difundidas, con su evento SSE.
+     */
+    private record Snapshot(StatsResponse stats, Event event) { }
+
+    /**
+     * Una conexión con su evento pendiente, la secuencia del último enviado y, si hay un envío
+     * en curso, desde cuándo.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<Event> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sent;
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
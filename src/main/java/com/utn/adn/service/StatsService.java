@@ -1,35 +1,111 @@
 package com.utn.adn.service;
 
+import com.utn.adn.dto.CensusStatsResponse;
 import com.utn.adn.dto.StatsResponse;
-import com.utn.adn.repository.DnaRecordRepository;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Servicio encargado de obtener estadísticas sobre los ADN analizados.
  * Calcula:
  *  - cantidad de ADN mutantes
  *  - cantidad de ADN humanos
  *  - ratio (mutantes / humanos)
+ * Los conteos se piden a todas las particiones de dna_records en paralelo.
+ * También arma el desglose de los censos de secuencias guardados (modo censo).
  */
 @Service
 public class StatsService {
 
-    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaRecordJdbcRepository dnaRecordRepository;
+    private final ClusterService clusterService;
 
     @Autowired
-    public StatsService(DnaRecordRepository repo) {
+    public StatsService(DnaRecordJdbcRepository repo, ClusterService clusterService) {
         dnaRecordRepository = repo;
+        this.clusterService = clusterService;
     }
 
     /**
      * Obtiene las estadísticas globales de ADN analizados.
+     * En modo cluster suma los conteos locales de todos los nodos que respondan.
      *
      * @return objeto StatsResponse con counts y ratio
      */
     public StatsResponse getStats() {
-        long countMutantDna = dnaRecordRepository.countByMutant(true);
-        long countHumanDna = dnaRecordRepository.countByMutant(false);
+        StatsResponse local = getLocalStats();
+        if (!clusterService.isEnabled()) {
+            return local;
+        }
+
+        long countMutantDna = local.count_mutant_dna();
+        long countHumanDna = local.count_human_dna();
+        for (StatsResponse peer : clusterService.peerStats()) {
+            countMutantDna += peer.count_mutant_dna();
+            countHumanDna += peer.count_human_dna();
+        }
+        return buildStats(countMutantDna, countHumanDna);
+    }
+
+    /**
+     * Estadísticas de la base local únicamente (las que expone este nodo al cluster).
+     */
+    public StatsResponse getLocalStats() {
+        DnaRecordJdbcRepository.VerdictCounts counts = dnaRecordRepository.countVerdicts();
+        return buildStats(counts.mutant(), counts.human());
+    }
+
+    /**
+     * Desglose por dirección y por base de las secuencias de los registros de la base local
+     * que se analizaron en modo censo. Se suma desde los censos guardados, sin re-analizar ADN.
+     *
+     * @return objeto CensusStatsResponse con un desglose por dirección y otro por base
+     */
+    public CensusStatsResponse getCensusStats() {
+        DnaRecordJdbcRepository.CensusTotals totals = dnaRecordRepository.sumCensus();
+        DnaRecordJdbcRepository.CensusCounts mutant = totals.mutant();
+        DnaRecordJdbcRepository.CensusCounts human = totals.human();
+
+        List<CensusStatsResponse.Breakdown> byDirection = new ArrayList<>();
+        for (SequenceCensus.Direction direction : SequenceCensus.Direction.values()) {
+            long mutantRuns = 0;
+            long humanRuns = 0;
+            for (SequenceCensus.Base base : SequenceCensus.Base.values()) {
+                int index = SequenceCensus.index(base, direction);
+                mutantRuns += mutant.runs()[index];
+                humanRuns += human.runs()[index];
+            }
+            byDirection.add(breakdown(direction.name(), mutantRuns, humanRuns,
+                    mutant.recordsByDirection()[direction.ordinal()], mutant.records()));
+        }
+
+        List<CensusStatsResponse.Breakdown> byBase = new ArrayList<>();
+        for (SequenceCensus.Base base : SequenceCensus.Base.values()) {
+            long mutantRuns = 0;
+            long humanRuns = 0;
+            for (SequenceCensus.Direction direction : SequenceCensus.Direction.values()) {
+                int index = SequenceCensus.index(base, direction);
+                mutantRuns += mutant.runs()[index];
+                humanRuns += human.runs()[index];
+            }
+            byBase.add(breakdown(base.name(), mutantRuns, humanRuns,
+                    mutant.recordsByBase()[base.ordinal()], mutant.records()));
+        }
+
+        return new CensusStatsResponse(mutant.records(), human.records(), byDirection, byBase);
+    }
+
+    private static CensusStatsResponse.Breakdown breakdown(String key, long mutantRuns, long humanRuns,
+                                                           long mutantsWithRuns, long mutants) {
+        double share = mutants == 0 ? 0.0 : (double) mutantsWithRuns / mutants;
+        return new CensusStatsResponse.Breakdown(key, mutantRuns, humanRuns, mutantsWithRuns, share);
+    }
+
+    private static StatsResponse buildStats(long countMutantDna, long countHumanDna) {
 
         double ratio;
         if (countHumanDna == 0 && countMutantDna == 0) {
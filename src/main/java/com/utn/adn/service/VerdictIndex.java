@@ -0,0 +1,740 @@
+package com.utn.adn.service;
+
+import com.utn.adn.event.DnaRecordsImportedEvent;
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.event.DnaVerdictsChangedEvent;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice fuera del heap con todos los veredictos conocidos: tabla hash de direccionamiento
+ * abierto (sondeo lineal) cuyas claves son los 32 bytes del SHA-256 del ADN. Cada slot ocupa
+ * 40 bytes: un long de estado (veredicto, marca de conciliación y fecha de creación en ms) y
+ * la clave.
+ *
+ * Con adn.index.enabled=true es la fuente de verdad de /mutant: una vez cargado desde
+ * dna_records, un hash ausente del índice no se busca en la base.
+ *
+ * Concurrencia:
+ *  - Las lecturas no toman locks: leen el estado con semántica acquire y la clave después.
+ *    La clave de un slot se escribe una sola vez, antes de publicar el estado con release.
+ *  - Las escrituras de una misma clave se serializan con un lock por franja (stripe); dos
+ *    claves distintas compiten por un slot vacío con CAS.
+ *  - Los borrados dejan una lápida con la clave; si la clave vuelve, se revive el mismo slot.
+ *  - Al superar el factor de carga se rehashea a una tabla nueva (el doble, o el mismo tamaño
+ *    si sobraban lápidas) con las escrituras bloqueadas; las lecturas siguen sobre la tabla vieja.
+ *
+ * La memoria son ByteBuffers directos o, si se configura adn.index.file, regiones mapeadas del
+ * archivo, que persiste entre reinicios. Mientras el nodo estuvo caído la base pudo cambiar
+ * (retención, re-análisis, una H2 en memoria que arranca vacía), así que un archivo persistido
+ * se concilia con dna_records en la primera carga (ver {@link #load()}). Se usan ByteBuffers con VarHandles en lugar de
+ * MemorySegment porque la API FFM todavía es preview en Java 21.
+ */
+@Service
+@Slf4j
+public class VerdictIndex {
+
+    private static final int MAGIC = 0x494E4441;  // "ADNI"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4096;  // Una página, así los slots mapeados quedan alineados
+    static final int SLOT_BYTES = 40;
+    private static final int CHUNK_SHIFT = 22;     // 4M slots (160 MB) por ByteBuffer
+    private static final int STRIPES = 64;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = 2;
+    private static final long BUSY = 4;
+    private static final long LIVE_BIT = 1;
+    private static final long MUTANT_BIT = 2;
+    private static final long SEEN_BIT = 4;        // Solo en estados vivos: visto durante la conciliación
+    private static final int TIME_SHIFT = 3;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final DnaRecordJdbcRepository jdbcRepository;
+    private final boolean enabled;
+    private final Path file;
+    private final double loadFactor;
+    private final int fetchSize;
+
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong used = new AtomicLong();  // vivos + lápidas + en escritura
+
+    private volatile Table table;
+    private volatile boolean loaded;
+    private volatile boolean persisted;    // La tabla vino de un archivo con entradas: hay que conciliarla
+    private volatile boolean reconciling;  // Las escrituras marcan sus claves como vistas
+
+    /**
+     * Veredicto indexado y fecha en que se guardó.
+     */
+    public record Verdict(boolean mutant, long createdAtMillis) { }
+
+    public VerdictIndex(
+            DnaRecordJdbcRepository jdbcRepository,
+            MeterRegistry meterRegistry,
+            @Value("${adn.index.enabled:false}") boolean enabled,
+            @Value("${adn.index.file:}") String file,
+            @Value("${adn.index.initial-capacity:1048576}") long initialCapacity,
+            @Value("${adn.index.load-factor:0.7}") double loadFactor,
+            @Value("${adn.index.fetch-size:1000}") int fetchSize) {
+        this.jdbcRepository = jdbcRepository;
+        this.enabled = enabled;
+        this.file = file == null || file.isBlank() ? null : Path.of(file).toAbsolutePath();
+        this.loadFactor = Math.min(0.9, Math.max(0.1, loadFactor));
+        this.fetchSize = Math.max(1, fetchSize);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        if (enabled) {
+            this.table = open(Long.highestOneBit(Math.max(1024, initialCapacity) - 1) << 1);
+            Gauge.builder("adn.index.entries", live, AtomicLong::get)
+                    .description("Veredictos en el índice fuera del heap")
+                    .register(meterRegistry);
+            Gauge.builder("adn.index.capacity", this, index -> index.table.capacity)
+                    .description("Slots reservados por el índice fuera del heap")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Indica si el índice está cargado y responde por este hash (hex SHA-256):
+     * en ese caso, que no lo tenga significa que el ADN nunca se analizó.
+     */
+    public boolean covers(String dnaHash) {
+        return loaded && isKey(dnaHash);
+    }
+
+    /**
+     * Veredicto indexado para un hash, sin locks ni asignaciones en el camino de lectura
+     * (salvo el Optional del resultado).
+     */
+    public Optional<Verdict> find(String dnaHash) {
+        Table current = table;
+        if (current == null || !isKey(dnaHash)) {
+            return Optional.empty();
+        }
+
+        long k0 = keyPart(dnaHash, 0), k1 = keyPart(dnaHash, 1), k2 = keyPart(dnaHash, 2), k3 = keyPart(dnaHash, 3);
+        long slot = home(k1) & current.mask;
+        for (long probes = 0; probes < current.capacity; probes++, slot = (slot + 1) & current.mask) {
+            long state = current.stateAcquire(slot);
+            if (state == EMPTY) {
+                return Optional.empty();
+            }
+            if (state != BUSY && current.keyEquals(slot, k0, k1, k2, k3)) {
+                return (state & LIVE_BIT) != 0
+                        ? Optional.of(new Verdict((state & MUTANT_BIT) != 0, state >>> TIME_SHIFT))
+                        : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Agrega un veredicto si el hash no estaba.
+     *
+     * @return true si se agregó, false si ya existía, el índice está apagado o el hash no es válido
+     */
+    public boolean put(String dnaHash, boolean mutant, long createdAtMillis) {
+        return write(dnaHash, mutant, createdAtMillis, false) == 1;
+    }
+
+    /**
+     * Escribe un veredicto; con overwrite pisa el de una clave existente.
+     *
+     * @return 1 si se agregó, 2 si se cambió uno existente, 0 si quedó igual o no se escribió
+     */
+    private int write(String dnaHash, boolean mutant, long createdAtMillis, boolean overwrite) {
+        if (table == null || !isKey(dnaHash)) {
+            return 0;
+        }
+
+        long k0 = keyPart(dnaHash, 0), k1 = keyPart(dnaHash, 1), k2 = keyPart(dnaHash, 2), k3 = keyPart(dnaHash, 3);
+        long state = (Math.max(0, createdAtMillis) << TIME_SHIFT) | (mutant ? MUTANT_BIT : 0) | LIVE_BIT
+                | (reconciling ? SEEN_BIT : 0);
+
+        while (true) {
+            if (used.get() + 1 > table.capacity * loadFactor) {
+                resize();
+            }
+
+            resizeLock.readLock().lock();
+            ReentrantLock stripe = stripes[(int) (k2 & (STRIPES - 1))];
+            stripe.lock();
+            try {
+                int result = insert(table, k0, k1, k2, k3, state, overwrite);
+                if (result >= 0) {
+                    return result;
+                }
+            } finally {
+                stripe.unlock();
+                resizeLock.readLock().unlock();
+            }
+            resize();  // Tabla llena: solo pasa si muchos hilos se adelantaron al umbral
+        }
+    }
+
+    /**
+     * Borra un hash del índice (deja una lápida).
+     *
+     * @return true si estaba
+     */
+    public boolean remove(String dnaHash) {
+        if (table == null || !isKey(dnaHash)) {
+            return false;
+        }
+
+        long k0 = keyPart(dnaHash, 0), k1 = keyPart(dnaHash, 1), k2 = keyPart(dnaHash, 2), k3 = keyPart(dnaHash, 3);
+        resizeLock.readLock().lock();
+        ReentrantLock stripe = stripes[(int) (k2 & (STRIPES - 1))];
+        stripe.lock();
+        try {
+            Table current = table;
+            long slot = home(k1) & current.mask;
+            for (long probes = 0; probes < current.capacity; probes++, slot = (slot + 1) & current.mask) {
+                long state = current.stateAcquire(slot);
+                if (state == EMPTY) {
+                    return false;
+                }
+                if (state != BUSY && current.keyEquals(slot, k0, k1, k2, k3)) {
+                    if ((state & LIVE_BIT) == 0) {
+                        return false;
+                    }
+                    current.setStateRelease(slot, TOMBSTONE);
+                    live.decrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            stripe.unlock();
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cambia el veredicto de un hash ya indexado, conservando su fecha.
+     *
+     * @return true si estaba
+     */
+    public boolean updateVerdict(String dnaHash, boolean mutant) {
+        if (table == null || !isKey(dnaHash)) {
+            return false;
+        }
+
+        long k0 = keyPart(dnaHash, 0), k1 = keyPart(dnaHash, 1), k2 = keyPart(dnaHash, 2), k3 = keyPart(dnaHash, 3);
+        resizeLock.readLock().lock();
+        ReentrantLock stripe = stripes[(int) (k2 & (STRIPES - 1))];
+        stripe.lock();
+        try {
+            Table current = table;
+            long slot = home(k1) & current.mask;
+            for (long probes = 0; probes < current.capacity; probes++, slot = (slot + 1) & current.mask) {
+                long state = current.stateAcquire(slot);
+                if (state == EMPTY) {
+                    return false;
+                }
+                if (state != BUSY && current.keyEquals(slot, k0, k1, k2, k3)) {
+                    if ((state & LIVE_BIT) == 0) {
+                        return false;
+                    }
+                    long updated = mutant ? state | MUTANT_BIT : state & ~MUTANT_BIT;
+                    current.setStateRelease(slot, reconciling ? updated | SEEN_BIT : updated);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            stripe.unlock();
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carga en el índice todos los registros de dna_records y lo marca como fuente de verdad.
+     *
+     * Si la tabla vino de un archivo persistido, la primera carga la concilia con la base: los
+     * registros recorridos se marcan como vistos (pisando el veredicto y la fecha si cambiaron)
+     * y al final se borran las entradas no vistas, que ya no existen en dna_records. Las
+     * escrituras concurrentes también marcan sus claves, así no se borran. Las cargas
+     * siguientes (importaciones) solo agregan los que falten.
+     *
+     * @return cantidad de veredictos agregados
+     */
+    public long load() {
+        if (!enabled) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        boolean reconcile = persisted && !loaded;
+        reconciling = reconcile;
+        AtomicLong added = new AtomicLong();
+        AtomicLong corrected = new AtomicLong();
+        long removed = 0;
+        try {
+            jdbcRepository.forEach(fetchSize, row -> {
+                int result = write(row.dnaHash(), row.mutant(), row.createdAt().toEpochMilli(), reconcile);
+                if (result == 1) {
+                    added.incrementAndGet();
+                } else if (result == 2) {
+                    corrected.incrementAndGet();
+                }
+            });
+            if (reconcile) {
+                removed = sweep();
+            }
+        } finally {
+            reconciling = false;
+        }
+        persisted = false;
+        loaded = true;
+        log.info("Índice de veredictos listo: {} entradas ({} nuevas, {} corregidas, {} sin registro) en {} ms, capacidad {}",
+                live.get(), added.get(), corrected.get(), removed, (System.nanoTime() - start) / 1_000_000, table.capacity);
+        return added.get();
+    }
+
+    /**
+     * Fin de la conciliación: borra las entradas vivas no vistas y limpia la marca del resto.
+     *
+     * @return cantidad de entradas borradas
+     */
+    private long sweep() {
+        long removed = 0;
+        resizeLock.readLock().lock();
+        try {
+            Table current = table;
+            for (long slot = 0; slot < current.capacity; slot++) {
+                if ((current.stateAcquire(slot) & LIVE_BIT) == 0) {
+                    continue;
+                }
+                // Mismo lock que las escrituras de esa clave: ninguna se pierde entre la lectura y el borrado
+                ReentrantLock stripe = stripes[(int) (current.keyPart(slot, 2) & (STRIPES - 1))];
+                stripe.lock();
+                try {
+                    long state = current.stateAcquire(slot);
+                    if ((state & LIVE_BIT) == 0) {
+                        continue;
+                    }
+                    if ((state & SEEN_BIT) != 0) {
+                        current.setStateRelease(slot, state & ~SEEN_BIT);
+                    } else {
+                        current.setStateRelease(slot, TOMBSTONE);
+                        live.decrementAndGet();
+                        removed++;
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Los registros borrados por la retención también salen del índice.
+     */
+    @EventListener
+    public void onRecordsPurged(DnaRecordsPurgedEvent event) {
+        for (String hash : event.dnaHashes()) {
+            remove(hash);
+        }
+    }
+
+    /**
+     * Los veredictos corregidos por un re-análisis se actualizan en el lugar.
+     */
+    @EventListener
+    public void onVerdictsChanged(DnaVerdictsChangedEvent event) {
+        event.verdicts().forEach(this::updateVerdict);
+    }
+
+    /**
+     * Una importación masiva se incorpora de una vez al terminar: load() agrega solo los que falten.
+     */
+    @EventListener
+    public void onRecordsImported(DnaRecordsImportedEvent event) {
+        if (loaded) {
+            load();
+        }
+    }
+
+    public long size() {
+        return live.get();
+    }
+
+    public long capacity() {
+        Table current = table;
+        return current == null ? 0 : current.capacity;
+    }
+
+    @PreDestroy
+    public void close() {
+        resizeLock.writeLock().lock();
+        try {
+            if (table != null) {
+                table.close();
+            }
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    // =======================================================
+    //                  Inserción y rehash
+    // =======================================================
+
+    /**
+     * @return 1 si se insertó, 2 si se pisó una existente distinta (overwrite), 0 si ya existía,
+     *         -1 si no quedan slots libres
+     */
+    private int insert(Table target, long k0, long k1, long k2, long k3, long state, boolean overwrite) {
+        long slot = home(k1) & target.mask;
+        long probes = 0;
+        while (probes < target.capacity) {
+            long current = target.stateAcquire(slot);
+            if (current == EMPTY) {
+                if (!target.casState(slot, EMPTY, BUSY)) {
+                    continue;  // Otra clave tomó el slot: releerlo
+                }
+                used.incrementAndGet();
+                target.writeKey(slot, k0, k1, k2, k3);
+                target.setStateRelease(slot, state);
+                live.incrementAndGet();
+                return 1;
+            }
+            if (current != BUSY && target.keyEquals(slot, k0, k1, k2, k3)) {
+                if ((current & LIVE_BIT) != 0) {
+                    if (!overwrite) {
+                        target.setStateRelease(slot, current | (state & SEEN_BIT));  // Sigue en dna_records
+                        return 0;
+                    }
+                    target.setStateRelease(slot, state);
+                    return (current & ~SEEN_BIT) == (state & ~SEEN_BIT) ? 0 : 2;
+                }
+                target.setStateRelease(slot, state);  // Revive la lápida de la misma clave
+                live.incrementAndGet();
+                return 1;
+            }
+            slot = (slot + 1) & target.mask;
+            probes++;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia los veredictos vivos a una tabla nueva, descartando las lápidas.
+     */
+    private void resize() {
+        resizeLock.writeLock().lock();
+        try {
+            Table old = table;
+            if (used.get() + 1 <= old.capacity * loadFactor) {
+                return;  // Otro hilo ya rehasheó
+            }
+
+            long capacity = old.capacity;
+            while (live.get() + 1 > capacity * loadFactor / 2) {
+                capacity <<= 1;
+            }
+
+            long start = System.nanoTime();
+            Table next = allocate(capacity, file == null ? null : resizeFile());
+            long copied = 0;
+            for (long slot = 0; slot < old.capacity; slot++) {
+                long state = old.state(slot);
+                if ((state & LIVE_BIT) != 0) {
+                    long k1 = old.keyPart(slot, 1);
+                    long target = home(k1) & next.mask;
+                    while (next.state(target) != EMPTY) {
+                        target = (target + 1) & next.mask;
+                    }
+                    next.writeKey(target, old.keyPart(slot, 0), k1, old.keyPart(slot, 2), old.keyPart(slot, 3));
+                    next.setStateRelease(target, state);
+                    copied++;
+                }
+            }
+
+            if (file != null) {
+                next.force();
+                Files.move(next.path, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            table = next;
+            live.set(copied);
+            used.set(copied);
+            old.close();
+            log.info("Índice de veredictos rehasheado: {} -> {} slots, {} entradas en {} ms",
+                    old.capacity, capacity, copied, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo redimensionar el índice " + file, e);
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    // =======================================================
+    //                  Memoria y archivo
+    // =======================================================
+
+    /**
+     * Abre el archivo del índice si existe y es válido; si no, crea una tabla vacía.
+     */
+    private Table open(long initialCapacity) {
+        try {
+            if (file != null && Files.isRegularFile(file)) {
+                Table existing = map(file, -1);
+                if (existing != null) {
+                    recount(existing);
+                    persisted = live.get() > 0;
+                    log.info("Índice de veredictos abierto desde {}: {} entradas, capacidad {}",
+                            file, live.get(), existing.capacity);
+                    return existing;
+                }
+                log.warn("Índice {} inválido; se reconstruye desde dna_records", file);
+            }
+            return allocate(initialCapacity, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el índice " + file, e);
+        }
+    }
+
+    /**
+     * Recuenta vivos y ocupados de una tabla persistida. Los slots que quedaron a medio
+     * escribir (caída durante un put) pasan a lápida para no cortar las cadenas de sondeo, y
+     * se limpian las marcas de conciliación que hayan quedado de otra ejecución.
+     */
+    private void recount(Table existing) {
+        long liveCount = 0;
+        long usedCount = 0;
+        for (long slot = 0; slot < existing.capacity; slot++) {
+            long state = existing.state(slot);
+            if (state == BUSY) {
+                existing.setStateRelease(slot, TOMBSTONE);
+                state = TOMBSTONE;
+            } else if ((state & LIVE_BIT) != 0 && (state & SEEN_BIT) != 0) {
+                existing.setStateRelease(slot, state & ~SEEN_BIT);
+            }
+            if (state != EMPTY) {
+                usedCount++;
+                if ((state & LIVE_BIT) != 0) {
+                    liveCount++;
+                }
+            }
+        }
+        live.set(liveCount);
+        used.set(usedCount);
+    }
+
+    private Table allocate(long capacity, Path path) throws IOException {
+        if (path == null) {
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount(capacity)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ByteBuffer.allocateDirect((int) (chunkSlots(capacity) * SLOT_BYTES));
+            }
+            return new Table(capacity, chunks, null, null);
+        }
+
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(capacity).flip();
+            channel.write(header, 0);
+            channel.write(ByteBuffer.allocate(1), HEADER_BYTES + capacity * SLOT_BYTES - 1);  // Archivo ralo
+        }
+        return map(path, capacity);
+    }
+
+    /**
+     * Mapea un archivo de índice. Con expectedCapacity negativo la capacidad sale del header.
+     *
+     * @return la tabla, o null si el header o el tamaño no son válidos
+     */
+    private Table map(Path path, long expectedCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            long capacity = header.remaining() == 16 && header.getInt() == MAGIC && header.getInt() == VERSION
+                    ? header.getLong() : -1;
+            boolean valid = capacity > 0 && Long.bitCount(capacity) == 1
+                    && (expectedCapacity < 0 || capacity == expectedCapacity)
+                    && channel.size() == HEADER_BYTES + capacity * SLOT_BYTES;
+            if (!valid) {
+                channel.close();
+                return null;
+            }
+
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount(capacity)];
+            long offset = HEADER_BYTES;
+            for (int i = 0; i < chunks.length; i++) {
+                long bytes = chunkSlots(capacity) * SLOT_BYTES;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes);
+                offset += bytes;
+            }
+            return new Table(capacity, chunks, channel, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private Path resizeFile() {
+        return file.resolveSibling(file.getFileName() + ".resize");
+    }
+
+    private static int chunkCount(long capacity) {
+        return (int) Math.max(1, capacity >>> CHUNK_SHIFT);
+    }
+
+    private static long chunkSlots(long capacity) {
+        return Math.min(capacity, 1L << CHUNK_SHIFT);
+    }
+
+    // =======================================================
+    //                       Claves
+    // =======================================================
+
+    /**
+     * Los hashes indexables son SHA-256 en hex (64 dígitos).
+     */
+    private static boolean isKey(String dnaHash) {
+        if (dnaHash == null || dnaHash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < 64; i++) {
+            if (Character.digit(dnaHash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long keyPart(String dnaHash, int part) {
+        return Long.parseUnsignedLong(dnaHash, part * 16, part * 16 + 16, 16);
+    }
+
+    /**
+     * Posición inicial de la clave. Usa los bytes 8-15 del hash: los primeros los usa el
+     * anillo del cluster y los últimos el particionado de dna_records.
+     */
+    private static long home(long k1) {
+        return k1 ^ (k1 >>> 29);
+    }
+
+    /**
+     * Tabla de slots repartida en ByteBuffers de hasta 4M slots.
+     */
+    private static final class Table {
+        final long capacity;
+        final long mask;
+        final ByteBuffer[] chunks;
+        final FileChannel channel;
+        final Path path;
+
+        Table(long capacity, ByteBuffer[] chunks, FileChannel channel, Path path) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.chunks = chunks;
+            this.channel = channel;
+            this.path = path;
+        }
+
+        private ByteBuffer chunk(long slot) {
+            return chunks[(int) (slot >>> CHUNK_SHIFT)];
+        }
+
+        private static int offset(long slot) {
+            return (int) (slot & ((1L << CHUNK_SHIFT) - 1)) * SLOT_BYTES;
+        }
+
+        long state(long slot) {
+            return (long) LONGS.get(chunk(slot), offset(slot));
+        }
+
+        long stateAcquire(long slot) {
+            return (long) LONGS.getAcquire(chunk(slot), offset(slot));
+        }
+
+        void setStateRelease(long slot, long state) {
+            LONGS.setRelease(chunk(slot), offset(slot), state);
+        }
+
+        boolean casState(long slot, long expected, long state) {
+            return LONGS.compareAndSet(chunk(slot), offset(slot), expected, state);
+        }
+
+        long keyPart(long slot, int part) {
+            return (long) LONGS.get(chunk(slot), offset(slot) + Long.BYTES * (part + 1));
+        }
+
+        boolean keyEquals(long slot, long k0, long k1, long k2, long k3) {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot) + Long.BYTES;
+            return (long) LONGS.get(chunk, base + Long.BYTES) == k1
+                    && (long) LONGS.get(chunk, base) == k0
+                    && (long) LONGS.get(chunk, base + 2 * Long.BYTES) == k2
+                    && (long) LONGS.get(chunk, base + 3 * Long.BYTES) == k3;
+        }
+
+        void writeKey(long slot, long k0, long k1, long k2, long k3) {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot) + Long.BYTES;
+            LONGS.set(chunk, base, k0);
+            LONGS.set(chunk, base + Long.BYTES, k1);
+            LONGS.set(chunk, base + 2 * Long.BYTES, k2);
+            LONGS.set(chunk, base + 3 * Long.BYTES, k3);
+        }
+
+        void force() {
+            for (ByteBuffer chunk : chunks) {
+                if (chunk instanceof MappedByteBuffer mapped) {
+                    mapped.force();
+                }
+            }
+        }
+
+        void close() {
+            if (channel == null) {
+                return;
+            }
+            force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el índice {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.utn.adn.validation;
+
+import com.utn.adn.dto.DnaRequest;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Valida el ADN de una solicitud completa: acepta matrices MxN solo si las reglas de la
+ * solicitud (o, si no las trae, las del perfil) lo permiten. El error se informa sobre 'dna'.
+ */
+public class ValidDnaRequestValidator implements ConstraintValidator<ValidDnaSequence, DnaRequest> {
+
+    @Value("${adn.rules.rectangular:false}")
+    private boolean rectangular;
+
+    @Override
+    public boolean isValid(DnaRequest request, ConstraintValidatorContext context) {
+        if (request == null || request.dna() == null) {
+            return true;  // Lo informa @NotNull
+        }
+
+        boolean allowRectangular = request.rules() != null && request.rules().rectangular() != null
+                ? request.rules().rectangular()
+                : rectangular;
+        if (ValidDnaSequenceValidator.isValid(request.dna(), allowRectangular)) {
+            return true;
+        }
+
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                .addPropertyNode("dna")
+                .addConstraintViolation();
+        return false;
+    }
+}
@@ -5,15 +5,15 @@ import jakarta.validation.Payload;
 
 import java.lang.annotation.*;
 
-@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
-@Constraint(validatedBy = ValidDnaSequenceValidator.class)
+@Constraint(validatedBy = {ValidDnaSequenceValidator.class, ValidDnaRequestValidator.class})
 @Documented
 public @interface ValidDnaSequence {
 
-    String message() default "Secuencia de ADN inválida. Debe ser NxN y contener solo A, T, C, G.";
+    String message() default "Secuencia de ADN inválida. Debe ser NxN (MxN si las reglas lo permiten) y contener solo A, T, C, G.";
 
     Class<?>[] groups() default {};
 
     Class<? extends Payload>[] payload() default {};
-}
\ No newline at end of file
+}
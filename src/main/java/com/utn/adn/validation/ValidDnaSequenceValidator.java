@@ -11,11 +11,21 @@ public class ValidDnaSequenceValidator implements ConstraintValidator<ValidDnaSe
 
     @Override
     public boolean isValid(String[] dna, ConstraintValidatorContext context) {
-        if (dna == null || dna.length == 0) {
+        return isValid(dna, false);
+    }
+
+    /**
+     * Valida la matriz: NxN o, si rectangular, MxN (filas no vacías de igual largo).
+     */
+    public static boolean isValid(String[] dna, boolean rectangular) {
+        if (dna == null || dna.length == 0 || dna[0] == null) {
             return false;
         }
 
-        int n = dna.length;
+        int n = rectangular ? dna[0].length() : dna.length;
+        if (n == 0) {
+            return false;
+        }
 
         // Verificar que todas las cadenas tengan longitud n
         for (String row : dna) {
@@ -33,4 +43,4 @@ public class ValidDnaSequenceValidator implements ConstraintValidator<ValidDnaSe
 
         return true;
     }
-}
\ No newline at end of file
+}
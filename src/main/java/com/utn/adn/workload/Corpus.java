@@ -0,0 +1,26 @@
+package com.utn.adn.workload;
+
+import java.util.List;
+
+/**
+ * Corpus sintético: matrices distintas con su veredicto esperado y la secuencia de solicitudes
+ * a reproducir (índices sobre las matrices, con repeticiones).
+ *
+ * @param entries  matrices distintas
+ * @param requests orden de las solicitudes del replay
+ */
+public record Corpus(List<Entry> entries, int[] requests) {
+
+    /**
+     * Matriz del corpus. El veredicto esperado lo calcula el MutantDetector de referencia.
+     *
+     * @param dna    matriz NxN en mayúsculas
+     * @param mutant veredicto esperado
+     * @param family familia de casi duplicados a la que pertenece
+     */
+    public record Entry(String[] dna, boolean mutant, int family) { }
+
+    public long mutants() {
+        return entries.stream().filter(Entry::mutant).count();
+    }
+}
@@ -0,0 +1,99 @@
+package com.utn.adn.workload;
+
+import com.utn.adn.exception.InvalidDnaFileException;
+import com.utn.adn.service.PackedDnaFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binario compacto de un {@link Corpus}.
+ *
+ * <pre>
+ * cabecera:   "ADNC" | versión (int) | matrices (int) | solicitudes (int)
+ * por matriz: veredicto (byte) | familia (int) | largo (int) | ADN en formato PackedDnaFile.pack
+ * al final:   índice de cada solicitud (int)
+ * </pre>
+ *
+ * Cada base ocupa 2 bits, así que un corpus de matrices grandes pesa cerca de N²/4 bytes por matriz.
+ */
+public final class CorpusFile {
+
+    private static final int MAGIC = 0x41444E43;  // "ADNC"
+    private static final int VERSION = 1;
+
+    private CorpusFile() {
+    }
+
+    public static void write(Path file, Corpus corpus) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(corpus.entries().size());
+            out.writeInt(corpus.requests().length);
+
+            for (Corpus.Entry entry : corpus.entries()) {
+                byte[] packed = PackedDnaFile.pack(entry.dna());
+                if (packed == null) {
+                    throw new IllegalArgumentException("El corpus solo admite matrices NxN en mayúsculas");
+                }
+                out.writeByte(entry.mutant() ? 1 : 0);
+                out.writeInt(entry.family());
+                out.writeInt(packed.length);
+                out.write(packed);
+            }
+            for (int request : corpus.requests()) {
+                out.writeInt(request);
+            }
+        }
+    }
+
+    /**
+     * @throws IOException si el archivo no es un corpus o está truncado
+     */
+    public static Corpus read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("No es un archivo de corpus válido: " + file);
+            }
+            int entryCount = in.readInt();
+            int requestCount = in.readInt();
+            if (entryCount < 0 || requestCount < 0) {
+                throw new IOException("Cabecera de corpus inválida: " + file);
+            }
+
+            List<Corpus.Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                boolean mutant = in.readByte() != 0;
+                int family = in.readInt();
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Matriz con largo inválido en " + file);
+                }
+                byte[] packed = new byte[length];
+                in.readFully(packed);
+                try {
+                    entries.add(new Corpus.Entry(PackedDnaFile.unpack(packed), mutant, family));
+                } catch (InvalidDnaFileException e) {
+                    throw new IOException("Matriz " + i + " ilegible en " + file + ": " + e.getMessage(), e);
+                }
+            }
+
+            int[] requests = new int[requestCount];
+            for (int i = 0; i < requestCount; i++) {
+                requests[i] = in.readInt();
+                if (requests[i] < 0 || requests[i] >= entryCount) {
+                    throw new IOException("Solicitud fuera de rango en " + file + ": " + requests[i]);
+                }
+            }
+            return new Corpus(List.copyOf(entries), requests);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.utn.adn.workload;
+
+import com.utn.adn.service.MutantDetector;
+import com.utn.adn.service.SequenceCensus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Genera corpus sintéticos de ADN a partir de un {@link CorpusSpec}.
+ *
+ * Los humanos se arman fila por fila evitando la base que completaría una secuencia de 4 en
+ * cualquier dirección; una parte lleva exactamente una secuencia (el caso límite). Los mutantes
+ * parten de un humano y se les planta la primera secuencia en la fila pedida y la segunda en
+ * esa fila o después, para ejercitar la salida temprana de los motores.
+ *
+ * El veredicto de cada matriz lo decide siempre el MutantDetector de referencia: si una
+ * plantación crea secuencias de más, la matriz se descarta y se vuelve a generar.
+ */
+public class CorpusGenerator {
+
+    private static final char[] BASES = {'A', 'T', 'C', 'G'};
+    private static final int SEQUENCE_LENGTH = 4;
+    private static final int MAX_ATTEMPTS = 50;
+
+    // Direcciones como (dr, dc), en el orden de SequenceCensus.Direction
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final MutantDetector reference;
+
+    public CorpusGenerator() {
+        this(new MutantDetector());
+    }
+
+    public CorpusGenerator(MutantDetector reference) {
+        this.reference = reference;
+    }
+
+    /**
+     * Genera el corpus completo. El mismo spec (incluida la semilla) produce siempre el mismo corpus.
+     */
+    public Corpus generate(CorpusSpec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        List<Corpus.Entry> entries = new ArrayList<>(spec.distinct());
+
+        int family = 0;
+        while (entries.size() < spec.distinct()) {
+            int n = spec.minSize() + random.nextInt(spec.maxSize() - spec.minSize() + 1);
+            char[][] root = matrix(n, spec, random);
+            entries.add(entry(root, family));
+
+            // Casi duplicados: cada miembro cambia algunas celdas de la raíz
+            for (int m = 1; m < spec.familySize() && entries.size() < spec.distinct(); m++) {
+                entries.add(entry(mutate(root, spec.familyMutations(), random), family));
+            }
+            family++;
+        }
+
+        return new Corpus(List.copyOf(entries), requests(entries.size(), spec, random));
+    }
+
+    /**
+     * Matriz NxN de bases ATCG uniformes, sin control de secuencias: casi siempre humana en
+     * tamaños grandes, útil para warm-up y pruebas de equivalencia.
+     */
+    public static String[] randomDna(int n, SplittableRandom random) {
+        return randomDna(n, n, "ATCG", random);
+    }
+
+    /**
+     * Matriz de rows x cols con bases tomadas al azar de {@code bases} (permite alfabetos
+     * reducidos o filas desparejas en las pruebas).
+     */
+    public static String[] randomDna(int rows, int cols, String bases, SplittableRandom random) {
+        String[] dna = new String[rows];
+        for (int r = 0; r < rows; r++) {
+            dna[r] = randomRow(cols, bases, random);
+        }
+        return dna;
+    }
+
+    /**
+     * Fila de {@code length} bases tomadas al azar de {@code bases}.
+     */
+    public static String randomRow(int length, String bases, SplittableRandom random) {
+        char[] row = new char[length];
+        for (int c = 0; c < length; c++) {
+            row[c] = bases.charAt(random.nextInt(bases.length()));
+        }
+        return new String(row);
+    }
+
+    private Corpus.Entry entry(char[][] matrix, int family) {
+        String[] dna = toDna(matrix);
+        return new Corpus.Entry(dna, reference.isMutant(dna), family);
+    }
+
+    /**
+     * Matriz de la clase elegida por las proporciones del spec (mutante, humano con una
+     * secuencia o humano sin secuencias), verificada con el censo de referencia.
+     */
+    private char[][] matrix(int n, CorpusSpec spec, SplittableRandom random) {
+        boolean mutant = random.nextDouble() < spec.mutantRatio();
+        int runs = mutant ? 2 : random.nextDouble() < spec.singleRunRatio() ? 1 : 0;
+
+        char[][] matrix = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            matrix = withoutRuns(n, random);
+            boolean intact = true;
+            if (runs > 0) {
+                int anchor = anchorRow(n, spec.firstRunPosition(), random);
+                int[] first = plant(matrix, anchor, random);
+                if (runs > 1) {
+                    plant(matrix, anchor + random.nextInt(n - SEQUENCE_LENGTH - anchor + 1), random);
+                    intact = isRun(matrix, first);  // La segunda no debe pisar la primera
+                }
+            }
+            // Con las secuencias plantadas intactas y el total exacto, no hay secuencias accidentales
+            if (intact && exactRuns(matrix) == runs) {
+                return matrix;
+            }
+        }
+        return matrix;  // Muy improbable: el veredicto igual lo fija la referencia
+    }
+
+    /**
+     * Fila de arranque de la primera secuencia: la posición relativa del spec llevada a 0..N-4.
+     */
+    private static int anchorRow(int n, double position, SplittableRandom random) {
+        int lastAnchor = n - SEQUENCE_LENGTH;
+        if (position < 0) {
+            return random.nextInt(lastAnchor + 1);
+        }
+        return (int) Math.round(position * lastAnchor);
+    }
+
+    /**
+     * Llena la matriz fila por fila eligiendo, en cada celda, una base que no complete una
+     * secuencia de 4 hacia atrás (izquierda, arriba y ambas diagonales superiores).
+     */
+    private static char[][] withoutRuns(int n, SplittableRandom random) {
+        char[][] matrix = new char[n][n];
+        boolean[] blocked = new boolean[BASES.length];
+
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                Arrays.fill(blocked, false);
+                int free = BASES.length;
+                for (int[] d : DIRECTIONS) {
+                    char base = completes(matrix, r, c, d[0], d[1]);
+                    int index = indexOf(base);
+                    if (index >= 0 && !blocked[index]) {
+                        blocked[index] = true;
+                        free--;
+                    }
+                }
+
+                // Si las cuatro bases completan algo se elige cualquiera; el censo lo descarta después
+                int pick = random.nextInt(free > 0 ? free : BASES.length);
+                for (int b = 0; b < BASES.length; b++) {
+                    if (free > 0 && blocked[b]) continue;
+                    if (pick-- == 0) {
+                        matrix[r][c] = BASES[b];
+                        break;
+                    }
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Base que completaría una secuencia terminando en (r, c) en la dirección dada, o 0 si no hay.
+     */
+    private static char completes(char[][] matrix, int r, int c, int dr, int dc) {
+        int r0 = r - dr * (SEQUENCE_LENGTH - 1);
+        int c0 = c - dc * (SEQUENCE_LENGTH - 1);
+        if (r0 < 0 || c0 < 0 || c0 >= matrix.length) {
+            return 0;
+        }
+        char base = matrix[r0][c0];
+        for (int k = 1; k < SEQUENCE_LENGTH - 1; k++) {
+            if (matrix[r0 + dr * k][c0 + dc * k] != base) {
+                return 0;
+            }
+        }
+        return base;
+    }
+
+    /**
+     * Planta una secuencia de 4 que arranca en la fila indicada, en dirección y base al azar.
+     *
+     * @return la secuencia plantada como {fila, columna, dr, dc}
+     */
+    private static int[] plant(char[][] matrix, int row, SplittableRandom random) {
+        int n = matrix.length;
+        int[] d = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        if (row > n - SEQUENCE_LENGTH) {
+            d = DIRECTIONS[0];  // Solo la horizontal cabe en las últimas filas
+        }
+        int c0 = switch (d[1]) {
+            case 1 -> random.nextInt(n - SEQUENCE_LENGTH + 1);
+            case -1 -> SEQUENCE_LENGTH - 1 + random.nextInt(n - SEQUENCE_LENGTH + 1);
+            default -> random.nextInt(n);
+        };
+        char base = BASES[random.nextInt(BASES.length)];
+        for (int k = 0; k < SEQUENCE_LENGTH; k++) {
+            matrix[row + d[0] * k][c0 + d[1] * k] = base;
+        }
+        return new int[] {row, c0, d[0], d[1]};
+    }
+
+    private static boolean isRun(char[][] matrix, int[] run) {
+        char base = matrix[run[0]][run[1]];
+        for (int k = 1; k < SEQUENCE_LENGTH; k++) {
+            if (matrix[run[0] + run[2] * k][run[1] + run[3] * k] != base) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia de la matriz con algunas celdas cambiadas por otra base.
+     */
+    private static char[][] mutate(char[][] root, int cells, SplittableRandom random) {
+        int n = root.length;
+        char[][] copy = new char[n][];
+        for (int r = 0; r < n; r++) {
+            copy[r] = root[r].clone();
+        }
+        for (int i = 0; i < cells; i++) {
+            int r = random.nextInt(n);
+            int c = random.nextInt(n);
+            int current = indexOf(copy[r][c]);
+            copy[r][c] = BASES[(current + 1 + random.nextInt(BASES.length - 1)) % BASES.length];
+        }
+        return copy;
+    }
+
+    /**
+     * Secuencia de solicitudes con repetición Zipf: el rango k se pide con peso 1 / (k + 1)^s.
+     * Los rangos se asignan a las matrices en orden aleatorio, para que las más pedidas no sean
+     * siempre las primeras (ni siempre de la misma familia).
+     */
+    private static int[] requests(int distinct, CorpusSpec spec, SplittableRandom random) {
+        int[] byRank = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            byRank[i] = i;
+        }
+        for (int i = distinct - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = byRank[i];
+            byRank[i] = byRank[j];
+            byRank[j] = tmp;
+        }
+
+        double[] cdf = new double[distinct];
+        double total = 0;
+        for (int k = 0; k < distinct; k++) {
+            total += 1.0 / Math.pow(k + 1, spec.zipfExponent());
+            cdf[k] = total;
+        }
+
+        int[] requests = new int[spec.requests()];
+        for (int i = 0; i < requests.length; i++) {
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * total);
+            rank = rank >= 0 ? rank : Math.min(-rank - 1, distinct - 1);
+            requests[i] = byRank[rank];
+        }
+        return requests;
+    }
+
+    private int exactRuns(char[][] matrix) {
+        return reference.census(toDna(matrix))
+                .map(SequenceCensus::total)
+                .map(Long::intValue)
+                .orElse(-1);
+    }
+
+    private static int indexOf(char base) {
+        for (int b = 0; b < BASES.length; b++) {
+            if (BASES[b] == base) return b;
+        }
+        return -1;
+    }
+
+    private static String[] toDna(char[][] matrix) {
+        String[] dna = new String[matrix.length];
+        for (int r = 0; r < matrix.length; r++) {
+            dna[r] = new String(matrix[r]);
+        }
+        return dna;
+    }
+}
@@ -0,0 +1,53 @@
+package com.utn.adn.workload;
+
+/**
+ * Parámetros de un corpus sintético de ADN para benchmarks y pruebas de carga.
+ *
+ * @param distinct         cantidad de matrices distintas
+ * @param requests         largo de la secuencia de solicitudes a reproducir (con repeticiones)
+ * @param minSize          N mínimo de las matrices (al menos 4)
+ * @param maxSize          N máximo de las matrices
+ * @param mutantRatio      proporción de mutantes entre las matrices distintas (0 a 1)
+ * @param singleRunRatio   proporción de humanos con exactamente una secuencia (el caso límite)
+ * @param firstRunPosition fila de la primera secuencia de los mutantes, relativa a N (0 = primera
+ *                         fila, 1 = última posible); negativo para elegirla al azar
+ * @param zipfExponent     sesgo de las repeticiones: 0 = uniforme, 1 o más = pocas matrices muy repetidas
+ * @param familySize       matrices por familia de casi duplicados (1 = sin familias)
+ * @param familyMutations  celdas que cambia cada miembro de una familia respecto de la raíz
+ * @param seed             semilla, para que el mismo spec genere siempre el mismo corpus
+ */
+public record CorpusSpec(
+        int distinct,
+        int requests,
+        int minSize,
+        int maxSize,
+        double mutantRatio,
+        double singleRunRatio,
+        double firstRunPosition,
+        double zipfExponent,
+        int familySize,
+        int familyMutations,
+        long seed) {
+
+    public CorpusSpec {
+        if (distinct < 1 || requests < 0) {
+            throw new IllegalArgumentException("El corpus necesita al menos una matriz");
+        }
+        if (minSize < 4 || maxSize < minSize) {
+            throw new IllegalArgumentException("Tamaños inválidos: " + minSize + ".." + maxSize);
+        }
+        if (mutantRatio < 0 || mutantRatio > 1 || singleRunRatio < 0 || singleRunRatio > 1) {
+            throw new IllegalArgumentException("Las proporciones deben estar entre 0 y 1");
+        }
+        if (firstRunPosition > 1 || zipfExponent < 0 || familySize < 1 || familyMutations < 0) {
+            throw new IllegalArgumentException("Parámetros de posición, sesgo o familias inválidos");
+        }
+    }
+
+    /**
+     * Corpus chico y variado: mitad mutantes, 6 a 64, repeticiones con Zipf 1 y familias de 4.
+     */
+    public static CorpusSpec defaults() {
+        return new CorpusSpec(1_000, 10_000, 6, 64, 0.5, 0.2, -1, 1.0, 4, 2, 42L);
+    }
+}
@@ -0,0 +1,156 @@
+package com.utn.adn.workload;
+
+import com.utn.adn.service.BitboardDetectionStrategy;
+import com.utn.adn.service.DetectionKernels;
+import com.utn.adn.service.DetectionProgress;
+import com.utn.adn.service.DetectionRules;
+import com.utn.adn.service.DetectionStrategy;
+import com.utn.adn.service.IncrementalMutantDetector;
+import com.utn.adn.service.MappedMutantDetector;
+import com.utn.adn.service.MutantDetector;
+import com.utn.adn.service.PackedDnaFile;
+import com.utn.adn.service.ParallelDetectionStrategy;
+import com.utn.adn.service.ScalarDetectionStrategy;
+import com.utn.adn.service.SequenceCensus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara cada motor de detección contra el MutantDetector de referencia (motor escalar) sobre
+ * todas las matrices de un corpus.
+ *
+ * Motores comparados: cada {@link DetectionStrategy}, el recorrido fila por fila con progreso,
+ * el censo, el kernel compilado de {@link DetectionKernels} para la regla original, la
+ * detección incremental (en el orden del corpus, así las familias de casi duplicados pasan por
+ * el camino incremental) y la detección sobre archivo mapeado (con ventanas chicas para cruzar
+ * varios bordes de ventana).
+ */
+public class DifferentialChecker {
+
+    private static final int MAX_SAMPLES = 10;
+    private static final int MAPPED_TILE_ROWS = 5;
+
+    /**
+     * Motor bajo prueba: devuelve su veredicto para un ADN válido.
+     */
+    @FunctionalInterface
+    public interface Engine {
+        boolean isMutant(String[] dna) throws IOException;
+    }
+
+    /**
+     * Discrepancias de un motor.
+     *
+     * @param engine     nombre del motor
+     * @param checked    matrices comparadas
+     * @param mismatches matrices con veredicto distinto al de referencia
+     * @param errors     matrices en las que el motor lanzó una excepción
+     * @param samples    índices (en el corpus) de algunas matrices con discrepancia o error
+     */
+    public record Result(String engine, int checked, int mismatches, int errors, List<Integer> samples) {
+
+        public boolean passed() {
+            return mismatches == 0 && errors == 0;
+        }
+    }
+
+    private final MutantDetector reference;
+    private final List<DetectionStrategy> strategies;
+
+    public DifferentialChecker() {
+        this(new MutantDetector(), List.of(
+                new ScalarDetectionStrategy(), new BitboardDetectionStrategy(), new ParallelDetectionStrategy()));
+    }
+
+    public DifferentialChecker(MutantDetector reference, List<DetectionStrategy> strategies) {
+        this.reference = reference;
+        this.strategies = List.copyOf(strategies);
+    }
+
+    /**
+     * Compara todos los motores. Los archivos del motor mapeado se escriben en un directorio
+     * temporal que se borra al terminar.
+     *
+     * @return un resultado por motor, en orden fijo
+     */
+    public List<Result> check(Corpus corpus) throws IOException {
+        Path directory = Files.createTempDirectory("adn-diff-");
+        try {
+            return check(corpus, engines(directory));
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Compara los motores indicados contra la referencia.
+     */
+    public List<Result> check(Corpus corpus, Map<String, Engine> engines) {
+        List<Corpus.Entry> entries = corpus.entries();
+        boolean[] expected = new boolean[entries.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = reference.isMutant(entries.get(i).dna());
+        }
+
+        List<Result> results = new ArrayList<>(engines.size());
+        for (Map.Entry<String, Engine> engine : engines.entrySet()) {
+            int mismatches = 0;
+            int errors = 0;
+            List<Integer> samples = new ArrayList<>();
+            for (int i = 0; i < expected.length; i++) {
+                boolean failed;
+                try {
+                    boolean mismatch = engine.getValue().isMutant(entries.get(i).dna()) != expected[i];
+                    if (mismatch) mismatches++;
+                    failed = mismatch;
+                } catch (IOException | RuntimeException e) {
+                    errors++;
+                    failed = true;
+                }
+                if (failed && samples.size() < MAX_SAMPLES) {
+                    samples.add(i);
+                }
+            }
+            results.add(new Result(engine.getKey(), expected.length, mismatches, errors,
+                    Collections.unmodifiableList(samples)));
+        }
+        return results;
+    }
+
+    /**
+     * Motores a comparar. El incremental es nuevo en cada chequeo porque recuerda las matrices previas.
+     */
+    private Map<String, Engine> engines(Path directory) {
+        Map<String, Engine> engines = new LinkedHashMap<>();
+        for (DetectionStrategy strategy : strategies) {
+            engines.put("strategy:" + strategy.name(), strategy::isMutant);
+        }
+        engines.put("progress", dna -> reference.isMutant(dna, DetectionProgress.NONE));
+        engines.put("census", dna -> reference.census(dna).map(SequenceCensus::isMutant).orElse(false));
+        engines.put("kernel", dna -> DetectionKernels.isMutant(dna, DetectionRules.DEFAULT));
+
+        IncrementalMutantDetector incremental =
+                new IncrementalMutantDetector(reference, true, 4, 16_000_000, 0.25);
+        engines.put("incremental", incremental::isMutant);
+
+        MappedMutantDetector mapped = new MappedMutantDetector(MAPPED_TILE_ROWS, directory.toString());
+        engines.put("mapped", dna -> {
+            Path file = directory.resolve("dna.adn2");
+            PackedDnaFile.write(file, dna);
+            return mapped.isMutant(file, DetectionProgress.NONE);
+        });
+        return engines;
+    }
+}
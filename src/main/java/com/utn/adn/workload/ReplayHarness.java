@@ -0,0 +1,202 @@
+package com.utn.adn.workload;
+
+import com.utn.adn.exception.DetectionOverloadedException;
+import com.utn.adn.service.MutantService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reproduce la secuencia de solicitudes de un {@link Corpus} contra un destino: el servicio en
+ * el mismo proceso ({@link MutantService#analyzeDna(String[])}) o la API HTTP (POST /api/mutant).
+ *
+ * Varios hilos toman las solicitudes en orden de un contador compartido; cada respuesta se
+ * compara con el veredicto esperado del corpus. Las rechazadas por sobrecarga (429) se cuentan
+ * aparte y no son discrepancias.
+ */
+@Slf4j
+public class ReplayHarness {
+
+    private static final int MAX_SAMPLES = 10;
+
+    public enum Outcome { MUTANT, HUMAN, REJECTED }
+
+    /**
+     * Destino del replay: analiza un ADN y devuelve el resultado observado.
+     */
+    @FunctionalInterface
+    public interface Target {
+        Outcome analyze(String[] dna) throws Exception;
+    }
+
+    /**
+     * Resultado de un replay. Las latencias son por solicitud, en microsegundos.
+     *
+     * @param samples índices (en el corpus) de algunas matrices con veredicto distinto al esperado
+     */
+    public record Report(
+            int requests,
+            int mutants,
+            int humans,
+            int rejected,
+            int errors,
+            int mismatches,
+            long elapsedMillis,
+            double requestsPerSecond,
+            long p50Micros,
+            long p99Micros,
+            long maxMicros,
+            List<Integer> samples) { }
+
+    /**
+     * Destino en el mismo proceso: sin HTTP ni validación, directo al servicio.
+     */
+    public static Target inProcess(MutantService mutantService) {
+        return dna -> {
+            try {
+                return mutantService.analyzeDna(dna) ? Outcome.MUTANT : Outcome.HUMAN;
+            } catch (DetectionOverloadedException e) {
+                return Outcome.REJECTED;
+            }
+        };
+    }
+
+    /**
+     * Destino HTTP: POST {baseUrl}/api/mutant. 200 = mutante, 403 = humano, 429 = rechazada.
+     */
+    public static Target http(String baseUrl, Duration timeout) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        URI uri = URI.create(baseUrl.replaceAll("/+$", "") + "/api/mutant");
+        return dna -> {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(dna)))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return switch (status) {
+                case 200 -> Outcome.MUTANT;
+                case 403 -> Outcome.HUMAN;
+                case 429 -> Outcome.REJECTED;
+                default -> throw new IllegalStateException("Respuesta inesperada: HTTP " + status);
+            };
+        };
+    }
+
+    /**
+     * Reproduce todas las solicitudes del corpus con la cantidad de hilos indicada.
+     */
+    public Report replay(Corpus corpus, Target target, int threads) throws InterruptedException {
+        final int[] requests = corpus.requests();
+        final long[] latencies = new long[requests.length];
+        final Outcome[] outcomes = new Outcome[requests.length];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+
+        Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < requests.length) {
+                String[] dna = corpus.entries().get(requests[i]).dna();
+                long start = System.nanoTime();
+                try {
+                    outcomes[i] = target.analyze(dna);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    if (errors.getAndIncrement() == 0) {
+                        log.warn("Error en el replay (solicitud {}): {}", i, e.getMessage());
+                    }
+                }
+                latencies[i] = System.nanoTime() - start;
+            }
+        };
+
+        long start = System.nanoTime();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < Math.max(1, threads); t++) {
+            Thread thread = new Thread(worker, "adn-replay-" + t);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return report(corpus, outcomes, latencies, errors.get(), elapsed);
+    }
+
+    private static Report report(Corpus corpus, Outcome[] outcomes, long[] latencies, int errors, long elapsedNanos) {
+        int mutants = 0;
+        int humans = 0;
+        int rejected = 0;
+        int mismatches = 0;
+        List<Integer> samples = new ArrayList<>();
+        long[] answered = new long[outcomes.length];
+        int count = 0;
+
+        for (int i = 0; i < outcomes.length; i++) {
+            Outcome outcome = outcomes[i];
+            if (outcome == null) continue;  // Error
+            answered[count++] = latencies[i];
+            if (outcome == Outcome.REJECTED) {
+                rejected++;
+                continue;
+            }
+
+            int entry = corpus.requests()[i];
+            boolean mutant = outcome == Outcome.MUTANT;
+            if (mutant) mutants++; else humans++;
+            if (mutant != corpus.entries().get(entry).mutant()) {
+                mismatches++;
+                if (samples.size() < MAX_SAMPLES && !samples.contains(entry)) {
+                    samples.add(entry);
+                }
+            }
+        }
+
+        long[] sorted = Arrays.copyOf(answered, count);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        return new Report(
+                outcomes.length, mutants, humans, rejected, errors, mismatches,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                seconds > 0 ? count / seconds : 0,
+                micros(percentile(sorted, 0.50)),
+                micros(percentile(sorted, 0.99)),
+                micros(sorted.length > 0 ? sorted[sorted.length - 1] : 0),
+                Collections.unmodifiableList(samples));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Cuerpo JSON de la solicitud. Las filas solo tienen A/T/C/G, así que no hace falta escapar.
+     */
+    static String json(String[] dna) {
+        StringBuilder body = new StringBuilder(dna.length * (dna.length + 3) + 10).append("{\"dna\":[");
+        for (int i = 0; i < dna.length; i++) {
+            if (i > 0) body.append(',');
+            body.append('"').append(dna[i]).append('"');
+        }
+        return body.append("]}").toString();
+    }
+}
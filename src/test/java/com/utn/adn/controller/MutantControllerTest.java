@@ -1,9 +1,13 @@
 package com.utn.adn.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.adn.dto.CensusStatsResponse;
 import com.utn.adn.dto.DnaRequest;
+import com.utn.adn.dto.HotKeysResponse;
 import com.utn.adn.dto.StatsResponse;
+import com.utn.adn.service.HotKeyTracker;
 import com.utn.adn.service.MutantService;
+import com.utn.adn.service.StatsBroadcaster;
 import com.utn.adn.service.StatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,12 +20,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = MutantController.class)
@@ -40,6 +50,12 @@ class MutantControllerTest {
     @Autowired
     private StatsService statsService;
 
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private StatsBroadcaster statsBroadcaster;
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -51,11 +67,21 @@ class MutantControllerTest {
         StatsService statsService() {
             return Mockito.mock(StatsService.class);
         }
+
+        @Bean
+        HotKeyTracker hotKeyTracker() {
+            return Mockito.mock(HotKeyTracker.class);
+        }
+
+        @Bean
+        StatsBroadcaster statsBroadcaster() {
+            return Mockito.mock(StatsBroadcaster.class);
+        }
     }
 
     @BeforeEach
     void setup() {
-        Mockito.reset(mutantService, statsService);
+        Mockito.reset(mutantService, statsService, hotKeyTracker, statsBroadcaster);
     }
 
     @Test
@@ -160,6 +186,22 @@ class MutantControllerTest {
                 .andExpect(jsonPath("$.ratio").value(0.0));
     }
 
+    @Test
+    @DisplayName("GET /stats/census debe retornar el desglose por dirección y base")
+    void testGetCensusStats() throws Exception {
+        CensusStatsResponse census = new CensusStatsResponse(40, 100,
+                List.of(new CensusStatsResponse.Breakdown("VERTICAL", 52, 31, 22, 0.55)),
+                List.of(new CensusStatsResponse.Breakdown("A", 30, 20, 18, 0.45)));
+        when(statsService.getCensusStats()).thenReturn(census);
+
+        mockMvc.perform(get("/api/stats/census"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mutants_with_census").value(40))
+                .andExpect(jsonPath("$.by_direction[0].key").value("VERTICAL"))
+                .andExpect(jsonPath("$.by_direction[0].mutant_share").value(0.55))
+                .andExpect(jsonPath("$.by_base[0].mutant_runs").value(30));
+    }
+
     @Test
     @DisplayName("POST /mutant debe rechazar request sin body")
     void testCheckMutantRejectsEmptyBody() throws Exception {
@@ -190,4 +232,38 @@ class MutantControllerTest {
                 )
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /stats/hot debe retornar el ranking de ADN más consultados")
+    void testGetHotKeys() throws Exception {
+        HotKeysResponse hotKeys = new HotKeysResponse(60, List.of(
+                new HotKeysResponse.HotKey("abc123", 42)
+        ));
+        when(hotKeyTracker.getHotKeys()).thenReturn(hotKeys);
+
+        mockMvc.perform(get("/api/stats/hot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window_seconds").value(60))
+                .andExpect(jsonPath("$.hot_keys[0].dna_hash").value("abc123"))
+                .andExpect(jsonPath("$.hot_keys[0].estimated_count").value(42));
+    }
+
+    @Test
+    @DisplayName("GET /stats/stream debe abrir un stream SSE asíncrono")
+    void testStreamStatsStartsAsync() throws Exception {
+        when(statsBroadcaster.subscribe()).thenReturn(Optional.of(new SseEmitter()));
+
+        mockMvc.perform(get("/api/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("GET /stats/stream debe retornar 503 con Retry-After si no admite más suscriptores")
+    void testStreamStatsRejectsWhenFull() throws Exception {
+        when(statsBroadcaster.subscribe()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+}
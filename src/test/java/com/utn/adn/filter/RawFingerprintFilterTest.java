@@ -0,0 +1,202 @@
+package com.utn.adn.filter;
+
+import com.utn.adn.dto.HotKeysResponse;
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.service.HotKeyTracker;
+import com.utn.adn.service.MutantService;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawFingerprintFilterTest {
+
+    private static final String MUTANT_BODY =
+            "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+    private static final String MUTANT_HASH = "ab".repeat(32);
+
+    private HotKeyTracker hotKeyTracker;
+
+    private RawFingerprintFilter filter;
+    private AtomicInteger controllerCalls;
+    private int controllerStatus;
+    private boolean controllerSetsHash;
+
+    @BeforeEach
+    void setUp() {
+        hotKeyTracker = new HotKeyTracker(true, 1024, 4, 10, 60);
+        filter = new RawFingerprintFilter(hotKeyTracker, 1024, 64 * 1024);
+        controllerCalls = new AtomicInteger();
+        controllerStatus = HttpServletResponse.SC_OK;
+        controllerSetsHash = true;
+    }
+
+    @Test
+    @DisplayName("Debe pasar al controlador la primera vez y responder desde la cache la segunda")
+    void testRepeatIsAnsweredFromCache() throws Exception {
+        MockHttpServletResponse first = post(MUTANT_BODY);
+        MockHttpServletResponse second = post(MUTANT_BODY);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    @DisplayName("Los repetidos respondidos desde la cache deben contarse en el ranking de claves calientes")
+    void testCachedHitsAreRecordedAsHotKeys() throws Exception {
+        post(MUTANT_BODY);
+        post(MUTANT_BODY);
+        post(MUTANT_BODY);
+
+        assertEquals(1, controllerCalls.get());
+        // La primera consulta la registra MutantService; acá solo se ven los aciertos del filtro
+        assertEquals(List.of(new HotKeysResponse.HotKey(MUTANT_HASH, 2)), hotKeyTracker.getHotKeys().hot_keys());
+    }
+
+    @Test
+    @DisplayName("Debe ignorar los espacios fuera de strings al calcular la huella")
+    void testWhitespaceIsCanonicalized() throws Exception {
+        controllerStatus = HttpServletResponse.SC_FORBIDDEN;
+        post(MUTANT_BODY);
+
+        MockHttpServletResponse pretty = post("{\n  \"dna\" : [ \"ATGCGA\", \"CAGTGC\", \"TTATGT\",\n"
+                + "    \"AGAAGG\", \"CCCCTA\", \"TCACTG\" ]\n}");
+
+        assertEquals(403, pretty.getStatus());
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    @DisplayName("Los espacios dentro de strings deben cambiar la huella")
+    void testWhitespaceInsideStringsMatters() {
+        byte[] plain = "{\"dna\":[\"AT\"]}".getBytes(StandardCharsets.UTF_8);
+        byte[] spaced = "{\"dna\":[\"A T\"]}".getBytes(StandardCharsets.UTF_8);
+
+        assertNotEquals(filter.fingerprint(plain, plain.length), filter.fingerprint(spaced, spaced.length));
+    }
+
+    @Test
+    @DisplayName("No debe cachear respuestas que no sean 200 o 403")
+    void testErrorsAreNotCached() throws Exception {
+        controllerStatus = HttpServletResponse.SC_BAD_REQUEST;
+        post(MUTANT_BODY);
+        post(MUTANT_BODY);
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    @DisplayName("No debe cachear veredictos que MutantService no guardó (sin hash en la solicitud)")
+    void testUnsavedVerdictsAreNotCached() throws Exception {
+        controllerSetsHash = false;
+        post(MUTANT_BODY);
+        post(MUTANT_BODY);
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    @DisplayName("Debe vaciar la cache cuando la retención borra registros")
+    void testPurgeClearsCache() throws Exception {
+        post(MUTANT_BODY);
+        filter.onRecordsPurged(new DnaRecordsPurgedEvent(List.of("hash")));
+        post(MUTANT_BODY);
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    @DisplayName("El controlador debe recibir el cuerpo completo")
+    void testBodyIsForwarded() throws Exception {
+        StringBuilder received = new StringBuilder();
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                received.append(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        };
+
+        filter.doFilter(request(MUTANT_BODY), new MockHttpServletResponse(), new MockFilterChain(controller));
+
+        assertEquals(MUTANT_BODY, received.toString());
+    }
+
+    @Test
+    @DisplayName("Debe entregar el cuerpo a un lector asíncrono")
+    void testAsyncReadListener() throws Exception {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                ServletInputStream in = request.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] buffer = new byte[64];
+                        int read;
+                        while (in.isReady() && (read = in.read(buffer)) != -1) {
+                            received.write(buffer, 0, read);
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fail(t);
+                    }
+                });
+            }
+        };
+
+        filter.doFilter(request(MUTANT_BODY), new MockHttpServletResponse(), new MockFilterChain(controller));
+
+        assertEquals(MUTANT_BODY, received.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+
+    private MockHttpServletResponse post(String body) throws Exception {
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.getInputStream().readAllBytes();
+                if (controllerSetsHash) {
+                    request.setAttribute(MutantService.DNA_HASH_ATTRIBUTE, MUTANT_HASH);
+                }
+                controllerCalls.incrementAndGet();
+                response.setStatus(controllerStatus);
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(body), response, new MockFilterChain(controller));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/mutant");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package com.utn.adn.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas de {@link DnaRecordJdbcRepository} contra bases H2 reales, una por partición.
+ */
+class DnaRecordJdbcRepositoryTest {
+
+    private final DnaRecordPartitions partitions = new DnaRecordPartitions(List.of(h2(), h2()));
+    private final DnaRecordJdbcRepository repository = new DnaRecordJdbcRepository(partitions);
+    private final Random random = new Random(5);
+
+    @AfterEach
+    void tearDown() {
+        partitions.close();
+    }
+
+    @Test
+    @DisplayName("Debe sumar los censos de todas las particiones por veredicto, dirección y base")
+    void testSumCensusAcrossPartitions() {
+        // Índice del censo = base * 4 + dirección; bases A, T, C, G y direcciones H, V, D, A
+        repository.insert(hashIn(0), true, null, census(0, 2, 3 * 4 + 1, 1));  // AAAA x2 horizontal, GGGG vertical
+        repository.insert(hashIn(1), true, null, census(0, 1, 4 + 2, 1));      // AAAA horizontal, TTTT diagonal
+        repository.insert(hashIn(1), false, null, census(2 * 4 + 3, 1));       // CCCC anti-diagonal
+        repository.insert(hashIn(0), false, null, null);                       // Sin censo: no cuenta
+
+        DnaRecordJdbcRepository.CensusTotals totals = repository.sumCensus();
+
+        DnaRecordJdbcRepository.CensusCounts mutant = totals.mutant();
+        assertEquals(2, mutant.records());
+        long[] runs = new long[16];
+        runs[0] = 3;
+        runs[13] = 1;
+        runs[6] = 1;
+        assertArrayEquals(runs, mutant.runs());
+        assertArrayEquals(new long[] { 2, 1, 1, 0 }, mutant.recordsByDirection());
+        assertArrayEquals(new long[] { 2, 1, 0, 1 }, mutant.recordsByBase());
+
+        DnaRecordJdbcRepository.CensusCounts human = totals.human();
+        assertEquals(1, human.records());
+        assertEquals(1, human.runs()[11]);
+        assertArrayEquals(new long[] { 0, 0, 0, 1 }, human.recordsByDirection());
+        assertArrayEquals(new long[] { 0, 0, 1, 0 }, human.recordsByBase());
+    }
+
+    @Test
+    @DisplayName("Debe importar solo los hashes nuevos y devolver cuántos insertó")
+    void testImportBatchSkipsExistingHashes() {
+        String existing = hashIn(0);
+        repository.insert(existing, true, null, null);
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+
+        int inserted = repository.importBatch(List.of(
+                new DnaRecordJdbcRepository.Row(existing, false, createdAt),
+                new DnaRecordJdbcRepository.Row(hashIn(0), false, createdAt),
+                new DnaRecordJdbcRepository.Row(hashIn(1), true, createdAt)));
+
+        assertEquals(2, inserted);
+        assertEquals(3, repository.count());
+        assertEquals(Optional.of(true), repository.findMutantByHash(existing), "El registro existente no se pisa");
+    }
+
+    @Test
+    @DisplayName("Debe revertir el lote entero de una partición si una fila falla")
+    void testImportBatchRollsBackFailingBatch() {
+        String valid = hashIn(0);
+        String tooLong = "f" + hashIn(0);  // 65 caracteres: no entra en varchar(64), misma partición
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertThrows(DataAccessException.class, () -> repository.importBatch(List.of(
+                new DnaRecordJdbcRepository.Row(valid, true, createdAt),
+                new DnaRecordJdbcRepository.Row(tooLong, false, createdAt))));
+
+        assertEquals(0, repository.count());
+        assertEquals(Optional.empty(), repository.findMutantByHash(valid));
+
+        // El mismo lote sin la fila inválida se puede reintentar
+        assertEquals(1, repository.importBatch(List.of(new DnaRecordJdbcRepository.Row(valid, true, createdAt))));
+    }
+
+    @Test
+    @DisplayName("Debe recorrer los registros de todas las particiones con el cursor perezoso")
+    void testLazyScansReadEveryPartition() {
+        byte[] packed = { 1, 2, 3 };
+        String first = hashIn(0);
+        String second = hashIn(1);
+        repository.insert(first, true, packed, census(0, 1));
+        repository.insert(second, false, null, null);
+
+        List<DnaRecordJdbcRepository.PackedRow> packedRows = new ArrayList<>();
+        repository.forEachPacked(1, packedRows::add);
+        assertEquals(1, packedRows.size());
+        assertEquals(first, packedRows.get(0).dnaHash());
+        assertArrayEquals(packed, packedRows.get(0).dnaPacked());
+
+        List<DnaRecordJdbcRepository.StoredRow> storedRows = new ArrayList<>();
+        repository.forEachStored(1, storedRows::add);
+        assertEquals(List.of(first, second),
+                storedRows.stream().map(DnaRecordJdbcRepository.StoredRow::dnaHash).toList());
+        assertArrayEquals(census(0, 1), storedRows.get(0).census());
+
+        List<DnaRecordJdbcRepository.Row> rows = new ArrayList<>();
+        repository.forEachCreatedBetween(null, Instant.now().plusSeconds(60), 1, rows::add);
+        assertEquals(2, rows.size());
+    }
+
+    private static JdbcTemplate h2() {
+        JdbcTemplate template = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:adn-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        DnaRecordPartitions.createTables(template);
+        return template;
+    }
+
+    /**
+     * Hash al azar que cae en la partición indicada.
+     */
+    private String hashIn(int partition) {
+        byte[] bytes = new byte[32];
+        String hash;
+        do {
+            random.nextBytes(bytes);
+            hash = HexFormat.of().formatHex(bytes);
+        } while (partitions.indexOf(hash) != partition);
+        return hash;
+    }
+
+    /**
+     * Censo con los conteos dados como pares (índice, cantidad).
+     */
+    private static int[] census(int... indexAndCount) {
+        int[] census = new int[16];
+        for (int i = 0; i < indexAndCount.length; i += 2) {
+            census[indexAndCount[i]] = indexAndCount[i + 1];
+        }
+        return census;
+    }
+}
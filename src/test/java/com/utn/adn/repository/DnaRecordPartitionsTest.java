@@ -0,0 +1,104 @@
+package com.utn.adn.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DnaRecordPartitionsTest {
+
+    private final List<JdbcTemplate> templates = List.of(
+            mock(JdbcTemplate.class), mock(JdbcTemplate.class), mock(JdbcTemplate.class));
+    private final DnaRecordPartitions partitions = new DnaRecordPartitions(templates);
+
+    @AfterEach
+    void tearDown() {
+        partitions.close();
+    }
+
+    @Test
+    @DisplayName("El mismo hash siempre debe ir a la misma partición")
+    void testRoutingIsStable() {
+        String hash = randomHash(new Random(1));
+
+        int index = partitions.indexOf(hash);
+
+        assertEquals(index, partitions.indexOf(hash));
+        assertSame(templates.get(index), partitions.forHash(hash));
+    }
+
+    @Test
+    @DisplayName("Los hashes deben repartirse de forma pareja entre las particiones")
+    void testRoutingIsBalanced() {
+        Random random = new Random(7);
+        int[] counts = new int[3];
+        for (int i = 0; i < 30_000; i++) {
+            counts[DnaRecordPartitions.partitionOf(randomHash(random), 3)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "Partición desbalanceada: " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("Con una sola partición todo debe ir a la base principal")
+    void testSinglePartition() {
+        assertEquals(0, DnaRecordPartitions.partitionOf(randomHash(new Random(3)), 1));
+        assertEquals(0, DnaRecordPartitions.partitionOf("no-es-hex", 1));
+    }
+
+    @Test
+    @DisplayName("Debe sumar los conteos de todas las particiones")
+    void testCountAggregatesPartitions() {
+        when(templates.get(0).queryForObject(anyString(), eq(Long.class))).thenReturn(4L);
+        when(templates.get(1).queryForObject(anyString(), eq(Long.class))).thenReturn(5L);
+        when(templates.get(2).queryForObject(anyString(), eq(Long.class))).thenReturn(6L);
+
+        assertEquals(15, new DnaRecordJdbcRepository(partitions).count());
+    }
+
+    @Test
+    @DisplayName("Un lote debe insertarse con un batch por partición, cada uno con sus propias filas")
+    @SuppressWarnings("unchecked")
+    void testInsertBatchGroupsByPartition() {
+        Random random = new Random(11);
+        List<DnaRecordJdbcRepository.StoredRow> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rows.add(new DnaRecordJdbcRepository.StoredRow(randomHash(random), i % 2 == 0, Instant.now(), null, null));
+        }
+
+        new DnaRecordJdbcRepository(partitions).insertBatch(rows);
+
+        int total = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+            verify(templates.get(i)).batchUpdate(anyString(), captor.capture(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+            for (Object row : captor.getValue()) {
+                assertEquals(i, partitions.indexOf(((DnaRecordJdbcRepository.StoredRow) row).dnaHash()));
+                total++;
+            }
+        }
+        assertEquals(rows.size(), total);
+    }
+
+    private static String randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
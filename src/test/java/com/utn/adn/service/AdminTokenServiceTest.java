@@ -0,0 +1,25 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminTokenServiceTest {
+
+    @Test
+    @DisplayName("Debe exigir el token configurado y rechazar todo si adn.admin.token está vacío")
+    void testAdminToken() {
+        AdminTokenService service = new AdminTokenService("secreto");
+        assertTrue(service.isAuthorized("secreto"));
+        assertFalse(service.isAuthorized(null));
+        assertFalse(service.isAuthorized("otro"));
+        assertFalse(service.isAuthorized("secret"));  // Prefijo del token
+        assertFalse(service.isAuthorized("secretoo"));
+
+        AdminTokenService open = new AdminTokenService("");
+        assertFalse(open.isAuthorized(null));
+        assertFalse(open.isAuthorized(""));
+        assertFalse(new AdminTokenService(null).isAuthorized(""));
+    }
+}
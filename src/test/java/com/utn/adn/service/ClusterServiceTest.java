@@ -0,0 +1,33 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterServiceTest {
+
+    private static final String[] PEERS = {"http://localhost:8081"};
+
+    @Test
+    @DisplayName("El modo cluster no debe arrancar sin token compartido")
+    void testRequiresTokenWhenEnabled() {
+        assertThrows(IllegalStateException.class,
+                () -> new ClusterService(true, "http://localhost:8080", PEERS, 16, 500, ""));
+        assertDoesNotThrow(() -> new ClusterService(false, "http://localhost:8080", PEERS, 16, 500, ""));
+    }
+
+    @Test
+    @DisplayName("Los endpoints internos deben rechazar todo si no hay token configurado")
+    void testFailsClosedWithoutToken() {
+        ClusterService disabled = new ClusterService(false, "http://localhost:8080", PEERS, 16, 500, "");
+        ClusterService enabled = new ClusterService(true, "http://localhost:8080", PEERS, 16, 500, "secreto");
+
+        assertFalse(disabled.isAuthorized(""));
+        assertFalse(disabled.isAuthorized(null));
+        assertTrue(enabled.isAuthorized("secreto"));
+        assertFalse(enabled.isAuthorized("otro"));
+        assertFalse(enabled.isAuthorized("secret"));  // Prefijo del token
+        assertFalse(enabled.isAuthorized(null));
+    }
+}
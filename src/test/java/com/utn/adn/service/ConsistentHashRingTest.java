@@ -0,0 +1,61 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://localhost:8080", "http://localhost:8081", "http://localhost:8082");
+
+    private static String key(int i) {
+        return DnaHasher.sha256Hex(new String[]{"KEY" + i});
+    }
+
+    @Test
+    @DisplayName("Todos los nodos deben calcular el mismo dueño para cada clave")
+    void testOwnerIsDeterministic() {
+        ConsistentHashRing first = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing second = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first.ownerOf(key(i)), second.ownerOf(key(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Las claves deben repartirse de forma aproximadamente pareja")
+    void testBalancedDistribution() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        int keys = 30_000;
+        for (int i = 0; i < keys; i++) {
+            counts.merge(ring.ownerOf(key(i)), 1, Integer::sum);
+        }
+
+        for (String node : NODES) {
+            double share = counts.getOrDefault(node, 0) / (double) keys;
+            assertTrue(share > 0.25 && share < 0.42, node + " recibe " + share);
+        }
+    }
+
+    @Test
+    @DisplayName("Agregar un nodo solo debe mover claves hacia el nodo nuevo")
+    void testAddingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of(NODES.get(0), NODES.get(1), NODES.get(2), "http://localhost:8083"), 128);
+
+        for (int i = 0; i < 5_000; i++) {
+            String previous = before.ownerOf(key(i));
+            String current = after.ownerOf(key(i));
+            assertTrue(previous.equals(current) || current.equals("http://localhost:8083"));
+        }
+    }
+}
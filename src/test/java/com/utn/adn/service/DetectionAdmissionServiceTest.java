@@ -0,0 +1,134 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.DetectionOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionAdmissionServiceTest {
+
+    @Test
+    @DisplayName("Debe admitir mientras haya presupuesto y devolverlo al liberar")
+    void testAcquireAndRelease() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 0, 0, 1);
+
+        long cost = admission.acquire(6);  // 36 celdas
+
+        assertEquals(36, cost);
+        assertEquals(36, admission.getInFlightCost());
+
+        admission.release(cost);
+        assertEquals(0, admission.getInFlightCost());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con Retry-After cuando la cola está llena")
+    void testRejectsWhenQueueIsFull() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 0, 0, 3);
+        admission.acquire(10);  // 100 celdas: presupuesto agotado
+
+        DetectionOverloadedException ex =
+                assertThrows(DetectionOverloadedException.class, () -> admission.acquire(2));
+        assertEquals(3, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cuando se agota el tiempo de espera en cola")
+    void testRejectsAfterWaitTimeout() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 4, 20, 1);
+        admission.acquire(10);
+
+        assertThrows(DetectionOverloadedException.class, () -> admission.acquire(2));
+        assertEquals(0, admission.getQueued());
+    }
+
+    @Test
+    @DisplayName("Debe admitir una solicitud encolada cuando se libera presupuesto")
+    void testQueuedRequestIsAdmittedOnRelease() throws Exception {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 4, 5_000, 1);
+        long held = admission.acquire(10);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Long> waiting = executor.submit(() -> {
+                started.countDown();
+                return admission.acquire(5);
+            });
+
+            started.await();
+            admission.release(held);
+
+            assertEquals(25L, waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Una matriz chica no debe adelantarse a una grande que ya espera en cola")
+    void testQueueIsFifo() throws Exception {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 4, 5_000, 1);
+        long held = admission.acquire(7);  // 49 celdas: no entra una de 100
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> large = executor.submit(() -> admission.acquire(10));
+            awaitQueued(admission, 1);
+            Future<Long> small = executor.submit(() -> admission.acquire(2));  // Entraría en lo que sobra
+            awaitQueued(admission, 2);
+
+            admission.release(held);
+            assertEquals(100L, large.get(5, TimeUnit.SECONDS));
+            assertFalse(small.isDone());
+
+            admission.release(100);
+            assertEquals(4L, small.get(5, TimeUnit.SECONDS));
+            assertEquals(0, admission.getQueued());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe admitir sola una matriz más grande que el presupuesto")
+    void testOversizedMatrixIsClampedToBudget() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 100, 0, 0, 1);
+
+        assertEquals(100, admission.acquire(1_000));
+    }
+
+    @Test
+    @DisplayName("Una matriz ancha debe costar sus celdas y no solo sus filas")
+    void testWideMatrixIsChargedByCells() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 1_000, 0, 0, 1);
+
+        assertEquals(10_000_000L, DetectionAdmissionService.estimateCost(1, 10_000_000));
+        assertEquals(1_000, admission.acquire(1, 10_000_000));  // Ocupa todo el presupuesto
+        assertThrows(DetectionOverloadedException.class, () -> admission.acquire(2, 3));
+    }
+
+    @Test
+    @DisplayName("No debe reservar nada si el control está deshabilitado")
+    void testDisabled() {
+        DetectionAdmissionService admission = new DetectionAdmissionService(false, 1, 0, 0, 1);
+
+        assertEquals(0, admission.acquire(1_000));
+        assertEquals(0, admission.acquire(1_000));
+    }
+
+    private static void awaitQueued(DetectionAdmissionService admission, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.getQueued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(queued, admission.getQueued());
+    }
+}
@@ -0,0 +1,122 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.DetectionJobResponse;
+import com.utn.adn.exception.DetectionJobNotFoundException;
+import com.utn.adn.exception.DetectionOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DetectionJobServiceTest {
+
+    private static final String[] DNA = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    @Mock
+    private MutantService mutantService;
+
+    @Mock
+    private MappedMutantDetector mappedDetector;
+
+    private DetectionJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe encolar el trabajo y exponer el veredicto al terminar")
+    void testSubmitAndPollUntilDone() throws Exception {
+        jobService = new DetectionJobService(mutantService, mappedDetector, 1, 4, 3600, 1);
+        when(mutantService.analyzeDna(eq(DNA), any(), any(), eq(MutantService.Admission.NONE))).thenReturn(true);
+
+        DetectionJobResponse submitted = jobService.submit(DNA);
+        DetectionJobResponse done = awaitStatus(submitted.job_id(), "DONE");
+
+        assertEquals(Boolean.TRUE, done.mutant());
+        assertEquals(DNA.length, done.rows_scanned());
+        assertEquals(DNA.length, done.total_rows());
+    }
+
+    @Test
+    @DisplayName("Debe cancelar un trabajo en curso")
+    void testCancelRunningJob() throws Exception {
+        jobService = new DetectionJobService(mutantService, mappedDetector, 1, 4, 3600, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(mutantService.analyzeDna(eq(DNA), any(), any(), eq(MutantService.Admission.NONE))).thenAnswer(invocation -> {
+            DetectionProgress progress = invocation.getArgument(2);
+            progress.rowsScanned(2);
+            started.countDown();
+            while (!progress.isCancelled()) {
+                Thread.sleep(5);
+            }
+            throw new CancellationException("cancelado");
+        });
+
+        DetectionJobResponse submitted = jobService.submit(DNA);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, jobService.get(submitted.job_id()).rows_scanned());
+
+        jobService.cancel(submitted.job_id());
+        DetectionJobResponse cancelled = awaitStatus(submitted.job_id(), "CANCELLED");
+
+        assertNull(cancelled.mutant());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con sobrecarga cuando la cola de trabajos está llena")
+    void testRejectsWhenQueueIsFull() throws Exception {
+        jobService = new DetectionJobService(mutantService, mappedDetector, 1, 1, 3600, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(mutantService.analyzeDna(eq(DNA), any(), any(), eq(MutantService.Admission.NONE))).thenAnswer(invocation -> {
+            started.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+
+        jobService.submit(DNA);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        DetectionJobResponse queued = jobService.submit(DNA);
+
+        assertThrows(DetectionOverloadedException.class, () -> jobService.submit(DNA));
+
+        // Un trabajo en cola cancelado no llega a ejecutarse
+        assertEquals("CANCELLED", jobService.cancel(queued.job_id()).status());
+        finish.countDown();
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el trabajo no existe")
+    void testUnknownJob() {
+        jobService = new DetectionJobService(mutantService, mappedDetector, 1, 1, 3600, 1);
+
+        assertThrows(DetectionJobNotFoundException.class, () -> jobService.get("inexistente"));
+    }
+
+    private DetectionJobResponse awaitStatus(String id, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        DetectionJobResponse job = jobService.get(id);
+        while (!status.equals(job.status()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = jobService.get(id);
+        }
+        assertEquals(status, job.status());
+        return job;
+    }
+}
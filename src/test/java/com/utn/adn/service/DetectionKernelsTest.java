@@ -0,0 +1,104 @@
+package com.utn.adn.service;
+
+import com.utn.adn.service.SequenceCensus.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+import static com.utn.adn.workload.CorpusGenerator.randomDna;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionKernelsTest {
+
+    private final MutantDetector detector = new MutantDetector();
+
+    @Test
+    @DisplayName("El kernel de la regla original debe coincidir con MutantDetector")
+    void testDefaultKernelMatchesReference() {
+        SplittableRandom random = new SplittableRandom(49);
+        for (int i = 0; i < 2_000; i++) {
+            int n = 4 + random.nextInt(16);
+            String[] dna = randomDna(n, n, i % 2 == 0 ? "AT" : "ATCG", random);
+            assertEquals(detector.isMutant(dna), DetectionKernels.isMutant(dna, DetectionRules.DEFAULT),
+                    String.join(",", dna));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe respetar el largo, el mínimo y las direcciones de la regla")
+    void testCustomRules() {
+        String[] dna = {
+                "AAAT",
+                "CGTA",
+                "CGTA",
+                "CGTA"
+        };
+        DetectionRules threeHorizontal = DetectionRules.of(3, 1, List.of("horizontal"), false);
+        DetectionRules threeVertical = DetectionRules.of(3, 3, List.of("vertical"), false);
+        DetectionRules fiveVertical = DetectionRules.of(5, 1, List.of("vertical"), false);
+
+        assertTrue(detector.isMutant(dna, threeHorizontal));          // AAA en la fila 0
+        assertTrue(detector.isMutant(dna, threeVertical));            // CCC, GGG, TTT y AAA en las columnas
+        assertFalse(detector.isMutant(dna, fiveVertical));            // Ninguna columna tiene 5 filas
+        assertFalse(detector.isMutant(dna));                          // Con la regla original es humano
+    }
+
+    @Test
+    @DisplayName("Debe aceptar matrices MxN solo si la regla lo permite")
+    void testRectangular() {
+        String[] dna = {
+                "AAAAGGGG",
+                "CTCTCTCT"
+        };
+        DetectionRules rectangular = DetectionRules.DEFAULT.with(null, null, null, true);
+
+        assertTrue(detector.isMutant(dna, rectangular));
+        assertFalse(detector.isMutant(dna, DetectionRules.DEFAULT));
+        assertFalse(detector.isMutant(new String[] {"AAAA", "AAA"}, rectangular));
+    }
+
+    @Test
+    @DisplayName("El recorrido con progreso debe dar el mismo veredicto y poder cancelarse")
+    void testProgress() {
+        DetectionRules rules = DetectionRules.of(3, 2, List.of("vertical", "diagonal"), true);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 500; i++) {
+            String[] dna = randomDna(3 + random.nextInt(8), 3 + random.nextInt(8), "ATC", random);
+            assertEquals(detector.isMutant(dna, rules), detector.isMutant(dna, rules, DetectionProgress.NONE));
+        }
+
+        String[] dna = randomDna(6, random);
+        assertThrows(CancellationException.class, () -> detector.isMutant(dna, rules, DetectionProgress.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Las reglas con el mismo largo y direcciones deben compartir el kernel compilado")
+    void testKernelCache() {
+        DetectionRules rules = DetectionRules.of(6, 2, List.of("horizontal", "anti-diagonal"), false);
+        DetectionKernels.Kernel kernel = DetectionKernels.kernel(rules);
+
+        assertSame(kernel, DetectionKernels.kernel(rules.with(null, 5, null, true)));
+        assertNotSame(kernel, DetectionKernels.kernel(rules.with(5, null, null, null)));
+        assertTrue(kernel.getClass().isHidden());
+    }
+
+    @Test
+    @DisplayName("Las reglas deben validarse y tener una clave de cache propia")
+    void testRules() {
+        assertThrows(IllegalArgumentException.class, () -> DetectionRules.of(1, 2, List.of("horizontal"), false));
+        assertThrows(IllegalArgumentException.class, () -> DetectionRules.of(4, 0, List.of("horizontal"), false));
+        assertThrows(IllegalArgumentException.class, () -> DetectionRules.of(4, 2, List.of(), false));
+        assertThrows(IllegalArgumentException.class, () -> DetectionRules.of(4, 2, List.of("arriba"), false));
+
+        DetectionRules rules = DetectionRules.of(5, 3, List.of("Anti-Diagonal", "horizontal"), true);
+        assertEquals("rules:L5;T3;HA;R", rules.cacheKey());
+        assertEquals(EnumSet.of(Direction.HORIZONTAL, Direction.ANTI_DIAGONAL), rules.directions());
+        assertFalse(rules.isSymmetric());
+        assertTrue(DetectionRules.DEFAULT.isDefault());
+        assertTrue(DetectionRules.DEFAULT.with(null, null, null, true).countsLikeDefault());
+    }
+}
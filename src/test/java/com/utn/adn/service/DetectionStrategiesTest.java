@@ -0,0 +1,86 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionStrategiesTest {
+
+    private final ScalarDetectionStrategy scalar = new ScalarDetectionStrategy();
+
+    private final List<DetectionStrategy> engines = List.of(
+            new BitboardDetectionStrategy(),
+            new ParallelDetectionStrategy()
+    );
+
+    /**
+     * Matriz humana con algunas secuencias cortas plantadas en direcciones al azar,
+     * para cubrir casos con 0, 1 y 2+ secuencias (incluso cruzando palabras de 64 bits).
+     */
+    private static String[] plantedDna(int n, SplittableRandom random) {
+        String[] dna = DetectionStrategySelector.humanDna(n);
+        int plants = random.nextInt(5);
+        for (int p = 0; p < plants; p++) {
+            int row = random.nextInt(n);
+            int col = random.nextInt(n);
+            int direction = random.nextInt(4);
+            int length = 3 + random.nextInt(3);
+            char base = "ATCG".charAt(random.nextInt(4));
+            for (int k = 0; k < length; k++) {
+                int r = row + (direction == 0 ? 0 : k);
+                int c = col + (direction == 1 ? 0 : direction == 3 ? -k : k);
+                if (r >= n || c < 0 || c >= n) break;
+                char[] chars = dna[r].toCharArray();
+                chars[c] = random.nextBoolean() ? base : Character.toLowerCase(base);
+                dna[r] = new String(chars);
+            }
+        }
+        return dna;
+    }
+
+    @Test
+    @DisplayName("Todos los motores deben coincidir con el motor escalar de referencia")
+    void testEnginesMatchScalar() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int k = 0; k < 3_000; k++) {
+            String[] dna = plantedDna(4 + random.nextInt(150), random);
+            boolean expected = scalar.isMutant(dna);
+            for (DetectionStrategy engine : engines) {
+                assertEquals(expected, engine.isMutant(dna),
+                        engine.name() + " difiere en N=" + dna.length);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La matriz de calibración no debe tener ninguna secuencia")
+    void testCalibrationMatrixIsHuman() {
+        for (int n : new int[]{4, 6, 63, 64, 65, 200}) {
+            String[] dna = DetectionStrategySelector.humanDna(n);
+            int total = 0;
+            for (int r = 0; r < n; r++) {
+                total += RowScanner.countAnchoredAt(dna, r);
+            }
+            assertEquals(0, total);
+        }
+    }
+
+    @Test
+    @DisplayName("Los motores deben detectar secuencias en el borde de palabras de 64 bits")
+    void testSequencesAcrossWordBoundary() {
+        String[] dna = DetectionStrategySelector.humanDna(70);
+        char[] row = dna[10].toCharArray();
+        row[62] = row[63] = row[64] = row[65] = 'A';
+        row[0] = row[1] = row[2] = row[3] = 'C';
+        dna[10] = new String(row);
+
+        assertTrue(scalar.isMutant(dna));
+        for (DetectionStrategy engine : engines) {
+            assertTrue(engine.isMutant(dna), engine.name());
+        }
+    }
+}
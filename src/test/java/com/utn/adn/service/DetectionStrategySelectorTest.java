@@ -0,0 +1,87 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.DetectorProfileResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionStrategySelectorTest {
+
+    private final List<DetectionStrategy> engines = List.of(
+            new ScalarDetectionStrategy(),
+            new BitboardDetectionStrategy(),
+            new ParallelDetectionStrategy()
+    );
+
+    @Test
+    @DisplayName("Debe elegir el motor según los umbrales configurados manualmente")
+    void testManualThresholds() {
+        DetectionStrategySelector selector =
+                new DetectionStrategySelector(engines, "auto", 32, 512, false, 0, "");
+        selector.initialize();
+
+        assertEquals(ScalarDetectionStrategy.NAME, selector.select(6).name());
+        assertEquals(BitboardDetectionStrategy.NAME, selector.select(32).name());
+        assertEquals(ParallelDetectionStrategy.NAME, selector.select(1_000).name());
+
+        DetectorProfileResponse profile = selector.describe();
+        assertEquals(32, profile.bitboard_min_size());
+        assertEquals(512, profile.parallel_min_size());
+        assertEquals("override", profile.source());
+    }
+
+    @Test
+    @DisplayName("Un motor fijado por configuración debe usarse para todos los tamaños")
+    void testForcedStrategy() {
+        DetectionStrategySelector selector =
+                new DetectionStrategySelector(engines, "bitboard", 10, 20, true, 1_000, "");
+
+        assertEquals(BitboardDetectionStrategy.NAME, selector.select(6).name());
+        assertEquals(BitboardDetectionStrategy.NAME, selector.select(5_000).name());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un motor desconocido")
+    void testUnknownStrategy() {
+        assertThrows(IllegalStateException.class,
+                () -> new DetectionStrategySelector(engines, "simd", -1, -1, false, 0, ""));
+    }
+
+    @Test
+    @DisplayName("Debe guardar el perfil calibrado y cargarlo en el siguiente arranque")
+    void testCalibrationProfileRoundTrip(@TempDir Path dir) throws Exception {
+        Path profile = dir.resolve("detector.properties");
+
+        DetectionStrategySelector first =
+                new DetectionStrategySelector(engines, "auto", -1, -1, true, 200, profile.toString());
+        first.initialize();
+        assertEquals("calibration", first.describe().source());
+        assertTrue(Files.exists(profile));
+
+        Files.writeString(profile, "bitboard-min-size=48\nparallel-min-size=2048\n");
+        DetectionStrategySelector second =
+                new DetectionStrategySelector(engines, "auto", -1, -1, true, 200, profile.toString());
+        second.initialize();
+
+        assertEquals("profile", second.describe().source());
+        assertEquals(48, second.describe().bitboard_min_size());
+        assertEquals(BitboardDetectionStrategy.NAME, second.select(48).name());
+    }
+
+    @Test
+    @DisplayName("MutantDetector debe validar y delegar en el motor seleccionado")
+    void testMutantDetectorDelegates() {
+        DetectionStrategySelector selector =
+                new DetectionStrategySelector(engines, "auto", 4, 1_000, false, 0, "");
+        MutantDetector detector = new MutantDetector(selector);
+
+        assertTrue(detector.isMutant(new String[]{"AAAA", "CCCC", "TTAT", "AGAC"}));
+        assertFalse(detector.isMutant(new String[]{"AAAA", "CCXC", "TTAT", "AGAC"}));
+    }
+}
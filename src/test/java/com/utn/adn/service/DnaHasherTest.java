@@ -0,0 +1,79 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DnaHasherTest {
+
+    /**
+     * Implementación original: unir con '|' y aplicar SHA-256 sobre los bytes UTF-8.
+     */
+    private static String referenceHash(String[] dna) throws Exception {
+        String joined = dna == null ? "null" : String.join("|", dna);
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(md.digest(joined.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Debe producir el mismo hash que la implementación original")
+    void testMatchesReferenceHash() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        assertEquals(referenceHash(dna), DnaHasher.sha256Hex(dna));
+    }
+
+    @Test
+    @DisplayName("Debe hashear ADN nulo, filas nulas y contenido no ASCII igual que antes")
+    void testEdgeCasesMatchReference() throws Exception {
+        String[] withNullRow = {"ATGC", null, "TTAT", "AGAC"};
+        String[] nonAscii = {"ATñC", "CAGT", "TT€T", "AGAC"};
+
+        assertEquals(referenceHash(null), DnaHasher.sha256Hex(null));
+        assertEquals(referenceHash(withNullRow), DnaHasher.sha256Hex(withNullRow));
+        assertEquals(referenceHash(nonAscii), DnaHasher.sha256Hex(nonAscii));
+        assertEquals(referenceHash(new String[]{}), DnaHasher.sha256Hex(new String[]{}));
+    }
+
+    @Test
+    @DisplayName("Debe hashear filas más largas que el buffer interno")
+    void testRowsLongerThanChunk() throws Exception {
+        String[] dna = new String[3];
+        for (int i = 0; i < dna.length; i++) {
+            dna[i] = "ACGT".repeat(5_000 + i);
+        }
+
+        assertEquals(referenceHash(dna), DnaHasher.sha256Hex(dna));
+    }
+
+    @Test
+    @DisplayName("Debe reutilizar los buffers sin contaminar hashes posteriores")
+    void testConsecutiveHashesAreIndependent() {
+        String[] first = {"AAAA", "CCCC", "TTAT", "AGAC"};
+        String[] second = {"AAAA", "CCCC", "TTAT", "AGAT"};
+
+        String firstHash = DnaHasher.sha256Hex(first);
+        String secondHash = DnaHasher.sha256Hex(second);
+
+        assertNotEquals(firstHash, secondHash);
+        assertEquals(firstHash, DnaHasher.sha256Hex(first));
+    }
+
+    @Test
+    @DisplayName("Debe reconocer solo hashes SHA-256 en hex minúscula")
+    void testIsSha256Hex() {
+        assertTrue(DnaHasher.isSha256Hex(DnaHasher.sha256Hex(new String[] {"ATGC"})));
+        assertFalse(DnaHasher.isSha256Hex(null));
+        assertFalse(DnaHasher.isSha256Hex("abc"));
+        assertFalse(DnaHasher.isSha256Hex("A".repeat(64)));
+        assertFalse(DnaHasher.isSha256Hex("g".repeat(64)));
+    }
+}
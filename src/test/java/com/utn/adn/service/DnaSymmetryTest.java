@@ -0,0 +1,82 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static com.utn.adn.workload.CorpusGenerator.randomDna;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaSymmetryTest {
+
+    private final MutantDetector mutantDetector = new MutantDetector();
+
+    private static String[] orient(String[] dna, int orientation) {
+        int n = dna.length;
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(DnaSymmetry.cell(dna, n, orientation, i, j));
+            }
+            out[i] = row.toString();
+        }
+        return out;
+    }
+
+    @Test
+    @DisplayName("Las 8 orientaciones deben ser distintas y compartir el hash canónico")
+    void testAllOrientationsShareCanonicalHash() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String expected = DnaHasher.sha256HexCanonical(dna);
+
+        Set<String> raw = new HashSet<>();
+        for (int o = 0; o < DnaSymmetry.ORIENTATIONS; o++) {
+            String[] variant = orient(dna, o);
+            raw.add(DnaHasher.sha256Hex(variant));
+            assertEquals(expected, DnaHasher.sha256HexCanonical(variant));
+        }
+        assertEquals(DnaSymmetry.ORIENTATIONS, raw.size());
+    }
+
+    @Test
+    @DisplayName("El veredicto debe ser invariante bajo rotaciones y reflexiones")
+    void testVerdictIsInvariant() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int k = 0; k < 200; k++) {
+            String[] dna = randomDna(4 + random.nextInt(8), random);
+            boolean expected = mutantDetector.isMutant(dna);
+            for (int o = 0; o < DnaSymmetry.ORIENTATIONS; o++) {
+                assertEquals(expected, mutantDetector.isMutant(orient(dna, o)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La orientación canónica debe ser la menor lexicográficamente")
+    void testCanonicalIsLexicographicMinimum() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int k = 0; k < 100; k++) {
+            String[] dna = randomDna(2 + random.nextInt(6), random);
+            String canonical = String.join("|", orient(dna, DnaSymmetry.canonicalOrientation(dna)));
+            for (int o = 0; o < DnaSymmetry.ORIENTATIONS; o++) {
+                assertTrue(canonical.compareTo(String.join("|", orient(dna, o))) <= 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe ignorar mayúsculas/minúsculas y caer al hash normal si no es NxN")
+    void testCaseAndNonSquareFallback() {
+        String[] upper = {"ATGC", "CAGT", "TTAT", "AGAC"};
+        String[] lower = {"atgc", "cagt", "ttat", "agac"};
+        String[] nonSquare = {"ATGC", "CAGT"};
+
+        assertEquals(DnaHasher.sha256HexCanonical(upper), DnaHasher.sha256HexCanonical(lower));
+        assertEquals(DnaHasher.sha256Hex(nonSquare), DnaHasher.sha256HexCanonical(nonSquare));
+        assertEquals(DnaHasher.sha256Hex(null), DnaHasher.sha256HexCanonical(null));
+    }
+}
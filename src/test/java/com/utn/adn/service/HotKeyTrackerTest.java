@@ -0,0 +1,50 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.HotKeysResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private static String key(int i) {
+        return DnaHasher.sha256Hex(new String[]{"DNA" + i});
+    }
+
+    @Test
+    @DisplayName("Debe ubicar primero a las claves más consultadas")
+    void testRanksHeavyHitters() {
+        HotKeyTracker tracker = new HotKeyTracker(true, 1024, 4, 3, 60);
+
+        // Ruido: 2.000 claves distintas consultadas una vez cada una
+        for (int i = 0; i < 2_000; i++) {
+            tracker.record(key(1_000 + i));
+        }
+        // Tres claves calientes con frecuencias distintas
+        for (int i = 0; i < 500; i++) tracker.record(key(1));
+        for (int i = 0; i < 300; i++) tracker.record(key(2));
+        for (int i = 0; i < 100; i++) tracker.record(key(3));
+
+        List<HotKeysResponse.HotKey> hot = tracker.getHotKeys().hot_keys();
+
+        assertEquals(3, hot.size());
+        assertEquals(key(1), hot.get(0).dna_hash());
+        assertEquals(key(2), hot.get(1).dna_hash());
+        assertEquals(key(3), hot.get(2).dna_hash());
+        // El count-min sketch nunca subestima
+        assertTrue(hot.get(0).estimated_count() >= 500);
+    }
+
+    @Test
+    @DisplayName("No debe registrar nada si está deshabilitado")
+    void testDisabled() {
+        HotKeyTracker tracker = new HotKeyTracker(false, 1024, 4, 3, 60);
+        tracker.record(key(1));
+
+        assertTrue(tracker.getHotKeys().hot_keys().isEmpty());
+        assertEquals(60, tracker.getHotKeys().window_seconds());
+    }
+}
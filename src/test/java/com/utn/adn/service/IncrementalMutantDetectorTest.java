@@ -0,0 +1,81 @@
+package com.utn.adn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static com.utn.adn.workload.CorpusGenerator.randomDna;
+import static com.utn.adn.workload.CorpusGenerator.randomRow;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalMutantDetectorTest {
+
+    private final MutantDetector mutantDetector = new MutantDetector();
+
+    private final IncrementalMutantDetector incrementalDetector =
+            new IncrementalMutantDetector(mutantDetector, true, 8, 1_000_000, 0.5);
+
+    @Test
+    @DisplayName("Debe dar el mismo veredicto que MutantDetector en familias de casi duplicados")
+    void testSameVerdictAsReferenceOnNearDuplicates() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int family = 0; family < 50; family++) {
+            int n = 8 + random.nextInt(24);
+            String[] dna = randomDna(n, random);
+            assertEquals(mutantDetector.isMutant(dna), incrementalDetector.isMutant(dna));
+
+            for (int variant = 0; variant < 20; variant++) {
+                dna = dna.clone();
+                int changes = 1 + random.nextInt(3);
+                for (int c = 0; c < changes; c++) {
+                    // Nunca se cambia la fila 0, que sirve de muestra para encontrar la matriz base
+                    dna[1 + random.nextInt(n - 1)] = randomRow(n, "ATCG", random);
+                }
+                assertEquals(mutantDetector.isMutant(dna), incrementalDetector.isMutant(dna),
+                        "Veredicto distinto en familia " + family + ", variante " + variant);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar filas inválidas introducidas en una variante")
+    void testInvalidChangedRow() {
+        String[] dna = randomDna(10, new SplittableRandom(1));
+        incrementalDetector.isMutant(dna);
+
+        String[] variant = dna.clone();
+        variant[5] = "AAAAXAAAAA";
+
+        assertFalse(incrementalDetector.isMutant(variant));
+    }
+
+    @Test
+    @DisplayName("El conteo por fila debe sumar todas las secuencias de la matriz")
+    void testAnchoredCountsAddUp() {
+        String[] dna = {
+                "AAAAAAAA",
+                "AAAAAAAA",
+                "AAAAAAAA",
+                "AAAAAAAA",
+                "CCCCCCCC",
+                "CCCCCCCC",
+                "CCCCCCCC",
+                "CCCCCCCC"
+        };
+        int total = 0;
+        for (int r = 0; r < dna.length; r++) {
+            total += RowScanner.countAnchoredAt(dna, r);
+        }
+
+        // 8 filas x 5 horizontales + 2 bloques x (8 verticales + 5 + 5 diagonales)
+        assertEquals(40 + 2 * 18, total);
+    }
+
+    @Test
+    @DisplayName("Matrices menores al mínimo deben delegar en MutantDetector")
+    void testSmallMatricesAreNotSupported() {
+        assertFalse(incrementalDetector.supports(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"}));
+        assertFalse(incrementalDetector.supports(null));
+    }
+}
@@ -0,0 +1,113 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.InvalidDnaFileException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedMutantDetectorTest {
+
+    @TempDir
+    Path dir;
+
+    private final MutantDetector reference = new MutantDetector();
+
+    @Test
+    @DisplayName("Debe dar el mismo veredicto que MutantDetector con cualquier tamaño de tramo")
+    void testMatchesReferenceDetector() throws Exception {
+        Random random = new Random(42);
+        String bases = "ACGTacgt";
+
+        for (int t = 0; t < 300; t++) {
+            int n = 1 + random.nextInt(24);
+            int alphabet = 2 + random.nextInt(3);  // Pocas bases => más secuencias
+            String[] dna = new String[n];
+            for (int i = 0; i < n; i++) {
+                StringBuilder row = new StringBuilder(n);
+                for (int j = 0; j < n; j++) {
+                    row.append(bases.charAt(random.nextInt(alphabet) + (random.nextBoolean() ? 4 : 0)));
+                }
+                dna[i] = row.toString();
+            }
+            PackedDnaFile.write(dir.resolve("dna.adn2"), dna);
+
+            boolean expected = reference.isMutant(dna);
+            for (int tileRows : new int[]{1, 2, 5, 64}) {
+                MappedMutantDetector detector = new MappedMutantDetector(tileRows, dir.toString());
+                assertEquals(expected, detector.isMutant(detector.resolve("dna.adn2"), DetectionProgress.NONE),
+                        "Caso " + t + " con tile-rows=" + tileRows);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe contar secuencias que cruzan el borde entre tramos")
+    void testSequencesAcrossTileBoundary() throws Exception {
+        String[] dna = {
+                "ATGCGA",
+                "CAGTGC",
+                "TTATGT",
+                "AGAAGG",
+                "CCCCTA",
+                "TCACTG"
+        };
+        PackedDnaFile.write(dir.resolve("dna.adn2"), dna);
+
+        // Con tramos de 2 filas la diagonal de A (filas 0-3) cruza dos bordes
+        MappedMutantDetector detector = new MappedMutantDetector(2, dir.toString());
+        assertTrue(detector.isMutant(detector.resolve("dna.adn2"), DetectionProgress.NONE));
+    }
+
+    @Test
+    @DisplayName("Debe detenerse si se cancela")
+    void testCancels() throws Exception {
+        PackedDnaFile.write(dir.resolve("dna.adn2"), new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+        MappedMutantDetector detector = new MappedMutantDetector(64, dir.toString());
+        assertThrows(CancellationException.class,
+                () -> detector.isMutant(detector.resolve("dna.adn2"), DetectionProgress.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar archivos fuera del directorio habilitado o con formato inválido")
+    void testRejectsInvalidFiles() throws Exception {
+        MappedMutantDetector detector = new MappedMutantDetector(64, dir.toString());
+        Files.writeString(dir.resolve("texto.txt"), "ATGC");
+
+        assertThrows(InvalidDnaFileException.class, () -> detector.resolve("../otro.adn2"));
+        assertThrows(InvalidDnaFileException.class, () -> detector.size(detector.resolve("texto.txt")));
+        assertThrows(InvalidDnaFileException.class,
+                () -> new MappedMutantDetector(64, "").resolve("dna.adn2"));
+    }
+
+    @Test
+    @DisplayName("El empaquetado en memoria debe reconstruir la matriz y rechazar lo que no puede reproducir")
+    void testPackInMemoryRoundTrip() {
+        String[] dna = {"ATGCG", "CAGTG", "TTATG", "AGAAG", "CCCCT"};
+
+        byte[] packed = PackedDnaFile.pack(dna);
+
+        assertEquals(Integer.BYTES + 5 * PackedDnaFile.rowBytes(5), packed.length);
+        assertArrayEquals(dna, PackedDnaFile.unpack(packed));
+        assertNull(PackedDnaFile.pack(new String[]{"ATG", "CA"}));
+        assertNull(PackedDnaFile.pack(new String[]{"atg", "cag", "tta"}));
+        assertThrows(InvalidDnaFileException.class, () -> PackedDnaFile.unpack(new byte[]{5, 0, 0, 0, 1}));
+    }
+
+    @Test
+    @DisplayName("Una matriz MxN debe empaquetarse con sus dos dimensiones")
+    void testPackRectangularRoundTrip() {
+        String[] dna = {"ATGCGATT", "CAGTGCAA"};
+
+        byte[] packed = PackedDnaFile.pack(dna);
+
+        assertEquals(2 * Integer.BYTES + 2 * PackedDnaFile.rowBytes(8), packed.length);
+        assertArrayEquals(dna, PackedDnaFile.unpack(packed));
+    }
+}
@@ -4,7 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MutantDetectorTest {
@@ -276,4 +280,32 @@ public class MutantDetectorTest {
         assertTrue(elapsedMs <= 5000,
                 "Tiempo excedido para 1000x1000: " + elapsedMs + "ms (máx 5000ms)");
     }
+
+    @Test
+    @DisplayName("El análisis con avance debe dar el mismo veredicto e informar las filas recorridas")
+    void testProgressVariantMatchesVerdict() {
+        String[] human = {
+                "ATGCGA",
+                "CAGTGC",
+                "TTATTT",
+                "AGACGG",
+                "GCGTCA",
+                "TCACTG"
+        };
+        int[] lastRow = {0};
+        DetectionProgress progress = DetectionProgress.reporting(rows -> lastRow[0] = rows);
+
+        assertFalse(mutantDetector.isMutant(human, progress));
+        assertEquals(human.length, lastRow[0]);
+
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        assertTrue(mutantDetector.isMutant(mutant, progress));
+    }
+
+    @Test
+    @DisplayName("El análisis con avance debe detenerse si se cancela")
+    void testProgressVariantCancels() {
+        assertThrows(CancellationException.class,
+                () -> mutantDetector.isMutant(generateMatrix(100), DetectionProgress.CANCELLED));
+    }
 }
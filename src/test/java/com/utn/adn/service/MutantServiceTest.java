@@ -1,15 +1,30 @@
 package com.utn.adn.service;
 
-import com.utn.adn.entity.DnaRecord;
-import com.utn.adn.repository.DnaRecordRepository;
+import com.utn.adn.dto.DetectionRulesRequest;
+import com.utn.adn.exception.ClusterUnavailableException;
+import com.utn.adn.exception.DetectionOverloadedException;
+import com.utn.adn.exception.InvalidDetectionRulesException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,11 +36,31 @@ class MutantServiceTest {
     private MutantDetector mutantDetector;  // Mock del detector
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;  // Mock del repositorio
+    private IncrementalMutantDetector incrementalDetector;  // Mock del detector incremental
+
+    @Mock
+    private ResilientRecordStore recordStore;  // Mock del acceso a la base con plazos
+
+    @Mock
+    private VerdictIndex verdictIndex;  // Mock del índice de veredictos (sin cargar por defecto)
+
+    @Mock
+    private DetectionAdmissionService admissionService;  // Mock del control de admisión
+
+    @Mock
+    private ClusterService clusterService;  // Mock del modo cluster (deshabilitado por defecto)
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;  // Mock del ranking de ADN más consultados
 
     @InjectMocks
     private MutantService mutantService;  // Clase bajo prueba
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mutantService, "detectionRules", DetectionRules.DEFAULT);  // Reglas del perfil
+    }
+
     // ADN de prueba
     private final String[] mutantDna = {
             "ATGCGA",
@@ -49,12 +84,10 @@ class MutantServiceTest {
     @DisplayName("Debe analizar ADN mutante y guardarlo en DB")
     void testAnalyzeMutantDnaAndSave() {
         // ARRANGE
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(recordStore.findMutantByHash(anyString()))
                 .thenReturn(Optional.empty()); // No existe en BD
         when(mutantDetector.isMutant(mutantDna))
                 .thenReturn(true); // Es mutante
-        when(dnaRecordRepository.save(any(DnaRecord.class)))
-                .thenReturn(new DnaRecord());
 
         // ACT
         boolean result = mutantService.analyzeDna(mutantDna);
@@ -64,38 +97,30 @@ class MutantServiceTest {
 
         // VERIFY
         verify(mutantDetector, times(1)).isMutant(mutantDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(recordStore, times(1)).insert(anyString(), anyBoolean(), any(), any());
     }
 
     @Test
     @DisplayName("Debe analizar ADN humano y guardarlo en DB")
     void testAnalyzeHumanDnaAndSave() {
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(recordStore.findMutantByHash(anyString()))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(humanDna))
                 .thenReturn(false);
-        when(dnaRecordRepository.save(any(DnaRecord.class)))
-                .thenReturn(new DnaRecord());
 
         boolean result = mutantService.analyzeDna(humanDna);
 
         assertFalse(result);
         verify(mutantDetector, times(1)).isMutant(humanDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(recordStore, times(1)).insert(anyString(), anyBoolean(), any(), any());
     }
 
     @Test
     @DisplayName("Debe retornar resultado cacheado si el ADN ya fue analizado")
     void testReturnCachedResultForAnalyzedDna() {
         // ARRANGE
-        DnaRecord cachedRecord = DnaRecord.builder()
-                .id(1L)
-                .dnaHash("somehash")
-                .mutant(true)
-                .build();
-
-        when(dnaRecordRepository.findByDnaHash(anyString()))
-                .thenReturn(Optional.of(cachedRecord)); // Ya existe en BD
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.of(true)); // Ya existe en BD
 
         // ACT
         boolean result = mutantService.analyzeDna(mutantDna);
@@ -105,13 +130,15 @@ class MutantServiceTest {
 
         // VERIFY
         verify(mutantDetector, never()).isMutant(any());
-        verify(dnaRecordRepository, never()).save(any());
+        verify(recordStore, never()).insert(anyString(), anyBoolean(), any(), any());
+        verify(admissionService, never()).acquire(anyInt(), anyInt());  // El cache no pasa por la cola
+        verify(hotKeyTracker).record(anyString());  // Los aciertos de cache también cuentan
     }
 
     @Test
     @DisplayName("Debe generar hash consistente para el mismo ADN")
     void testConsistentHashGeneration() {
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(recordStore.findMutantByHash(anyString()))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(any(String[].class)))
                 .thenReturn(true);
@@ -120,23 +147,310 @@ class MutantServiceTest {
         mutantService.analyzeDna(mutantDna);
 
         // Debe buscar por el mismo hash ambas veces (mismo valor)
-        verify(dnaRecordRepository, times(2)).findByDnaHash(anyString());
+        verify(recordStore, times(2)).findMutantByHash(anyString());
     }
 
     @Test
     @DisplayName("Debe guardar registro con hash correcto")
     void testSavesRecordWithCorrectHash() {
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(recordStore.findMutantByHash(anyString()))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(mutantDna))
                 .thenReturn(true);
 
         mutantService.analyzeDna(mutantDna);
 
-        verify(dnaRecordRepository).save(argThat(record ->
-                record.getDnaHash() != null &&
-                        record.getDnaHash().length() == 64 && // SHA-256 = 64 chars hex
-                        record.isMutant()
-        ));
+        verify(recordStore).insert(
+                argThat(hash -> hash != null && hash.length() == 64), // SHA-256 = 64 chars hex
+                eq(true),
+                isNull(),
+                isNull());
+    }
+
+    @Test
+    @DisplayName("Debe propagar el rechazo por sobrecarga sin analizar ni guardar")
+    void testRejectsWhenOverloaded() {
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.empty());
+        when(admissionService.acquire(anyInt(), anyInt()))
+                .thenThrow(new DetectionOverloadedException("sobrecarga", 1));
+
+        assertThrows(DetectionOverloadedException.class, () -> mutantService.analyzeDna(mutantDna));
+
+        verify(mutantDetector, never()).isMutant(any());
+        verify(recordStore, never()).insert(anyString(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe liberar el presupuesto de admisión luego de analizar")
+    void testReleasesAdmissionAfterDetection() {
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.empty());
+        when(admissionService.acquire(6, 6)).thenReturn(36L);
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+
+        mutantService.analyzeDna(mutantDna);
+
+        verify(admissionService).release(36L);
+    }
+
+    @Test
+    @DisplayName("Una matriz ancha debe cobrarse por celdas en la admisión")
+    void testWideMatrixIsChargedByCells() {
+        DetectionRules rectangular = DetectionRules.DEFAULT.with(null, null, null, true);
+        ReflectionTestUtils.setField(mutantService, "detectionRules", rectangular);
+        String[] wide = { "ACGT".repeat(250_000) };  // 1 x 1.000.000
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(admissionService.acquire(1, 1_000_000)).thenReturn(1_000_000L);
+        when(mutantDetector.isMutant(wide, rectangular)).thenReturn(false);
+
+        mutantService.analyzeDna(wide);
+
+        verify(admissionService).release(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Con claves canónicas, una matriz y su rotación deben buscar el mismo hash")
+    void testCanonicalOrientationSharesHash() {
+        ReflectionTestUtils.setField(mutantService, "canonicalOrientation", true);
+        String[] rotated = new String[mutantDna.length];
+        for (int i = 0; i < mutantDna.length; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < mutantDna.length; j++) {
+                row.append(mutantDna[mutantDna.length - 1 - j].charAt(i));  // rotación 90°
+            }
+            rotated[i] = row.toString();
+        }
+
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(any(String[].class)))
+                .thenReturn(true);
+
+        mutantService.analyzeDna(mutantDna);
+        mutantService.analyzeDna(rotated);
+
+        ArgumentCaptor<String> hashes = ArgumentCaptor.forClass(String.class);
+        verify(recordStore, times(2)).findMutantByHash(hashes.capture());
+        assertEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("Debe usar el detector incremental cuando aplica al ADN")
+    void testUsesIncrementalDetectorWhenSupported() {
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.empty());
+        when(incrementalDetector.supports(mutantDna)).thenReturn(true);
+        when(incrementalDetector.isMutant(mutantDna)).thenReturn(true);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verify(mutantDetector, never()).isMutant(any());
+    }
+
+    @Test
+    @DisplayName("En modo cluster debe buscar y guardar en el nodo dueño, no en la BD local")
+    void testRemoteOwnerLookupAndSave() {
+        when(clusterService.isRemote(anyString())).thenReturn(true);
+        when(clusterService.lookup(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertTrue(mutantService.analyzeDna(mutantDna));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertNotNull(request.getAttribute(MutantService.DNA_HASH_ATTRIBUTE));  // Guardado: se puede cachear
+        verify(clusterService).save(anyString(), eq(true));
+        verify(recordStore, never()).findMutantByHash(anyString());
+        verify(recordStore, never()).insert(anyString(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Si el nodo dueño no responde, debe analizar sin guardar ni dejar el hash para la cache cruda")
+    void testRemoteOwnerUnavailable() {
+        when(clusterService.isRemote(anyString())).thenReturn(true);
+        when(clusterService.lookup(anyString()))
+                .thenThrow(new ClusterUnavailableException("caído"));
+        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertFalse(mutantService.analyzeDna(humanDna));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertNull(request.getAttribute(MutantService.DNA_HASH_ATTRIBUTE));
+        verify(clusterService, never()).save(anyString(), anyBoolean());
+        verify(recordStore, never()).insert(anyString(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    @DisplayName("En modo WAIT debe reintentar solo la reserva, con un hash y un registro de clave caliente")
+    void testWaitRetriesOnlyAdmission() {
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(admissionService.acquire(6, 6))
+                .thenThrow(new DetectionOverloadedException("Servidor sobrecargado", 0))
+                .thenThrow(new DetectionOverloadedException("Servidor sobrecargado", 0))
+                .thenReturn(36L);
+        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
+
+        assertFalse(mutantService.analyzeDna(humanDna, DetectionRules.DEFAULT, null, MutantService.Admission.WAIT));
+
+        verify(admissionService, times(3)).acquire(6, 6);
+        verify(hotKeyTracker, times(1)).record(anyString());
+        verify(recordStore, times(1)).findMutantByHash(anyString());
+        verify(admissionService).release(36L);
+    }
+
+    @Test
+    @DisplayName("Un trabajo asíncrono en curso no debe dejar sin admisión a una solicitud síncrona chica")
+    void testRunningJobDoesNotStarveSyncRequests() throws Exception {
+        // Presupuesto de una sola matriz de 6x6 y sin cola: una reserva de más se rechaza enseguida
+        DetectionAdmissionService admission = new DetectionAdmissionService(true, 36, 0, 0, 1);
+        ReflectionTestUtils.setField(mutantService, "admissionService", admission);
+        DetectionProgress progress = mock(DetectionProgress.class);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna, progress)).thenAnswer(invocation -> {
+            running.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
+
+        ExecutorService jobs = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> job = jobs.submit(() -> mutantService.analyzeDna(
+                    mutantDna, DetectionRules.DEFAULT, progress, MutantService.Admission.NONE));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            assertEquals(0, admission.getInFlightCost());
+            assertFalse(mutantService.analyzeDna(humanDna));  // Entra con el trabajo corriendo
+
+            finish.countDown();
+            assertTrue(job.get(5, TimeUnit.SECONDS));
+        } finally {
+            finish.countDown();
+            jobs.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Un análisis cancelado debe propagarse sin guardar resultado")
+    void testCancelledAnalysisIsNotSaved() {
+        DetectionProgress progress = mock(DetectionProgress.class);
+        when(recordStore.findMutantByHash(anyString()))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna, progress))
+                .thenThrow(new CancellationException("cancelado"));
+
+        assertThrows(CancellationException.class, () -> mutantService.analyzeDna(mutantDna, progress));
+
+        verify(recordStore, never()).insert(anyString(), anyBoolean(), any(), any());
+        verify(admissionService).release(anyLong());
+    }
+
+    @Test
+    @DisplayName("Con el índice cargado debe responder desde él sin consultar la BD")
+    void testIndexedVerdictSkipsDatabase() {
+        when(verdictIndex.covers(anyString())).thenReturn(true);
+        when(verdictIndex.find(anyString()))
+                .thenReturn(Optional.of(new VerdictIndex.Verdict(true, 0L)));
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verify(recordStore, never()).findMutantByHash(anyString());
+        verifyNoInteractions(mutantDetector);
+    }
+
+    @Test
+    @DisplayName("Con el índice cargado, un hash ausente debe analizarse sin buscarlo en la BD")
+    void testIndexMissIsAuthoritative() {
+        when(verdictIndex.covers(anyString())).thenReturn(true);
+        when(verdictIndex.find(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
+
+        assertFalse(mutantService.analyzeDna(humanDna));
+
+        verify(recordStore, never()).findMutantByHash(anyString());
+        verify(verdictIndex).put(anyString(), eq(false), anyLong());
+        verify(recordStore).insert(anyString(), eq(false), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Con adn.storage.packed-dna habilitado debe guardar el ADN empaquetado junto al veredicto")
+    void testStoresPackedDnaWhenEnabled() {
+        ReflectionTestUtils.setField(mutantService, "storePackedDna", true);
+        ReflectionTestUtils.setField(mutantService, "packedDnaMaxSize", 1000);
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+
+        mutantService.analyzeDna(mutantDna);
+
+        ArgumentCaptor<byte[]> packed = ArgumentCaptor.forClass(byte[].class);
+        verify(recordStore).insert(anyString(), eq(true), packed.capture(), isNull());
+        assertArrayEquals(mutantDna, PackedDnaFile.unpack(packed.getValue()));
+    }
+
+    @Test
+    @DisplayName("Con otras reglas, el mismo ADN debe usar otra clave y el detector con esas reglas")
+    void testCustomRulesAreOwnCacheKey() {
+        DetectionRules rules = mutantService.resolveRules(new DetectionRulesRequest(5, null, List.of("horizontal"), null));
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(recordStore.findRuleVerdict(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+        when(mutantDetector.isMutant(mutantDna, rules)).thenReturn(false);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        assertFalse(mutantService.analyzeDna(mutantDna, rules, null));
+
+        ArgumentCaptor<String> profileHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> ruleHash = ArgumentCaptor.forClass(String.class);
+        verify(recordStore).findMutantByHash(profileHash.capture());
+        verify(recordStore).findRuleVerdict(ruleHash.capture());
+        assertNotEquals(profileHash.getValue(), ruleHash.getValue());
+        verify(incrementalDetector, times(1)).supports(mutantDna);  // Solo la regla original pasa por el incremental
+
+        // El veredicto con reglas propias queda fuera de dna_records (y de /stats)
+        verify(recordStore, times(1)).insert(eq(profileHash.getValue()), eq(true), any(), any());
+        verify(recordStore).insertRuleVerdict(ruleHash.getValue(), false);
+    }
+
+    @Test
+    @DisplayName("Con reglas de perfil propias debe usar la misma clave que la regla original y guardar el ADN")
+    void testProfileRulesKeepKeyAndStorePackedDna() {
+        ReflectionTestUtils.setField(mutantService, "storePackedDna", true);
+        ReflectionTestUtils.setField(mutantService, "packedDnaMaxSize", 1000);
+        when(recordStore.findMutantByHash(anyString())).thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+        mutantService.analyzeDna(mutantDna);
+
+        DetectionRules profile = DetectionRules.DEFAULT.with(5, null, null, null);
+        ReflectionTestUtils.setField(mutantService, "detectionRules", profile);  // Cambio de perfil
+        when(mutantDetector.isMutant(mutantDna, profile)).thenReturn(false);
+        mutantService.analyzeDna(mutantDna);
+
+        ArgumentCaptor<String> hashes = ArgumentCaptor.forClass(String.class);
+        verify(recordStore, times(2)).findMutantByHash(hashes.capture());
+        assertEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(1));  // El registro sigue siendo el mismo
+        ArgumentCaptor<byte[]> packed = ArgumentCaptor.forClass(byte[].class);
+        verify(recordStore).insert(anyString(), eq(false), packed.capture(), isNull());
+        assertArrayEquals(mutantDna, PackedDnaFile.unpack(packed.getValue()));
+        verify(recordStore, never()).insertRuleVerdict(anyString(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar reglas inválidas en la solicitud")
+    void testRejectsInvalidRules() {
+        assertSame(DetectionRules.DEFAULT, mutantService.resolveRules(null));
+        assertThrows(InvalidDetectionRulesException.class,
+                () -> mutantService.resolveRules(new DetectionRulesRequest(1, null, null, null)));
+        assertThrows(InvalidDetectionRulesException.class,
+                () -> mutantService.resolveRules(new DetectionRulesRequest(null, null, List.of("arriba"), null)));
     }
 }
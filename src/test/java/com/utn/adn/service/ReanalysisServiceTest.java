@@ -0,0 +1,159 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.ReanalysisResponse;
+import com.utn.adn.event.DnaVerdictsChangedEvent;
+import com.utn.adn.exception.ReanalysisInProgressException;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class ReanalysisServiceTest {
+
+    private static final String[] MUTANT_DNA = {
+            "ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"
+    };
+    private static final String[] HUMAN_DNA = {
+            "ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"
+    };
+
+    private final DnaRecordJdbcRepository repository = mock(DnaRecordJdbcRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final Map<String, Boolean> updated = new ConcurrentHashMap<>();
+    private ReanalysisService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe corregir solo los veredictos que cambiaron y avisar a las caches")
+    void testUpdatesOnlyChangedVerdicts() throws Exception {
+        List<DnaRecordJdbcRepository.PackedRow> rows = List.of(
+                row("h1", true, MUTANT_DNA),    // Correcto
+                row("h2", false, MUTANT_DNA),   // Guardado como humano por error
+                row("h3", true, HUMAN_DNA),     // Guardado como mutante por error
+                row("h4", false, HUMAN_DNA));   // Correcto
+        givenRows(rows, null);
+        service = newService(0);
+
+        service.start();
+        ReanalysisResponse result = awaitFinished();
+
+        assertEquals("DONE", result.status());
+        assertEquals(4, result.total_rows());
+        assertEquals(4, result.rows_scanned());
+        assertEquals(2, result.verdicts_changed());
+        assertEquals(Map.of("h2", true, "h3", false), updated);
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(DnaVerdictsChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Un ADN ilegible debe contarse como fallido sin cortar la corrida")
+    void testCorruptRowIsCountedAsFailed() throws Exception {
+        givenRows(List.of(
+                new DnaRecordJdbcRepository.PackedRow("h1", true, new byte[] { 9, 9 }),
+                row("h2", false, MUTANT_DNA)), null);
+        service = newService(0);
+
+        service.start();
+        ReanalysisResponse result = awaitFinished();
+
+        assertEquals("DONE", result.status());
+        assertEquals(1, result.rows_failed());
+        assertEquals(Map.of("h2", true), updated);
+    }
+
+    @Test
+    @DisplayName("No debe permitir dos corridas a la vez y debe poder cancelarse")
+    void testSingleRunAndCancel() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        givenRows(List.of(row("h1", true, MUTANT_DNA), row("h2", true, MUTANT_DNA), row("h3", true, MUTANT_DNA)),
+                reading);
+        service = newService(2);  // 2 filas por segundo: la corrida tarda lo suficiente
+
+        service.start();
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        assertThrows(ReanalysisInProgressException.class, service::start);
+
+        service.cancel();
+        ReanalysisResponse result = awaitFinished();
+
+        assertEquals("CANCELLED", result.status());
+        assertTrue(result.rows_scanned() < 3);
+    }
+
+    @Test
+    @DisplayName("Al cambiar las reglas del perfil debe recalcular los veredictos con las reglas nuevas")
+    void testProfileChangeRecomputesWithNewRules() throws Exception {
+        // Guardados con la regla original; MUTANT_DNA tiene 3 secuencias de 4
+        givenRows(List.of(row("h1", true, MUTANT_DNA), row("h2", false, HUMAN_DNA)), null);
+        DetectionRules newProfile = DetectionRules.DEFAULT.with(null, 4, null, null);  // Ahora hacen falta 4
+        service = newService(newProfile, 0);
+
+        service.start();
+        ReanalysisResponse result = awaitFinished();
+
+        assertEquals("DONE", result.status());
+        assertEquals(Map.of("h1", false), updated);
+    }
+
+    private ReanalysisService newService(long maxRowsPerSecond) {
+        return newService(DetectionRules.DEFAULT, maxRowsPerSecond);
+    }
+
+    private ReanalysisService newService(DetectionRules rules, long maxRowsPerSecond) {
+        return new ReanalysisService(repository, new MutantDetector(), rules, eventPublisher, 2, 1, 10, maxRowsPerSecond);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRows(List<DnaRecordJdbcRepository.PackedRow> rows, CountDownLatch reading) {
+        when(repository.countPacked()).thenReturn((long) rows.size());
+        doAnswer(invocation -> {
+            Consumer<DnaRecordJdbcRepository.PackedRow> consumer = invocation.getArgument(1);
+            for (DnaRecordJdbcRepository.PackedRow row : rows) {
+                consumer.accept(row);
+                if (reading != null) {
+                    reading.countDown();
+                }
+            }
+            return null;
+        }).when(repository).forEachPacked(anyInt(), any(Consumer.class));
+        when(repository.updateVerdicts(anyMap())).thenAnswer(invocation -> {
+            Map<String, Boolean> verdicts = invocation.getArgument(0);
+            updated.putAll(verdicts);
+            return verdicts.size();
+        });
+    }
+
+    private ReanalysisResponse awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        ReanalysisResponse status = service.status();
+        while ("RUNNING".equals(status.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = service.status();
+        }
+        return status;
+    }
+
+    private static DnaRecordJdbcRepository.PackedRow row(String hash, boolean mutant, String[] dna) {
+        return new DnaRecordJdbcRepository.PackedRow(hash, mutant, PackedDnaFile.pack(dna));
+    }
+}
@@ -0,0 +1,106 @@
+package com.utn.adn.service;
+
+import com.utn.adn.exception.ExportLimitExceededException;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RecordExportServiceTest {
+
+    private static final Instant CREATED = Instant.parse("2025-03-01T10:15:30Z");
+
+    private final DnaRecordJdbcRepository repository = mock(DnaRecordJdbcRepository.class);
+    private final RecordExportService service = new RecordExportService(repository, 500, 1024, 1);
+
+    @Test
+    @DisplayName("Debe exportar en CSV con encabezado, una línea por registro")
+    void testCsv() throws IOException {
+        givenRows(List.of(
+                new DnaRecordJdbcRepository.Row("aa11", true, CREATED),
+                new DnaRecordJdbcRepository.Row("bb22", false, CREATED)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows;
+        try (RecordExportService.Export export = service.begin(RecordExportService.Format.CSV, null, null)) {
+            rows = export.writeTo(out);
+        }
+
+        assertEquals(2, rows);
+        assertEquals("""
+                dna_hash,is_mutant,created_at
+                aa11,true,2025-03-01T10:15:30Z
+                bb22,false,2025-03-01T10:15:30Z
+                """, out.toString(StandardCharsets.US_ASCII));
+        verify(repository).forEachCreatedBetween(isNull(), isNull(), eq(500), any());
+    }
+
+    @Test
+    @DisplayName("Debe exportar en NDJSON y pasar el rango de created_at al cursor")
+    void testNdjsonWithRange() throws IOException {
+        givenRows(List.of(new DnaRecordJdbcRepository.Row("aa11", true, CREATED)));
+        Instant from = Instant.parse("2025-03-01T00:00:00Z");
+        Instant to = Instant.parse("2025-03-02T00:00:00Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (RecordExportService.Export export = service.begin(RecordExportService.Format.of("NDJSON"), from, to)) {
+            export.writeTo(out);
+        }
+
+        assertEquals("{\"dna_hash\":\"aa11\",\"is_mutant\":true,\"created_at\":\"2025-03-01T10:15:30Z\"}\n",
+                out.toString(StandardCharsets.US_ASCII));
+        verify(repository).forEachCreatedBetween(eq(from), eq(to), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar formatos desconocidos, rangos vacíos y exportaciones de más")
+    void testValidationAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> RecordExportService.Format.of("xml"));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.begin(RecordExportService.Format.CSV, CREATED, CREATED));
+
+        RecordExportService.Export first = service.begin(RecordExportService.Format.CSV, null, null);
+        assertThrows(ExportLimitExceededException.class, () -> service.begin(RecordExportService.Format.CSV, null, null));
+        first.close();
+        service.begin(RecordExportService.Format.CSV, null, null).close();
+    }
+
+    @Test
+    @DisplayName("Si el cliente se desconecta debe cortar el cursor y propagar el error")
+    void testClientDisconnect() {
+        givenRows(List.of(
+                new DnaRecordJdbcRepository.Row("aa11", true, CREATED),
+                new DnaRecordJdbcRepository.Row("bb22", false, CREATED)));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        try (RecordExportService.Export export = service.begin(RecordExportService.Format.NDJSON, null, null)) {
+            assertThrows(IOException.class, () -> export.writeTo(broken));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRows(List<DnaRecordJdbcRepository.Row> rows) {
+        doAnswer(invocation -> {
+            Consumer<DnaRecordJdbcRepository.Row> consumer = invocation.getArgument(3);
+            rows.forEach(consumer);
+            return null;
+        }).when(repository).forEachCreatedBetween(any(), any(), anyInt(), any(Consumer.class));
+    }
+}
@@ -0,0 +1,164 @@
+package com.utn.adn.service;
+
+import com.utn.adn.dto.ImportResponse;
+import com.utn.adn.event.DnaRecordsImportedEvent;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class RecordImportServiceTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "C".repeat(64);
+    private static final Instant CREATED = Instant.parse("2025-03-01T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    private final DnaRecordJdbcRepository repository = mock(DnaRecordJdbcRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<DnaRecordJdbcRepository.Row> imported = Collections.synchronizedList(new ArrayList<>());
+    private RecordImportService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe importar CSV y NDJSON, contar los existentes y rechazar las líneas inválidas")
+    void testImport() throws Exception {
+        Files.writeString(directory.resolve("records.csv"), """
+                dna_hash,is_mutant,created_at
+                %s,true,2025-03-01T10:15:30Z\r
+                {"dna_hash":"%s","is_mutant":false,"created_at":"2025-03-01T10:15:30Z"}
+                %s,true,2025-03-01T10:15:30Z
+                xyz,true,2025-03-01T10:15:30Z
+                %s,maybe,2025-03-01T10:15:30Z
+
+                """.formatted(HASH_A, HASH_B, HASH_C, HASH_A), StandardCharsets.US_ASCII);
+        givenExisting(1);
+        service = new RecordImportService(repository, eventPublisher, directory.toString(), 2, 2);
+
+        ImportResponse started = service.start("records.csv");
+        ImportResponse result = awaitFinished();
+
+        assertEquals("RUNNING", started.status());
+        assertEquals("DONE", result.status());
+        assertEquals(3, result.rows_read());
+        assertEquals(2, result.rows_inserted());
+        assertEquals(1, result.rows_skipped());
+        assertEquals(2, result.rows_rejected());
+        assertEquals(result.total_bytes(), result.bytes_read());
+        assertEquals(List.of(
+                new DnaRecordJdbcRepository.Row(HASH_A, true, CREATED),
+                new DnaRecordJdbcRepository.Row(HASH_B, false, CREATED),
+                new DnaRecordJdbcRepository.Row(HASH_C.toLowerCase(), true, CREATED)), imported);
+        verify(repository, times(2)).importBatch(anyList());
+        verify(eventPublisher).publishEvent(new DnaRecordsImportedEvent(2));
+    }
+
+    @Test
+    @DisplayName("Los tramos del archivo deben cubrir cada línea exactamente una vez")
+    void testChunksCoverEveryLine() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            content.append("%064x,%s,2025-03-01T10:15:30Z\n".formatted(i, i % 2 == 0));
+        }
+        Path file = Files.writeString(directory.resolve("records.csv"), content, StandardCharsets.US_ASCII);
+        givenExisting(0);
+        service = new RecordImportService(repository, eventPublisher, directory.toString(), 1, 7);
+
+        // Cortes arbitrarios, incluidos algunos justo después de un salto de línea
+        long size = Files.size(file);
+        for (int chunks : new int[] {1, 2, 3, 7, 50, 97}) {
+            imported.clear();
+            RecordImportService.Run run = new RecordImportService.Run("records.csv", size);
+            for (int i = 0; i < chunks; i++) {
+                service.importChunk(run, file, size * i / chunks, size * (i + 1) / chunks);
+            }
+
+            assertEquals(50, imported.size(), "tramos: " + chunks);
+            assertEquals(50, imported.stream().map(DnaRecordJdbcRepository.Row::dnaHash).distinct().count());
+            assertEquals(size, run.toResponse().bytes_read());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe reintentar el lote si otra transacción insertó el mismo hash a la vez")
+    void testRetriesDuplicateKey() throws Exception {
+        Files.writeString(directory.resolve("records.csv"),
+                HASH_A + ",true,2025-03-01T10:15:30Z\n", StandardCharsets.US_ASCII);
+        when(repository.importBatch(anyList()))
+                .thenThrow(new DuplicateKeyException("carrera"))
+                .thenReturn(0);
+        service = new RecordImportService(repository, eventPublisher, directory.toString(), 1, 10);
+
+        service.start("records.csv");
+        ImportResponse result = awaitFinished();
+
+        assertEquals("DONE", result.status());
+        assertEquals(1, result.rows_skipped());
+        verify(repository, times(2)).importBatch(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar archivos fuera del directorio e importaciones sin directorio configurado")
+    void testResolve() throws Exception {
+        Files.writeString(directory.resolve("records.csv"), "", StandardCharsets.US_ASCII);
+        service = new RecordImportService(repository, eventPublisher, directory.toString(), 1, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.start("../records.csv"));
+        assertThrows(IllegalArgumentException.class, () -> service.start("missing.csv"));
+        assertEquals("IDLE", service.status().status());
+
+        RecordImportService disabled = new RecordImportService(repository, eventPublisher, "", 1, 10);
+        assertThrows(IllegalArgumentException.class, () -> disabled.start("records.csv"));
+        disabled.shutdown();
+    }
+
+    /**
+     * El repositorio simulado guarda lo importado; las primeras filas cuentan como existentes.
+     */
+    private void givenExisting(int existing) {
+        int[] remaining = {existing};
+        when(repository.importBatch(anyList())).thenAnswer(invocation -> {
+            List<DnaRecordJdbcRepository.Row> rows = invocation.getArgument(0);
+            imported.addAll(rows);
+            int skipped = Math.min(remaining[0], rows.size());
+            remaining[0] -= skipped;
+            return rows.size() - skipped;
+        });
+    }
+
+    private ImportResponse awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        ImportResponse status = service.status();
+        while ("RUNNING".equals(status.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = service.status();
+        }
+        return status;
+    }
+}
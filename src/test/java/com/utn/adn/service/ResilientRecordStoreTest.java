@@ -0,0 +1,179 @@
+package com.utn.adn.service;
+
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientRecordStoreTest {
+
+    @Mock
+    private DnaRecordJdbcRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResilientRecordStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Plazos de 50 ms, abre tras 2 fallos y prueba de nuevo a los 100 ms
+        store = new ResilientRecordStore(repository, meterRegistry, true, 50, 50, 2, 100, 2, 100, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe devolver el veredicto guardado cuando la base responde a tiempo")
+    void testLookupWithinDeadline() {
+        when(repository.findMutantByHash("h")).thenReturn(Optional.of(true));
+
+        assertEquals(Optional.of(true), store.findMutantByHash("h"));
+        assertEquals(ResilientRecordStore.State.CLOSED, store.getState());
+    }
+
+    @Test
+    @DisplayName("Una búsqueda vencida debe tratarse como no encontrada sin esperar a la base")
+    void testLookupTimeoutReturnsEmpty() {
+        when(repository.findMutantByHash("h")).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return Optional.of(true);
+        });
+
+        long start = System.nanoTime();
+        Optional<Boolean> result = store.findMutantByHash("h");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.isEmpty());
+        assertTrue(elapsedMs < 400, "La búsqueda esperó " + elapsedMs + " ms");
+        assertEquals(1.0, meterRegistry.counter("adn.db.timeouts", "stage", "lookup").count());
+    }
+
+    @Test
+    @DisplayName("El breaker debe abrir tras fallos seguidos y saltear la base")
+    void testBreakerOpensAndSkipsDatabase() {
+        when(repository.findMutantByHash(anyString())).thenThrow(new IllegalStateException("caída"));
+
+        store.findMutantByHash("a");
+        store.findMutantByHash("b");
+        assertEquals(ResilientRecordStore.State.OPEN, store.getState());
+
+        store.findMutantByHash("c");
+        store.insert("c", true, null, null);
+
+        verify(repository, times(2)).findMutantByHash(anyString());
+        verify(repository, never()).insert(anyString(), anyBoolean(), any(), any());
+        assertEquals(1, store.getDeferredCount());
+        assertEquals(1.0, meterRegistry.counter("adn.db.breaker.transitions", "to", "open").count());
+    }
+
+    @Test
+    @DisplayName("Debe cerrar el breaker y aplicar los guardados pendientes cuando la base se recupera")
+    void testRecoversAndFlushesDeferredWrites() throws Exception {
+        when(repository.insert(anyString(), anyBoolean(), any(), any()))
+                .thenThrow(new IllegalStateException("caída"))
+                .thenThrow(new IllegalStateException("caída"))
+                .thenReturn(true);
+
+        store.insert("a", true, null, null);
+        store.insert("b", false, new byte[] { 1 }, new int[] { 2 });
+        assertEquals(ResilientRecordStore.State.OPEN, store.getState());
+        assertEquals(2, store.getDeferredCount());
+
+        Thread.sleep(150);
+        store.flushDeferred();
+
+        assertEquals(ResilientRecordStore.State.CLOSED, store.getState());
+        assertEquals(0, store.getDeferredCount());
+        verify(repository, times(2)).insert("a", true, null, null);
+        verify(repository, times(2)).insert(eq("b"), eq(false), aryEq(new byte[] { 1 }), aryEq(new int[] { 2 }));
+    }
+
+    @Test
+    @DisplayName("Pasado el límite de bytes, debe encolar el guardado sin el ADN y conservar el veredicto")
+    void testDeferredPackedBytesAreBounded() throws Exception {
+        // Abre con el primer fallo; la cola retiene a lo sumo 2 bytes de ADN
+        ResilientRecordStore bounded = new ResilientRecordStore(repository, meterRegistry, true, 50, 50, 1, 100, 1, 100, 2);
+        when(repository.insert(anyString(), anyBoolean(), any(), any()))
+                .thenThrow(new IllegalStateException("caída"))
+                .thenReturn(true);
+        try {
+            bounded.insert("a", true, new byte[] { 1, 2 }, null);
+            bounded.insert("b", false, new byte[] { 3, 4 }, new int[] { 5 });
+
+            assertEquals(2, bounded.getDeferredCount());
+            assertEquals(2, bounded.getDeferredPackedBytes());
+            assertEquals(1.0, meterRegistry.counter("adn.db.deferred.packed.dropped").count());
+
+            Thread.sleep(150);
+            bounded.flushDeferred();
+
+            assertEquals(0, bounded.getDeferredCount());
+            assertEquals(0, bounded.getDeferredPackedBytes());
+            verify(repository, times(2)).insert(eq("a"), eq(true), aryEq(new byte[] { 1, 2 }), isNull());
+            verify(repository).insert(eq("b"), eq(false), isNull(), aryEq(new int[] { 5 }));
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Con el pool saturado debe dar un miss y encolar el guardado sin abrir el breaker")
+    void testSaturatedPoolDoesNotTripBreaker() throws Exception {
+        // Un hilo y 16 lugares en cola; el breaker abriría con el fallo número 18
+        ResilientRecordStore saturated = new ResilientRecordStore(repository, meterRegistry, true, 1, 1, 18, 100, 1, 100, 1024);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findMutantByHash(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+        try {
+            for (int i = 0; i < 17; i++) {
+                saturated.findMutantByHash("lenta-" + i);  // Vencen, pero siguen ocupando el pool
+            }
+
+            for (int i = 0; i < 5; i++) {
+                assertTrue(saturated.findMutantByHash("h").isEmpty());
+            }
+            saturated.insert("h", true, null, null);
+
+            assertEquals(ResilientRecordStore.State.CLOSED, saturated.getState());
+            assertEquals(1, saturated.getDeferredCount());
+            assertEquals(5.0, meterRegistry.counter("adn.db.rejected", "stage", "lookup").count());
+            assertEquals(1.0, meterRegistry.counter("adn.db.rejected", "stage", "save").count());
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deshabilitado, debe llamar a la base directamente")
+    void testDisabledPassThrough() {
+        ResilientRecordStore direct = new ResilientRecordStore(repository, meterRegistry, false, 50, 50, 2, 100, 1, 10, 1024);
+        when(repository.findMutantByHash("h")).thenReturn(Optional.of(false));
+
+        assertEquals(Optional.of(false), direct.findMutantByHash("h"));
+        direct.insert("h", false, null, null);
+
+        verify(repository).insert("h", false, null, null);
+        direct.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.utn.adn.service;
+
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    @Mock
+    private DnaRecordJdbcRepository dnaRecordRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Debe borrar por edad en lotes hasta que no queden registros vencidos")
+    void testPurgeByAgeInBatches() {
+        RetentionService retention = new RetentionService(dnaRecordRepository, eventPublisher, meterRegistry,
+                true, 24, 0, 2, 0);
+        when(dnaRecordRepository.findHashesCreatedBefore(any(Instant.class), anyInt()))
+                .thenReturn(List.of("h1", "h2"))
+                .thenReturn(List.of("h3"));
+        when(dnaRecordRepository.deleteByDnaHashIn(List.of("h1", "h2"))).thenReturn(2);
+        when(dnaRecordRepository.deleteByDnaHashIn(List.of("h3"))).thenReturn(1);
+
+        long deleted = retention.purge();
+
+        assertEquals(3, deleted);
+        verify(eventPublisher).publishEvent(new DnaRecordsPurgedEvent(List.of("h1", "h2")));
+        verify(eventPublisher).publishEvent(new DnaRecordsPurgedEvent(List.of("h3")));
+        assertEquals(3.0, meterRegistry.counter("adn.retention.purged").count());
+        assertEquals(2, meterRegistry.timer("adn.retention.batch").count());
+    }
+
+    @Test
+    @DisplayName("Debe borrar solo el excedente sobre la cantidad máxima de filas")
+    void testPurgeByMaxRowsDeletesOnlyExcess() {
+        RetentionService retention = new RetentionService(dnaRecordRepository, eventPublisher, meterRegistry,
+                true, 0, 10, 5, 0);
+        when(dnaRecordRepository.count()).thenReturn(13L);
+        when(dnaRecordRepository.findOldestHashes(anyInt()))
+                .thenReturn(List.of("h1", "h2", "h3", "h4", "h5"));
+        when(dnaRecordRepository.deleteByDnaHashIn(List.of("h1", "h2", "h3"))).thenReturn(3);
+
+        long deleted = retention.purge();
+
+        assertEquals(3, deleted);
+        verify(dnaRecordRepository, never()).findHashesCreatedBefore(any(), anyInt());
+        verify(eventPublisher).publishEvent(new DnaRecordsPurgedEvent(List.of("h1", "h2", "h3")));
+    }
+
+    @Test
+    @DisplayName("No debe borrar nada si la tabla está dentro del límite")
+    void testNothingToPurge() {
+        RetentionService retention = new RetentionService(dnaRecordRepository, eventPublisher, meterRegistry,
+                true, 0, 10, 5, 0);
+        when(dnaRecordRepository.count()).thenReturn(10L);
+
+        assertEquals(0, retention.purge());
+        verify(dnaRecordRepository, never()).deleteByDnaHashIn(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("El job programado no debe ejecutar nada si la retención está deshabilitada")
+    void testScheduledPurgeDisabled() {
+        RetentionService retention = new RetentionService(dnaRecordRepository, eventPublisher, meterRegistry,
+                false, 24, 10, 5, 0);
+
+        retention.scheduledPurge();
+
+        verifyNoInteractions(dnaRecordRepository, eventPublisher);
+    }
+}
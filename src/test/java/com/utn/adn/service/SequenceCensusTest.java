@@ -0,0 +1,87 @@
+package com.utn.adn.service;
+
+import com.utn.adn.service.SequenceCensus.Base;
+import com.utn.adn.service.SequenceCensus.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceCensusTest {
+
+    private final MutantDetector detector = new MutantDetector();
+
+    @Test
+    @DisplayName("Debe contar cada secuencia por base y dirección, sin cortar en la segunda")
+    void testCountsEveryRun() {
+        String[] dna = {
+                "ATGCGA",
+                "CAGTGC",
+                "TTATGT",
+                "AGAAGG",
+                "CCCCTA",
+                "TCACTG"
+        };
+
+        SequenceCensus census = detector.census(dna).orElseThrow();
+
+        assertEquals(1, census.runs(Base.C, Direction.HORIZONTAL));   // CCCC en la fila 4
+        assertEquals(1, census.runs(Base.G, Direction.VERTICAL));     // GGGG en la columna 4
+        assertEquals(1, census.runs(Base.A, Direction.DIAGONAL));     // AAAA desde (0,0)
+        assertEquals(3, census.total());
+        assertEquals(1, census.runs(Direction.VERTICAL));
+        assertEquals(1, census.runs(Base.A));
+        assertTrue(census.isMutant());
+    }
+
+    @Test
+    @DisplayName("Las secuencias solapadas y las minúsculas deben contarse igual que en MutantDetector")
+    void testOverlappingAndLowercase() {
+        String[] dna = {
+                "AAAAAT",
+                "CGTCGC",
+                "TGCATG",
+                "GTACtC",
+                "CATGtA",
+                "TCGAtG"
+        };
+
+        SequenceCensus census = detector.census(dna).orElseThrow();
+
+        assertEquals(2, census.runs(Base.A, Direction.HORIZONTAL));  // AAAAA = 2 secuencias
+        assertEquals(1, census.runs(Base.T, Direction.VERTICAL));    // T/t/t/t en la columna 4
+        assertTrue(census.isMutant());
+    }
+
+    @Test
+    @DisplayName("El veredicto del censo debe coincidir con isMutant en matrices al azar")
+    void testVerdictMatchesDetector() {
+        SplittableRandom random = new SplittableRandom(45);
+        for (int i = 0; i < 2_000; i++) {
+            int n = 4 + random.nextInt(9);
+            String[] dna = new String[n];
+            for (int r = 0; r < n; r++) {
+                StringBuilder row = new StringBuilder(n);
+                for (int c = 0; c < n; c++) {
+                    row.append("ATCG".charAt(random.nextInt(random.nextBoolean() ? 2 : 4)));
+                }
+                dna[r] = row.toString();
+            }
+
+            assertEquals(detector.isMutant(dna), detector.census(dna).orElseThrow().isMutant());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe guardarse y restaurarse como 16 conteos, y rechazar ADN inválido")
+    void testArrayRoundTripAndInvalidDna() {
+        SequenceCensus census = detector.census(new String[] {"AAAA", "CCCC", "GGGG", "TTTT"}).orElseThrow();
+
+        assertEquals(SequenceCensus.SIZE, census.toArray().length);
+        assertEquals(census, SequenceCensus.of(census.toArray()));
+        assertThrows(IllegalArgumentException.class, () -> SequenceCensus.of(new int[3]));
+        assertTrue(detector.census(new String[] {"ATG", "CAX", "TTA"}).isEmpty());
+    }
+}
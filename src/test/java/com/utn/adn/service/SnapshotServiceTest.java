@@ -0,0 +1,190 @@
+package com.utn.adn.service;
+
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotServiceTest {
+
+    @Mock
+    private DnaRecordJdbcRepository jdbcRepository;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Debe guardar y volver a cargar todos los registros en lotes paralelos")
+    void testSaveAndRestoreRoundTrip() {
+        List<DnaRecordJdbcRepository.StoredRow> rows = sampleRows(250);
+        stubRows(rows);
+        List<DnaRecordJdbcRepository.StoredRow> restored = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> restored.addAll(invocation.getArgument(0)))
+                .when(jdbcRepository).insertBatch(any());
+        when(jdbcRepository.count()).thenReturn(0L);
+
+        SnapshotService snapshots = snapshotService(dir.resolve("snap.bin"));
+
+        assertEquals(250, snapshots.save());
+        assertEquals(250, snapshots.restore());
+        assertEquals(new HashSet<>(rows), new HashSet<>(restored));
+        verify(jdbcRepository, times(3)).insertBatch(any());  // Lotes de 100, 100 y 50
+    }
+
+    @Test
+    @DisplayName("Debe conservar el ADN guardado y el censo de cada registro")
+    void testRoundTripKeepsPackedDnaAndCensus() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        int[] census = new MutantDetector().census(dna).orElseThrow().toArray();
+        List<DnaRecordJdbcRepository.StoredRow> rows = List.of(
+                new DnaRecordJdbcRepository.StoredRow("aa".repeat(32), true, Instant.ofEpochMilli(1),
+                        PackedDnaFile.pack(dna), census),
+                new DnaRecordJdbcRepository.StoredRow("bb".repeat(32), false, Instant.ofEpochMilli(2), null, null));
+        stubRows(rows);
+        List<DnaRecordJdbcRepository.StoredRow> restored = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> restored.addAll(invocation.getArgument(0)))
+                .when(jdbcRepository).insertBatch(any());
+        when(jdbcRepository.count()).thenReturn(0L);
+        SnapshotService snapshots = snapshotService(dir.resolve("snap.bin"));
+
+        assertEquals(2, snapshots.save());
+        assertEquals(2, snapshots.restore());
+
+        assertEquals(2, restored.size());
+        assertArrayEquals(dna, PackedDnaFile.unpack(restored.get(0).dnaPacked()));
+        assertArrayEquals(census, restored.get(0).census());
+        assertEquals("aa".repeat(32), restored.get(0).dnaHash());
+        assertNull(restored.get(1).dnaPacked());
+        assertNull(restored.get(1).census());
+    }
+
+    @Test
+    @DisplayName("Debe seguir cargando los snapshots de la versión 1, sin ADN guardado")
+    void testRestoresVersion1Snapshot() throws Exception {
+        Path file = dir.resolve("snap.bin");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x41444E53);
+        out.writeInt(1);
+        out.write(HexFormat.of().parseHex("cc".repeat(32)));
+        out.writeBoolean(true);
+        out.writeLong(42L);
+        out.writeLong(1);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        Files.write(file, bytes.toByteArray());
+
+        List<DnaRecordJdbcRepository.StoredRow> restored = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> restored.addAll(invocation.getArgument(0)))
+                .when(jdbcRepository).insertBatch(any());
+        when(jdbcRepository.count()).thenReturn(0L);
+
+        assertEquals(1, snapshotService(file).restore());
+        assertEquals(List.of(new DnaRecordJdbcRepository.StoredRow("cc".repeat(32), true, Instant.ofEpochMilli(42), null, null)),
+                restored);
+    }
+
+    @Test
+    @DisplayName("Un lote que falla debe reintentarse y, si vuelve a fallar, dejar la carga incompleta")
+    void testFailedBatchMarksRestoreIncomplete() throws Exception {
+        stubRows(sampleRows(250));
+        when(jdbcRepository.count()).thenReturn(0L);
+        Path file = dir.resolve("snap.bin");
+        SnapshotService snapshots = snapshotService(file);
+        snapshots.save();
+        byte[] saved = Files.readAllBytes(file);
+
+        doThrow(new IllegalStateException("lote"))  // El primer lote falla; los demás entran
+                .doNothing()
+                .when(jdbcRepository).insertBatch(any());
+        when(jdbcRepository.mergeBatch(any())).thenThrow(new IllegalStateException("reintento"));
+
+        assertEquals(150, snapshots.restore());
+        assertTrue(snapshots.isRestoreIncomplete());
+        verify(jdbcRepository, times(1)).mergeBatch(any());
+
+        // El snapshot completo no se reemplaza por el contenido parcial de la base
+        assertEquals(-1, snapshots.save());
+        assertArrayEquals(saved, Files.readAllBytes(file));
+    }
+
+    @Test
+    @DisplayName("Debe arrancar en frío si el snapshot está dañado")
+    void testCorruptSnapshotFallsBackToColdStart() throws Exception {
+        stubRows(sampleRows(10));
+        when(jdbcRepository.count()).thenReturn(0L);
+        Path file = dir.resolve("snap.bin");
+        SnapshotService snapshots = snapshotService(file);
+        snapshots.save();
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[20] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertEquals(0, snapshots.restore());
+        verify(jdbcRepository, never()).insertBatch(any());
+    }
+
+    @Test
+    @DisplayName("No debe cargar el snapshot si la tabla ya tiene registros")
+    void testSkipsRestoreWhenTableIsNotEmpty() {
+        stubRows(sampleRows(10));
+        when(jdbcRepository.count()).thenReturn(5L);
+        SnapshotService snapshots = snapshotService(dir.resolve("snap.bin"));
+        snapshots.save();
+
+        assertEquals(0, snapshots.restore());
+        verify(jdbcRepository, never()).insertBatch(any());
+    }
+
+    private SnapshotService snapshotService(Path file) {
+        return new SnapshotService(jdbcRepository, true, file.toString(), 2, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(List<DnaRecordJdbcRepository.StoredRow> rows) {
+        doAnswer(invocation -> {
+            Consumer<DnaRecordJdbcRepository.StoredRow> consumer = invocation.getArgument(1);
+            rows.forEach(consumer);
+            return null;
+        }).when(jdbcRepository).forEachStored(anyInt(), any(Consumer.class));
+    }
+
+    private static List<DnaRecordJdbcRepository.StoredRow> sampleRows(int count) {
+        List<DnaRecordJdbcRepository.StoredRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new DnaRecordJdbcRepository.StoredRow(
+                    DnaHasher.sha256Hex(new String[]{"ATGC", String.valueOf(i)}),
+                    i % 3 == 0,
+                    Instant.ofEpochMilli(1_700_000_000_000L + i),
+                    null, null));
+        }
+        return rows;
+    }
+}
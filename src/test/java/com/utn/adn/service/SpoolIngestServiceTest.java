@@ -0,0 +1,246 @@
+package com.utn.adn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class SpoolIngestServiceTest {
+
+    private static final String MUTANT = "\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"";
+    private static final String HUMAN = "ATGCGA,CAGTCC,TTATTT,AGACGG,GCGTCA,TCACTG";
+
+    @TempDir
+    Path directory;
+
+    private final MutantService mutantService = mock(MutantService.class);
+    private final MutantDetector detector = new MutantDetector();
+    private SpoolIngestService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(mutantService.resolveRules(any())).thenReturn(DetectionRules.DEFAULT);
+        when(mutantService.analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT)))
+                .thenAnswer(invocation -> detector.isMutant(invocation.<String[]>getArgument(0)));
+        service = new SpoolIngestService(mutantService, new ObjectMapper(), new SimpleMeterRegistry(),
+                directory.toString(), "a", 2, 2, 100);
+        service.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe analizar cada línea, escribir los resultados en orden y mover el archivo a done/")
+    void testProcessesFile() throws Exception {
+        Files.writeString(directory.resolve("batch.ndjson"), """
+                {"id": "m1", "dna": [%s]}
+
+                %s
+                {"dna": ["ATG", "CA"]}
+                {"dna": [
+                """.formatted(MUTANT, HUMAN), StandardCharsets.UTF_8);
+
+        assertEquals(1, service.scan());
+
+        assertEquals(List.of(
+                "{\"line\":1,\"id\":\"m1\",\"is_mutant\":true}",
+                "{\"line\":3,\"is_mutant\":false}",
+                "{\"line\":4,\"error\":\"ADN inválido\"}",
+                "{\"line\":5,\"error\":\"JSON inválido\"}"), results("batch.ndjson"));
+        assertTrue(Files.exists(directory.resolve(SpoolIngestService.DONE).resolve("batch.ndjson")));
+        assertFalse(Files.exists(directory.resolve("batch.ndjson")));
+        assertFalse(Files.exists(processing("a").resolve("batch.ndjson")));
+        verify(mutantService, times(2)).analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT));
+    }
+
+    @Test
+    @DisplayName("Al retomar un archivo interrumpido debe saltear las matrices que ya tienen resultado")
+    void testResumesInterruptedFile() throws Exception {
+        Path processing = processing("a");
+        Files.writeString(processing.resolve("batch.csv"), HUMAN + "\n" + HUMAN + "\n" + HUMAN + "\n");
+        // La caída cortó el segundo resultado a la mitad
+        Files.writeString(processing.resolve("batch.csv" + SpoolIngestService.RESULTS_SUFFIX + SpoolIngestService.PARTIAL_SUFFIX),
+                "{\"line\":1,\"is_mutant\":false}\n{\"line\":2,\"is_m");
+
+        service.recover();
+
+        assertEquals(List.of(
+                "{\"line\":1,\"is_mutant\":false}",
+                "{\"line\":2,\"is_mutant\":false}",
+                "{\"line\":3,\"is_mutant\":false}"), results("batch.csv"));
+        verify(mutantService, times(2)).analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT));
+    }
+
+    @Test
+    @DisplayName("Si los resultados ya se publicaron, al retomar solo debe mover el archivo original")
+    void testRecoversPublishedResults() throws Exception {
+        Files.writeString(processing("a").resolve("batch.csv"), HUMAN + "\n");
+        Files.writeString(directory.resolve(SpoolIngestService.DONE).resolve("batch.csv" + SpoolIngestService.RESULTS_SUFFIX),
+                "{\"line\":1,\"is_mutant\":false}\n");
+
+        service.recover();
+
+        assertTrue(Files.exists(directory.resolve(SpoolIngestService.DONE).resolve("batch.csv")));
+        verify(mutantService, never()).analyzeDna(any(String[].class), any(DetectionRules.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe ignorar los archivos temporales y reclamar cada archivo una sola vez")
+    void testClaim() throws Exception {
+        Files.writeString(directory.resolve(".hidden"), HUMAN);
+        Files.writeString(directory.resolve("batch.tmp"), HUMAN);
+        assertEquals(0, service.scan());
+
+        Path file = Files.writeString(directory.resolve("batch.csv"), HUMAN + "\n");
+        Path claimed = service.claim(file);
+        assertEquals(processing("a").resolve("batch.csv"), claimed);
+        assertNull(service.claim(file));  // Ya lo reclamó otro
+
+        // Un nombre repetido no pisa el archivo en curso
+        Path again = Files.writeString(directory.resolve("batch.csv"), HUMAN + "\n");
+        assertEquals(processing("a").resolve("1-batch.csv"), service.claim(again));
+    }
+
+    @Test
+    @DisplayName("Debe retomar los archivos propios y los de instancias caídas, pero no los de una instancia viva")
+    void testRecoversOnlyOwnAndOrphanedFiles() throws Exception {
+        Files.writeString(processing("a").resolve("own.csv"), HUMAN + "\n");
+        Path dead = Files.createDirectories(processing("b"));
+        Files.writeString(dead.resolve("orphan.csv"), HUMAN + "\n" + HUMAN + "\n");
+        Files.writeString(dead.resolve("orphan.csv" + SpoolIngestService.RESULTS_SUFFIX + SpoolIngestService.PARTIAL_SUFFIX),
+                "{\"line\":1,\"is_mutant\":false}\n");
+        Path live = Files.createDirectories(processing("c"));
+        Files.writeString(live.resolve("busy.csv"), HUMAN + "\n");
+
+        try (FileChannel lock = FileChannel.open(live.resolve(SpoolIngestService.LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            lock.lock();  // La instancia c sigue viva
+
+            service.recover();
+        }
+
+        assertEquals(List.of("{\"line\":1,\"is_mutant\":false}"), results("own.csv"));
+        assertEquals(List.of(
+                "{\"line\":1,\"is_mutant\":false}",
+                "{\"line\":2,\"is_mutant\":false}"), results("orphan.csv"));
+        assertFalse(Files.exists(dead.resolve("orphan.csv")));
+        assertTrue(Files.exists(live.resolve("busy.csv")));
+        verify(mutantService, times(2)).analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT));
+
+        // Dos instancias con el mismo id no pueden convivir
+        SpoolIngestService twin = new SpoolIngestService(mutantService, new ObjectMapper(), new SimpleMeterRegistry(),
+                directory.toString(), "a", 1, 1, 100);
+        assertThrows(IllegalStateException.class, twin::open);
+        twin.shutdown();
+    }
+
+    @Test
+    @DisplayName("Un apagado a mitad de archivo debe dejarlo en processing/ y retomarse en el próximo arranque")
+    void testShutdownMidFileIsResumed() throws Exception {
+        Path claimed = Files.writeString(processing("a").resolve("batch.csv"), (HUMAN + "\n").repeat(5));
+        AtomicInteger calls = new AtomicInteger();
+        Thread watcher = new Thread(() -> service.process(claimed));
+        when(mutantService.analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() == 3) {
+                        service.shutdown();
+                        watcher.interrupt();  // Como el shutdownNow del hilo que vigila el spool
+                    }
+                    return false;
+                });
+
+        watcher.start();
+        watcher.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(watcher.isAlive());
+        assertTrue(Files.exists(claimed));
+        assertFalse(Files.exists(directory.resolve(SpoolIngestService.FAILED).resolve("batch.csv")));
+        assertFalse(Files.exists(directory.resolve(SpoolIngestService.DONE).resolve("batch.csv")));
+
+        SpoolIngestService restarted = new SpoolIngestService(mutantService, new ObjectMapper(),
+                new SimpleMeterRegistry(), directory.toString(), "a", 2, 2, 100);
+        try {
+            restarted.open();
+            restarted.recover();
+        } finally {
+            restarted.shutdown();
+        }
+
+        assertEquals(List.of(
+                "{\"line\":1,\"is_mutant\":false}",
+                "{\"line\":2,\"is_mutant\":false}",
+                "{\"line\":3,\"is_mutant\":false}",
+                "{\"line\":4,\"is_mutant\":false}",
+                "{\"line\":5,\"is_mutant\":false}"), results("batch.csv"));
+        assertTrue(Files.exists(directory.resolve(SpoolIngestService.DONE).resolve("batch.csv")));
+    }
+
+    @Test
+    @DisplayName("Debe esperar admisión en MutantService con un solo análisis por línea")
+    void testWaitsForAdmission() throws Exception {
+        assertEquals("{\"line\":7,\"is_mutant\":false}", service.analyze(7, HUMAN));
+
+        // La espera y los reintentos de la reserva quedan en MutantService: el hash se calcula una vez
+        verify(mutantService).analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT));
+    }
+
+    @Test
+    @DisplayName("Una espera de admisión interrumpida debe cortar el archivo, no escribir un error")
+    void testInterruptedWaitStopsTheFile() {
+        when(mutantService.analyzeDna(any(String[].class), any(DetectionRules.class), isNull(),
+                eq(MutantService.Admission.WAIT)))
+                .thenThrow(new CancellationException("Análisis interrumpido mientras esperaba admisión"));
+
+        assertThrows(InterruptedException.class, () -> service.analyze(7, HUMAN));
+    }
+
+    @Test
+    @DisplayName("Debe procesar los archivos que llegan al directorio vigilado")
+    void testWatchesDirectory() throws Exception {
+        service.start();
+        Path temp = Files.writeString(directory.resolve("batch.tmp"), "{\"dna\": [" + MUTANT + "]}\n");
+        Files.move(temp, directory.resolve("batch.ndjson"));
+
+        Path results = directory.resolve(SpoolIngestService.DONE).resolve("batch.ndjson" + SpoolIngestService.RESULTS_SUFFIX);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(results) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of("{\"line\":1,\"is_mutant\":true}"), results("batch.ndjson"));
+    }
+
+    private Path processing(String instanceId) {
+        return directory.resolve(SpoolIngestService.PROCESSING).resolve(instanceId);
+    }
+
+    private List<String> results(String name) throws Exception {
+        return Files.readAllLines(directory.resolve(SpoolIngestService.DONE).resolve(name + SpoolIngestService.RESULTS_SUFFIX));
+    }
+}
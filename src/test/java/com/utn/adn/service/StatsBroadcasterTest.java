@@ -0,0 +1,158 @@
+package com.utn.adn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.adn.dto.StatsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsBroadcasterTest {
+
+    @Mock
+    private StatsService statsService;
+
+    private StatsBroadcaster newBroadcaster(int maxSubscribers) {
+        return new StatsBroadcaster(statsService, new ObjectMapper(), 60_000, maxSubscribers, 15_000, 1_000, 5_000, 2);
+    }
+
+    @Test
+    @DisplayName("Sin suscriptores, el tick no debe consultar estadísticas")
+    void testTickWithoutSubscribersDoesNothing() {
+        newBroadcaster(10).tick();
+
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    @DisplayName("Todos los suscriptores deben compartir una sola consulta por tick")
+    void testSingleQueryPerTickForAllSubscribers() {
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 2, 0.5));
+        StatsBroadcaster broadcaster = newBroadcaster(1_000);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(broadcaster.subscribe().isPresent());
+        }
+        verify(statsService, times(1)).getStats();  // El resto reutiliza el snapshot reciente
+
+        broadcaster.tick();
+
+        verify(statsService, times(2)).getStats();
+        assertEquals(100, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Una reconexión masiva concurrente debe hacer una sola consulta")
+    void testConcurrentSubscribersShareSnapshot() throws Exception {
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 2, 0.5));
+        StatsBroadcaster broadcaster = newBroadcaster(1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return broadcaster.subscribe();
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(statsService, times(1)).getStats();
+        assertEquals(200, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Un cliente trabado no debe frenar el tick y debe descartarse al vencer el envío")
+    void testStalledSubscriberIsDropped() throws Exception {
+        when(statsService.getStats())
+                .thenReturn(new StatsResponse(1, 2, 0.5))
+                .thenReturn(new StatsResponse(2, 2, 1.0));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        StatsBroadcaster broadcaster = new StatsBroadcaster(statsService, new ObjectMapper(), 60_000, 10, 15_000, 1_000, 50, 2) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter(60_000L) {
+                    @Override
+                    public void send(Set<DataWithMediaType> items) throws IOException {
+                        sending.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public void complete() {
+                        completed.countDown();
+                    }
+                };
+            }
+        };
+        try {
+            broadcaster.subscribe();
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            broadcaster.tick();  // No espera al envío trabado
+            assertEquals(1, broadcaster.getSubscriberCount());
+
+            Thread.sleep(100);
+            broadcaster.tick();
+            assertEquals(0, broadcaster.getSubscriberCount());
+
+            release.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar suscriptores por encima del máximo")
+    void testRejectsAboveMaxSubscribers() {
+        when(statsService.getStats()).thenReturn(new StatsResponse(0, 0, 0.0));
+        StatsBroadcaster broadcaster = newBroadcaster(2);
+
+        assertTrue(broadcaster.subscribe().isPresent());
+        assertTrue(broadcaster.subscribe().isPresent());
+        assertTrue(broadcaster.subscribe().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Al cerrar debe completar y soltar todas las conexiones")
+    void testShutdownCompletesSubscribers() {
+        when(statsService.getStats()).thenReturn(new StatsResponse(0, 0, 0.0));
+        StatsBroadcaster broadcaster = newBroadcaster(10);
+        broadcaster.subscribe();
+
+        broadcaster.shutdown();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+}
@@ -1,7 +1,11 @@
 package com.utn.adn.service;
 
+import com.utn.adn.dto.CensusStatsResponse;
 import com.utn.adn.dto.StatsResponse;
-import com.utn.adn.repository.DnaRecordRepository;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import com.utn.adn.repository.DnaRecordJdbcRepository.CensusCounts;
+import com.utn.adn.repository.DnaRecordJdbcRepository.CensusTotals;
+import com.utn.adn.repository.DnaRecordJdbcRepository.VerdictCounts;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +22,10 @@ import static org.mockito.Mockito.when;
 class StatsServiceTest {
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private DnaRecordJdbcRepository dnaRecordRepository;
+
+    @Mock
+    private ClusterService clusterService;
 
     @InjectMocks
     private StatsService statsService;
@@ -25,8 +34,7 @@ class StatsServiceTest {
     @DisplayName("Debe calcular estadísticas correctamente")
     void testGetStatsWithData() {
         // ARRANGE
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(40L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(100L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(40L, 100L));
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -40,8 +48,7 @@ class StatsServiceTest {
     @Test
     @DisplayName("Debe retornar ratio 1.0 cuando no hay humanos (solo mutantes)")
     void testGetStatsWithNoHumans() {
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(10L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(0L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(10L, 0L));
 
         StatsResponse stats = statsService.getStats();
 
@@ -53,8 +60,7 @@ class StatsServiceTest {
     @Test
     @DisplayName("Debe retornar ratio 0 cuando no hay datos")
     void testGetStatsWithNoData() {
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(0L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(0L, 0L));
 
         StatsResponse stats = statsService.getStats();
 
@@ -66,8 +72,7 @@ class StatsServiceTest {
     @Test
     @DisplayName("Debe calcular ratio con decimales correctamente")
     void testGetStatsWithDecimalRatio() {
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(1L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(3L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(1L, 3L));
 
         StatsResponse stats = statsService.getStats();
 
@@ -79,8 +84,7 @@ class StatsServiceTest {
     @Test
     @DisplayName("Debe retornar ratio 1.0 cuando hay igual cantidad")
     void testGetStatsWithEqualCounts() {
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(50L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(50L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(50L, 50L));
 
         StatsResponse stats = statsService.getStats();
 
@@ -92,8 +96,7 @@ class StatsServiceTest {
     @Test
     @DisplayName("Debe manejar grandes cantidades de datos")
     void testGetStatsWithLargeNumbers() {
-        when(dnaRecordRepository.countByMutant(true)).thenReturn(1_000_000L);
-        when(dnaRecordRepository.countByMutant(false)).thenReturn(2_000_000L);
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(1_000_000L, 2_000_000L));
 
         StatsResponse stats = statsService.getStats();
 
@@ -101,4 +104,49 @@ class StatsServiceTest {
         assertEquals(2_000_000, stats.count_human_dna());
         assertEquals(0.5, stats.ratio(), 0.001);  // 1M / 2M = 0.5
     }
+
+    @Test
+    @DisplayName("En modo cluster debe sumar los conteos de todos los nodos")
+    void testGetStatsMergesClusterPeers() {
+        when(dnaRecordRepository.countVerdicts()).thenReturn(new VerdictCounts(10L, 20L));
+        when(clusterService.isEnabled()).thenReturn(true);
+        when(clusterService.peerStats()).thenReturn(List.of(
+                new StatsResponse(5, 10, 0.5),
+                new StatsResponse(15, 10, 1.5)
+        ));
+
+        StatsResponse stats = statsService.getStats();
+
+        assertEquals(30, stats.count_mutant_dna());
+        assertEquals(40, stats.count_human_dna());
+        assertEquals(0.75, stats.ratio(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debe armar el desglose por dirección y base desde los censos sumados")
+    void testGetCensusStats() {
+        long[] mutantRuns = new long[SequenceCensus.SIZE];
+        mutantRuns[SequenceCensus.index(SequenceCensus.Base.A, SequenceCensus.Direction.VERTICAL)] = 5;
+        mutantRuns[SequenceCensus.index(SequenceCensus.Base.G, SequenceCensus.Direction.VERTICAL)] = 3;
+        mutantRuns[SequenceCensus.index(SequenceCensus.Base.A, SequenceCensus.Direction.HORIZONTAL)] = 2;
+        long[] humanRuns = new long[SequenceCensus.SIZE];
+        humanRuns[SequenceCensus.index(SequenceCensus.Base.C, SequenceCensus.Direction.DIAGONAL)] = 1;
+        when(dnaRecordRepository.sumCensus()).thenReturn(new CensusTotals(
+                new CensusCounts(4, mutantRuns, new long[] { 2, 3, 0, 0 }, new long[] { 4, 0, 0, 1 }),
+                new CensusCounts(10, humanRuns, new long[] { 0, 0, 1, 0 }, new long[] { 0, 0, 1, 0 })));
+
+        CensusStatsResponse census = statsService.getCensusStats();
+
+        assertEquals(4, census.mutants_with_census());
+        assertEquals(10, census.humans_with_census());
+        CensusStatsResponse.Breakdown vertical = census.by_direction().get(SequenceCensus.Direction.VERTICAL.ordinal());
+        assertEquals("VERTICAL", vertical.key());
+        assertEquals(8, vertical.mutant_runs());
+        assertEquals(3, vertical.mutants_with_runs());
+        assertEquals(0.75, vertical.mutant_share(), 0.001);
+        CensusStatsResponse.Breakdown a = census.by_base().get(SequenceCensus.Base.A.ordinal());
+        assertEquals(7, a.mutant_runs());
+        assertEquals(1.0, a.mutant_share(), 0.001);
+        assertEquals(1, census.by_base().get(SequenceCensus.Base.C.ordinal()).human_runs());
+    }
 }
@@ -0,0 +1,225 @@
+package com.utn.adn.service;
+
+import com.utn.adn.event.DnaRecordsPurgedEvent;
+import com.utn.adn.event.DnaVerdictsChangedEvent;
+import com.utn.adn.repository.DnaRecordJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class VerdictIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Debe guardar y recuperar veredicto y fecha, y no duplicar claves")
+    void testPutAndFind() {
+        VerdictIndex index = newIndex(null, 1024);
+        String hash = randomHash(new Random(1));
+
+        assertTrue(index.put(hash, true, 1234L));
+        assertFalse(index.put(hash, false, 99L));  // Ya existía: no se pisa
+
+        VerdictIndex.Verdict verdict = index.find(hash).orElseThrow();
+        assertTrue(verdict.mutant());
+        assertEquals(1234L, verdict.createdAtMillis());
+        assertTrue(index.find(randomHash(new Random(2))).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Los hashes purgados deben salir del índice y poder volver a agregarse")
+    void testRemoveAndReinsert() {
+        VerdictIndex index = newIndex(null, 1024);
+        String hash = randomHash(new Random(3));
+        index.put(hash, true, 1L);
+
+        index.onRecordsPurged(new DnaRecordsPurgedEvent(List.of(hash)));
+
+        assertTrue(index.find(hash).isEmpty());
+        assertEquals(0, index.size());
+        assertTrue(index.put(hash, false, 2L));
+        assertFalse(index.find(hash).orElseThrow().mutant());
+    }
+
+    @Test
+    @DisplayName("Un re-análisis debe cambiar el veredicto indexado sin tocar la fecha")
+    void testVerdictsChangedUpdatesInPlace() {
+        VerdictIndex index = newIndex(null, 1024);
+        String hash = randomHash(new Random(4));
+        index.put(hash, false, 77L);
+
+        index.onVerdictsChanged(new DnaVerdictsChangedEvent(Map.of(hash, true)));
+
+        VerdictIndex.Verdict verdict = index.find(hash).orElseThrow();
+        assertTrue(verdict.mutant());
+        assertEquals(77L, verdict.createdAtMillis());
+        assertFalse(index.updateVerdict(randomHash(new Random(5)), true));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Al crecer debe redimensionarse sin perder entradas")
+    void testResizeKeepsEntries() {
+        VerdictIndex index = newIndex(null, 1024);
+        List<String> hashes = randomHashes(10_000, 5);
+        for (int i = 0; i < hashes.size(); i++) {
+            index.put(hashes.get(i), i % 3 == 0, i);
+        }
+
+        assertTrue(index.capacity() > 1024);
+        assertEquals(hashes.size(), index.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            VerdictIndex.Verdict verdict = index.find(hashes.get(i)).orElseThrow();
+            assertEquals(i % 3 == 0, verdict.mutant());
+            assertEquals(i, verdict.createdAtMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Escrituras concurrentes de claves distintas no deben perder ninguna")
+    void testConcurrentPuts() throws Exception {
+        VerdictIndex index = newIndex(null, 1024);
+        List<String> hashes = randomHashes(40_000, 7);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = offset; i < hashes.size(); i += 4) {
+                        index.put(hashes.get(i), true, i);
+                        assertTrue(index.find(hashes.get(i)).isPresent());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(hashes.size(), index.size());
+        hashes.forEach(hash -> assertTrue(index.find(hash).isPresent()));
+    }
+
+    @Test
+    @DisplayName("Con archivo debe conservar los veredictos entre reinicios")
+    void testFileBackedIndexPersists() {
+        Path file = tempDir.resolve("verdicts.idx");
+        List<String> hashes = randomHashes(3_000, 9);
+
+        VerdictIndex first = newIndex(file, 1024);
+        for (String hash : hashes) {
+            first.put(hash, true, 42L);
+        }
+        first.close();
+
+        VerdictIndex reopened = newIndex(file, 1024);
+        assertEquals(hashes.size(), reopened.size());
+        hashes.forEach(hash -> assertEquals(42L, reopened.find(hash).orElseThrow().createdAtMillis()));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Debe cargarse desde dna_records y recién ahí responder por los hashes")
+    @SuppressWarnings("unchecked")
+    void testLoadFromRepository() {
+        DnaRecordJdbcRepository repository = mock(DnaRecordJdbcRepository.class);
+        String hash = randomHash(new Random(11));
+        doAnswer(invocation -> {
+            Consumer<DnaRecordJdbcRepository.Row> consumer = invocation.getArgument(1);
+            consumer.accept(new DnaRecordJdbcRepository.Row(hash, true, Instant.ofEpochMilli(5)));
+            return null;
+        }).when(repository).forEach(anyInt(), any(Consumer.class));
+        VerdictIndex index = new VerdictIndex(repository, new SimpleMeterRegistry(), true, "", 1024, 0.7, 100);
+
+        assertFalse(index.covers(hash));
+        assertEquals(1, index.load());
+
+        assertTrue(index.covers(hash));
+        assertFalse(index.covers("no-es-un-hash"));
+        assertTrue(index.find(hash).orElseThrow().mutant());
+    }
+
+    @Test
+    @DisplayName("Un archivo persistido debe conciliarse con dna_records al cargar")
+    @SuppressWarnings("unchecked")
+    void testLoadReconcilesPersistedFile() {
+        Path file = tempDir.resolve("verdicts.idx");
+        List<String> hashes = randomHashes(4, 13);
+        String changed = hashes.get(0), purged = hashes.get(1), gone = hashes.get(2), added = hashes.get(3);
+
+        VerdictIndex first = newIndex(file, 1024);
+        first.put(changed, false, 1L);
+        first.put(purged, true, 2L);
+        first.put(gone, false, 3L);
+        first.close();
+
+        // Mientras el nodo estaba caído: se re-analizó uno, se purgaron dos y llegó uno nuevo
+        DnaRecordJdbcRepository repository = mock(DnaRecordJdbcRepository.class);
+        doAnswer(invocation -> {
+            Consumer<DnaRecordJdbcRepository.Row> consumer = invocation.getArgument(1);
+            consumer.accept(new DnaRecordJdbcRepository.Row(changed, true, Instant.ofEpochMilli(1)));
+            consumer.accept(new DnaRecordJdbcRepository.Row(added, true, Instant.ofEpochMilli(4)));
+            return null;
+        }).when(repository).forEach(anyInt(), any(Consumer.class));
+        VerdictIndex reopened = new VerdictIndex(repository, new SimpleMeterRegistry(), true, file.toString(), 1024, 0.7, 100);
+
+        assertEquals(1, reopened.load());
+
+        assertEquals(2, reopened.size());
+        assertTrue(reopened.find(changed).orElseThrow().mutant());
+        assertEquals(1L, reopened.find(changed).orElseThrow().createdAtMillis());
+        assertTrue(reopened.find(added).isPresent());
+        assertTrue(reopened.covers(purged));            // Cubierto: la ausencia es un miss definitivo
+        assertTrue(reopened.find(purged).isEmpty());
+        assertTrue(reopened.find(gone).isEmpty());
+
+        // Las cargas siguientes (importaciones) solo agregan
+        assertEquals(0, reopened.load());
+        assertEquals(2, reopened.size());
+        reopened.close();
+    }
+
+    private VerdictIndex newIndex(Path file, long capacity) {
+        return new VerdictIndex(mock(DnaRecordJdbcRepository.class), new SimpleMeterRegistry(),
+                true, file == null ? "" : file.toString(), capacity, 0.7, 100);
+    }
+
+    private static List<String> randomHashes(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> hashes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hashes.add(randomHash(random));
+        }
+        return hashes;
+    }
+
+    private static String randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
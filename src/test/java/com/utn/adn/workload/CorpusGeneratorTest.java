@@ -0,0 +1,92 @@
+package com.utn.adn.workload;
+
+import com.utn.adn.service.DetectionProgress;
+import com.utn.adn.service.MutantDetector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusGeneratorTest {
+
+    private final MutantDetector detector = new MutantDetector();
+    private final CorpusGenerator generator = new CorpusGenerator(detector);
+
+    @Test
+    @DisplayName("Debe respetar tamaños y proporción de mutantes, con veredictos de la referencia")
+    void testSizesRatioAndLabels() {
+        Corpus corpus = generator.generate(new CorpusSpec(400, 0, 6, 20, 0.5, 0.2, -1, 0, 1, 0, 1L));
+
+        assertEquals(400, corpus.entries().size());
+        for (Corpus.Entry entry : corpus.entries()) {
+            assertTrue(entry.dna().length >= 6 && entry.dna().length <= 20);
+            assertEquals(detector.isMutant(entry.dna()), entry.mutant());
+        }
+        assertTrue(corpus.mutants() > 150 && corpus.mutants() < 250, "mutantes: " + corpus.mutants());
+    }
+
+    @Test
+    @DisplayName("La primera secuencia de los mutantes debe arrancar en la fila pedida")
+    void testFirstRunPosition() {
+        Corpus corpus = generator.generate(new CorpusSpec(50, 0, 12, 12, 1.0, 0, 1.0, 0, 1, 0, 2L));
+
+        for (Corpus.Entry entry : corpus.entries()) {
+            assertTrue(entry.mutant());
+            // Con la primera secuencia en la última fila posible (12 - 4), la salida temprana no corta antes
+            AtomicInteger rows = new AtomicInteger();
+            detector.isMutant(entry.dna(), DetectionProgress.reporting(rows::set));
+            assertEquals(9, rows.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Con Zipf las solicitudes deben concentrarse en pocas matrices, y el corpus ser reproducible")
+    void testZipfAndDeterminism() {
+        CorpusSpec spec = new CorpusSpec(200, 5_000, 6, 8, 0.5, 0, -1, 1.2, 4, 1, 3L);
+        Corpus corpus = generator.generate(spec);
+
+        Map<Integer, Integer> hits = new HashMap<>();
+        for (int request : corpus.requests()) {
+            hits.merge(request, 1, Integer::sum);
+        }
+        int top = hits.values().stream().max(Integer::compare).orElseThrow();
+        assertTrue(top > 5_000 / 20, "la matriz más pedida debería superar el 5%: " + top);
+        assertArrayEquals(corpus.requests(), generator.generate(spec).requests());
+    }
+
+    @Test
+    @DisplayName("Debe guardarse y leerse del archivo compacto sin cambios")
+    void testFileRoundTrip(@TempDir Path directory) throws IOException {
+        Corpus corpus = generator.generate(new CorpusSpec(30, 100, 4, 16, 0.5, 0.2, 0, 1.0, 3, 2, 4L));
+        Path file = directory.resolve("corpus.adnc");
+
+        CorpusFile.write(file, corpus);
+        Corpus read = CorpusFile.read(file);
+
+        assertArrayEquals(corpus.requests(), read.requests());
+        for (int i = 0; i < corpus.entries().size(); i++) {
+            assertArrayEquals(corpus.entries().get(i).dna(), read.entries().get(i).dna());
+            assertEquals(corpus.entries().get(i).mutant(), read.entries().get(i).mutant());
+            assertEquals(corpus.entries().get(i).family(), read.entries().get(i).family());
+        }
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> CorpusFile.read(file));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar parámetros inválidos")
+    void testInvalidSpec() {
+        assertThrows(IllegalArgumentException.class, () -> new CorpusSpec(10, 10, 3, 8, 0.5, 0, -1, 1, 1, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new CorpusSpec(10, 10, 6, 8, 1.5, 0, -1, 1, 1, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new CorpusSpec(10, 10, 6, 8, 0.5, 0, -1, 1, 0, 0, 1L));
+    }
+}
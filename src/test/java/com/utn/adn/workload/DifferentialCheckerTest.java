@@ -0,0 +1,48 @@
+package com.utn.adn.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifferentialCheckerTest {
+
+    private final Corpus corpus = new CorpusGenerator()
+            .generate(new CorpusSpec(300, 0, 4, 40, 0.5, 0.3, -1, 0, 4, 2, 46L));
+
+    @Test
+    @DisplayName("Todos los motores deben coincidir con MutantDetector sobre el corpus")
+    void testAllEnginesAgree() throws IOException {
+        List<DifferentialChecker.Result> results = new DifferentialChecker().check(corpus);
+
+        assertEquals(List.of("strategy:scalar", "strategy:bitboard", "strategy:parallel",
+                        "progress", "census", "kernel", "incremental", "mapped"),
+                results.stream().map(DifferentialChecker.Result::engine).toList());
+        for (DifferentialChecker.Result result : results) {
+            assertTrue(result.passed(), result.toString());
+            assertEquals(300, result.checked());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe reportar las discrepancias y errores de un motor incorrecto")
+    void testReportsMismatches() {
+        List<DifferentialChecker.Result> results = new DifferentialChecker().check(corpus, Map.of(
+                "siempre-humano", dna -> false,
+                "roto", dna -> { throw new IOException("sin disco"); }));
+
+        DifferentialChecker.Result humans = results.stream()
+                .filter(r -> r.engine().equals("siempre-humano")).findFirst().orElseThrow();
+        assertEquals(corpus.mutants(), humans.mismatches());
+        assertFalse(humans.samples().isEmpty());
+
+        DifferentialChecker.Result broken = results.stream()
+                .filter(r -> r.engine().equals("roto")).findFirst().orElseThrow();
+        assertEquals(300, broken.errors());
+        assertFalse(broken.passed());
+    }
+}
@@ -0,0 +1,59 @@
+package com.utn.adn.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayHarnessTest {
+
+    private final ReplayHarness harness = new ReplayHarness();
+    private final Corpus corpus = new CorpusGenerator()
+            .generate(new CorpusSpec(50, 1_000, 6, 10, 0.5, 0, -1, 1.0, 1, 0, 47L));
+
+    @Test
+    @DisplayName("Debe reproducir todas las solicitudes y no reportar discrepancias con un destino correcto")
+    void testReplayMatchesCorpus() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ReplayHarness.Report report = harness.replay(corpus, dna -> {
+            calls.incrementAndGet();
+            return expected(dna) ? ReplayHarness.Outcome.MUTANT : ReplayHarness.Outcome.HUMAN;
+        }, 4);
+
+        assertEquals(1_000, calls.get());
+        assertEquals(1_000, report.requests());
+        assertEquals(1_000, report.mutants() + report.humans());
+        assertEquals(0, report.mismatches());
+        assertTrue(report.p50Micros() <= report.p99Micros() && report.p99Micros() <= report.maxMicros());
+    }
+
+    @Test
+    @DisplayName("Debe contar rechazos, errores y discrepancias por separado")
+    void testCountsRejectedErrorsAndMismatches() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ReplayHarness.Report report = harness.replay(corpus, dna -> switch (calls.getAndIncrement() % 3) {
+            case 0 -> ReplayHarness.Outcome.REJECTED;
+            case 1 -> throw new IllegalStateException("HTTP 500");
+            default -> expected(dna) ? ReplayHarness.Outcome.HUMAN : ReplayHarness.Outcome.MUTANT;
+        }, 1);
+
+        assertEquals(334, report.rejected());
+        assertEquals(333, report.errors());
+        assertEquals(333, report.mismatches());
+        assertFalse(report.samples().isEmpty());
+    }
+
+    @Test
+    @DisplayName("El cuerpo HTTP debe ser el JSON de DnaRequest")
+    void testJsonBody() {
+        assertEquals("{\"dna\":[\"ATGC\",\"CAGT\"]}", ReplayHarness.json(new String[] {"ATGC", "CAGT"}));
+    }
+
+    private boolean expected(String[] dna) {
+        List<Corpus.Entry> entries = corpus.entries();
+        return entries.stream().filter(e -> e.dna() == dna).findFirst().orElseThrow().mutant();
+    }
+}